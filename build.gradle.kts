@@ -3,6 +3,7 @@ plugins {
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
     id("jacoco")
+    alias(libs.plugins.jmh)
 }
 
 configurations {
@@ -23,21 +24,94 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
     testImplementation(libs.spring.boot.starter.test)
+    jmhImplementation(libs.hdr.histogram)
 }
 
 // about source and compilation
+// virtual thread 모드(spring.threads.virtual.enabled)를 위해 Java 21 로 컴파일/실행
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
 }
 
 with(extensions.getByType(JacocoPluginExtension::class.java)) {
-    toolVersion = "0.8.7"
+    toolVersion = "0.8.11"
+}
+
+// benchmark tasks
+// ./gradlew jmh                                  : 전체 벤치마크 실행, 결과는 build/reports/jmh/results.json
+// ./gradlew jmh -Pjmh.includes=getId             : 이름이 일치하는 벤치마크만 실행
+// ./gradlew jmh -Pjmh.throttled=true             : 테이블 지연을 켜고 실행
+// ./gradlew jmh -Pjmh.workload=ZIPFIAN           : 부하 유형(SINGLE_USER, UNIFORM, ZIPFIAN) 지정
+// ./gradlew jmh -Pjmh.balanceMode=OPTIMISTIC     : 잔액 갱신 방식(PESSIMISTIC, OPTIMISTIC) 지정
+// ./gradlew jmh -Pjmh.balanceStore=HEAP          : 잔액 저장소(TABLE, HEAP, OFF_HEAP) 지정
+// ./gradlew jmh -Pjmh.historyStore=COLUMNAR      : 내역 저장소(TABLE, COLUMNAR) 지정
+// ./gradlew jmh -Pjmh.executionMode=COMBINING   : 실행 방식(LOCK, MAILBOX, COMBINING, PARTITIONED) 지정
+// ./gradlew partitionScaling                     : partition 수별 처리량 비교, 요청 스레드 수를 partition 수에 맞춤 (-Ppartition.counts=1,2,4,8,16)
+// ./gradlew jmh -Pjmh.includes=ThreadModelBenchmark : 동시 클라이언트 10,000 개의 충전을 platform thread 풀 / virtual thread 로 비교
+// ./gradlew balanceFootprint                     : 사용자 수별 잔액 저장 메모리 비교 (-Pfootprint.users=1000000,10000000)
+// ./gradlew historyFootprint                     : 사용자당 내역 수별 내역 저장 메모리 비교 (-Pfootprint.rows=1000000 -Pfootprint.rowsPerUser=1,10,100)
+// ./gradlew loadTest -Pload.rate=2000            : open model 부하 테스트, 지연 분포(p50/p99/p99.9) 출력 후 잔액/내역 검증
+//   -Pload.workload=SINGLE_USER -Pload.mix=45,45,10 -Pload.duration=30 -Pload.target=APPLICATION
+//   -Pload.point.admission.enabled=true            : '.' 이 들어간 이름은 APPLICATION 설정으로 전달
+jmh {
+    jmhVersion.set(libs.versions.jmh.asProvider())
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    findProperty("jmh.includes")?.let { includes.set(listOf(it.toString())) }
+    findProperty("jmh.throttled")?.let { benchmarkParameters.put("throttled", listProperty(it)) }
+    findProperty("jmh.workload")?.let { benchmarkParameters.put("workload", listProperty(it)) }
+    findProperty("jmh.balanceMode")?.let { benchmarkParameters.put("balanceMode", listProperty(it)) }
+    findProperty("jmh.balanceStore")?.let { benchmarkParameters.put("balanceStore", listProperty(it)) }
+    findProperty("jmh.historyStore")?.let { benchmarkParameters.put("historyStore", listProperty(it)) }
+    findProperty("jmh.executionMode")?.let { benchmarkParameters.put("executionMode", listProperty(it)) }
+    findProperty("jmh.partitionCount")?.let { benchmarkParameters.put("partitionCount", listProperty(it)) }
+}
+
+tasks.register<JavaExec>("balanceFootprint") {
+    group = "benchmark"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("io.hhplus.tdd.benchmark.BalanceStoreFootprint")
+    maxHeapSize = findProperty("footprint.heap")?.toString() ?: "8g"
+    jvmArgs("-XX:MaxDirectMemorySize=4g")
+    args((findProperty("footprint.users")?.toString() ?: "1000000,10000000,50000000").split(","))
+}
+
+tasks.register<JavaExec>("historyFootprint") {
+    group = "benchmark"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("io.hhplus.tdd.benchmark.HistoryStoreFootprint")
+    maxHeapSize = findProperty("footprint.heap")?.toString() ?: "4g"
+    args(listOf(findProperty("footprint.rows")?.toString() ?: "1000000") +
+            (findProperty("footprint.rowsPerUser")?.toString() ?: "1,10,100,1000").split(","))
+}
+
+tasks.register<JavaExec>("partitionScaling") {
+    group = "benchmark"
+    classpath = files(tasks.named("jmhJar"))
+    mainClass.set("io.hhplus.tdd.benchmark.PartitionScalingBenchmark")
+    args((findProperty("partition.counts")?.toString() ?: "1,2,4,8,16").split(","))
 }
 
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("io.hhplus.tdd.benchmark.PointLoadGenerator")
+    maxHeapSize = "2g"
+    args(project.properties
+        .filterKeys { it.startsWith("load.") }
+        .map { (key, value) -> "${key.removePrefix("load.")}=$value" })
+}
+
+fun listProperty(value: Any) = objects.listProperty(String::class.java).value(value.toString().split(","))
+
 // bundling tasks
 tasks.getByName("bootJar") {
     enabled = true
@@ -0,0 +1,66 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.database.PrimitiveBalanceStore;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * 사용자 수별 잔액 저장 메모리 비교 (./gradlew balanceFootprint)
+ * - table : UserPointTable 과 같은 HashMap&lt;Long, UserPoint&gt;
+ * - heap / off-heap : PrimitiveBalanceStore
+ * - 사용자를 모두 넣고 GC 를 돌린 뒤 늘어난 heap 사용량과 direct 메모리 사용량을 잰다.
+ * - 사용자 수는 인자로 받는다. (기본 1,000,000 / 10,000,000 / 50,000,000)
+ *   heap 이 모자란 경우는 OOM 으로 표시하고 다음 항목으로 넘어간다.
+ */
+public class BalanceStoreFootprint {
+
+    private static final long[] DEFAULT_USER_COUNTS = {1_000_000L, 10_000_000L, 50_000_000L};
+
+    public static void main(String[] args) {
+        long[] userCounts = args.length == 0 ? DEFAULT_USER_COUNTS : Footprints.parse(args);
+        System.out.printf("%-10s %14s %14s %14s %12s%n", "store", "users", "heap(MB)", "direct(MB)", "byte/user");
+        for (long userCount : userCounts) {
+            measure("table", userCount, BalanceStoreFootprint::fillHashMap);
+            measure("heap", userCount, users -> fill(PrimitiveBalanceStore.onHeap(users), users));
+            measure("off-heap", userCount, users -> fill(PrimitiveBalanceStore.offHeap(users), users));
+        }
+    }
+
+    private static void measure(String name, long userCount, LongFunction<Object> factory) {
+        long heapBefore = Footprints.usedHeap();
+        long directBefore = Footprints.usedDirect();
+        Object store;
+        try {
+            store = factory.apply(userCount);
+        } catch (OutOfMemoryError e) {
+            System.out.printf("%-10s %,14d %14s %14s %12s%n", name, userCount, "OOM", "-", "-");
+            return;
+        }
+        long heapBytes = Footprints.usedHeap() - heapBefore;
+        long directBytes = Footprints.usedDirect() - directBefore;
+        Reference.reachabilityFence(store);
+        System.out.printf("%-10s %,14d %,14.1f %,14.1f %12.1f%n", name, userCount,
+                heapBytes / 1024.0 / 1024.0, directBytes / 1024.0 / 1024.0,
+                (heapBytes + directBytes) / (double) userCount);
+    }
+
+    private static Map<Long, UserPoint> fillHashMap(long userCount) {
+        Map<Long, UserPoint> table = new HashMap<>();
+        for (long id = 1; id <= userCount; id++) {
+            table.put(id, new UserPoint(id, id, id));
+        }
+        return table;
+    }
+
+    private static BalanceStore fill(BalanceStore store, long userCount) {
+        for (long id = 1; id <= userCount; id++) {
+            store.put(id, id, id);
+        }
+        return store;
+    }
+}
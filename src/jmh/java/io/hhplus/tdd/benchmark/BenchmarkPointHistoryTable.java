@@ -0,0 +1,43 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 벤치마크용 PointHistoryTable
+ * - PointHistoryTable 은 변경하지 않고 공개 메소드만 재정의한다.
+ * - 조회는 IndexedPointHistoryStore 의 인덱스가 담당하므로 내역을 따로 보관하지 않고 id 만 발급한다.
+ *   (측정 중 수천만 건이 쌓여 메모리가 부족해지는 것을 막기 위함)
+ * - throttled 가 true 이면 원본 테이블과 같은 범위의 임의 지연을 준다.
+ */
+public class BenchmarkPointHistoryTable extends PointHistoryTable {
+
+    private final AtomicLong cursor = new AtomicLong(1);
+    private volatile boolean throttled;
+
+    public void setThrottled(boolean throttled) {
+        this.throttled = throttled;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        throttle(300);
+        return new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+    }
+
+    private void throttle(long millis) {
+        if (!throttled) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.balance.BalanceUpdater;
+import io.hhplus.tdd.balance.LockingBalanceUpdater;
+import io.hhplus.tdd.balance.OptimisticBalanceUpdater;
+import io.hhplus.tdd.balance.StoreBalanceUpdater;
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.database.ColumnarPointHistoryStore;
+import io.hhplus.tdd.database.IndexedPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.PrimitiveBalanceStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.execution.CombiningCommandExecutor;
+import io.hhplus.tdd.execution.LockingCommandExecutor;
+import io.hhplus.tdd.execution.MailboxCommandExecutor;
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.execution.PointCommandExecutor;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.point.PointService;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 벤치마크 / 부하 발생기가 함께 쓰는 PointService 구성
+ * - 지연을 켜고 끌 수 있는 테이블 위에 balanceMode / balanceStore / historyStore / executionMode 조합으로 서비스를 만든다.
+ * - 테이블은 지연 없이 시작한다. 초기 데이터를 넣은 뒤 setThrottled 로 켠다.
+ * - close 는 내역 기록기, 잔액 기록기(OPTIMISTIC), partition 스레드(PARTITIONED)를 종료한다.
+ *   executor 로 넘긴 풀은 만든 쪽에서 종료한다.
+ */
+final class BenchmarkPointService implements AutoCloseable {
+
+    private final BenchmarkUserPointTable userPointTable = new BenchmarkUserPointTable();
+    private final BenchmarkPointHistoryTable pointHistoryTable = new BenchmarkPointHistoryTable();
+    private final PointHistoryWriter pointHistoryWriter;
+    private final BalanceUpdater balanceUpdater;
+    private final PointCommandExecutor pointCommandExecutor;
+    private final PointService pointService;
+
+    BenchmarkPointService(BalanceUpdater.Mode balanceMode, BalanceStore.Type balanceStore,
+                          PointHistoryStore.Type historyStore, PointCommandExecutor.Mode executionMode,
+                          int userCount, Executor executor) {
+        PointHistoryStore pointHistoryStore = switch (historyStore) {
+            case TABLE -> new IndexedPointHistoryStore(pointHistoryTable);
+            case COLUMNAR -> new ColumnarPointHistoryStore();
+        };
+        pointHistoryWriter = new PointHistoryWriter(pointHistoryStore, 10_000, 100);
+        ReferenceCountingLockManager lockManager = new ReferenceCountingLockManager();
+        PointMetrics pointMetrics = new PointMetrics();
+        balanceUpdater = switch (balanceMode) {
+            case PESSIMISTIC -> switch (balanceStore) {
+                case TABLE -> new LockingBalanceUpdater(userPointTable, new UserPointCache(), pointMetrics);
+                case HEAP -> new StoreBalanceUpdater(PrimitiveBalanceStore.onHeap(userCount));
+                case OFF_HEAP -> new StoreBalanceUpdater(PrimitiveBalanceStore.offHeap(userCount));
+            };
+            case OPTIMISTIC -> new OptimisticBalanceUpdater(userPointTable, new UserPointCache(), lockManager, pointMetrics);
+        };
+        pointCommandExecutor = switch (executionMode) {
+            case LOCK -> new LockingCommandExecutor(executor);
+            case MAILBOX -> new MailboxCommandExecutor(executor);
+            case COMBINING -> new CombiningCommandExecutor(executor);
+            case PARTITIONED -> new PartitionedCommandExecutor(Runtime.getRuntime().availableProcessors());
+        };
+        pointService = new PointService(pointHistoryWriter, balanceUpdater, PointJournal.disabled(), lockManager,
+                pointCommandExecutor, pointMetrics);
+    }
+
+    PointService pointService() {
+        return pointService;
+    }
+
+    void setThrottled(boolean throttled) {
+        userPointTable.setThrottled(throttled);
+        pointHistoryTable.setThrottled(throttled);
+    }
+
+    @Override
+    public void close() {
+        if (pointCommandExecutor instanceof PartitionedCommandExecutor partitionedCommandExecutor) {
+            partitionedCommandExecutor.close();
+        }
+        pointHistoryWriter.close();
+        if (balanceUpdater instanceof OptimisticBalanceUpdater optimisticBalanceUpdater) {
+            optimisticBalanceUpdater.close();
+        }
+    }
+}
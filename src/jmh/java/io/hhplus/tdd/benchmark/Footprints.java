@@ -0,0 +1,39 @@
+package io.hhplus.tdd.benchmark;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 메모리 비교 도구(BalanceStoreFootprint, HistoryStoreFootprint) 공용 측정 / 인자 처리
+ */
+final class Footprints {
+
+    private Footprints() {
+    }
+
+    /**
+     * GC 를 몇 번 돌린 뒤의 heap 사용량. 정확한 값이 아니라 같은 JVM 안에서 전후 차이를 보는 용도
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    static long[] parse(String[] args) {
+        long[] values = new long[args.length];
+        for (int i = 0; i < args.length; i++) {
+            values[i] = Long.parseLong(args[i].replace("_", "").replace(",", ""));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,69 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.ColumnarPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryIndex;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * 사용자당 내역 수별 내역 저장 메모리 비교 (./gradlew historyFootprint)
+ * - table : 테이블 모드가 보관하는 것 (PointHistoryTable 의 ArrayList&lt;PointHistory&gt; + PointHistoryIndex)
+ * - columnar : ColumnarPointHistoryStore
+ * - 전체 내역 수는 고정하고 사용자당 내역 수만 바꿔, 사용자별 고정 비용이 몇 건부터 상쇄되는지 본다.
+ * - 인자 : 전체 내역 수, 사용자당 내역 수... (기본 1,000,000 / 1, 10, 100, 1000)
+ */
+public class HistoryStoreFootprint {
+
+    private static final long[] DEFAULT_ARGS = {1_000_000L, 1L, 10L, 100L, 1_000L};
+
+    public static void main(String[] args) {
+        long[] values = args.length == 0 ? DEFAULT_ARGS : Footprints.parse(args);
+        long rowCount = values[0];
+        System.out.printf("%-10s %12s %12s %12s %10s%n", "store", "rows", "rows/user", "heap(MB)", "byte/row");
+        for (int i = 1; i < values.length; i++) {
+            long rowsPerUser = values[i];
+            long userCount = Math.max(1, rowCount / rowsPerUser);
+            measure("table", rowCount, rowsPerUser, rows -> fillTable(rows, userCount));
+            measure("columnar", rowCount, rowsPerUser, rows -> fillColumnar(rows, userCount));
+        }
+    }
+
+    private static void measure(String name, long rowCount, long rowsPerUser, LongFunction<Object> factory) {
+        long heapBefore = Footprints.usedHeap();
+        Object store;
+        try {
+            store = factory.apply(rowCount);
+        } catch (OutOfMemoryError e) {
+            System.out.printf("%-10s %,12d %,12d %12s %10s%n", name, rowCount, rowsPerUser, "OOM", "-");
+            return;
+        }
+        long heapBytes = Footprints.usedHeap() - heapBefore;
+        Reference.reachabilityFence(store);
+        System.out.printf("%-10s %,12d %,12d %,12.1f %10.1f%n", name, rowCount, rowsPerUser,
+                heapBytes / 1024.0 / 1024.0, heapBytes / (double) rowCount);
+    }
+
+    private static Object fillTable(long rowCount, long userCount) {
+        List<PointHistory> table = new ArrayList<>();
+        PointHistoryIndex index = new PointHistoryIndex();
+        for (long i = 0; i < rowCount; i++) {
+            PointHistory pointHistory = new PointHistory(i + 1, i % userCount, 10, TransactionType.CHARGE, i);
+            table.add(pointHistory);
+            index.add(pointHistory);
+        }
+        return new Object[]{table, index};
+    }
+
+    private static Object fillColumnar(long rowCount, long userCount) {
+        ColumnarPointHistoryStore store = new ColumnarPointHistoryStore();
+        for (long i = 0; i < rowCount; i++) {
+            store.insert(i % userCount, 10, TransactionType.CHARGE, i);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,132 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.balance.PartitionedBalanceUpdater;
+import io.hhplus.tdd.database.PartitionedPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.PrimitiveBalanceStore;
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PARTITIONED 실행 방식의 partition 수별 충전/사용 처리량 벤치마크 (./gradlew partitionScaling -Ppartition.counts=1,2,4,8,16)
+ * - partitionCount 를 1 → 16 으로 늘렸을 때 처리량이 partition 수에 비례해 늘어나는지 본다.
+ *   partition 마다 스레드 하나를 쓰므로 코어가 partitionCount 개 이상인 장비에서 실행해야 한다.
+ * - 서비스 설정(point.execution.mode=partitioned)과 같은 구성으로 PointService 하나를 만든다.
+ *   잔액 저장소(heap 배열)와 내역 저장소(columnar)는 partition 마다 따로 두고, 내역은 partition 스레드가 바로 쓰며
+ *   사용자 lock 은 잡지 않는다. partition 끼리 공유하는 것은 요약 저장소와 요청 제한 / 멱등성 처리 정도다.
+ * - 요청 스레드는 partition 수만큼 두고(main 이 partition 수마다 threads 를 맞춰 실행), 비동기로 BATCH_SIZE 건씩 넘기고
+ *   모두 끝날 때까지 기다린다. ./gradlew jmh 로 실행하면 요청 스레드는 하나다.
+ * - 사용자는 전체에 고르게 분포(UNIFORM)하고, 충전과 사용을 번갈아 보내 잔액이 한도를 넘거나 부족해지지 않도록 한다.
+ * - 테이블처럼 blocking 하는 저장소와 함께 쓰면 명령 하나가 기다리는 동안 같은 partition 의 모든 사용자가 멈추므로
+ *   이 구성에서는 테이블을 쓰지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PartitionScalingBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long INITIAL_POINT = 500_000L;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int partitionCount;
+
+    @Param({"100000"})
+    public int userCount;
+
+    private PartitionedCommandExecutor pointCommandExecutor;
+    private PointHistoryWriter pointHistoryWriter;
+    private PointService pointService;
+
+    /**
+     * partition 수마다 요청 스레드 수를 같게 맞춰 실행하고 처리량을 표로 출력한다.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String[] counts = args.length > 0 ? args : new String[]{"1", "2", "4", "8", "16"};
+        Map<Integer, RunResult> results = new LinkedHashMap<>();
+        for (String count : counts) {
+            int partitions = Integer.parseInt(count.trim());
+            Options options = new OptionsBuilder()
+                    .include(PartitionScalingBenchmark.class.getName() + ".chargeAndUse")
+                    .param("partitionCount", String.valueOf(partitions))
+                    .threads(partitions)
+                    .build();
+            results.put(partitions, new Runner(options).runSingle());
+        }
+
+        System.out.printf("%n%-10s %8s %14s %14s %8s%n", "partitions", "threads", "ops/s", "error", "scale");
+        double base = results.values().iterator().next().getPrimaryResult().getScore();
+        results.forEach((partitions, result) -> System.out.printf("%-10d %8d %,14.0f %,14.0f %7.2fx%n",
+                partitions, partitions, result.getPrimaryResult().getScore(),
+                result.getPrimaryResult().getScoreError(), result.getPrimaryResult().getScore() / base));
+        System.out.printf("사용 가능한 코어 %d개%n", Runtime.getRuntime().availableProcessors());
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pointCommandExecutor = new PartitionedCommandExecutor(partitionCount);
+        pointHistoryWriter = PointHistoryWriter.inline(new PartitionedPointHistoryStore(partitionCount));
+        pointService = new PointService(pointHistoryWriter,
+                new PartitionedBalanceUpdater(partitionCount, partition -> PrimitiveBalanceStore.onHeap(userCount / partitionCount)),
+                PointJournal.disabled(), new ReferenceCountingLockManager(), pointCommandExecutor, new PointMetrics());
+
+        long now = System.currentTimeMillis();
+        for (long userId = 0; userId < userCount; userId++) {
+            pointService.chargePoint(userId, INITIAL_POINT, now);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        pointCommandExecutor.close();
+        pointHistoryWriter.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void chargeAndUse() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<UserPoint>[] futures = new CompletableFuture[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long userId = random.nextInt(userCount);
+            futures[i] = i % 2 == 0
+                    ? pointService.chargePointAsync(userId, 1L, now)
+                    : pointService.usePointAsync(userId, 1L, now);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
@@ -0,0 +1,77 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.ColumnarPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryIndex;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 내역 수가 늘어나도 한 사용자의 내역 조회 시간이 그 사용자의 내역 수(k)에만 비례하는지 확인
+ * - 대상 사용자의 내역 100건은 고정하고 다른 사용자 50,000명의 내역만 totalHistories 까지 늘린다.
+ * - store : TABLE_SCAN 은 원본 PointHistoryTable 처럼 전체 목록을 stream filter, INDEX 는 PointHistoryIndex,
+ *   COLUMNAR 는 ColumnarPointHistoryStore
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class PointHistoryLookupBenchmark {
+
+    private static final long TARGET_USER_ID = 0L;
+    private static final int TARGET_HISTORY_COUNT = 100;
+    private static final int OTHER_USERS = 50_000;
+
+    public enum Store { TABLE_SCAN, INDEX, COLUMNAR }
+
+    @Param({"10000", "100000", "1000000", "2000000"})
+    public int totalHistories;
+
+    @Param({"TABLE_SCAN", "INDEX", "COLUMNAR"})
+    public Store store;
+
+    private List<PointHistory> table;
+    private PointHistoryIndex index;
+    private ColumnarPointHistoryStore columnarStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new ArrayList<>();
+        index = new PointHistoryIndex();
+        columnarStore = new ColumnarPointHistoryStore();
+        for (int i = 0; i < totalHistories; i++) {
+            long userId = i < TARGET_HISTORY_COUNT ? TARGET_USER_ID : 1 + (i % OTHER_USERS);
+            switch (store) {
+                case TABLE_SCAN -> table.add(new PointHistory(i + 1, userId, 10, TransactionType.CHARGE, i));
+                case INDEX -> index.add(new PointHistory(i + 1, userId, 10, TransactionType.CHARGE, i));
+                case COLUMNAR -> columnarStore.insert(userId, 10, TransactionType.CHARGE, i);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<PointHistory> selectAllByUserId() {
+        return switch (store) {
+            case TABLE_SCAN -> table.stream().filter(pointHistory -> pointHistory.userId() == TARGET_USER_ID).toList();
+            case INDEX -> index.selectAllByUserId(TARGET_USER_ID);
+            case COLUMNAR -> columnarStore.selectAllByUserId(TARGET_USER_ID);
+        };
+    }
+}
@@ -0,0 +1,395 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.admission.AdmissionRejectedException;
+import io.hhplus.tdd.balance.BalanceUpdater;
+import io.hhplus.tdd.benchmark.PointServiceBenchmark.Workload;
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.database.PointHistoryStore;
+import io.hhplus.tdd.execution.PointCommandExecutor;
+import io.hhplus.tdd.point.PointService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * PointService 부하 발생기 (./gradlew loadTest -Pload.rate=2000 -Pload.workload=ZIPFIAN)
+ * - open model : 응답을 기다리지 않고 정해진 도착률(rate)로 요청을 보낸다. (arrival=POISSON 이면 지수 분포 간격)
+ *   지연은 요청을 보냈어야 할 시각부터 재므로, 처리가 밀려 작업 스레드를 기다린 시간도 포함된다. (coordinated omission 보정)
+ * - 사용자 분포 : workload=SINGLE_USER / UNIFORM / ZIPFIAN, 요청 비율 : mix=충전,사용,조회 (기본 45,45,10)
+ * - target=SERVICE 이면 벤치마크와 같은 BenchmarkPointService 로 서비스를 만들고
+ *   (throttled, balanceMode, balanceStore, historyStore, executionMode 지정) 끝나면 스레드와 기록기를 모두 종료한다.
+ *   APPLICATION 이면 TddApplication 을 웹 서버 없이 띄워 실제 설정대로 실행한다. (point.* 인자는 그대로 설정으로 전달)
+ * - warmup 과 측정 구간은 각자의 작업 스레드 풀에서 실행하고, 다음 구간으로 넘어가기 전에 남은 요청을 모두 처리한다.
+ *   측정 구간의 종류별 처리량과 p50 / p99 / p99.9 / max 만 HdrHistogram 으로 집계한다.
+ * - 측정 구간에서 요청을 보낸 사용자마다 잔액 = 처음 요청 직전 잔액 + 성공한 충전 합 - 성공한 사용 합,
+ *   측정 구간의 내역 수 = 성공한 충전/사용 수 인지 확인하고 어긋나면 exit code 1 로 끝난다.
+ *   (warmup 이나 이미 있던 잔액/내역은 검증에 섞이지 않는다. throttled=true 이면 밀린 내역이 모두 저장될 때까지 검증이 기다린다)
+ */
+public class PointLoadGenerator {
+
+    //지연은 µs 로 기록하고 최대 1시간까지 유효숫자 3자리로 구분
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final long MAX_BALANCE = 1_000_000L;
+    //target=SERVICE 에서 MAILBOX / COMBINING 이 명령을 실행할 풀 크기
+    private static final int SERVICE_POOL_THREADS = 64;
+
+    enum Target { SERVICE, APPLICATION }
+
+    enum Arrival { CONSTANT, POISSON }
+
+    enum Kind { CHARGE, USE, READ }
+
+    enum Outcome { SUCCESS, REJECTED, THROTTLED, ERROR }
+
+    private final LoadOptions options;
+    private final PointService pointService;
+    private final ZipfianGenerator zipfianGenerator;
+    private final Map<Kind, Recorder> recorders = new EnumMap<>(Kind.class);
+    private final Map<Kind, Map<Outcome, LongAdder>> outcomes = new EnumMap<>(Kind.class);
+    //사용자 ID -> 측정 구간에서 성공한 충전/사용으로 예상되는 잔액 변화와 내역 수
+    private final ConcurrentHashMap<Long, Expected> expected = new ConcurrentHashMap<>();
+    //warmup 이 끝난 시각. 측정 구간의 내역은 모두 이보다 뒤에 기록된다.
+    private volatile long warmupEndMillis;
+
+    PointLoadGenerator(LoadOptions options, PointService pointService) {
+        this.options = options;
+        this.pointService = pointService;
+        this.zipfianGenerator = options.workload() == Workload.ZIPFIAN ? new ZipfianGenerator(options.users(), 0.99) : null;
+        for (Kind kind : Kind.values()) {
+            recorders.put(kind, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            Map<Outcome, LongAdder> counts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counts.put(outcome, new LongAdder());
+            }
+            outcomes.put(kind, counts);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadOptions options = LoadOptions.parse(args);
+        System.out.println(options);
+        boolean consistent;
+        if (options.target() == Target.APPLICATION) {
+            SpringApplication application = new SpringApplication(TddApplication.class);
+            application.setWebApplicationType(WebApplicationType.NONE);
+            try (ConfigurableApplicationContext context = application.run(options.springArgs())) {
+                consistent = new PointLoadGenerator(options, context.getBean(PointService.class)).run();
+            }
+        } else {
+            ExecutorService pool = newPool(SERVICE_POOL_THREADS, "point-command");
+            try (BenchmarkPointService service = new BenchmarkPointService(options.balanceMode(), options.balanceStore(),
+                    options.historyStore(), options.executionMode(), options.users(), pool)) {
+                service.setThrottled(options.throttled());
+                consistent = new PointLoadGenerator(options, service.pointService()).run();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        System.exit(consistent ? 0 : 1);
+    }
+
+    /**
+     * warmup 과 측정 구간을 차례로 실행하고 결과를 출력한다. 잔액/내역이 맞으면 true
+     */
+    boolean run() throws InterruptedException {
+        runPhase(options.warmupSeconds());
+        //warmup 요청이 모두 끝난 뒤 집계를 비우고, 측정 구간의 내역과 시각이 겹치지 않도록 다음 ms 까지 기다린다.
+        for (Recorder recorder : recorders.values()) {
+            recorder.reset();
+        }
+        outcomes.values().forEach(counts -> counts.values().forEach(LongAdder::reset));
+        expected.clear();
+        warmupEndMillis = System.currentTimeMillis();
+        while (System.currentTimeMillis() <= warmupEndMillis) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        long start = System.nanoTime();
+        Phase phase = runPhase(options.durationSeconds());
+        long end = System.nanoTime();
+
+        report(phase.sent(), end - start, end - phase.backlogStart());
+        return verify();
+    }
+
+    /**
+     * 새 작업 스레드 풀로 seconds 동안 요청을 보내고, 풀에 남은 요청이 모두 끝날 때까지 기다린다.
+     */
+    private Phase runPhase(int seconds) throws InterruptedException {
+        ExecutorService workers = newPool(options.threads(), "load-worker");
+        long sent;
+        try {
+            sent = generate(workers, seconds);
+        } finally {
+            workers.shutdown();
+        }
+        long backlogStart = System.nanoTime();
+        if (!workers.awaitTermination(10, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("10분 안에 남은 요청을 처리하지 못했습니다.");
+        }
+        return new Phase(sent, backlogStart);
+    }
+
+    /**
+     * seconds 동안 rate 에 맞춰 요청을 작업 스레드에 넘긴다. 작업 스레드가 모자라면 queue 에 쌓인다.
+     */
+    private long generate(ExecutorService workers, int seconds) {
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        double offset = 0;
+        long sent = 0;
+        while (true) {
+            long intended = start + (long) offset;
+            if (intended - end >= 0) {
+                return sent;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            workers.execute(() -> execute(intended));
+            sent++;
+            offset += options.arrival() == Arrival.CONSTANT
+                    ? meanIntervalNanos
+                    : -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos;
+        }
+    }
+
+    private void execute(long intended) {
+        long userId = nextUserId();
+        Kind kind = nextKind();
+        Outcome outcome;
+        try {
+            switch (kind) {
+                case CHARGE -> {
+                    Expected tally = expected(userId);
+                    pointService.chargePoint(userId, options.chargeAmount(), System.currentTimeMillis());
+                    tally.add(options.chargeAmount());
+                }
+                case USE -> {
+                    Expected tally = expected(userId);
+                    pointService.usePoint(userId, options.useAmount(), System.currentTimeMillis());
+                    tally.add(-options.useAmount());
+                }
+                case READ -> pointService.getId(userId);
+            }
+            outcome = Outcome.SUCCESS;
+        } catch (AdmissionRejectedException e) {
+            outcome = Outcome.THROTTLED;
+        } catch (IllegalArgumentException e) {
+            outcome = Outcome.REJECTED;
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+        }
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+        recorders.get(kind).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+        outcomes.get(kind).get(outcome).increment();
+    }
+
+    private void report(long sent, long elapsedNanos, long backlogNanos) {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("%n요청 %,d건 / 목표 %,.0f/s, 처리 %,.0f/s (측정 %.1fs, 남은 요청 처리 %.1fs)%n",
+                sent, options.rate(), sent / seconds, seconds, backlogNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        System.out.printf("%-6s %10s %10s %10s %10s %8s %10s %10s %10s %10s%n",
+                "kind", "count", "success", "rejected", "throttled", "error", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        for (Kind kind : Kind.values()) {
+            Histogram histogram = recorders.get(kind).getIntervalHistogram();
+            total.add(histogram);
+            Map<Outcome, LongAdder> counts = outcomes.get(kind);
+            System.out.printf("%-6s %,10d %,10d %,10d %,10d %,8d %s%n", kind.name().toLowerCase(Locale.ROOT),
+                    histogram.getTotalCount(), counts.get(Outcome.SUCCESS).sum(), counts.get(Outcome.REJECTED).sum(),
+                    counts.get(Outcome.THROTTLED).sum(), counts.get(Outcome.ERROR).sum(), percentiles(histogram));
+        }
+        System.out.printf("%-6s %,10d %43s %s%n", "all", total.getTotalCount(), "", percentiles(total));
+    }
+
+    private static String percentiles(Histogram histogram) {
+        return String.format("%10.2f %10.2f %10.2f %10.2f",
+                histogram.getValueAtPercentile(50) / 1_000.0,
+                histogram.getValueAtPercentile(99) / 1_000.0,
+                histogram.getValueAtPercentile(99.9) / 1_000.0,
+                histogram.getMaxValue() / 1_000.0);
+    }
+
+    /**
+     * 측정 구간에 충전/사용을 보낸 사용자마다 잔액과 내역 수가 성공한 요청과 맞는지 확인한다.
+     */
+    private boolean verify() {
+        List<String> violations = new ArrayList<>();
+        expected.forEach((userId, tally) -> {
+            long point = pointService.getId(userId).point();
+            long histories = pointService.getPointHistory(userId).stream()
+                    .filter(history -> history.updateMillis() > warmupEndMillis)
+                    .count();
+            long expectedPoint = tally.baseline + tally.balance.sum();
+            if (point != expectedPoint || point < 0 || point > MAX_BALANCE) {
+                violations.add("사용자 " + userId + " 잔액 " + point + ", 예상 " + expectedPoint);
+            }
+            if (histories != tally.transactions.sum()) {
+                violations.add("사용자 " + userId + " 내역 " + histories + "건, 예상 " + tally.transactions.sum() + "건");
+            }
+        });
+        if (violations.isEmpty()) {
+            System.out.printf("%n검증 통과 - 사용자 %,d명의 잔액과 내역 수가 성공한 요청과 일치%n", expected.size());
+            return true;
+        }
+        System.out.printf("%n검증 실패 - %,d건%n", violations.size());
+        violations.stream().limit(20).forEach(System.out::println);
+        return false;
+    }
+
+    /**
+     * 측정 구간에서 처음 충전/사용을 보내는 사용자는 요청 전에 잔액을 읽어 기준으로 삼는다.
+     * 같은 사용자의 다른 요청은 기준을 읽을 때까지 기다리므로, 기준에는 측정 구간의 요청이 섞이지 않는다.
+     */
+    private Expected expected(long userId) {
+        Expected tally = expected.computeIfAbsent(userId, id -> new Expected());
+        tally.initialize(() -> pointService.getId(userId).point());
+        return tally;
+    }
+
+    private static ExecutorService newPool(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private long nextUserId() {
+        return switch (options.workload()) {
+            case SINGLE_USER -> 0L;
+            case UNIFORM -> ThreadLocalRandom.current().nextInt(options.users());
+            case ZIPFIAN -> zipfianGenerator.next();
+        };
+    }
+
+    private Kind nextKind() {
+        int[] mix = options.mix();
+        int value = ThreadLocalRandom.current().nextInt(mix[0] + mix[1] + mix[2]);
+        if (value < mix[0]) {
+            return Kind.CHARGE;
+        }
+        return value < mix[0] + mix[1] ? Kind.USE : Kind.READ;
+    }
+
+    private record Phase(long sent, long backlogStart) {
+    }
+
+    private static final class Expected {
+        private final LongAdder balance = new LongAdder();
+        private final LongAdder transactions = new LongAdder();
+        private volatile boolean initialized;
+        private long baseline;
+
+        void initialize(LongSupplier currentBalance) {
+            if (initialized) {
+                return;
+            }
+            synchronized (this) {
+                if (!initialized) {
+                    baseline = currentBalance.getAsLong();
+                    initialized = true;
+                }
+            }
+        }
+
+        void add(long amount) {
+            balance.add(amount);
+            transactions.increment();
+        }
+    }
+
+    /**
+     * key=value 인자. 이름에 '.' 이 있는 인자(point.admission.enabled=true 등)는 APPLICATION 설정으로 넘긴다.
+     */
+    record LoadOptions(
+            Target target,
+            double rate,
+            int durationSeconds,
+            int warmupSeconds,
+            int threads,
+            Arrival arrival,
+            Workload workload,
+            int users,
+            int[] mix,
+            long chargeAmount,
+            long useAmount,
+            boolean throttled,
+            BalanceUpdater.Mode balanceMode,
+            BalanceStore.Type balanceStore,
+            PointHistoryStore.Type historyStore,
+            PointCommandExecutor.Mode executionMode,
+            String[] springArgs
+    ) {
+
+        static LoadOptions parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            List<String> springArgs = new ArrayList<>();
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("key=value 형식이 아닌 인자입니다: " + arg);
+                }
+                String key = arg.substring(0, separator);
+                if (key.contains(".")) {
+                    springArgs.add("--" + arg);
+                } else {
+                    values.put(key, arg.substring(separator + 1));
+                }
+            }
+            String[] mix = values.getOrDefault("mix", "45,45,10").split(",");
+            if (mix.length != 3) {
+                throw new IllegalArgumentException("mix 는 충전,사용,조회 비율 3개입니다: " + values.get("mix"));
+            }
+            return new LoadOptions(
+                    Target.valueOf(values.getOrDefault("target", "SERVICE").toUpperCase(Locale.ROOT)),
+                    Double.parseDouble(values.getOrDefault("rate", "1000")),
+                    Integer.parseInt(values.getOrDefault("duration", "30")),
+                    Integer.parseInt(values.getOrDefault("warmup", "5")),
+                    Integer.parseInt(values.getOrDefault("threads", "200")),
+                    Arrival.valueOf(values.getOrDefault("arrival", "POISSON").toUpperCase(Locale.ROOT)),
+                    Workload.valueOf(values.getOrDefault("workload", "ZIPFIAN").toUpperCase(Locale.ROOT)),
+                    Integer.parseInt(values.getOrDefault("users", "10000")),
+                    new int[]{Integer.parseInt(mix[0].trim()), Integer.parseInt(mix[1].trim()), Integer.parseInt(mix[2].trim())},
+                    Long.parseLong(values.getOrDefault("chargeAmount", "100")),
+                    Long.parseLong(values.getOrDefault("useAmount", "50")),
+                    Boolean.parseBoolean(values.getOrDefault("throttled", "false")),
+                    BalanceUpdater.Mode.valueOf(values.getOrDefault("balanceMode", "PESSIMISTIC").toUpperCase(Locale.ROOT)),
+                    BalanceStore.Type.valueOf(values.getOrDefault("balanceStore", "TABLE").toUpperCase(Locale.ROOT)),
+                    PointHistoryStore.Type.valueOf(values.getOrDefault("historyStore", "TABLE").toUpperCase(Locale.ROOT)),
+                    PointCommandExecutor.Mode.valueOf(values.getOrDefault("executionMode", "LOCK").toUpperCase(Locale.ROOT)),
+                    springArgs.toArray(String[]::new)
+            );
+        }
+
+        @Override
+        public String toString() {
+            return String.format("target=%s rate=%.0f/s duration=%ds warmup=%ds threads=%d arrival=%s workload=%s users=%d "
+                            + "mix=%d,%d,%d throttled=%s balanceMode=%s balanceStore=%s historyStore=%s executionMode=%s spring=%s",
+                    target, rate, durationSeconds, warmupSeconds, threads, arrival, workload, users,
+                    mix[0], mix[1], mix[2], throttled, balanceMode, balanceStore, historyStore, executionMode,
+                    String.join(" ", springArgs));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.balance.BalanceUpdater;
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.database.PointHistoryStore;
+import io.hhplus.tdd.execution.PointCommandExecutor;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointService 충전/사용/조회 처리량 벤치마크
+ * - workload : SINGLE_USER(한 사용자에 모든 요청 집중), UNIFORM(전체 사용자에 고르게), ZIPFIAN(소수 사용자에 요청 집중)
+ * - throttled : false 이면 테이블 지연 없이 서비스 자체의 오버헤드만 측정, true 이면 원본 테이블과 같은 지연
+ * - balanceMode : PESSIMISTIC(사용자 lock) / OPTIMISTIC(캐시 version CAS + 테이블 write-behind) 잔액 갱신 방식 비교
+ * - balanceStore : PESSIMISTIC 모드의 잔액 저장 위치 TABLE / HEAP / OFF_HEAP (OPTIMISTIC 모드는 항상 TABLE)
+ * - historyStore : 내역 저장 위치 TABLE(테이블 + 인덱스) / COLUMNAR(사용자별 primitive 배열)
+ * - executionMode : LOCK(요청마다 lock) / MAILBOX(사용자별 순차 실행) / COMBINING(lock 을 잡은 스레드가 대기 요청을 모아 처리)
+ *   / PARTITIONED(코어 수만큼의 partition 스레드가 실행)
+ *   UNIFORM 이 경합이 적은 부하, SINGLE_USER / ZIPFIAN 이 경합이 많은 부하
+ * - 충전과 사용은 같은 수의 스레드로 함께 실행해 잔액이 한도를 넘거나 부족해지지 않도록 한다.
+ * - 내역이 계속 쌓이므로 iteration 마다 서비스를 새로 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PointServiceBenchmark {
+
+    private static final long INITIAL_POINT = 500_000L;
+    private static final int HISTORIES_PER_USER = 10;
+
+    public enum Workload { SINGLE_USER, UNIFORM, ZIPFIAN }
+
+    @Param({"SINGLE_USER", "UNIFORM", "ZIPFIAN"})
+    public Workload workload;
+
+    @Param({"10000"})
+    public int userCount;
+
+    @Param({"false"})
+    public boolean throttled;
+
+    @Param({"PESSIMISTIC", "OPTIMISTIC"})
+    public BalanceUpdater.Mode balanceMode;
+
+    @Param({"TABLE"})
+    public BalanceStore.Type balanceStore;
+
+    @Param({"TABLE"})
+    public PointHistoryStore.Type historyStore;
+
+    @Param({"LOCK"})
+    public PointCommandExecutor.Mode executionMode;
+
+    private BenchmarkPointService service;
+    private PointService pointService;
+    private ZipfianGenerator zipfianGenerator;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        zipfianGenerator = new ZipfianGenerator(userCount, 0.99);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new BenchmarkPointService(balanceMode, balanceStore, historyStore, executionMode, userCount,
+                ForkJoinPool.commonPool());
+        pointService = service.pointService();
+
+        //초기 잔액과 조회용 내역은 지연 없이 준비한 뒤 측정할 때만 지연을 켠다.
+        long now = System.currentTimeMillis();
+        int seededUsers = workload == Workload.SINGLE_USER ? 1 : userCount;
+        for (long userId = 0; userId < seededUsers; userId++) {
+            for (int i = 0; i < HISTORIES_PER_USER; i++) {
+                pointService.chargePoint(userId, INITIAL_POINT / HISTORIES_PER_USER, now);
+            }
+        }
+        pointService.getPointHistory(0L);
+        service.setThrottled(throttled);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    @Group("chargeAndUse")
+    @GroupThreads(4)
+    public UserPoint chargePoint() {
+        return pointService.chargePoint(nextUserId(), 1L, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Group("chargeAndUse")
+    @GroupThreads(4)
+    public UserPoint usePoint() {
+        return pointService.usePoint(nextUserId(), 1L, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint getId() {
+        return pointService.getId(nextUserId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public List<PointHistory> getPointHistory() {
+        return pointService.getPointHistory(nextUserId());
+    }
+
+    private long nextUserId() {
+        return switch (workload) {
+            case SINGLE_USER -> 0L;
+            case UNIFORM -> ThreadLocalRandom.current().nextInt(userCount);
+            case ZIPFIAN -> zipfianGenerator.next();
+        };
+    }
+}
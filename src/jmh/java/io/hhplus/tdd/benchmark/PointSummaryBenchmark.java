@@ -0,0 +1,51 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.summary.PointSummaryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 사용자의 거래 수가 늘어나도 요약 조회 시간이 일정한지 확인
+ * - 거래는 1초 간격으로 과거 방향으로 historySize 건 기록한다. (일별/월별 bucket 이 모두 채워지도록)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class PointSummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int historySize;
+
+    private PointSummaryStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new PointSummaryStore();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < historySize; i++) {
+            store.record(1L, TransactionType.CHARGE, 1, now - i * 1_000L);
+        }
+    }
+
+    @Benchmark
+    public PointSummary get() {
+        return store.get(1L);
+    }
+}
@@ -0,0 +1,94 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.IndexedPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.execution.ExecutionConfig;
+import io.hhplus.tdd.execution.LockingCommandExecutor;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.point.PointService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 클라이언트 clientCount 개가 충전 요청을 한 번씩 보내고 모두 끝날 때까지의 시간 (platform thread 풀 vs virtual thread)
+ * - PLATFORM 은 Tomcat 기본 최대 스레드 수(200) 크기의 고정 풀, VIRTUAL 은 요청마다 virtual thread
+ *   둘 다 ExecutionConfig.pointExecutor 가 만드는 실행기를 그대로 사용한다.
+ * - 테이블 지연(원본과 같은 범위)을 켜 요청 대부분이 I/O 대기인 상황을 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ThreadModelBenchmark {
+
+    public enum ThreadModel { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadModel threadModel;
+
+    @Param({"10000"})
+    public int clientCount;
+
+    @Param({"1000"})
+    public int userCount;
+
+    private Executor clientExecutor;
+    private PointService pointService;
+    private PointHistoryWriter pointHistoryWriter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        clientExecutor = new ExecutionConfig().pointExecutor(threadModel == ThreadModel.VIRTUAL, 200);
+        BenchmarkUserPointTable userPointTable = new BenchmarkUserPointTable();
+        userPointTable.setThrottled(true);
+        //내역 queue 가 가득 차 요청이 막히지 않도록 클라이언트 수보다 크게 잡음
+        pointHistoryWriter = new PointHistoryWriter(new IndexedPointHistoryStore(new BenchmarkPointHistoryTable()),
+                clientCount * 2, 100);
+        pointService = new PointService(userPointTable, pointHistoryWriter, new UserPointCache(),
+                new ReferenceCountingLockManager(), new LockingCommandExecutor(clientExecutor));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        pointHistoryWriter.close();
+        if (clientExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void concurrentCharges() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(clientCount);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < clientCount; i++) {
+            long userId = i % userCount;
+            clientExecutor.execute(() -> {
+                try {
+                    pointService.chargePoint(userId, 10L, now);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+    }
+}
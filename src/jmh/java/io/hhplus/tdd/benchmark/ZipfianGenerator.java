@@ -0,0 +1,42 @@
+package io.hhplus.tdd.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf 분포로 0 ~ (itemCount - 1) 사이의 값을 뽑는다. 작은 값일수록 자주 뽑힌다. (hot key 부하)
+ * - 누적 확률 배열을 미리 만들어 두고 이진 탐색으로 뽑는다. O(log n)
+ */
+public class ZipfianGenerator {
+
+    private final double[] cumulative;
+
+    public ZipfianGenerator(int itemCount, double exponent) {
+        if (itemCount <= 0) {
+            throw new IllegalArgumentException("항목 수는 0보다 커야 합니다.");
+        }
+        cumulative = new double[itemCount];
+        double sum = 0;
+        for (int rank = 0; rank < itemCount; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < itemCount; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int next() {
+        double value = ThreadLocalRandom.current().nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -1,10 +1,21 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.admission.AdmissionRejectedException;
+import io.hhplus.tdd.balance.BalanceConflictException;
+import io.hhplus.tdd.database.PointHistoryBacklogException;
+import io.hhplus.tdd.idempotency.IdempotencyCacheFullException;
+import io.hhplus.tdd.idempotency.IdempotencyTimeoutException;
+import io.hhplus.tdd.point.PointCommandExpiredException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @RestControllerAdvice
 class ApiControllerAdvice extends ResponseEntityExceptionHandler {
     @ExceptionHandler(value = IllegalArgumentException.class)
@@ -12,6 +23,44 @@ class ApiControllerAdvice extends ResponseEntityExceptionHandler {
         return ResponseEntity.badRequest()
                 .body(new ErrorResponse("400", e.getMessage()));
     }
+    @ExceptionHandler(value = AdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleAdmissionRejectedException(AdmissionRejectedException e) {
+        //Retry-After 는 초 단위 (올림, 최소 1초)
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponse("429", e.getMessage()));
+    }
+    @ExceptionHandler(value = TimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleTimeoutException(TimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("503", "요청 처리 시간이 초과되었습니다."));
+    }
+    @ExceptionHandler(value = BalanceConflictException.class)
+    public ResponseEntity<ErrorResponse> handleBalanceConflictException(BalanceConflictException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("503", e.getMessage()));
+    }
+    @ExceptionHandler(value = IdempotencyCacheFullException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyCacheFullException(IdempotencyCacheFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("503", e.getMessage()));
+    }
+    @ExceptionHandler(value = IdempotencyTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyTimeoutException(IdempotencyTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("503", e.getMessage()));
+    }
+    @ExceptionHandler(value = PointCommandExpiredException.class)
+    public ResponseEntity<ErrorResponse> handlePointCommandExpiredException(PointCommandExpiredException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("503", e.getMessage()));
+    }
+    @ExceptionHandler(value = PointHistoryBacklogException.class)
+    public ResponseEntity<ErrorResponse> handlePointHistoryBacklogException(PointHistoryBacklogException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("503", e.getMessage()));
+    }
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
@@ -0,0 +1,328 @@
+package io.hhplus.tdd.admission;
+
+import io.hhplus.tdd.admission.AdmissionRejectedException.Reason;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 충전/사용 요청 수 제한 (PointService 앞단)
+ * - 사용자별 / 전체 token bucket 과 사용자별 동시 처리 수 상한을 넘는 요청은 lock 을 기다리지 않고 바로 거절한다.
+ * - token bucket 은 다음 token 이 생기는 시각 하나(long)로 표현하고(GCRA), CAS 로만 갱신한다.
+ *   rate 만큼 채워지고 burst 개까지 쌓이는 token bucket 과 같은 결과를 낸다.
+ * - 사용자별 상태는 사용자 ID 별로 따로 두므로 다른 사용자와 한도를 나눠 쓰지 않는다. (사용자당 약 100 byte)
+ *   처리 중인 요청이 없고 token 이 다 찬 상태는 새로 만든 상태와 같으므로, 추적 중인 사용자가 maxUsers 에 닿으면
+ *   이런 사용자를 지워 자리를 만든다. 최근 user-burst / user-rate 초 안에 요청한 사용자만 남으므로
+ *   전체 한도가 있는 한 보통 maxUsers 에 닿지 않는다. 지워도 자리가 없으면 새 사용자는 USER_TABLE_FULL 로 거절한다.
+ * - 한 번에 쓰는 token(permits)이 user-burst 나 global-burst 보다 많으면 기다려도 처리할 수 없으므로 IllegalArgumentException (400)
+ * - 동시 처리 수는 lock 을 잡은 요청 + lock 을 기다리는 요청 수이며, mailbox / combining 모드의 대기 요청도 포함한다.
+ */
+@Component
+public class AdmissionLimiter implements MeterBinder {
+
+    private static final double DEFAULT_USER_RATE = 50;
+    private static final int DEFAULT_USER_BURST = 100;
+    private static final double DEFAULT_GLOBAL_RATE = 20_000;
+    private static final int DEFAULT_GLOBAL_BURST = 40_000;
+    private static final int DEFAULT_USER_CONCURRENCY = 32;
+    private static final int DEFAULT_MAX_USERS = 1 << 20;
+    //가득 찬 상태에서 새 사용자가 올 때마다 전체를 훑지 않도록 정리 간격을 둔다.
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final boolean enabled;
+    //한 번에 꺼낼 수 있는 최대 token 수 (user-burst 와 global-burst 중 작은 값)
+    private final int maxPermits;
+    private final long userIntervalNanos;
+    private final long userBurstNanos;
+    private final long globalIntervalNanos;
+    private final long globalBurstNanos;
+    private final int maxUserConcurrency;
+    private final int maxUsers;
+    private final LongSupplier nanoClock;
+    //음수가 될 수 있는 System.nanoTime 을 0 부터 세도록 하는 기준 시각
+    private final long origin;
+
+    //사용자 ID -> 사용자별 bucket 과 처리 중인 요청 수
+    private final ConcurrentHashMap<Long, Bucket> users = new ConcurrentHashMap<>();
+    //전체 bucket (처리 중인 요청 수는 사용하지 않음)
+    private final Bucket global = new Bucket();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private volatile long nextSweepAt;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder swept = new LongAdder();
+    private final Map<Reason, LongAdder> rejected = new EnumMap<>(Reason.class);
+
+    @Autowired
+    public AdmissionLimiter(
+            @Value("${point.admission.enabled:false}") boolean enabled,
+            @Value("${point.admission.user-rate:" + DEFAULT_USER_RATE + "}") double userRate,
+            @Value("${point.admission.user-burst:" + DEFAULT_USER_BURST + "}") int userBurst,
+            @Value("${point.admission.global-rate:" + DEFAULT_GLOBAL_RATE + "}") double globalRate,
+            @Value("${point.admission.global-burst:" + DEFAULT_GLOBAL_BURST + "}") int globalBurst,
+            @Value("${point.admission.max-user-concurrency:" + DEFAULT_USER_CONCURRENCY + "}") int maxUserConcurrency,
+            @Value("${point.admission.max-users:" + DEFAULT_MAX_USERS + "}") int maxUsers
+    ) {
+        this(enabled, userRate, userBurst, globalRate, globalBurst, maxUserConcurrency, maxUsers, System::nanoTime);
+    }
+
+    public AdmissionLimiter(boolean enabled, double userRate, int userBurst, double globalRate, int globalBurst,
+                            int maxUserConcurrency, int maxUsers, LongSupplier nanoClock) {
+        if (userRate <= 0 || userBurst <= 0 || globalRate <= 0 || globalBurst <= 0
+                || maxUserConcurrency <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("요청 제한 값은 0보다 커야 합니다.");
+        }
+        this.enabled = enabled;
+        this.maxPermits = Math.min(userBurst, globalBurst);
+        this.userIntervalNanos = intervalNanos(userRate);
+        this.userBurstNanos = userIntervalNanos * userBurst;
+        this.globalIntervalNanos = intervalNanos(globalRate);
+        this.globalBurstNanos = globalIntervalNanos * globalBurst;
+        this.maxUserConcurrency = maxUserConcurrency;
+        this.maxUsers = maxUsers;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        for (Reason reason : Reason.values()) {
+            rejected.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * 제한 없이 모든 요청을 처리하는 인스턴스 (직접 생성해 사용하는 경우)
+     */
+    public static AdmissionLimiter unlimited() {
+        return new AdmissionLimiter(false, DEFAULT_USER_RATE, DEFAULT_USER_BURST, DEFAULT_GLOBAL_RATE, DEFAULT_GLOBAL_BURST,
+                DEFAULT_USER_CONCURRENCY, 1, System::nanoTime);
+    }
+
+    /**
+     * 허용된 요청이면 action 을 실행하고, 아니면 실행하지 않고 AdmissionRejectedException 을 던진다.
+     */
+    public <T> T execute(long userId, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        Bucket bucket = admit(userId, 1);
+        try {
+            return action.get();
+        } finally {
+            bucket.release();
+        }
+    }
+
+    /**
+     * execute 의 비동기 버전. 거절은 실패한 future 로 돌려주고, 동시 처리 수는 future 가 끝날 때 돌려준다.
+     */
+    public <T> CompletableFuture<T> submit(long userId, Supplier<CompletableFuture<T>> action) {
+        return submit(userId, 1, action);
+    }
+
+    /**
+     * 한 사용자의 요청 permits 건을 한 번에 처리할 때 사용한다. (일괄 처리)
+     * token 은 permits 개를 한꺼번에 꺼내고, 동시 처리 수는 1 로 센다.
+     * permits 가 burst 보다 많으면 IllegalArgumentException 으로 실패한 future (다시 시도해도 처리할 수 없음)
+     */
+    public <T> CompletableFuture<T> submit(long userId, int permits, Supplier<CompletableFuture<T>> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        Bucket bucket;
+        try {
+            bucket = admit(userId, permits);
+        } catch (AdmissionRejectedException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = action.get();
+        } catch (RuntimeException e) {
+            bucket.release();
+            throw e;
+        }
+        return future.whenComplete((result, failure) -> bucket.release());
+    }
+
+    public AdmissionStats stats() {
+        return new AdmissionStats(admitted.sum(), rejected.get(Reason.USER_RATE).sum(),
+                rejected.get(Reason.GLOBAL_RATE).sum(), rejected.get(Reason.USER_CONCURRENCY).sum(),
+                rejected.get(Reason.USER_TABLE_FULL).sum(), users.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.admission.admitted", admitted, LongAdder::sum)
+                .register(registry);
+        rejected.forEach((reason, count) -> FunctionCounter.builder("point.admission.rejected", count, LongAdder::sum)
+                .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        FunctionCounter.builder("point.admission.users.swept", swept, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("point.admission.users", users, Map::size)
+                .register(registry);
+    }
+
+    /**
+     * 동시 처리 수 → 사용자 token → 전체 token 순으로 확인한다. 거절하면 앞에서 차지한 몫은 돌려준다.
+     */
+    private Bucket admit(long userId, int permits) {
+        if (permits > maxPermits) {
+            throw new IllegalArgumentException("사용자 한 명의 요청은 한 번에 최대 " + maxPermits + "건까지 처리할 수 있습니다.");
+        }
+        long now = nanoClock.getAsLong() - origin;
+        Bucket bucket = acquire(userId, now);
+        long userWait = bucket.take(now, userIntervalNanos * permits, userBurstNanos);
+        if (userWait > 0) {
+            bucket.release();
+            throw reject(Reason.USER_RATE, "사용자 요청 한도를 초과했습니다.", userWait);
+        }
+        long globalWait = global.take(now, globalIntervalNanos * permits, globalBurstNanos);
+        if (globalWait > 0) {
+            bucket.refund(userIntervalNanos * permits);
+            bucket.release();
+            throw reject(Reason.GLOBAL_RATE, "전체 요청 한도를 초과했습니다.", globalWait);
+        }
+        admitted.add(permits);
+        return bucket;
+    }
+
+    /**
+     * 사용자의 bucket 을 찾아(없으면 만들어) 처리 중인 요청 수를 하나 늘린다.
+     */
+    private Bucket acquire(long userId, long now) {
+        while (true) {
+            Bucket bucket = users.get(userId);
+            if (bucket == null) {
+                if (users.size() >= maxUsers) {
+                    sweep(now);
+                    if (users.size() >= maxUsers) {
+                        throw reject(Reason.USER_TABLE_FULL, "한도를 추적 중인 사용자가 너무 많습니다.", userBurstNanos);
+                    }
+                }
+                bucket = users.computeIfAbsent(userId, id -> new Bucket());
+            }
+            int active = bucket.active;
+            if (active < 0) {
+                //정리 중인 bucket. 정리하는 스레드가 지우거나 되돌릴 때까지 잠깐 기다린다.
+                Thread.onSpinWait();
+                continue;
+            }
+            if (active >= maxUserConcurrency) {
+                throw reject(Reason.USER_CONCURRENCY, "같은 사용자의 처리 중인 요청이 너무 많습니다.", 0);
+            }
+            if (Bucket.ACTIVE.compareAndSet(bucket, active, active + 1)) {
+                return bucket;
+            }
+        }
+    }
+
+    /**
+     * 처리 중인 요청이 없고 token 이 다 찬 사용자를 지운다. (한 번에 한 스레드, SWEEP_INTERVAL_NANOS 에 한 번)
+     */
+    private void sweep(long now) {
+        if (now - nextSweepAt < 0 || !sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            for (Map.Entry<Long, Bucket> entry : users.entrySet()) {
+                if (entry.getValue().retireIfIdle(now)) {
+                    users.remove(entry.getKey(), entry.getValue());
+                    swept.increment();
+                }
+            }
+            nextSweepAt = now + SWEEP_INTERVAL_NANOS;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private AdmissionRejectedException reject(Reason reason, String message, long retryAfterNanos) {
+        rejected.get(reason).increment();
+        return new AdmissionRejectedException(reason, message, retryAfterNanos);
+    }
+
+    private static long intervalNanos(double rate) {
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+    }
+
+    /**
+     * 다음 token 이 생기는 시각(origin 기준 nano)과 처리 중인 요청 수. active 가 -1 이면 정리되어 더 쓰지 않는다.
+     */
+    private static final class Bucket {
+        private static final AtomicLongFieldUpdater<Bucket> NEXT =
+                AtomicLongFieldUpdater.newUpdater(Bucket.class, "next");
+        private static final AtomicIntegerFieldUpdater<Bucket> ACTIVE =
+                AtomicIntegerFieldUpdater.newUpdater(Bucket.class, "active");
+
+        private volatile long next;
+        private volatile int active;
+
+        /**
+         * cost 만큼 token 을 꺼낸다. 남은 token 이 모자라면 꺼내지 않고 다음 token 까지 남은 시간을 반환 (있으면 0)
+         */
+        long take(long now, long cost, long burstNanos) {
+            while (true) {
+                long current = next;
+                long updated = Math.max(current, now) + cost;
+                if (updated - now > burstNanos) {
+                    return updated - now - burstNanos;
+                }
+                if (NEXT.compareAndSet(this, current, updated)) {
+                    return 0;
+                }
+            }
+        }
+
+        void refund(long cost) {
+            NEXT.addAndGet(this, -cost);
+        }
+
+        void release() {
+            ACTIVE.decrementAndGet(this);
+        }
+
+        /**
+         * 처리 중인 요청이 없고 token 이 다 찼으면 더 쓰지 못하게 표시하고 true
+         * (표시한 뒤에는 아무도 token 을 꺼낼 수 없으므로 다시 확인해 그 사이에 쓰였으면 되돌린다)
+         */
+        boolean retireIfIdle(long now) {
+            if (next - now > 0 || !ACTIVE.compareAndSet(this, 0, -1)) {
+                return false;
+            }
+            if (next - now > 0) {
+                active = 0;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * trackedUsers : 한도를 추적 중인 사용자 수
+     */
+    public record AdmissionStats(
+            long admitted,
+            long userRateRejected,
+            long globalRateRejected,
+            long userConcurrencyRejected,
+            long userTableFullRejected,
+            int trackedUsers
+    ) {
+    }
+}
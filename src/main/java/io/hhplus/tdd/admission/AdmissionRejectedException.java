@@ -0,0 +1,36 @@
+package io.hhplus.tdd.admission;
+
+/**
+ * 요청량 제한으로 처리하지 않고 바로 돌려보낸 요청. 응답은 429 로 처리되고,
+ * 거절 사유(reason)는 메트릭 태그로, retryAfterNanos 는 Retry-After 헤더로 사용한다.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    public enum Reason {
+        USER_RATE,
+        GLOBAL_RATE,
+        USER_CONCURRENCY,
+        //한도를 추적할 사용자 자리가 없음 (point.admission.max-users)
+        USER_TABLE_FULL
+    }
+
+    private final Reason reason;
+    private final long retryAfterNanos;
+
+    public AdmissionRejectedException(Reason reason, String message, long retryAfterNanos) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * 다시 시도해도 되는 시점까지 남은 시간 (동시 처리 수 초과는 알 수 없어 0)
+     */
+    public long getRetryAfterNanos() {
+        return retryAfterNanos;
+    }
+}
@@ -0,0 +1,63 @@
+package io.hhplus.tdd.balance;
+
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.database.PrimitiveBalanceStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.execution.PointCommandExecutor;
+import io.hhplus.tdd.lock.UserLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BalanceConfig {
+
+    /**
+     * point.balance.mode 설정에 따라 잔액 갱신 방식을 선택
+     * - pessimistic 모드는 point.balance.store 설정에 따라 잔액을 테이블 또는 primitive 저장소(heap / off-heap)에 둔다.
+     * - optimistic 모드는 잔액 캐시를 기준으로 갱신하고 테이블에는 write-behind 로 저장한다.
+     * - point.execution.mode=partitioned 이면 pessimistic + heap / off-heap 저장소만 지원하고, 저장소를 partition 마다 따로 둔다.
+     */
+    @Bean
+    public BalanceUpdater balanceUpdater(
+            @Value("${point.balance.mode:pessimistic}") BalanceUpdater.Mode mode,
+            @Value("${point.balance.max-attempts:" + OptimisticBalanceUpdater.DEFAULT_MAX_ATTEMPTS + "}") int maxAttempts,
+            @Value("${point.balance.max-backoff-micros:" + OptimisticBalanceUpdater.DEFAULT_MAX_BACKOFF_MICROS + "}") long maxBackoffMicros,
+            @Value("${point.balance.hot-key-millis:" + OptimisticBalanceUpdater.DEFAULT_HOT_KEY_MILLIS + "}") long hotKeyMillis,
+            @Value("${point.balance.store:table}") BalanceStore.Type storeType,
+            @Value("${point.balance.expected-users:1000000}") long expectedUsers,
+            @Value("${point.execution.mode:lock}") PointCommandExecutor.Mode executionMode,
+            @Value("${point.execution.partitions:0}") int partitions,
+            UserPointTable userPointTable,
+            UserPointCache userPointCache,
+            UserLockManager userLockManager,
+            PointMetrics pointMetrics
+    ) {
+        if (mode == BalanceUpdater.Mode.OPTIMISTIC && storeType != BalanceStore.Type.TABLE) {
+            throw new IllegalArgumentException("optimistic 모드는 table 저장소만 지원합니다: " + storeType);
+        }
+        if (executionMode == PointCommandExecutor.Mode.PARTITIONED) {
+            if (mode != BalanceUpdater.Mode.PESSIMISTIC || storeType == BalanceStore.Type.TABLE) {
+                throw new IllegalArgumentException("partitioned 실행 모드는 pessimistic 모드의 heap / off-heap 저장소만 지원합니다: "
+                        + mode + ", " + storeType);
+            }
+            int partitionCount = PartitionedCommandExecutor.partitionCount(partitions);
+            long partitionUsers = (expectedUsers + partitionCount - 1) / partitionCount;
+            return new PartitionedBalanceUpdater(partitionCount, partition -> storeType == BalanceStore.Type.HEAP
+                    ? PrimitiveBalanceStore.onHeap(partitionUsers)
+                    : PrimitiveBalanceStore.offHeap(partitionUsers));
+        }
+        return switch (mode) {
+            case PESSIMISTIC -> switch (storeType) {
+                case TABLE -> new LockingBalanceUpdater(userPointTable, userPointCache, pointMetrics);
+                case HEAP -> new StoreBalanceUpdater(PrimitiveBalanceStore.onHeap(expectedUsers));
+                case OFF_HEAP -> new StoreBalanceUpdater(PrimitiveBalanceStore.offHeap(expectedUsers));
+            };
+            case OPTIMISTIC -> new OptimisticBalanceUpdater(userPointTable, userPointCache, userLockManager, pointMetrics,
+                    maxAttempts, maxBackoffMicros, hotKeyMillis);
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.balance;
+
+/**
+ * 낙관적 잔액 갱신이 lock 으로 전환한 뒤에도 정해진 횟수 안에 충돌을 피하지 못한 요청. 응답은 503 으로 처리한다.
+ */
+public class BalanceConflictException extends RuntimeException {
+
+    public BalanceConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package io.hhplus.tdd.balance;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 사용자 잔액 조회/갱신 방식
+ * - PESSIMISTIC : 호출한 쪽이 사용자 lock 을 잡은 상태에서 읽고 쓴다.
+ * - OPTIMISTIC : lock 없이 version 비교(CAS)로 갱신하고, 충돌이 계속되는 사용자만 lock 으로 처리한다.
+ */
+public interface BalanceUpdater {
+
+    /**
+     * lock 없이 바로 알 수 있는 잔액을 반환한다. 없으면 null (호출한 쪽이 lock 을 잡고 load 호출)
+     */
+    UserPoint find(long id);
+
+    /**
+     * 잔액을 반환한다. requiresUserLock() 이 true 이면 사용자 lock 을 잡은 상태에서 호출해야 한다.
+     */
+    UserPoint load(long id);
+
+    /**
+     * 현재 잔액에 nextBalance 를 적용한 새 잔액으로 onCommit 을 먼저 호출하고(write-ahead), 그 다음 잔액을 저장/공개해 반환한다.
+     * - nextBalance 나 onCommit 이 예외를 던지면 저장하지 않는다. (잔액 규칙 검증, journal 기록 실패)
+     * - onCommit 은 같은 사용자의 다음 갱신보다 먼저 실행된다. (journal / 내역 순서 보장)
+     */
+    UserPoint update(long id, LongUnaryOperator nextBalance, Consumer<UserPoint> onCommit);
+
+    /**
+     * update / load 전에 호출한 쪽이 사용자 lock 을 잡아야 하는지 여부
+     */
+    boolean requiresUserLock();
+
+    /**
+     * 복구한 잔액을 그대로 적재한다. (시작 시 요청을 받기 전에만 호출)
+     */
+    void restore(long id, long point, long updateMillis);
+
+    enum Mode {
+        PESSIMISTIC, OPTIMISTIC
+    }
+}
@@ -0,0 +1,109 @@
+package io.hhplus.tdd.balance;
+
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointWriter;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.metrics.PointMetrics.TableCall;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 사용자 lock 안에서 읽고 쓰는 방식 (기본)
+ * - 잔액은 write-through 캐시에서 먼저 찾고, 없을 때만 테이블을 조회해 캐시에 적재한다.
+ * - 복구한 잔액은 캐시와 write-behind 기록기(UserPointWriter)에만 넣고 테이블에는 나중에 저장한다.
+ *   느린 테이블 저장을 사용자 수만큼 기다리지 않으므로 시작 시간이 사용자 수 × 테이블 지연으로 늘어나지 않는다.
+ *   저장 전인 사용자는 캐시 → 저장 대기 잔액 → 테이블 순으로 읽고, 갱신도 같은 기록기로 보내 복구 값이 새 잔액을 덮지 않게 한다.
+ */
+public class LockingBalanceUpdater implements BalanceUpdater, AutoCloseable {
+
+    private final UserPointTable userPointTable;
+    private final UserPointCache userPointCache;
+    private final PointMetrics pointMetrics;
+    //복구한 잔액의 write-behind 기록기. 복구할 잔액이 있을 때만 만든다.
+    private volatile UserPointWriter restoreWriter;
+
+    public LockingBalanceUpdater(UserPointTable userPointTable, UserPointCache userPointCache, PointMetrics pointMetrics) {
+        this.userPointTable = userPointTable;
+        this.userPointCache = userPointCache;
+        this.pointMetrics = pointMetrics;
+    }
+
+    @Override
+    public UserPoint find(long id) {
+        return userPointCache.get(id);
+    }
+
+    @Override
+    public UserPoint load(long id) {
+        return userPointCache.getOrLoad(id, key -> {
+            UserPoint pending = pendingRestore(key);
+            if (pending != null) {
+                return pending;
+            }
+            return pointMetrics.recordTableCall(TableCall.USER_POINT_SELECT_BY_ID, () ->
+                    userPointTable.selectById(key));
+        });
+    }
+
+    @Override
+    public UserPoint update(long id, LongUnaryOperator nextBalance, Consumer<UserPoint> onCommit) {
+        long balance = nextBalance.applyAsLong(load(id).point());
+        UserPoint committed = new UserPoint(id, balance, System.currentTimeMillis());
+        onCommit.accept(committed);
+        //복구 값이 아직 저장 전이면 같은 기록기로 보내 저장 순서를 지킨다.
+        if (pendingRestore(id) != null) {
+            restoreWriter.write(committed);
+            userPointCache.put(committed);
+            return committed;
+        }
+        UserPoint userPoint = pointMetrics.recordTableCall(TableCall.USER_POINT_INSERT_OR_UPDATE, () ->
+                userPointTable.insertOrUpdate(id, balance));
+        userPointCache.put(userPoint);
+        return userPoint;
+    }
+
+    @Override
+    public boolean requiresUserLock() {
+        return true;
+    }
+
+    /**
+     * 복구한 잔액을 updateMillis 그대로 캐시와 저장 대기열에 넣는다. 테이블 저장은 기다리지 않는다.
+     * - 테이블은 수정 시각을 직접 정하므로, 저장된 뒤 캐시에서 밀려나면 updateMillis 는 저장한 시각으로 바뀐다.
+     */
+    @Override
+    public void restore(long id, long point, long updateMillis) {
+        if (restoreWriter == null) {
+            restoreWriter = new UserPointWriter(userPointTable, pointMetrics);
+        }
+        UserPoint restored = new UserPoint(id, point, updateMillis);
+        restoreWriter.write(restored);
+        userPointCache.put(restored);
+    }
+
+    /**
+     * 복구한 잔액이 모두 테이블에 저장될 때까지 대기한다. (테스트 / 종료용)
+     */
+    public void flush() {
+        UserPointWriter writer = restoreWriter;
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        UserPointWriter writer = restoreWriter;
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private UserPoint pendingRestore(long id) {
+        UserPointWriter writer = restoreWriter;
+        return writer == null ? null : writer.pending(id);
+    }
+}
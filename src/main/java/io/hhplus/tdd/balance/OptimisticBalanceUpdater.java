@@ -0,0 +1,270 @@
+package io.hhplus.tdd.balance;
+
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointWriter;
+import io.hhplus.tdd.lock.UserLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.metrics.PointMetrics.TableCall;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * version 비교(CAS)로 잔액을 갱신하는 방식
+ * - 잔액은 UserPointCache(LRU)에 두고, 캐시에 들어 있는 UserPoint 인스턴스를 version 으로 사용한다.
+ * - 갱신은 사용자별 "공개 중" 표시를 얻고(putIfAbsent), 읽은 인스턴스가 캐시에 그대로일 때만 새 잔액을 공개한다.
+ *   표시는 onCommit(journal / 요약 / 내역 queue, 수 µs) 동안만 잡고, 테이블 저장은 UserPointWriter 가 나중에 한다.
+ * - 충돌한 스레드는 짧게 기다렸다가(지수 backoff + jitter) 최대 maxAttempts 번까지 다시 시도한다.
+ * - 그래도 실패하면 사용자 lock 으로 전환하고, 해당 사용자는 hotKeyMillis 동안 처음부터 lock 으로 처리한다.
+ *   lock 안에서는 공개 중인 갱신이 끝나기를 기다렸다가(spin 없이) 다시 시도하고, maxAttempts 번 기다려도 실패하면
+ *   BalanceConflictException (503)
+ * - 캐시에서 밀려난 사용자는 아직 저장되지 않은 잔액, 없으면 테이블 순으로 다시 읽는다.
+ *   다시 읽어 캐시에 넣을 때까지 "공개 중" 표시를 잡아, 읽는 동안 공개되고 밀려난 새 잔액을 오래된 값으로 덮지 않는다.
+ * - 조회는 lock 없이 마지막으로 공개된 잔액을 반환한다.
+ */
+public class OptimisticBalanceUpdater implements BalanceUpdater, MeterBinder, AutoCloseable {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+    public static final long DEFAULT_MAX_BACKOFF_MICROS = 1_000;
+    public static final long DEFAULT_HOT_KEY_MILLIS = 1_000;
+
+    private static final long MIN_BACKOFF_NANOS = 1_000;
+
+    private final UserPointTable userPointTable;
+    private final UserPointCache userPointCache;
+    private final UserPointWriter userPointWriter;
+    private final UserLockManager userLockManager;
+    private final PointMetrics pointMetrics;
+    private final int maxAttempts;
+    private final long maxBackoffNanos;
+    private final long hotKeyNanos;
+
+    //사용자 ID -> 공개 중인 갱신. 공개하는 동안에만 들어 있어 동시에 갱신 중인 사용자 수만큼만 쌓인다.
+    private final ConcurrentHashMap<Long, Publication> publishing = new ConcurrentHashMap<>();
+    //사용자 ID -> lock 으로 처리할 기한 (System.nanoTime 기준)
+    private final ConcurrentHashMap<Long, Long> hotKeys = new ConcurrentHashMap<>();
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public OptimisticBalanceUpdater(UserPointTable userPointTable, UserPointCache userPointCache,
+                                    UserLockManager userLockManager, PointMetrics pointMetrics) {
+        this(userPointTable, userPointCache, userLockManager, pointMetrics,
+                DEFAULT_MAX_ATTEMPTS, DEFAULT_MAX_BACKOFF_MICROS, DEFAULT_HOT_KEY_MILLIS);
+    }
+
+    public OptimisticBalanceUpdater(UserPointTable userPointTable, UserPointCache userPointCache,
+                                    UserLockManager userLockManager, PointMetrics pointMetrics,
+                                    int maxAttempts, long maxBackoffMicros, long hotKeyMillis) {
+        if (maxAttempts <= 0 || maxBackoffMicros <= 0 || hotKeyMillis < 0) {
+            throw new IllegalArgumentException("재시도 횟수와 backoff 는 0보다 커야 합니다.");
+        }
+        this.userPointTable = userPointTable;
+        this.userPointCache = userPointCache;
+        this.userLockManager = userLockManager;
+        this.pointMetrics = pointMetrics;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoffNanos = TimeUnit.MICROSECONDS.toNanos(maxBackoffMicros);
+        this.hotKeyNanos = TimeUnit.MILLISECONDS.toNanos(hotKeyMillis);
+        this.userPointWriter = new UserPointWriter(userPointTable, pointMetrics);
+    }
+
+    @Override
+    public UserPoint find(long id) {
+        return load(id);
+    }
+
+    @Override
+    public UserPoint load(long id) {
+        UserPoint cached = userPointCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        //표시 없이 읽으면, 테이블을 읽는 사이에 공개되고 저장 전에 밀려난 잔액 대신 읽은 값이 캐시에 들어갈 수 있다.
+        Publication loading = new Publication();
+        while (publishing.putIfAbsent(id, loading) != null) {
+            awaitPublication(id);
+        }
+        try {
+            return userPointCache.getOrLoad(id, key -> {
+                UserPoint unsaved = userPointWriter.pending(key);
+                if (unsaved != null) {
+                    return unsaved;
+                }
+                return pointMetrics.recordTableCall(TableCall.USER_POINT_SELECT_BY_ID, () -> userPointTable.selectById(key));
+            });
+        } finally {
+            publishing.remove(id, loading);
+            loading.done.countDown();
+        }
+    }
+
+    /**
+     * 반환하는 잔액은 메모리에 공개된 값이고, 테이블에는 UserPointWriter 가 나중에 저장한다.
+     */
+    @Override
+    public UserPoint update(long id, LongUnaryOperator nextBalance, Consumer<UserPoint> onCommit) {
+        if (!isHot(id)) {
+            for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                UserPoint userPoint = tryUpdate(id, nextBalance, onCommit);
+                if (userPoint != null) {
+                    return userPoint;
+                }
+                conflicts.increment();
+                backoff(attempt);
+            }
+            fallbacks.increment();
+            hotKeys.put(id, System.nanoTime() + hotKeyNanos);
+        }
+        //lock 으로 같은 사용자의 쓰기를 줄 세우고, lock 밖에서 공개 중인 갱신은 끝날 때까지 기다렸다가 재시도
+        return userLockManager.executeWithLock(id, () -> {
+            for (int attempt = 0; ; attempt++) {
+                UserPoint userPoint = tryUpdate(id, nextBalance, onCommit);
+                if (userPoint != null) {
+                    return userPoint;
+                }
+                conflicts.increment();
+                if (attempt == maxAttempts) {
+                    throw new BalanceConflictException("잔액 갱신 충돌이 계속되어 처리하지 못했습니다. 잠시 후 다시 시도해 주세요.");
+                }
+                awaitPublication(id);
+            }
+        });
+    }
+
+    @Override
+    public boolean requiresUserLock() {
+        return false;
+    }
+
+    @Override
+    public void restore(long id, long point, long updateMillis) {
+        UserPoint restored = new UserPoint(id, point, updateMillis);
+        userPointWriter.write(restored);
+        userPointCache.put(restored);
+    }
+
+    /**
+     * 지금까지 공개한 잔액이 모두 테이블에 저장될 때까지 대기한다. (테스트 / 종료용)
+     */
+    public void flush() {
+        userPointWriter.flush();
+    }
+
+    @Override
+    public void close() {
+        userPointWriter.close();
+    }
+
+    /**
+     * 한 번 갱신을 시도한다. 다른 스레드와 충돌하면 null
+     */
+    private UserPoint tryUpdate(long id, LongUnaryOperator nextBalance, Consumer<UserPoint> onCommit) {
+        UserPoint current = load(id);
+        long balance = nextBalance.applyAsLong(current.point());
+        UserPoint next = new UserPoint(id, balance, System.currentTimeMillis());
+        Publication publication = new Publication();
+        if (publishing.putIfAbsent(id, publication) != null) {
+            return null;
+        }
+        try {
+            //표시를 가진 동안에는 누구도 이 사용자의 잔액을 공개할 수 없으므로, 읽은 값이 그대로인지만 확인
+            if (!userPointCache.isCurrent(current)) {
+                return null;
+            }
+            onCommit.accept(next);
+            //캐시에서 밀려나 다시 읽더라도 새 잔액이 보이도록 pending 에 먼저 넣는다.
+            userPointWriter.write(next);
+            userPointCache.put(next);
+            commits.increment();
+            return next;
+        } finally {
+            publishing.remove(id, publication);
+            publication.done.countDown();
+        }
+    }
+
+    /**
+     * 다른 스레드가 공개 중인 갱신(또는 다시 읽기)이 끝날 때까지 대기한다. (lock 안이나 다시 읽기 전에만 호출)
+     */
+    private void awaitPublication(long id) {
+        Publication publication = publishing.get(id);
+        if (publication == null) {
+            return;
+        }
+        try {
+            publication.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("잔액 갱신 대기 중 인터럽트가 발생했습니다.", e);
+        }
+    }
+
+    private boolean isHot(long id) {
+        Long until = hotKeys.get(id);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        hotKeys.remove(id, until);
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        long bound = attempt >= 20 ? maxBackoffNanos : Math.min(maxBackoffNanos, MIN_BACKOFF_NANOS << attempt);
+        LockSupport.parkNanos(1 + ThreadLocalRandom.current().nextLong(bound));
+    }
+
+    public OptimisticStats stats() {
+        return new OptimisticStats(commits.sum(), conflicts.sum(), fallbacks.sum(), hotKeys.size(),
+                userPointWriter.pendingCount());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.optimistic.commits", commits, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.optimistic.conflicts", conflicts, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.optimistic.fallbacks", fallbacks, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("point.optimistic.hot.keys", hotKeys, ConcurrentHashMap::size)
+                .register(registry);
+        Gauge.builder("point.optimistic.pending.writes", userPointWriter, UserPointWriter::pendingCount)
+                .register(registry);
+    }
+
+    /**
+     * 공개 중인 갱신 표시. 공개가 끝나면(성공/실패 모두) done 이 열린다.
+     */
+    private static final class Publication {
+        private final CountDownLatch done = new CountDownLatch(1);
+    }
+
+    /**
+     * pendingWrites : 메모리에는 공개됐지만 아직 테이블에 저장되지 않은 사용자 수
+     */
+    public record OptimisticStats(
+            long commits,
+            long conflicts,
+            long fallbacks,
+            int hotKeys,
+            int pendingWrites
+    ) {
+    }
+}
@@ -0,0 +1,84 @@
+package io.hhplus.tdd.balance;
+
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * partition 마다 잔액 저장소(BalanceStore)를 따로 두는 방식 (point.execution.mode=partitioned)
+ * - 사용자는 PartitionedCommandExecutor 와 같은 해시로 partition 저장소에 나뉘므로, 한 저장소는 그 partition 스레드만 쓴다.
+ *   partition 끼리 잔액 저장소를 공유하지 않는다.
+ * - 저장소마다 규칙은 StoreBalanceUpdater 와 같다. (저장된 적 없는 사용자는 잔액 0, 조회는 lock 없이 저장소에서 바로)
+ * - partition 실행이 아닌 곳에서 쓰면 호출한 쪽이 사용자 lock 을 잡는다. (requiresUserLock)
+ */
+public class PartitionedBalanceUpdater implements BalanceUpdater, MeterBinder {
+
+    private final BalanceStore[] balanceStores;
+    private final StoreBalanceUpdater[] partitions;
+
+    public PartitionedBalanceUpdater(int partitionCount, IntFunction<BalanceStore> storeFactory) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partition 수는 0보다 커야 합니다.");
+        }
+        this.balanceStores = new BalanceStore[partitionCount];
+        this.partitions = new StoreBalanceUpdater[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            balanceStores[i] = storeFactory.apply(i);
+            partitions[i] = new StoreBalanceUpdater(balanceStores[i]);
+        }
+    }
+
+    @Override
+    public UserPoint find(long id) {
+        return partitionOf(id).find(id);
+    }
+
+    @Override
+    public UserPoint load(long id) {
+        return partitionOf(id).load(id);
+    }
+
+    @Override
+    public UserPoint update(long id, LongUnaryOperator nextBalance, Consumer<UserPoint> onCommit) {
+        return partitionOf(id).update(id, nextBalance, onCommit);
+    }
+
+    @Override
+    public boolean requiresUserLock() {
+        return true;
+    }
+
+    @Override
+    public void restore(long id, long point, long updateMillis) {
+        partitionOf(id).restore(id, point, updateMillis);
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < balanceStores.length; i++) {
+            String partition = String.valueOf(i);
+            Gauge.builder("point.balance.store.users", balanceStores[i], BalanceStore::size)
+                    .tag("partition", partition)
+                    .register(registry);
+            Gauge.builder("point.balance.store.bytes", balanceStores[i], BalanceStore::footprintBytes)
+                    .tag("partition", partition)
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    private StoreBalanceUpdater partitionOf(long id) {
+        return partitions[PartitionedCommandExecutor.partitionOf(id, partitions.length)];
+    }
+}
@@ -0,0 +1,63 @@
+package io.hhplus.tdd.balance;
+
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 사용자 lock 안에서 읽고 쓰되, 잔액을 UserPointTable 대신 BalanceStore 에만 두는 방식
+ * - 저장소가 잔액의 원본이므로 캐시를 두지 않고, 조회도 lock 없이 저장소에서 바로 반환한다.
+ * - 저장된 적 없는 사용자는 잔액 0 으로 본다. (UserPointTable.selectById 와 같은 규칙)
+ * - 저장된 사용자 수와 확보한 메모리 크기를 메트릭으로 노출한다.
+ */
+public class StoreBalanceUpdater implements BalanceUpdater, MeterBinder {
+
+    private final BalanceStore balanceStore;
+
+    public StoreBalanceUpdater(BalanceStore balanceStore) {
+        this.balanceStore = balanceStore;
+    }
+
+    @Override
+    public UserPoint find(long id) {
+        UserPoint userPoint = balanceStore.get(id);
+        return userPoint == null ? UserPoint.empty(id) : userPoint;
+    }
+
+    @Override
+    public UserPoint load(long id) {
+        return find(id);
+    }
+
+    @Override
+    public UserPoint update(long id, LongUnaryOperator nextBalance, Consumer<UserPoint> onCommit) {
+        long balance = nextBalance.applyAsLong(load(id).point());
+        long updateMillis = System.currentTimeMillis();
+        onCommit.accept(new UserPoint(id, balance, updateMillis));
+        return balanceStore.put(id, balance, updateMillis);
+    }
+
+    @Override
+    public boolean requiresUserLock() {
+        return true;
+    }
+
+    @Override
+    public void restore(long id, long point, long updateMillis) {
+        balanceStore.put(id, point, updateMillis);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("point.balance.store.users", balanceStore, BalanceStore::size)
+                .register(registry);
+        Gauge.builder("point.balance.store.bytes", balanceStore, BalanceStore::footprintBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
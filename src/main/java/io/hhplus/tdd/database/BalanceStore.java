@@ -0,0 +1,41 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 사용자 ID -> (잔액, 수정 시각) 저장소
+ * - 한 사용자의 잔액과 수정 시각은 항상 함께 읽히고 함께 저장된다. (섞여 보이지 않음)
+ * - 같은 사용자를 동시에 갱신하지 않는 것은 호출한 쪽(사용자 lock) 책임이다.
+ */
+public interface BalanceStore {
+
+    /**
+     * 저장된 잔액을 반환한다. 없으면 null
+     */
+    UserPoint get(long id);
+
+    /**
+     * 잔액을 저장하고, 저장한 값을 반환한다.
+     */
+    UserPoint put(long id, long point, long updateMillis);
+
+    /**
+     * 저장된 사용자 수
+     */
+    long size();
+
+    /**
+     * 저장 공간으로 확보한 메모리 크기(byte). 항목이 없는 slot 도 포함한다.
+     */
+    long footprintBytes();
+
+    /**
+     * point.balance.store 설정 값
+     * - TABLE : 별도 저장소 없이 UserPointTable(+ 잔액 캐시)에 저장
+     * - HEAP : long[] 기반 저장소에만 저장
+     * - OFF_HEAP : direct ByteBuffer 기반 저장소에만 저장 (GC 대상 heap 밖)
+     */
+    enum Type {
+        TABLE, HEAP, OFF_HEAP
+    }
+}
@@ -0,0 +1,300 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * 테이블 없이 내역을 사용자별 primitive 배열(column)에 저장하는 저장소
+ * - 내역마다 PointHistory 객체(헤더 + TransactionType 참조)를 두지 않고
+ *   id 는 int[], amount / updateMillis 는 long[], type 은 byte[](ordinal)에 나눠 담는다. (내역 한 건 21 byte)
+ * - userId 는 사용자별 column 묶음에 한 번만 저장한다.
+ * - PointHistory 는 조회 결과로 반환할 때만 만든다.
+ * - 사용자별 내역은 id 순으로 쌓이고, updateMillis 가 거꾸로 들어온 사용자만 시간순 위치 배열(int[])을 따로 둔다.
+ *   대부분은 id 순 = 시간순이라 기간 조회도 updateMillis column 이진 탐색으로 끝난다.
+ *   시각이 거꾸로 들어온 뒤의 저장은 시간순 위치 배열 중간에 끼워 넣으므로(arraycopy) 그 사용자의 내역 수에 비례한다. O(k)
+ * - 사용자마다 고정 비용(column 묶음 + 배열 4개 + lock + map 항목, 약 300 byte)이 있어 사용자당 내역이 적으면 이득이 작다.
+ *   ./gradlew historyFootprint (내역 100만 건, 테이블 모드 = PointHistoryTable 목록 + PointHistoryIndex 대비)
+ *   사용자당 1건 320 vs 449 byte/건, 10건 62 vs 128, 100건 37 vs 100, 1000건 28 vs 98
+ *   -> 1/3 이하는 사용자당 수백 건 이상일 때만 성립한다.
+ * - 조회는 PointHistory 를 그때 만들어 반환하므로 이미 객체를 들고 있는 PointHistoryIndex 보다 느리다.
+ *   (PointHistoryLookupBenchmark, 대상 사용자 100건 : 인덱스 약 0.2µs, columnar 약 0.6~0.8µs, 둘 다 전체 내역 수와 무관)
+ * - id 는 1부터 저장소가 직접 발급한다. (PointHistoryTable 과 같은 규칙)
+ *   partition 마다 저장소를 두는 경우(PartitionedPointHistoryStore)는 firstId 부터 idStep 간격으로 발급해 저장소끼리 겹치지 않게 한다.
+ *   int 로 담으므로 id 는 Integer.MAX_VALUE 까지 발급할 수 있다.
+ */
+public class ColumnarPointHistoryStore implements PointHistoryStore, MeterBinder {
+
+    //내보내기 시 한 번에 꺼내는 내역 수 (메모리에 올라가는 최대 건수)
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int INITIAL_CAPACITY = 4;
+    //id(int) + amount, updateMillis(long) + type(byte)
+    private static final int ROW_BYTES = Integer.BYTES + 2 * Long.BYTES + 1;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final ConcurrentHashMap<Long, UserColumns> columns = new ConcurrentHashMap<>();
+    private final AtomicLong cursor;
+    private final int idStep;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    public ColumnarPointHistoryStore() {
+        this(1, 1);
+    }
+
+    public ColumnarPointHistoryStore(int firstId, int idStep) {
+        if (firstId <= 0 || idStep <= 0) {
+            throw new IllegalArgumentException("첫 id 와 id 간격은 0보다 커야 합니다.");
+        }
+        this.cursor = new AtomicLong(firstId);
+        this.idStep = idStep;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        UserColumns userColumns = columns.computeIfAbsent(userId, UserColumns::new);
+        PointHistory pointHistory = userColumns.append(amount, type, updateMillis);
+        rows.incrementAndGet();
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        UserColumns userColumns = columns.get(userId);
+        return userColumns == null ? List.of() : userColumns.after(null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<PointHistory> selectPage(long userId, Long cursor, Long fromMillis, Long toMillis, int limit) {
+        UserColumns userColumns = columns.get(userId);
+        if (userColumns == null) {
+            return List.of();
+        }
+        if (fromMillis == null && toMillis == null) {
+            return userColumns.after(cursor, limit);
+        }
+        return userColumns.between(cursor,
+                fromMillis == null ? Long.MIN_VALUE : fromMillis,
+                toMillis == null ? Long.MAX_VALUE : toMillis,
+                limit);
+    }
+
+    @Override
+    public void forEach(Iterable<Long> userIds, Long fromMillis, Long toMillis, Consumer<PointHistory> consumer) {
+        for (long userId : userIds == null ? columns.keySet() : userIds) {
+            Long cursor = null;
+            List<PointHistory> chunk;
+            do {
+                chunk = selectPage(userId, cursor, fromMillis, toMillis, EXPORT_CHUNK_SIZE);
+                chunk.forEach(consumer);
+                if (!chunk.isEmpty()) {
+                    cursor = chunk.get(chunk.size() - 1).id();
+                }
+            } while (chunk.size() == EXPORT_CHUNK_SIZE);
+        }
+    }
+
+    public long rowCount() {
+        return rows.get();
+    }
+
+    /**
+     * 내역 저장용으로 확보한 배열 크기(byte). 아직 채우지 않은 칸도 포함한다.
+     */
+    public long footprintBytes() {
+        return allocatedBytes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("point.history.store.rows", rows, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("point.history.store.bytes", allocatedBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private final class UserColumns {
+        private final long userId;
+        private final StampedLock lock = new StampedLock();
+        //저장 순서 = id 오름차순
+        private int[] ids;
+        private long[] amounts;
+        private long[] updateMillis;
+        private byte[] types;
+        //시간순 r 번째 내역의 위치. null 이면 저장 순서가 곧 (updateMillis, id) 순서
+        private int[] timeOrder;
+        private int size;
+
+        UserColumns(long userId) {
+            this.userId = userId;
+            resize(INITIAL_CAPACITY);
+        }
+
+        PointHistory append(long amount, TransactionType type, long millis) {
+            long stamp = lock.writeLock();
+            try {
+                if (size == ids.length) {
+                    resize(size + (size >> 1));
+                }
+                long id = cursor.getAndAdd(idStep);
+                if (id > Integer.MAX_VALUE) {
+                    cursor.addAndGet(-idStep);
+                    throw new IllegalStateException("내역 저장소가 최대 건수에 도달했습니다: " + Integer.MAX_VALUE);
+                }
+                ids[size] = (int) id;
+                amounts[size] = amount;
+                updateMillis[size] = millis;
+                types[size] = (byte) type.ordinal();
+                if (timeOrder == null && size > 0 && millis < updateMillis[size - 1]) {
+                    startTimeOrder();
+                }
+                if (timeOrder != null) {
+                    //같은 시각이면 id 가 가장 크므로 그 시각의 마지막 자리
+                    int rank = firstRankAfter(millis, Long.MAX_VALUE);
+                    System.arraycopy(timeOrder, rank, timeOrder, rank + 1, size - rank);
+                    timeOrder[rank] = size;
+                }
+                size++;
+                return row(size - 1);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        List<PointHistory> after(Long cursor, int limit) {
+            long stamp = lock.readLock();
+            try {
+                int from = cursor == null ? 0 : firstIndexAfter(cursor);
+                int to = (int) Math.min(size, (long) from + limit);
+                List<PointHistory> page = new ArrayList<>(Math.max(0, to - from));
+                for (int index = from; index < to; index++) {
+                    page.add(row(index));
+                }
+                return page;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        List<PointHistory> between(Long cursor, long fromMillis, long toMillis, int limit) {
+            long stamp = lock.readLock();
+            try {
+                int rank = firstRankFrom(fromMillis);
+                if (cursor != null) {
+                    //cursor 내역이 기간 안에 있으면 그 다음부터 (PointHistoryIndex 와 같은 규칙)
+                    int index = firstIndexAfter(cursor) - 1;
+                    if (index >= 0 && ids[index] == cursor && updateMillis[index] >= fromMillis) {
+                        rank = firstRankAfter(updateMillis[index], cursor);
+                    }
+                }
+                List<PointHistory> page = new ArrayList<>();
+                for (; rank < size && page.size() < limit; rank++) {
+                    int index = indexAt(rank);
+                    if (updateMillis[index] >= toMillis) {
+                        break;
+                    }
+                    page.add(row(index));
+                }
+                return page;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private PointHistory row(int index) {
+            return new PointHistory(ids[index], userId, amounts[index], TYPES[types[index]], updateMillis[index]);
+        }
+
+        private int indexAt(int rank) {
+            return timeOrder == null ? rank : timeOrder[rank];
+        }
+
+        /**
+         * id 가 cursor 보다 큰 첫 위치 (이진 탐색)
+         */
+        private int firstIndexAfter(long cursor) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] <= cursor) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * updateMillis 가 millis 이상인 첫 시간순 위치
+         */
+        private int firstRankFrom(long millis) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (updateMillis[indexAt(mid)] < millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * (updateMillis, id) 가 (millis, id) 보다 큰 첫 시간순 위치
+         */
+        private int firstRankAfter(long millis, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int index = indexAt(mid);
+                if (updateMillis[index] < millis || (updateMillis[index] == millis && ids[index] <= id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 지금까지는 저장 순서가 시간순이었으므로 그대로 시간순 위치 배열을 만든다.
+         */
+        private void startTimeOrder() {
+            timeOrder = new int[ids.length];
+            for (int index = 0; index < size; index++) {
+                timeOrder[index] = index;
+            }
+            allocatedBytes.addAndGet((long) timeOrder.length * Integer.BYTES);
+        }
+
+        private void resize(int capacity) {
+            int previous = ids == null ? 0 : ids.length;
+            ids = ids == null ? new int[capacity] : Arrays.copyOf(ids, capacity);
+            amounts = amounts == null ? new long[capacity] : Arrays.copyOf(amounts, capacity);
+            updateMillis = updateMillis == null ? new long[capacity] : Arrays.copyOf(updateMillis, capacity);
+            types = types == null ? new byte[capacity] : Arrays.copyOf(types, capacity);
+            long grownBytes = (long) (capacity - previous) * ROW_BYTES;
+            if (timeOrder != null) {
+                timeOrder = Arrays.copyOf(timeOrder, capacity);
+                grownBytes += (long) (capacity - previous) * Integer.BYTES;
+            }
+            allocatedBytes.addAndGet(grownBytes);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.execution.PointCommandExecutor;
+import io.hhplus.tdd.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HistoryStoreConfig {
+
+    /**
+     * point.history.store 설정에 따라 내역 저장 방식을 선택
+     * - point.execution.mode=partitioned 이면 columnar 저장소만 지원하고, 저장소를 partition 마다 따로 둔다.
+     */
+    @Bean
+    public PointHistoryStore pointHistoryStore(
+            @Value("${point.history.store:table}") PointHistoryStore.Type type,
+            @Value("${point.execution.mode:lock}") PointCommandExecutor.Mode executionMode,
+            @Value("${point.execution.partitions:0}") int partitions,
+            PointHistoryTable pointHistoryTable,
+            PointMetrics pointMetrics
+    ) {
+        if (executionMode == PointCommandExecutor.Mode.PARTITIONED) {
+            if (type != PointHistoryStore.Type.COLUMNAR) {
+                throw new IllegalArgumentException("partitioned 실행 모드는 columnar 내역 저장소만 지원합니다: " + type);
+            }
+            return new PartitionedPointHistoryStore(PartitionedCommandExecutor.partitionCount(partitions));
+        }
+        return switch (type) {
+            case TABLE -> new IndexedPointHistoryStore(pointHistoryTable, pointMetrics);
+            case COLUMNAR -> new ColumnarPointHistoryStore();
+        };
+    }
+
+    /**
+     * write-behind 내역 기록기. partitioned 실행 모드는 partition 스레드가 바로 쓰는 inline 기록기
+     */
+    @Bean
+    public PointHistoryWriter pointHistoryWriter(
+            PointHistoryStore pointHistoryStore,
+            @Value("${point.execution.mode:lock}") PointCommandExecutor.Mode executionMode,
+            @Value("${point.history.queue-capacity:" + PointHistoryWriter.DEFAULT_QUEUE_CAPACITY + "}") int queueCapacity,
+            @Value("${point.history.batch-size:" + PointHistoryWriter.DEFAULT_BATCH_SIZE + "}") int batchSize,
+            @Value("${point.history.backlog-timeout-millis:" + PointHistoryWriter.DEFAULT_BACKLOG_TIMEOUT_MILLIS + "}")
+            long backlogTimeoutMillis
+    ) {
+        if (executionMode == PointCommandExecutor.Mode.PARTITIONED) {
+            return PointHistoryWriter.inline(pointHistoryStore);
+        }
+        return new PointHistoryWriter(pointHistoryStore, queueCapacity, batchSize, backlogTimeoutMillis);
+    }
+}
@@ -0,0 +1,104 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * PointHistoryTable 앞단의 인덱스 저장소
+ * - 저장은 사용자별 인덱스에 먼저 넣고 바로 반환하고, 테이블(공개 API insert)에는 PointHistoryTableWriter 가 같은 순서로 나중에 저장한다.
+ *   느린 테이블 저장(건당 최대 300ms)을 PointHistoryWriter 의 기록 스레드와 조회가 기다리지 않는다.
+ * - id 는 테이블이 발급하는 것과 같은 순서(저장 순서대로 1씩 증가)로 여기서 발급한다.
+ * - 조회는 테이블 전체를 훑는 selectAllByUserId 대신 인덱스에서 해당 사용자의 내역만 꺼낸다.
+ * - 복구한 내역(restore)은 인덱스에만 넣고, 이후 내역 id 는 복구한 건수 다음부터 발급해 id 가 겹치지 않게 한다.
+ */
+public class IndexedPointHistoryStore implements PointHistoryStore, AutoCloseable {
+
+    //내보내기 시 한 번에 꺼내는 내역 수 (메모리에 올라가는 최대 건수)
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    private final PointHistoryIndex pointHistoryIndex = new PointHistoryIndex();
+    private final PointHistoryTableWriter pointHistoryTableWriter;
+    //마지막으로 발급한 내역 id (복구한 내역 포함)
+    private long lastId;
+    private boolean inserted;
+
+    public IndexedPointHistoryStore(PointHistoryTable pointHistoryTable) {
+        this(pointHistoryTable, new PointMetrics());
+    }
+
+    public IndexedPointHistoryStore(PointHistoryTable pointHistoryTable, PointMetrics pointMetrics) {
+        this.pointHistoryTableWriter = new PointHistoryTableWriter(pointHistoryTable, pointMetrics);
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        inserted = true;
+        PointHistory pointHistory = new PointHistory(++lastId, userId, amount, type, updateMillis);
+        pointHistoryIndex.add(pointHistory);
+        pointHistoryTableWriter.write(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public void restore(long userId, long amount, TransactionType type, long updateMillis) {
+        if (inserted) {
+            throw new IllegalStateException("내역 복구는 첫 저장 전에만 할 수 있습니다.");
+        }
+        pointHistoryIndex.add(new PointHistory(++lastId, userId, amount, type, updateMillis));
+    }
+
+    /**
+     * 인덱스에는 있지만 아직 테이블에 저장되지 않은 내역 수
+     */
+    @Override
+    public int pendingCount() {
+        return pointHistoryTableWriter.pendingCount();
+    }
+
+    /**
+     * 지금까지 넣은 내역이 모두 테이블에 저장될 때까지 대기한다. (테스트 / 종료용)
+     */
+    public void flush() {
+        pointHistoryTableWriter.flush();
+    }
+
+    @Override
+    public void close() {
+        pointHistoryTableWriter.close();
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return pointHistoryIndex.selectAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectPage(long userId, Long cursor, Long fromMillis, Long toMillis, int limit) {
+        if (fromMillis == null && toMillis == null) {
+            return pointHistoryIndex.selectAfter(userId, cursor, limit);
+        }
+        return pointHistoryIndex.selectBetween(userId, cursor,
+                fromMillis == null ? Long.MIN_VALUE : fromMillis,
+                toMillis == null ? Long.MAX_VALUE : toMillis,
+                limit);
+    }
+
+    @Override
+    public void forEach(Iterable<Long> userIds, Long fromMillis, Long toMillis, Consumer<PointHistory> consumer) {
+        for (long userId : userIds == null ? pointHistoryIndex.userIds() : userIds) {
+            Long cursor = null;
+            List<PointHistory> chunk;
+            do {
+                chunk = selectPage(userId, cursor, fromMillis, toMillis, EXPORT_CHUNK_SIZE);
+                chunk.forEach(consumer);
+                if (!chunk.isEmpty()) {
+                    cursor = chunk.get(chunk.size() - 1).id();
+                }
+            } while (chunk.size() == EXPORT_CHUNK_SIZE);
+        }
+    }
+}
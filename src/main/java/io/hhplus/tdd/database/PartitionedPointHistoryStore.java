@@ -0,0 +1,81 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * partition 마다 columnar 내역 저장소를 따로 두는 저장소 (point.execution.mode=partitioned)
+ * - 사용자는 PartitionedCommandExecutor 와 같은 해시로 partition 저장소에 나뉘므로, 한 저장소는 그 partition 스레드만 쓴다.
+ * - id 는 partition i 가 i + 1 부터 partition 수 간격으로 발급해 전체에서 겹치지 않고, 사용자별로는 저장 순서대로 커진다.
+ */
+public class PartitionedPointHistoryStore implements PointHistoryStore, MeterBinder {
+
+    private final ColumnarPointHistoryStore[] partitions;
+
+    public PartitionedPointHistoryStore(int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partition 수는 0보다 커야 합니다.");
+        }
+        this.partitions = new ColumnarPointHistoryStore[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new ColumnarPointHistoryStore(i + 1, partitionCount);
+        }
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        return partitionOf(userId).insert(userId, amount, type, updateMillis);
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return partitionOf(userId).selectAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectPage(long userId, Long cursor, Long fromMillis, Long toMillis, int limit) {
+        return partitionOf(userId).selectPage(userId, cursor, fromMillis, toMillis, limit);
+    }
+
+    @Override
+    public void forEach(Iterable<Long> userIds, Long fromMillis, Long toMillis, Consumer<PointHistory> consumer) {
+        if (userIds == null) {
+            for (ColumnarPointHistoryStore partition : partitions) {
+                partition.forEach(null, fromMillis, toMillis, consumer);
+            }
+            return;
+        }
+        for (long userId : userIds) {
+            partitionOf(userId).forEach(List.of(userId), fromMillis, toMillis, consumer);
+        }
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < partitions.length; i++) {
+            String partition = String.valueOf(i);
+            Gauge.builder("point.history.store.rows", partitions[i], ColumnarPointHistoryStore::rowCount)
+                    .tag("partition", partition)
+                    .register(registry);
+            Gauge.builder("point.history.store.bytes", partitions[i], ColumnarPointHistoryStore::footprintBytes)
+                    .tag("partition", partition)
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    private ColumnarPointHistoryStore partitionOf(long userId) {
+        return partitions[PartitionedCommandExecutor.partitionOf(userId, partitions.length)];
+    }
+}
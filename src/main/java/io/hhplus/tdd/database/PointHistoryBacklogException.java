@@ -0,0 +1,11 @@
+package io.hhplus.tdd.database;
+
+/**
+ * 저장되지 않은 포인트 내역이 한도만큼 쌓여 정해진 시간 안에 자리가 나지 않은 충전/사용 요청. 응답은 503 으로 처리한다.
+ */
+public class PointHistoryBacklogException extends RuntimeException {
+
+    public PointHistoryBacklogException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,154 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 사용자 ID별 포인트 내역 인덱스 (userId -> 해당 사용자의 내역 목록)
+ * - 내역은 저장된 순서대로 뒤에만 추가된다. (append-only)
+ * - 조회 비용은 전체 내역 수가 아니라 해당 사용자의 내역 수(k)에 비례한다. O(k)
+ * - 사용자별로 id 순 목록과 (updateMillis, id) 순 정렬 집합을 함께 유지해 페이지 조회는 O(log n + 페이지 크기)
+ */
+public class PointHistoryIndex {
+
+    private static final Comparator<PointHistory> TIME_ORDER =
+            Comparator.comparingLong(PointHistory::updateMillis).thenComparingLong(PointHistory::id);
+
+    private final ConcurrentHashMap<Long, UserHistories> index = new ConcurrentHashMap<>();
+
+    public void add(PointHistory pointHistory) {
+        index.computeIfAbsent(pointHistory.userId(), userId -> new UserHistories())
+                .append(pointHistory);
+    }
+
+    public List<PointHistory> selectAllByUserId(long userId) {
+        UserHistories histories = index.get(userId);
+        return histories == null ? List.of() : histories.snapshot();
+    }
+
+    /**
+     * id 가 cursor 보다 큰 내역을 id 순으로 최대 limit 건 반환 (cursor 가 null 이면 처음부터)
+     */
+    public List<PointHistory> selectAfter(long userId, Long cursor, int limit) {
+        UserHistories histories = index.get(userId);
+        return histories == null ? List.of() : histories.after(cursor, limit);
+    }
+
+    /**
+     * updateMillis 가 [fromMillis, toMillis) 범위인 내역을 (updateMillis, id) 순으로 최대 limit 건 반환
+     * cursor 가 있으면 해당 id 내역 다음부터 반환한다.
+     */
+    public List<PointHistory> selectBetween(long userId, Long cursor, long fromMillis, long toMillis, int limit) {
+        UserHistories histories = index.get(userId);
+        return histories == null ? List.of() : histories.between(cursor, fromMillis, toMillis, limit);
+    }
+
+    /**
+     * 내역이 있는 사용자 ID 목록 (복사하지 않는 view)
+     */
+    public Iterable<Long> userIds() {
+        return index.keySet();
+    }
+
+    public int userCount() {
+        return index.size();
+    }
+
+    private static final class UserHistories {
+        //저장 순서 = id 오름차순
+        private final List<PointHistory> histories = new ArrayList<>();
+        private final NavigableSet<PointHistory> byTime = new TreeSet<>(TIME_ORDER);
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void append(PointHistory pointHistory) {
+            lock.writeLock().lock();
+            try {
+                histories.add(pointHistory);
+                byTime.add(pointHistory);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<PointHistory> snapshot() {
+            lock.readLock().lock();
+            try {
+                return List.copyOf(histories);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<PointHistory> after(Long cursor, int limit) {
+            lock.readLock().lock();
+            try {
+                int from = cursor == null ? 0 : firstIndexAfter(cursor);
+                int to = Math.min(histories.size(), from + limit);
+                return List.copyOf(histories.subList(from, to));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<PointHistory> between(Long cursor, long fromMillis, long toMillis, int limit) {
+            lock.readLock().lock();
+            try {
+                List<PointHistory> page = new ArrayList<>();
+                Iterator<PointHistory> iterator = tailFrom(cursor, fromMillis).iterator();
+                while (iterator.hasNext() && page.size() < limit) {
+                    PointHistory pointHistory = iterator.next();
+                    if (pointHistory.updateMillis() >= toMillis) {
+                        break;
+                    }
+                    page.add(pointHistory);
+                }
+                return page;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * 시간순 탐색 시작점. fromMillis 의 가장 앞과 cursor 내역 바로 다음 중 뒤쪽부터
+         */
+        private NavigableSet<PointHistory> tailFrom(Long cursor, long fromMillis) {
+            PointHistory from = new PointHistory(Long.MIN_VALUE, 0, 0, null, fromMillis);
+            if (cursor != null) {
+                int index = firstIndexAfter(cursor) - 1;
+                if (index >= 0 && histories.get(index).id() == cursor) {
+                    PointHistory cursorHistory = histories.get(index);
+                    if (TIME_ORDER.compare(cursorHistory, from) > 0) {
+                        return byTime.tailSet(cursorHistory, false);
+                    }
+                }
+            }
+            return byTime.tailSet(from, true);
+        }
+
+        /**
+         * id 가 cursor 보다 큰 첫 위치 (이진 탐색)
+         */
+        private int firstIndexAfter(long cursor) {
+            int low = 0;
+            int high = histories.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (histories.get(mid).id() <= cursor) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
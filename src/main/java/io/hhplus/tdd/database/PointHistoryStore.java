@@ -0,0 +1,57 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 포인트 내역 저장소
+ * - 저장은 PointHistoryWriter 의 기록 스레드(또는 시작 시 복구) 한 곳에서만 호출한다.
+ * - 같은 사용자의 내역 id 는 저장 순서대로 커진다.
+ */
+public interface PointHistoryStore {
+
+    PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
+
+    /**
+     * 시작 시 복구용 적재. 이미 영속화된(snapshot 내역 파일 / journal) 내역이므로 느린 테이블을 다시 거치지 않는다.
+     * - 요청을 받기 전(첫 insert 전)에만 호출한다.
+     */
+    default void restore(long userId, long amount, TransactionType type, long updateMillis) {
+        insert(userId, amount, type, updateMillis);
+    }
+
+    /**
+     * 저장했지만 아직 뒤쪽 저장소(테이블)에 저장되지 않은 내역 수. 뒤쪽 저장소가 없으면 0
+     * - PointHistoryWriter 가 쌓인 내역 한도를 확인할 때 함께 센다.
+     */
+    default int pendingCount() {
+        return 0;
+    }
+
+    List<PointHistory> selectAllByUserId(long userId);
+
+    /**
+     * 사용자 내역 한 페이지 조회
+     * - 기간 조건이 없으면 id 순으로 cursor 다음부터
+     * - 기간 조건이 있으면 [fromMillis, toMillis) 범위를 (updateMillis, id) 순으로 cursor 다음부터
+     */
+    List<PointHistory> selectPage(long userId, Long cursor, Long fromMillis, Long toMillis, int limit);
+
+    /**
+     * 사용자들의 내역을 하나씩 consumer 로 넘긴다. 전체를 목록으로 만들지 않고 일정 크기씩 끊어서 읽는다.
+     * - userIds 가 null 이면 내역이 있는 모든 사용자
+     */
+    void forEach(Iterable<Long> userIds, Long fromMillis, Long toMillis, Consumer<PointHistory> consumer);
+
+    /**
+     * point.history.store 설정 값
+     * - TABLE : PointHistoryTable 에 저장하고 사용자별 인덱스로 조회
+     * - COLUMNAR : 테이블 없이 사용자별 primitive 배열(column)에만 저장
+     */
+    enum Type {
+        TABLE, COLUMNAR
+    }
+}
@@ -0,0 +1,108 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.metrics.PointMetrics.TableCall;
+import io.hhplus.tdd.point.PointHistory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 포인트 내역 테이블 write-behind 기록기
+ * - IndexedPointHistoryStore 가 인덱스에 먼저 넣은 내역을 백그라운드 스레드 하나가 넣은 순서대로 PointHistoryTable 에 저장한다.
+ *   테이블이 동시 접근에 안전하지 않으므로 스레드는 하나이고, 테이블 id 는 저장 순서대로 발급된다.
+ * - 저장에 실패한 내역은 버리지 않고 잠시 뒤 같은 자리에서 다시 저장한다. (뒤의 내역이 먼저 저장되면 id 순서가 어긋남)
+ */
+public class PointHistoryTableWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHistoryTableWriter.class);
+
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private final PointHistoryTable pointHistoryTable;
+    private final PointMetrics pointMetrics;
+    private final BlockingQueue<PointHistory> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    //넣었지만 아직 저장하지 못한 내역 수 (꺼내서 저장 중인 내역 포함)
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public PointHistoryTableWriter(PointHistoryTable pointHistoryTable, PointMetrics pointMetrics) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.pointMetrics = pointMetrics;
+        this.writerThread = new Thread(this::drainLoop, "point-history-table-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 내역을 저장 대기열에 넣고 바로 반환한다.
+     */
+    public void write(PointHistory pointHistory) {
+        if (!running) {
+            throw new IllegalStateException("포인트 내역 테이블 기록기가 종료되었습니다.");
+        }
+        pending.incrementAndGet();
+        queue.add(pointHistory);
+    }
+
+    /**
+     * 아직 테이블에 저장되지 않은 내역 수
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * 지금까지 넣은 내역이 모두 테이블에 저장될 때까지 대기한다. (테스트 / 종료용)
+     */
+    public void flush() {
+        while (pendingCount() > 0 && writerThread.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            PointHistory pointHistory;
+            try {
+                pointHistory = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pointHistory == null) {
+                continue;
+            }
+            while (!insert(pointHistory)) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_BACKOFF_MILLIS));
+            }
+            pending.decrementAndGet();
+        }
+    }
+
+    private boolean insert(PointHistory pointHistory) {
+        try {
+            pointMetrics.recordTableCall(TableCall.POINT_HISTORY_INSERT, () -> pointHistoryTable.insert(
+                    pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis()));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("포인트 내역 테이블 저장 실패, 다시 시도합니다. id={}", pointHistory.id(), e);
+            return false;
+        }
+    }
+}
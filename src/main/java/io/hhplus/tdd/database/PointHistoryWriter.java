@@ -0,0 +1,299 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 포인트 내역 write-behind 기록기
+ * - 잔액 갱신은 사용자 lock 안에서 끝내고, 내역은 queue 에 넣은 뒤 바로 반환한다. (lock 안에서는 기다리지 않음)
+ * - 쌓인 내역 수는 충전/사용이 lock 을 잡기 전에 awaitCapacity 로 제한한다.
+ *   queue 와 저장소의 테이블 대기 내역을 합쳐 queueCapacity 이상이면 backlogTimeoutMillis 동안 자리를 기다리고, 그래도 없으면 503
+ * - 백그라운드 스레드 하나가 queue 를 배치 단위로 꺼내 PointHistoryStore 에 순서대로 저장한다.
+ *   저장소는 메모리에만 넣고 느린 테이블 저장은 저장소가 따로 하므로 (IndexedPointHistoryStore) 이 스레드는 테이블을 기다리지 않는다.
+ * - 저장에 실패한 내역은 버리지 않고 다음 배치에서 먼저 다시 저장한다. 남아 있는 동안 조회는 실패로 알린다.
+ * - 조회는 앞서 넣은 내역이 모두 저장될 때까지 기다린 뒤 인덱스에서 읽는다. (read-your-writes)
+ * - inline : partition 실행 모드용. 사용자를 맡은 partition 스레드가 자기 partition 저장소에 바로 쓰고, 기록 스레드와 queue 는 없다.
+ */
+public class PointHistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHistoryWriter.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final long DEFAULT_BACKLOG_TIMEOUT_MILLIS = 1_000;
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final PointHistoryStore pointHistoryStore;
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long backlogTimeoutNanos;
+    //inline 이면 null
+    private final Thread writerThread;
+    //MAX_INSERT_ATTEMPTS 번 저장하지 못해 다음 배치에서 다시 저장할 내역 (기록 스레드만 접근)
+    private final Deque<Runnable> failed = new ArrayDeque<>();
+    private volatile int failedCount;
+    private volatile boolean running = true;
+
+    public PointHistoryWriter(PointHistoryTable pointHistoryTable) {
+        this(new IndexedPointHistoryStore(pointHistoryTable), DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    public PointHistoryWriter(PointHistoryStore pointHistoryStore, int queueCapacity, int batchSize) {
+        this(pointHistoryStore, queueCapacity, batchSize, DEFAULT_BACKLOG_TIMEOUT_MILLIS);
+    }
+
+    public PointHistoryWriter(PointHistoryStore pointHistoryStore, int queueCapacity, int batchSize,
+                              long backlogTimeoutMillis) {
+        if (queueCapacity <= 0 || batchSize <= 0 || backlogTimeoutMillis < 0) {
+            throw new IllegalArgumentException("queue 크기와 배치 크기는 0보다 커야 합니다.");
+        }
+        this.pointHistoryStore = pointHistoryStore;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.backlogTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(backlogTimeoutMillis);
+        this.writerThread = new Thread(this::drainLoop, "point-history-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    private PointHistoryWriter(PointHistoryStore pointHistoryStore) {
+        this.pointHistoryStore = pointHistoryStore;
+        this.queueCapacity = Integer.MAX_VALUE;
+        this.batchSize = 1;
+        this.backlogTimeoutNanos = 0;
+        this.writerThread = null;
+    }
+
+    /**
+     * 기록 스레드 없이 호출한 스레드가 저장소에 바로 쓰는 기록기 (partition 실행 모드)
+     * - 같은 사용자는 항상 같은 partition 스레드가 쓰고, partition 마다 저장소가 나뉘어 있어야 한다. (PartitionedPointHistoryStore)
+     * - 저장이 끝난 뒤 명령 결과가 반환되므로 조회는 기다리지 않고 저장소에서 바로 읽는다.
+     */
+    public static PointHistoryWriter inline(PointHistoryStore pointHistoryStore) {
+        return new PointHistoryWriter(pointHistoryStore);
+    }
+
+    /**
+     * 내역 한 건을 queue 에 넣고 바로 반환한다. 쌓인 내역 수 제한은 lock 을 잡기 전의 awaitCapacity 에서 한다.
+     */
+    public void append(long userId, long amount, TransactionType type, long updateMillis) {
+        if (writerThread == null) {
+            if (!running) {
+                throw new IllegalStateException("포인트 내역 기록기가 종료되었습니다.");
+            }
+            pointHistoryStore.insert(userId, amount, type, updateMillis);
+            return;
+        }
+        enqueue(() -> pointHistoryStore.insert(userId, amount, type, updateMillis));
+    }
+
+    /**
+     * 쌓인 내역(queue + 저장소의 테이블 대기)이 queueCapacity 보다 적어질 때까지 backlogTimeoutMillis 동안 기다린다.
+     * 그래도 자리가 없으면 PointHistoryBacklogException (503). 사용자 lock 을 잡기 전에 호출한다.
+     * - 동시에 통과한 요청 수만큼은 queueCapacity 를 넘을 수 있다.
+     */
+    public void awaitCapacity() {
+        if (backlog() < queueCapacity) {
+            return;
+        }
+        long deadline = System.nanoTime() + backlogTimeoutNanos;
+        while (backlog() >= queueCapacity) {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new PointHistoryBacklogException("저장되지 않은 포인트 내역이 많아 요청을 처리할 수 없습니다.");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * 지금까지 넣은 내역이 모두 저장된 뒤 사용자의 내역을 조회한다.
+     */
+    public List<PointHistory> selectAllByUserId(long userId) {
+        flush();
+        return pointHistoryStore.selectAllByUserId(userId);
+    }
+
+    /**
+     * 지금까지 넣은 내역이 모두 저장된 뒤 사용자의 내역을 한 페이지 조회한다.
+     */
+    public List<PointHistory> selectPage(long userId, Long cursor, Long fromMillis, Long toMillis, int limit) {
+        flush();
+        return pointHistoryStore.selectPage(userId, cursor, fromMillis, toMillis, limit);
+    }
+
+    /**
+     * 지금까지 넣은 내역이 모두 저장된 뒤 사용자들의 내역을 하나씩 consumer 로 넘긴다.
+     */
+    public void forEach(Iterable<Long> userIds, Long fromMillis, Long toMillis, Consumer<PointHistory> consumer) {
+        flush();
+        pointHistoryStore.forEach(userIds, fromMillis, toMillis, consumer);
+    }
+
+    /**
+     * 지금까지 넣은 내역이 모두 저장될 때까지 대기한다.
+     * 저장하지 못해 다시 저장할 내역이 남아 있으면 IllegalStateException (조회 결과에 빠진 내역이 있음)
+     */
+    public void flush() {
+        if (writerThread == null) {
+            return;
+        }
+        await(() -> {
+            if (!failed.isEmpty()) {
+                throw new IllegalStateException("저장하지 못한 포인트 내역 " + failed.size() + "건을 다시 저장하는 중입니다.");
+            }
+            return null;
+        });
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 저장하지 못해 다시 저장할 내역 수
+     */
+    public int failedCount() {
+        return failedCount;
+    }
+
+    /**
+     * 새 내역을 더 받지 않고, 이미 넣은 내역과 flush 요청을 모두 처리한 뒤 종료한다.
+     * - 기록 스레드가 끝난 뒤 남은 작업(종료와 겹쳐 들어온 작업)은 이 스레드에서 처리해 flush 가 끝나지 않는 일이 없게 한다.
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (!writerThread.isAlive()) {
+            List<Runnable> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            runBatch(remaining);
+        }
+    }
+
+    private int backlog() {
+        return queue.size() + failedCount + pointHistoryStore.pendingCount();
+    }
+
+    /**
+     * action 을 기록 스레드에서 실행하고 결과를 기다린다.
+     * 기록 스레드가 끝났는데 action 이 queue 에 남아 있으면(종료와 겹침) 꺼내고 IllegalStateException
+     */
+    private <T> T await(Callable<T> action) {
+        FutureTask<T> task = new FutureTask<>(action);
+        enqueue(task);
+        try {
+            while (true) {
+                try {
+                    return task.get(100, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (!writerThread.isAlive() && queue.remove(task)) {
+                        throw new IllegalStateException("포인트 내역 기록기가 종료되었습니다.");
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("포인트 내역 처리 대기 중 인터럽트가 발생했습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void enqueue(Runnable task) {
+        if (!running) {
+            throw new IllegalStateException("포인트 내역 기록기가 종료되었습니다.");
+        }
+        queue.add(task);
+        //종료와 겹쳐 기록 스레드와 close 가 모두 지나간 뒤 들어갔으면 꺼내고 실패로 알린다.
+        if (!running && !writerThread.isAlive() && queue.remove(task)) {
+            throw new IllegalStateException("포인트 내역 기록기가 종료되었습니다.");
+        }
+    }
+
+    private void drainLoop() {
+        List<Runnable> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Runnable first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    retryFailed();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                runBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 앞서 실패한 내역을 먼저 다시 저장한 뒤 배치를 순서대로 처리한다.
+     * 내역 저장은 MAX_INSERT_ATTEMPTS 번까지 시도하고, 그래도 실패하면 failed 에 남겨 다음 배치에서 다시 저장한다.
+     */
+    private void runBatch(List<Runnable> batch) {
+        retryFailed();
+        for (Runnable task : batch) {
+            if (task instanceof FutureTask<?>) {
+                task.run();
+            } else if (!failed.isEmpty() || !insert(task)) {
+                //앞서 실패한 내역이 남아 있으면 순서를 지키기 위해 뒤에 줄 세운다.
+                failed.addLast(task);
+                failedCount = failed.size();
+            }
+        }
+    }
+
+    private void retryFailed() {
+        while (!failed.isEmpty() && insert(failed.peekFirst())) {
+            failed.removeFirst();
+        }
+        failedCount = failed.size();
+    }
+
+    private boolean insert(Runnable task) {
+        for (int attempt = 1; attempt <= MAX_INSERT_ATTEMPTS; attempt++) {
+            try {
+                task.run();
+                return true;
+            } catch (RuntimeException e) {
+                log.error("포인트 내역 저장 실패 ({}/{})", attempt, MAX_INSERT_ATTEMPTS, e);
+            }
+        }
+        return false;
+    }
+}
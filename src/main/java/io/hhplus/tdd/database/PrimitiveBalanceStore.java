@@ -0,0 +1,318 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 박싱 없이 long 값만으로 잔액을 저장하는 open addressing 해시 테이블
+ * - HashMap&lt;Long, UserPoint&gt; 는 사용자마다 Long, UserPoint, HashMap.Node 객체를 만들지만
+ *   여기서는 slot 하나에 long 3개(id, point, updateMillis)를 연속으로 둔다. (slot 당 24 byte)
+ * - heap : long[] 에 저장 / off-heap : direct ByteBuffer 에 저장해 GC 가 훑는 heap 에서 뺀다.
+ * - 선형 탐사(linear probing)로 찾고, 적재율이 3/4 를 넘으면 해당 segment 만 두 배로 늘린다.
+ * - 사용자 ID 해시로 나눈 segment 마다 StampedLock 을 둬 조회는 낙관적 읽기(lock 없음), 저장만 segment lock 을 잡는다.
+ * - 삭제는 지원하지 않는다. (잔액은 0 이 되어도 남겨 둔다)
+ * - id 0 은 빈 slot 표시로 쓰므로 segment 필드에 따로 저장한다.
+ */
+public class PrimitiveBalanceStore implements BalanceStore {
+
+    private static final int SEGMENT_COUNT = 64;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final long EMPTY = 0L;
+
+    //slot 배치 : [id][point][updateMillis]
+    private static final int SLOT_LONGS = 3;
+    private static final int SLOT_BYTES = SLOT_LONGS * Long.BYTES;
+    //long[] / ByteBuffer 크기가 int 범위를 넘지 않는 segment 최대 slot 수
+    private static final int MAX_HEAP_CAPACITY = (Integer.MAX_VALUE - 8) / SLOT_LONGS;
+    private static final int MAX_OFF_HEAP_CAPACITY = Integer.MAX_VALUE / SLOT_BYTES;
+
+    private final boolean offHeap;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    /**
+     * @param expectedUsers 처음부터 확보할 사용자 수. segment 마다 사용자 수가 고르지 않으므로 적재율 2/3 로 잡는다.
+     */
+    private PrimitiveBalanceStore(boolean offHeap, long expectedUsers) {
+        if (expectedUsers < 0) {
+            throw new IllegalArgumentException("예상 사용자 수는 0 이상이어야 합니다.");
+        }
+        this.offHeap = offHeap;
+        long segmentUsers = (expectedUsers + SEGMENT_COUNT - 1) / SEGMENT_COUNT;
+        int capacity = (int) Math.min(maxCapacity(), Math.max(MIN_SEGMENT_CAPACITY, segmentUsers * 3 / 2 + 1));
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(newSlots(capacity));
+        }
+    }
+
+    public static PrimitiveBalanceStore onHeap(long expectedUsers) {
+        return new PrimitiveBalanceStore(false, expectedUsers);
+    }
+
+    public static PrimitiveBalanceStore offHeap(long expectedUsers) {
+        return new PrimitiveBalanceStore(true, expectedUsers);
+    }
+
+    @Override
+    public UserPoint get(long id) {
+        long hash = hash(id);
+        return segmentFor(hash).get(id, hash);
+    }
+
+    @Override
+    public UserPoint put(long id, long point, long updateMillis) {
+        long hash = hash(id);
+        segmentFor(hash).put(id, hash, point, updateMillis);
+        return new UserPoint(id, point, updateMillis);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public long footprintBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.slots.capacity() * SLOT_BYTES;
+        }
+        return bytes;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private Segment segmentFor(long hash) {
+        //segment 는 하위 bit, segment 안의 위치는 상위 32 bit 로 고른다.
+        return segments[(int) hash & (SEGMENT_COUNT - 1)];
+    }
+
+    private int maxCapacity() {
+        return offHeap ? MAX_OFF_HEAP_CAPACITY : MAX_HEAP_CAPACITY;
+    }
+
+    private Slots newSlots(int capacity) {
+        return offHeap ? new DirectSlots(capacity) : new HeapSlots(capacity);
+    }
+
+    /**
+     * 연속된 사용자 ID 도 고르게 흩어지도록 섞는다. (SplitMix64 finalizer)
+     */
+    private static long hash(long id) {
+        long h = (id ^ (id >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * hash 상위 32 bit 를 [0, capacity) 로 옮긴다. capacity 가 2의 거듭제곱이 아니어도 된다.
+     */
+    private static int home(long hash, int capacity) {
+        return (int) (((hash >>> 32) * capacity) >>> 32);
+    }
+
+    private final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private Slots slots;
+        private int size;
+        private boolean hasZero;
+        private long zeroPoint;
+        private long zeroUpdateMillis;
+
+        Segment(Slots slots) {
+            this.slots = slots;
+        }
+
+        UserPoint get(long id, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                UserPoint userPoint = read(id, hash);
+                if (lock.validate(stamp)) {
+                    return userPoint;
+                }
+            }
+            //읽는 중에 저장이 끼어들었으면 read lock 으로 다시 읽는다.
+            stamp = lock.readLock();
+            try {
+                return read(id, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void put(long id, long hash, long point, long updateMillis) {
+            long stamp = lock.writeLock();
+            try {
+                if (id == EMPTY) {
+                    if (!hasZero) {
+                        hasZero = true;
+                        size++;
+                    }
+                    zeroPoint = point;
+                    zeroUpdateMillis = updateMillis;
+                    return;
+                }
+                int index = indexOf(slots, id, hash);
+                if (slots.id(index) == EMPTY) {
+                    if (size + 1 > (long) slots.capacity() * 3 / 4) {
+                        grow();
+                        index = indexOf(slots, id, hash);
+                    }
+                    size++;
+                }
+                slots.set(index, id, point, updateMillis);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 낙관적 읽기 중에는 값이 섞여 보일 수 있지만 validate 에서 걸러진다.
+         * 탐사 횟수를 capacity 로 제한해 읽는 도중 slot 이 바뀌어도 끝나도록 한다.
+         */
+        private UserPoint read(long id, long hash) {
+            if (id == EMPTY) {
+                return hasZero ? new UserPoint(id, zeroPoint, zeroUpdateMillis) : null;
+            }
+            Slots current = slots;
+            int capacity = current.capacity();
+            int index = home(hash, capacity);
+            for (int probe = 0; probe < capacity; probe++) {
+                long key = current.id(index);
+                if (key == id) {
+                    return new UserPoint(id, current.point(index), current.updateMillis(index));
+                }
+                if (key == EMPTY) {
+                    return null;
+                }
+                index = index + 1 == capacity ? 0 : index + 1;
+            }
+            return null;
+        }
+
+        /**
+         * id 가 있는 slot, 없으면 처음 만난 빈 slot (write lock 안에서만 호출)
+         */
+        private int indexOf(Slots target, long id, long hash) {
+            int capacity = target.capacity();
+            int index = home(hash, capacity);
+            while (true) {
+                long key = target.id(index);
+                if (key == id || key == EMPTY) {
+                    return index;
+                }
+                index = index + 1 == capacity ? 0 : index + 1;
+            }
+        }
+
+        private void grow() {
+            int capacity = slots.capacity();
+            if (capacity >= maxCapacity()) {
+                throw new IllegalStateException("잔액 저장소 segment 가 최대 크기에 도달했습니다: " + capacity);
+            }
+            Slots grown = newSlots((int) Math.min(maxCapacity(), (long) capacity * 2));
+            for (int index = 0; index < capacity; index++) {
+                long id = slots.id(index);
+                if (id != EMPTY) {
+                    grown.set(indexOf(grown, id, hash(id)), id, slots.point(index), slots.updateMillis(index));
+                }
+            }
+            slots = grown;
+        }
+    }
+
+    private interface Slots {
+        int capacity();
+
+        long id(int index);
+
+        long point(int index);
+
+        long updateMillis(int index);
+
+        void set(int index, long id, long point, long updateMillis);
+    }
+
+    private static final class HeapSlots implements Slots {
+        private final long[] values;
+
+        HeapSlots(int capacity) {
+            values = new long[capacity * SLOT_LONGS];
+        }
+
+        @Override
+        public int capacity() {
+            return values.length / SLOT_LONGS;
+        }
+
+        @Override
+        public long id(int index) {
+            return values[index * SLOT_LONGS];
+        }
+
+        @Override
+        public long point(int index) {
+            return values[index * SLOT_LONGS + 1];
+        }
+
+        @Override
+        public long updateMillis(int index) {
+            return values[index * SLOT_LONGS + 2];
+        }
+
+        @Override
+        public void set(int index, long id, long point, long updateMillis) {
+            int offset = index * SLOT_LONGS;
+            values[offset + 1] = point;
+            values[offset + 2] = updateMillis;
+            values[offset] = id;
+        }
+    }
+
+    private static final class DirectSlots implements Slots {
+        //allocateDirect 는 0 으로 채워진 메모리를 돌려주므로 모든 slot 이 빈 상태로 시작한다.
+        private final ByteBuffer buffer;
+        private final int capacity;
+
+        DirectSlots(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+            this.capacity = capacity;
+        }
+
+        @Override
+        public int capacity() {
+            return capacity;
+        }
+
+        @Override
+        public long id(int index) {
+            return buffer.getLong(index * SLOT_BYTES);
+        }
+
+        @Override
+        public long point(int index) {
+            return buffer.getLong(index * SLOT_BYTES + Long.BYTES);
+        }
+
+        @Override
+        public long updateMillis(int index) {
+            return buffer.getLong(index * SLOT_BYTES + 2 * Long.BYTES);
+        }
+
+        @Override
+        public void set(int index, long id, long point, long updateMillis) {
+            int offset = index * SLOT_BYTES;
+            buffer.putLong(offset + Long.BYTES, point);
+            buffer.putLong(offset + 2 * Long.BYTES, updateMillis);
+            buffer.putLong(offset, id);
+        }
+    }
+}
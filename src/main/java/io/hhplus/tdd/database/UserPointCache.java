@@ -0,0 +1,182 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * UserPointTable 앞단의 write-through 잔액 캐시
+ * - PointService 가 insertOrUpdate 에 성공할 때마다 같은 사용자 lock 안에서 갱신한다.
+ * - optimistic 모드에서는 테이블 저장(write-behind)보다 먼저 갱신되는 잔액의 기준 값이고, 캐시된 인스턴스가 version 역할을 한다.
+ * - 크기가 정해진 LRU 캐시로, 사용자 ID 해시로 나눈 segment 마다 lock 을 따로 둬 경합을 줄인다.
+ * - hit / miss / eviction 횟수를 메트릭으로 노출한다.
+ */
+@Component
+public class UserPointCache implements MeterBinder {
+
+    private static final int DEFAULT_MAX_SIZE = 100_000;
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserPointCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    @Autowired
+    public UserPointCache(@Value("${point.cache.max-size:" + DEFAULT_MAX_SIZE + "}") int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("캐시 크기는 0보다 커야 합니다.");
+        }
+        int segmentCapacity = Math.max(1, maxSize / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * 캐시된 잔액을 반환한다. 없으면 null
+     * - hit 만 집계한다. 없을 때는 이어서 getOrLoad 로 적재하므로 miss 는 그쪽에서 한 번만 집계한다.
+     */
+    public UserPoint get(long id) {
+        UserPoint userPoint = segmentFor(id).get(id);
+        if (userPoint != null) {
+            hits.increment();
+        }
+        return userPoint;
+    }
+
+    /**
+     * 캐시된 잔액을 반환하고, 없으면 loader 로 읽어 캐시에 넣은 뒤 반환한다. 조회 한 번에 hit / miss 중 하나만 집계
+     * - 읽는 동안 다른 스레드가 먼저 넣은 잔액이 있으면 덮어쓰지 않고 그 값을 반환한다.
+     * - 읽는 동안 같은 사용자의 새 잔액이 put 되고 밀려나면 읽은(오래된) 값이 들어가므로,
+     *   호출하는 쪽이 같은 사용자의 put 과 겹치지 않게 호출한다. (사용자 lock / OptimisticBalanceUpdater 의 공개 중 표시)
+     */
+    public UserPoint getOrLoad(long id, LongFunction<UserPoint> loader) {
+        UserPoint cached = get(id);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+        return segmentFor(id).putIfAbsent(loader.apply(id));
+    }
+
+    /**
+     * userPoint 가 아직 캐시에 그대로(같은 인스턴스로) 남아 있는지 확인한다. hit / miss 는 집계하지 않는다.
+     */
+    public boolean isCurrent(UserPoint userPoint) {
+        return segmentFor(userPoint.id()).get(userPoint.id()) == userPoint;
+    }
+
+    public void put(UserPoint userPoint) {
+        if (userPoint != null) {
+            segmentFor(userPoint.id()).put(userPoint);
+        }
+    }
+
+    public CacheStats stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("point.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("point.cache.evictions", evictions, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("point.cache.size", this, cache -> cache.stats().size())
+                .register(registry);
+    }
+
+    private Segment segmentFor(long id) {
+        int hash = Long.hashCode(id);
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    public record CacheStats(
+            long hits,
+            long misses,
+            long evictions,
+            long size
+    ) {
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, UserPoint> entries;
+
+        Segment(int capacity) {
+            //accessOrder = true : 조회할 때마다 가장 최근 위치로 이동 (LRU)
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, UserPoint> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        UserPoint get(long id) {
+            lock.lock();
+            try {
+                return entries.get(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(UserPoint userPoint) {
+            lock.lock();
+            try {
+                entries.put(userPoint.id(), userPoint);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        UserPoint putIfAbsent(UserPoint userPoint) {
+            lock.lock();
+            try {
+                UserPoint existing = entries.putIfAbsent(userPoint.id(), userPoint);
+                return existing == null ? userPoint : existing;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.metrics.PointMetrics.TableCall;
+import io.hhplus.tdd.point.UserPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 잔액 write-behind 기록기
+ * - 잔액은 메모리에서 먼저 공개하고, 테이블에는 백그라운드 스레드 하나가 사용자별 마지막 값만 저장한다.
+ * - 저장되기 전에 같은 사용자의 잔액이 여러 번 바뀌면 마지막 값만 한 번 저장한다.
+ *   그래서 pending 에는 아직 저장되지 않은 사용자 수만큼만 쌓인다.
+ * - 테이블을 이 스레드만 쓰므로 동시 접근에 안전하지 않은 UserPointTable 도 그대로 사용할 수 있다.
+ */
+public class UserPointWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPointWriter.class);
+
+    private final UserPointTable userPointTable;
+    private final PointMetrics pointMetrics;
+    //사용자 ID -> 아직 테이블에 저장되지 않은 마지막 잔액
+    private final ConcurrentHashMap<Long, UserPoint> pending = new ConcurrentHashMap<>();
+    //pending 에 있는 사용자 ID 가 한 번씩만 들어 있다.
+    private final BlockingQueue<Long> dirtyIds = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public UserPointWriter(UserPointTable userPointTable, PointMetrics pointMetrics) {
+        this.userPointTable = userPointTable;
+        this.pointMetrics = pointMetrics;
+        this.writerThread = new Thread(this::drainLoop, "user-point-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 잔액을 저장 대기열에 넣고 바로 반환한다.
+     */
+    public void write(UserPoint userPoint) {
+        if (!running) {
+            throw new IllegalStateException("잔액 기록기가 종료되었습니다.");
+        }
+        if (pending.put(userPoint.id(), userPoint) == null) {
+            dirtyIds.add(userPoint.id());
+        }
+    }
+
+    /**
+     * 아직 테이블에 저장되지 않은 잔액. 없으면 null (테이블 값이 최신)
+     */
+    public UserPoint pending(long id) {
+        return pending.get(id);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 지금까지 넣은 잔액이 모두 테이블에 저장될 때까지 대기한다. (테스트 / 종료용)
+     */
+    public void flush() {
+        while (!pending.isEmpty() && writerThread.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        while (running || !dirtyIds.isEmpty()) {
+            Long id;
+            try {
+                id = dirtyIds.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (id == null) {
+                continue;
+            }
+            UserPoint userPoint = pending.get(id);
+            try {
+                pointMetrics.recordTableCall(TableCall.USER_POINT_INSERT_OR_UPDATE, () ->
+                        userPointTable.insertOrUpdate(id, userPoint.point()));
+            } catch (RuntimeException e) {
+                log.error("잔액 저장 실패, 다시 시도합니다. userId={}", id, e);
+                dirtyIds.add(id);
+                continue;
+            }
+            //저장하는 동안 새 잔액이 들어왔으면 pending 에 남기고 다시 저장
+            if (!pending.remove(id, userPoint)) {
+                dirtyIds.add(id);
+            }
+        }
+    }
+}
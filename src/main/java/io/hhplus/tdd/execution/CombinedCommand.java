@@ -0,0 +1,48 @@
+package io.hhplus.tdd.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 모아서 처리할 요청 하나와 그 결과
+ * - 요청을 넣은 스레드는 결과가 채워질 때까지 기다리고, 처리하는 쪽(lock 을 잡은 스레드)은 complete / fail 로 결과를 채운다.
+ */
+public final class CombinedCommand<R, T> {
+
+    private final R request;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    public CombinedCommand(R request) {
+        this.request = request;
+    }
+
+    public R request() {
+        return request;
+    }
+
+    public void complete(T value) {
+        result.complete(value);
+    }
+
+    public void fail(RuntimeException e) {
+        result.completeExceptionally(e);
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /**
+     * 결과를 기다린다. 처리 중 발생한 예외는 그대로 다시 던진다.
+     */
+    T join() {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.hhplus.tdd.execution;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 같은 사용자의 충전/사용 요청을 모아서 처리하는 방식 (flat combining)
+ * - 요청은 먼저 사용자별 대기열에 넣고, 사용자 lock 을 잡은 스레드가 대기열에 쌓인 요청을 한꺼번에 꺼내 처리한다.
+ *   lock 을 기다리던 스레드는 자기 요청이 이미 처리되었으면 lock 을 잡자마자 결과만 가져간다.
+ * - 잔액 조회/저장은 한 번에 모은 요청마다 한 번씩만 하므로, 한 사용자에 요청이 몰릴수록 처리량이 늘어난다.
+ * - 그 외 명령은 LOCK 모드와 같이 실행한다. (동기 호출은 호출한 스레드에서, 비동기 호출은 스레드 풀에서)
+ * - 한 번에 모은 요청 수(batch)와 처리한 요청 수를 메트릭으로 노출한다.
+ */
+public class CombiningCommandExecutor extends LockingCommandExecutor implements MeterBinder {
+
+    //lock 을 한 번 잡고 처리할 최대 요청 수 (lock 보유 시간 제한)
+    private static final int MAX_BATCH_SIZE = 1_000;
+
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+
+    public CombiningCommandExecutor(Executor asyncExecutor) {
+        super(asyncExecutor);
+    }
+
+    @Override
+    public boolean combinesCommands() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R, T> T combine(long userId, R request, Consumer<Runnable> withUserLock, BatchHandler<R, T> handler) {
+        CombinedCommand<R, T> command = new CombinedCommand<>(request);
+        Slot slot = retain(userId);
+        try {
+            slot.commands.offer(command);
+            withUserLock.accept(() -> {
+                //자기 요청이 처리될 때까지 대기열 앞에서부터 꺼내 처리 (다른 스레드가 이미 처리했으면 바로 끝남)
+                while (!command.isDone()) {
+                    List<CombinedCommand<R, T>> batch = new ArrayList<>();
+                    CombinedCommand<?, ?> next;
+                    while (batch.size() < MAX_BATCH_SIZE && (next = slot.commands.poll()) != null) {
+                        batch.add((CombinedCommand<R, T>) next);
+                    }
+                    handle(userId, batch, handler);
+                }
+            });
+        } finally {
+            release(userId);
+        }
+        return command.join();
+    }
+
+    /**
+     * 처리를 기다리는 요청이 남아있는 사용자 수
+     */
+    public int activeUsers() {
+        return slots.size();
+    }
+
+    public CombiningStats stats() {
+        return new CombiningStats(batches.sum(), commands.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.combining.batches", batches, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.combining.commands", commands, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("point.combining.active.users", slots, ConcurrentHashMap::size)
+                .register(registry);
+    }
+
+    /**
+     * handler 가 결과를 채우지 못한 요청은 handler 에서 발생한 예외(없으면 IllegalStateException)로 실패 처리한다.
+     */
+    private <R, T> void handle(long userId, List<CombinedCommand<R, T>> batch, BatchHandler<R, T> handler) {
+        RuntimeException failure = null;
+        try {
+            handler.handle(userId, batch);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (CombinedCommand<R, T> command : batch) {
+            if (!command.isDone()) {
+                command.fail(failure != null ? failure : new IllegalStateException("처리 결과가 없는 요청입니다."));
+            }
+        }
+        batches.increment();
+        commands.add(batch.size());
+    }
+
+    private Slot retain(long userId) {
+        return slots.compute(userId, (key, slot) -> {
+            Slot retained = slot == null ? new Slot() : slot;
+            retained.pending++;
+            return retained;
+        });
+    }
+
+    private void release(long userId) {
+        slots.computeIfPresent(userId, (key, slot) -> --slot.pending == 0 ? null : slot);
+    }
+
+    public record CombiningStats(long batches, long commands) {
+    }
+
+    private static final class Slot {
+        private final Queue<CombinedCommand<?, ?>> commands = new ConcurrentLinkedQueue<>();
+        //compute 안에서만 변경
+        private int pending;
+    }
+}
@@ -0,0 +1,56 @@
+package io.hhplus.tdd.execution;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutionConfig {
+
+    /**
+     * 포인트 명령 전용 스레드 풀 (mailbox 실행, 비동기 호출에 사용)
+     * - spring.threads.virtual.enabled=true 이면 작업마다 virtual thread 를 사용한다.
+     *   Tomcat 요청 처리도 같은 설정으로 virtual thread 로 전환된다.
+     * - 사용자 lock 은 ReentrantLock 이라 대기 중에도 carrier thread 를 붙잡지 않는다. (synchronized 는 pinning 발생)
+     */
+    @Bean
+    public Executor pointExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${point.execution.pool-size:64}") int poolSize
+    ) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("point-worker-", 1).factory());
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "point-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(poolSize, threadFactory);
+    }
+
+    /**
+     * point.execution.mode 설정에 따라 lock 기반 / mailbox 기반 / 요청을 모아서 처리하는 / partition 별 실행 방식을 선택
+     * - point.execution.partitions 가 0 이면 partition 수는 사용 가능한 코어 수
+     */
+    @Bean
+    public PointCommandExecutor pointCommandExecutor(
+            @Value("${point.execution.mode:lock}") PointCommandExecutor.Mode mode,
+            @Value("${point.execution.partitions:0}") int partitions,
+            @Qualifier("pointExecutor") Executor pointExecutor
+    ) {
+        return switch (mode) {
+            case LOCK -> new LockingCommandExecutor(pointExecutor);
+            case MAILBOX -> new MailboxCommandExecutor(pointExecutor);
+            case COMBINING -> new CombiningCommandExecutor(pointExecutor);
+            case PARTITIONED -> new PartitionedCommandExecutor(PartitionedCommandExecutor.partitionCount(partitions));
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 기존 lock 기반 실행 방식
+ * - 동기 호출은 호출한 스레드에서 바로 실행한다. (사용자 lock 대기도 호출한 스레드가 함)
+ * - 비동기 호출만 지정한 스레드 풀에서 실행한다.
+ */
+public class LockingCommandExecutor implements PointCommandExecutor {
+
+    private final Executor asyncExecutor;
+
+    public LockingCommandExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(long userId, Supplier<T> command) {
+        return CompletableFuture.supplyAsync(command, asyncExecutor);
+    }
+
+    @Override
+    public <T> T execute(long userId, Supplier<T> command) {
+        return command.get();
+    }
+}
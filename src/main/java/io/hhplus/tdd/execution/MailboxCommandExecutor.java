@@ -0,0 +1,104 @@
+package io.hhplus.tdd.execution;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 순차 mailbox 실행 방식 (actor 스타일)
+ * - 사용자 ID마다 mailbox 하나를 두고, 명령은 mailbox 에 넣은 순서대로 한 번에 하나씩 실행한다.
+ * - 실행은 공용 스레드 풀이 맡으므로, 같은 사용자 명령이 밀려 있어도 기다리는 동안 스레드를 붙잡지 않는다.
+ * - mailbox 는 처리할 명령이 남아있는 동안만 유지하고, 비면 map 에서 제거한다.
+ */
+public class MailboxCommandExecutor implements PointCommandExecutor {
+
+    //스레드 풀을 한 mailbox 가 독점하지 않도록 한 번에 처리할 최대 명령 수
+    private static final int MAX_COMMANDS_PER_RUN = 32;
+
+    private final Executor executor;
+    private final ConcurrentHashMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public MailboxCommandExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(long userId, Supplier<T> command) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Mailbox mailbox = retain(userId);
+        mailbox.enqueue(() -> {
+            try {
+                future.complete(command.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                release(userId);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 처리할 명령이 남아있는 mailbox 수
+     */
+    public int activeMailboxes() {
+        return mailboxes.size();
+    }
+
+    private Mailbox retain(long userId) {
+        return mailboxes.compute(userId, (key, mailbox) -> {
+            Mailbox retained = mailbox == null ? new Mailbox() : mailbox;
+            retained.pending++;
+            return retained;
+        });
+    }
+
+    private void release(long userId) {
+        mailboxes.computeIfPresent(userId, (key, mailbox) -> --mailbox.pending == 0 ? null : mailbox);
+    }
+
+    private final class Mailbox {
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        //compute 안에서만 변경
+        private int pending;
+
+        void enqueue(Runnable command) {
+            commands.offer(command);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                for (int i = 0; i < MAX_COMMANDS_PER_RUN; i++) {
+                    Runnable command = commands.poll();
+                    if (command == null) {
+                        break;
+                    }
+                    command.run();
+                }
+            } finally {
+                scheduled.set(false);
+                //실행 중 새로 들어온 명령이 있으면 다시 예약
+                if (!commands.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.hhplus.tdd.execution;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * 사용자 ID 해시로 나눈 partition 마다 전용 스레드 하나가 명령을 순서대로 실행하는 방식
+ * - 같은 사용자의 명령은 항상 같은 partition 스레드에서만 실행되므로(ownsUsers) PointService 는 사용자 lock 을 잡지 않는다.
+ * - partition 끼리는 실행 대기열과 스레드를 공유하지 않는다. 설정으로 켜면 잔액(PartitionedBalanceUpdater)과
+ *   내역(PartitionedPointHistoryStore)도 partition 마다 따로 두고, 내역은 partition 스레드가 기록기 queue 없이 바로 쓴다.
+ * - 명령이 테이블처럼 blocking 하는 저장소를 기다리는 동안 같은 partition 의 다른 사용자 명령도 모두 기다린다.
+ *   heap / off-heap 잔액, columnar 내역처럼 blocking 하지 않는 저장소와 함께 쓴다.
+ * - 동기 호출도 partition 스레드에 넘기고, 호출한 스레드는 결과만 기다린다.
+ * - 대기열 길이는 제한하지 않는다. 몰리는 요청은 앞단의 AdmissionLimiter 로 거절한다.
+ * - Java 에는 스레드를 코어에 고정하는 표준 API 가 없어 스레드 배치는 운영체제 스케줄러에 맡긴다.
+ */
+public class PartitionedCommandExecutor implements PointCommandExecutor, MeterBinder, AutoCloseable {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final ThreadPoolExecutor[] partitions;
+
+    public PartitionedCommandExecutor(int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partition 수는 0보다 커야 합니다.");
+        }
+        this.partitions = new ThreadPoolExecutor[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            String name = "point-partition-" + i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(long userId, Supplier<T> command) {
+        return CompletableFuture.supplyAsync(command, partitions[partitionOf(userId, partitions.length)]);
+    }
+
+    @Override
+    public boolean ownsUsers() {
+        return true;
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * point.execution.partitions 설정 값으로 정하는 partition 수. 0 이면 사용 가능한 코어 수
+     * (실행기, 잔액 저장소, 내역 저장소가 같은 수로 나뉘어야 사용자가 같은 partition 에 속한다)
+     */
+    public static int partitionCount(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 사용자가 속한 partition 번호 (0 ~ partitionCount - 1)
+     * 사용자 ID 를 섞은 상위 32 bit 를 partition 수 범위로 줄인다. (나머지 연산 없이 고르게 분배)
+     */
+    public static int partitionOf(long userId, int partitionCount) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (((hash >>> 32) * partitionCount) >>> 32);
+    }
+
+    /**
+     * partition 별 대기 중인 명령 수와 처리한 명령 수
+     */
+    public List<PartitionStats> stats() {
+        return IntStream.range(0, partitions.length)
+                .mapToObj(i -> new PartitionStats(i, partitions[i].getQueue().size(), partitions[i].getCompletedTaskCount()))
+                .toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < partitions.length; i++) {
+            String partition = String.valueOf(i);
+            Gauge.builder("point.partition.queue.depth", partitions[i], executor -> executor.getQueue().size())
+                    .tag("partition", partition)
+                    .register(registry);
+            FunctionCounter.builder("point.partition.commands", partitions[i], ThreadPoolExecutor::getCompletedTaskCount)
+                    .tag("partition", partition)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 새 명령은 받지 않고, 이미 받은 명령은 마저 실행한 뒤 종료한다. (최대 CLOSE_TIMEOUT_SECONDS 까지 대기)
+     */
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor partition : partitions) {
+                partition.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public record PartitionStats(
+            int partition,
+            int queueDepth,
+            long completedCommands
+    ) {
+    }
+}
@@ -0,0 +1,77 @@
+package io.hhplus.tdd.execution;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 충전/사용 명령 실행 방식
+ * - LOCK : 호출한 스레드가 사용자 lock 을 기다렸다가 직접 실행
+ * - MAILBOX : 사용자마다 순차 mailbox 에 명령을 넣고, 공용 스레드 풀이 순서대로 꺼내 실행
+ * - COMBINING : LOCK 과 같되, 같은 사용자의 충전/사용은 lock 을 잡은 스레드가 대기 중인 요청까지 모아서 처리
+ * - PARTITIONED : 사용자 ID 해시로 나눈 partition 별 전용 스레드가 순서대로 실행
+ */
+public interface PointCommandExecutor {
+
+    /**
+     * 명령을 비동기로 실행하고 결과를 CompletableFuture 로 돌려준다.
+     */
+    <T> CompletableFuture<T> submit(long userId, Supplier<T> command);
+
+    /**
+     * 명령이 끝날 때까지 기다린 뒤 결과를 돌려준다. 명령에서 발생한 예외는 그대로 다시 던진다.
+     */
+    default <T> T execute(long userId, Supplier<T> command) {
+        try {
+            return submit(userId, command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 사용자의 명령이 항상 그 사용자를 맡은 스레드 하나에서만 실행되는지 여부
+     * - true 이면 명령 안에서 사용자 lock 을 잡지 않는다. 명령 밖에서 사용자 상태를 바꾸는 요청(이체)은 지원하지 않는다.
+     */
+    default boolean ownsUsers() {
+        return false;
+    }
+
+    /**
+     * 같은 사용자의 요청을 combine 으로 모아서 처리하는지 여부
+     */
+    default boolean combinesCommands() {
+        return false;
+    }
+
+    /**
+     * request 를 사용자 lock 안에서 handler 로 처리하고 그 결과를 반환한다. handler 에서 채운 예외는 그대로 다시 던진다.
+     * - withUserLock : 받은 작업을 사용자 lock 을 잡고 실행하는 함수
+     * - 기본은 요청 하나씩 처리한다. COMBINING 모드는 lock 을 기다리는 동안 쌓인 같은 사용자의 요청을 함께 넘긴다.
+     */
+    default <R, T> T combine(long userId, R request, Consumer<Runnable> withUserLock, BatchHandler<R, T> handler) {
+        CombinedCommand<R, T> command = new CombinedCommand<>(request);
+        withUserLock.accept(() -> handler.handle(userId, List.of(command)));
+        if (!command.isDone()) {
+            command.fail(new IllegalStateException("처리 결과가 없는 요청입니다."));
+        }
+        return command.join();
+    }
+
+    /**
+     * 사용자 lock 안에서 모인 요청을 순서대로 처리하고, 요청마다 complete / fail 로 결과를 채운다.
+     */
+    @FunctionalInterface
+    interface BatchHandler<R, T> {
+        void handle(long userId, List<CombinedCommand<R, T>> batch);
+    }
+
+    enum Mode {
+        LOCK, MAILBOX, COMBINING, PARTITIONED
+    }
+}
@@ -0,0 +1,399 @@
+package io.hhplus.tdd.idempotency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 별 요청 결과 캐시
+ * - 같은 key 의 요청이 처리 중이면 새로 실행하지 않고(사용자 lock 을 다시 기다리지 않고) 처리 중인 결과를 함께 기다린다.
+ * - 성공한 결과는 ttl 동안 보관해 재시도에 그대로 돌려준다. 실패하면 보관하지 않으므로 재시도는 다시 실행된다.
+ * - 같은 key 로 내용이 다른 요청이 오면 IllegalArgumentException (key 재사용 방지)
+ * - key 는 호출한 쪽이 사용자 / 기능별로 나눠서 넘긴다. (PointService 는 "{userId}:{거래 유형}:{Idempotency-Key}")
+ * - key 해시로 나눈 segment 마다 완료 순서대로 보관하고, 최대 크기에 닿으면 가장 먼저 완료된 결과부터 제거한다.
+ *   처리 중인 요청은 제거하지 않는다. (제거하면 재시도가 한 번 더 실행되어 이중 충전/사용이 된다)
+ *   segment 가 처리 중인 요청으로만 가득 차면 새 key 는 IdempotencyCacheFullException (503)
+ * - 처리 중 제한 시간(inFlightTimeout)을 넘긴 요청은 포기한 것으로 보고 제거한다. 기다리던 요청은 IdempotencyTimeoutException (503)
+ *   포기한 요청이 나중에 반영될 수 있으므로 제한 시간은 요청 처리 제한 시간(point.async.timeout-millis 등)보다 충분히 길게 둔다.
+ * - key 길이는 MAX_KEY_LENGTH 로 제한한다. (호출한 쪽이 넘기 전에 검사)
+ * - 처음 실행(miss) / 처리 중인 결과에 합류(in_flight) / 보관된 결과 반환(completed) 횟수와 제거 횟수를 메트릭으로 노출한다.
+ */
+@Component
+public class IdempotencyCache implements MeterBinder {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final int DEFAULT_MAX_SIZE = 100_000;
+    private static final long DEFAULT_TTL_SECONDS = 3_600;
+    private static final long DEFAULT_IN_FLIGHT_TIMEOUT_SECONDS = 60;
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final long ttlNanos;
+    private final long inFlightTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder inFlightHits = new LongAdder();
+    private final LongAdder completedHits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder inFlightTimeouts = new LongAdder();
+
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_SECONDS, DEFAULT_IN_FLIGHT_TIMEOUT_SECONDS);
+    }
+
+    @Autowired
+    public IdempotencyCache(
+            @Value("${point.idempotency.max-size:" + DEFAULT_MAX_SIZE + "}") int maxSize,
+            @Value("${point.idempotency.ttl-seconds:" + DEFAULT_TTL_SECONDS + "}") long ttlSeconds,
+            @Value("${point.idempotency.in-flight-timeout-seconds:" + DEFAULT_IN_FLIGHT_TIMEOUT_SECONDS + "}") long inFlightTimeoutSeconds
+    ) {
+        this(maxSize, TimeUnit.SECONDS.toNanos(ttlSeconds), TimeUnit.SECONDS.toNanos(inFlightTimeoutSeconds), System::nanoTime);
+    }
+
+    public IdempotencyCache(int maxSize, long ttlNanos, LongSupplier nanoClock) {
+        this(maxSize, ttlNanos, TimeUnit.SECONDS.toNanos(DEFAULT_IN_FLIGHT_TIMEOUT_SECONDS), nanoClock);
+    }
+
+    public IdempotencyCache(int maxSize, long ttlNanos, long inFlightTimeoutNanos, LongSupplier nanoClock) {
+        if (maxSize <= 0 || ttlNanos <= 0 || inFlightTimeoutNanos <= 0) {
+            throw new IllegalArgumentException("idempotency 캐시 크기와 보관 시간, 처리 중 제한 시간은 0보다 커야 합니다.");
+        }
+        this.ttlNanos = ttlNanos;
+        this.inFlightTimeoutNanos = inFlightTimeoutNanos;
+        this.nanoClock = nanoClock;
+        int segmentCapacity = Math.max(1, maxSize / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * key 의 결과를 반환한다. 처음 보는 key 면 action 을 실행하고, 처리 중이면 끝날 때까지 기다린다.
+     * - key 가 null 이면 캐시 없이 action 을 실행한다.
+     * - request : 요청 내용 (equals 로 같은 요청인지 비교)
+     */
+    public <T> T execute(String key, Object request, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        Segment segment = segmentFor(key);
+        Acquired acquired = segment.acquire(key, request);
+        Entry entry = acquired.entry();
+        if (!acquired.owner()) {
+            return join(entry);
+        }
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            segment.fail(key, entry, e);
+            throw e;
+        }
+        segment.complete(key, entry, result);
+        return result;
+    }
+
+    /**
+     * execute 의 비동기 버전. action 이 돌려준 future 가 끝나면 결과를 보관한다.
+     * - 호출한 쪽이 timeout 등으로 완료시켜도 보관된 결과에 영향이 없도록 복사본을 반환한다.
+     */
+    public <T> CompletableFuture<T> submit(String key, Object request, Supplier<CompletableFuture<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        Segment segment = segmentFor(key);
+        Acquired acquired = segment.acquire(key, request);
+        Entry entry = acquired.entry();
+        if (!acquired.owner()) {
+            CompletableFuture<T> joined = entry.<T>result().copy();
+            return joined.isDone() ? joined : joined.orTimeout(remainingNanos(entry), TimeUnit.NANOSECONDS);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = action.get();
+        } catch (RuntimeException e) {
+            segment.fail(key, entry, e);
+            throw e;
+        }
+        future.whenComplete((result, failure) -> {
+            if (failure == null) {
+                segment.complete(key, entry, result);
+            } else {
+                segment.fail(key, entry, failure);
+            }
+        });
+        return entry.<T>result().copy();
+    }
+
+    public IdempotencyStats stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return new IdempotencyStats(misses.sum(), inFlightHits.sum(), completedHits.sum(),
+                evictions.sum(), expirations.sum(), inFlightTimeouts.sum(), size);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.idempotency.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("point.idempotency.requests", inFlightHits, LongAdder::sum)
+                .tag("result", "in_flight")
+                .register(registry);
+        FunctionCounter.builder("point.idempotency.requests", completedHits, LongAdder::sum)
+                .tag("result", "completed")
+                .register(registry);
+        FunctionCounter.builder("point.idempotency.evictions", evictions, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.idempotency.expirations", expirations, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.idempotency.in_flight_timeouts", inFlightTimeouts, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("point.idempotency.size", this, cache -> cache.stats().size())
+                .register(registry);
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * 처리 중인 요청의 결과를 기다린다. 처리 중 제한 시간까지 남은 시간만 기다린다.
+     */
+    private <T> T join(Entry entry) {
+        CompletableFuture<T> future = entry.result();
+        try {
+            return future.isDone() ? future.join() : future.get(remainingNanos(entry), TimeUnit.NANOSECONDS);
+        } catch (CompletionException | ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inFlightTimeout();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long remainingNanos(Entry entry) {
+        return Math.max(0, entry.createdAt + inFlightTimeoutNanos - nanoClock.getAsLong());
+    }
+
+    private static IdempotencyTimeoutException inFlightTimeout() {
+        return new IdempotencyTimeoutException("같은 Idempotency-Key 의 요청이 제한 시간 안에 끝나지 않았습니다. 반영 여부를 조회로 확인해 주세요.");
+    }
+
+    public record IdempotencyStats(
+            long misses,
+            long inFlightHits,
+            long completedHits,
+            long evictions,
+            long expirations,
+            long inFlightTimeouts,
+            long size
+    ) {
+    }
+
+    /**
+     * 처리 중이거나 처리가 끝난 요청 하나. createdAt 은 등록한 시각, completedAt 은 성공한 시각 (result 가 끝난 뒤에만 의미 있음)
+     */
+    private static final class Entry {
+        private final Object request;
+        private final long createdAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        Entry(Object request, long createdAt) {
+            this.request = request;
+            this.createdAt = createdAt;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> CompletableFuture<T> result() {
+            return (CompletableFuture<T>) result;
+        }
+    }
+
+    /**
+     * owner 가 true 이면 새로 등록한 요청이므로 호출한 쪽이 실행하고, false 이면 entry 의 결과를 기다린다.
+     */
+    private record Acquired(Entry entry, boolean owner) {
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        //처리 중인 요청은 등록 순서, 완료된 결과는 완료 순서 (완료 시 맨 뒤로 옮김). 앞쪽일수록 오래됨
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private final int capacity;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        Acquired acquire(String key, Object request) {
+            long now = nanoClock.getAsLong();
+            List<Entry> timedOut = new ArrayList<>(0);
+            lock.lock();
+            try {
+                expire(now, timedOut);
+                Entry existing = entries.get(key);
+                if (existing != null && isTimedOut(existing, now)) {
+                    entries.remove(key);
+                    timedOut.add(existing);
+                } else if (existing != null && !isExpired(existing, now)) {
+                    if (!existing.request.equals(request)) {
+                        throw new IllegalArgumentException("같은 Idempotency-Key 로 다른 요청을 보낼 수 없습니다.");
+                    }
+                    if (!existing.result.isDone()) {
+                        inFlightHits.increment();
+                    } else {
+                        completedHits.increment();
+                    }
+                    return new Acquired(existing, false);
+                }
+                //만료된 같은 key 는 지우고 맨 뒤에 다시 등록
+                entries.remove(key);
+                if (entries.size() >= capacity && !evictOldestCompleted() && !removeTimedOut(now, timedOut)) {
+                    throw new IdempotencyCacheFullException("처리 중인 요청이 많아 새 요청을 받을 수 없습니다. 잠시 후 다시 시도해 주세요.");
+                }
+                Entry created = new Entry(request, now);
+                entries.put(key, created);
+                misses.increment();
+                return new Acquired(created, true);
+            } finally {
+                lock.unlock();
+                //기다리던 쪽의 후속 처리가 segment lock 안에서 실행되지 않도록 lock 밖에서 완료
+                for (Entry entry : timedOut) {
+                    inFlightTimeouts.increment();
+                    entry.result.completeExceptionally(inFlightTimeout());
+                }
+            }
+        }
+
+        void complete(String key, Entry entry, Object result) {
+            lock.lock();
+            try {
+                entry.completedAt = nanoClock.getAsLong();
+                //완료 순서대로 만료되도록 맨 뒤로 옮긴다. (크기 제한으로 이미 빠졌으면 다시 넣지 않음)
+                if (entries.remove(key, entry)) {
+                    entries.put(key, entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+            entry.result.complete(result);
+        }
+
+        /**
+         * 기다리던 요청에는 같은 실패를 돌려주고, 재시도는 새로 실행되도록 제거한다.
+         */
+        void fail(String key, Entry entry, Throwable failure) {
+            lock.lock();
+            try {
+                entries.remove(key, entry);
+            } finally {
+                lock.unlock();
+            }
+            entry.result.completeExceptionally(failure);
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 앞쪽(오래된 결과)부터 만료된 결과를 지운다. 처리 중인 요청은 건너뛰고, 아직 유효한 결과를 만나면 멈춘다.
+         * (완료된 결과는 완료 순서대로 있으므로 그 뒤는 모두 유효하다)
+         * 건너뛴 요청 중 처리 중 제한 시간을 넘긴 요청도 지우고 timedOut 에 모은다.
+         */
+        private void expire(long now, List<Entry> timedOut) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!entry.result.isDone()) {
+                    if (isTimedOut(entry, now)) {
+                        iterator.remove();
+                        timedOut.add(entry);
+                    }
+                    continue;
+                }
+                if (!isExpired(entry, now)) {
+                    return;
+                }
+                iterator.remove();
+                expirations.increment();
+            }
+        }
+
+        /**
+         * segment 가 처리 중인 요청으로만 가득 찼을 때, 처리 중 제한 시간을 넘긴 요청을 모두 지운다. 하나도 없으면 false
+         */
+        private boolean removeTimedOut(long now, List<Entry> timedOut) {
+            int before = timedOut.size();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (isTimedOut(entry, now)) {
+                    iterator.remove();
+                    timedOut.add(entry);
+                }
+            }
+            return timedOut.size() > before;
+        }
+
+        /**
+         * 가장 먼저 완료된 결과 하나를 지운다. 처리 중인 요청만 있으면 false
+         */
+        private boolean evictOldestCompleted() {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().result.isDone()) {
+                    iterator.remove();
+                    evictions.increment();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isExpired(Entry entry, long now) {
+            return entry.result.isDone() && now - entry.completedAt >= ttlNanos;
+        }
+
+        private boolean isTimedOut(Entry entry, long now) {
+            return !entry.result.isDone() && now - entry.createdAt >= inFlightTimeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.idempotency;
+
+/**
+ * Idempotency-Key 캐시 segment 가 처리 중인 요청으로 가득 차 새 key 를 받을 수 없는 요청. 응답은 503 으로 처리한다.
+ */
+public class IdempotencyCacheFullException extends RuntimeException {
+
+    public IdempotencyCacheFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.idempotency;
+
+/**
+ * 같은 Idempotency-Key 의 요청이 처리 중 제한 시간을 넘겨 결과를 기다릴 수 없는 요청. 응답은 503 으로 처리한다.
+ * - 처리 중이던 요청이 나중에 반영되었을 수 있으므로 결과는 확정되지 않은 상태다. 잔액/내역을 조회해 확인한다.
+ */
+public class IdempotencyTimeoutException extends RuntimeException {
+
+    public IdempotencyTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package io.hhplus.tdd.journal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.function.Consumer;
+
+enum DisabledPointJournal implements PointJournal {
+    INSTANCE;
+
+    @Override
+    public long append(long userId, TransactionType type, long amount, long balance, long updateMillis) {
+        return 0;
+    }
+
+    @Override
+    public long appendTransfer(long fromUserId, long fromBalance, long toUserId, long toBalance,
+                               long amount, long updateMillis) {
+        return 0;
+    }
+
+    @Override
+    public long replay(long fromSequence, Consumer<JournalRecord> consumer) {
+        return fromSequence;
+    }
+
+    @Override
+    public long replaySealed(long fromSequence, Consumer<JournalRecord> consumer) {
+        return fromSequence;
+    }
+
+    @Override
+    public void deleteSealedThrough(long sequence) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
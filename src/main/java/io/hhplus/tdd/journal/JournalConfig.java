@@ -0,0 +1,28 @@
+package io.hhplus.tdd.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class JournalConfig {
+
+    /**
+     * point.journal.enabled=true 이면 충전/사용 거래를 메모리 매핑 journal 에 기록한다.
+     */
+    @Bean(destroyMethod = "close")
+    public PointJournal pointJournal(
+            @Value("${point.journal.enabled:false}") boolean enabled,
+            @Value("${point.journal.directory:data/journal}") String directory,
+            @Value("${point.journal.segment-records:1000000}") int segmentRecords,
+            @Value("${point.journal.fsync:group}") PointJournal.FsyncPolicy fsyncPolicy,
+            @Value("${point.journal.group-commit-millis:10}") long groupCommitMillis
+    ) {
+        if (!enabled) {
+            return PointJournal.disabled();
+        }
+        return new MappedPointJournal(Path.of(directory), segmentRecords, fsyncPolicy, groupCommitMillis);
+    }
+}
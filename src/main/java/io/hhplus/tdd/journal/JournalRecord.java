@@ -0,0 +1,16 @@
+package io.hhplus.tdd.journal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+/**
+ * journal 에 기록된 거래 한 건
+ */
+public record JournalRecord(
+        long sequence,
+        long userId,
+        TransactionType type,
+        long amount,
+        long balance,
+        long updateMillis
+) {
+}
@@ -0,0 +1,447 @@
+package io.hhplus.tdd.journal;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 메모리 매핑 파일에 고정 길이 거래 기록을 이어 쓰는 journal
+ * - 기록 한 건은 RECORD_SIZE(48 byte) 고정 길이이고, 마지막 4 byte 는 앞 44 byte 의 CRC32C 이다.
+ *   [sequence 8][userId 8][type 4][amount 8][balance 8][updateMillis 8][crc 4]
+ * - 파일(segment)은 segmentRecords 건 크기로 미리 매핑하고, 가득 차면 다음 segment 로 넘어간다.
+ *   파일 이름은 journal-{첫 일련번호}.log 이다.
+ * - 쓰기는 매핑된 메모리에 값을 넣는 것뿐이라 건당 수 µs 이고, 디스크 동기화 시점은 FsyncPolicy 로 정한다.
+ * - 시작 시 마지막 segment 를 CRC 가 맞는 기록까지 읽어 이어 쓸 위치와 다음 일련번호를 찾는다.
+ *   쓰다가 중단될 수 있는 것은 마지막 기록(이체는 한 쌍)뿐이므로 그 자리만 지우고,
+ *   그 뒤에 데이터가 남아 있으면 segment 중간이 손상된 것으로 보고 예외를 던진다. (시작하지 않음)
+ * - 이체는 두 기록을 같은 segment 에 연달아 쓰고, 앞 기록의 type 에 PAIRED_FLAG 를 표시한다.
+ *   짝이 되는 뒤 기록이 없는 앞 기록(쓰다가 중단된 이체)은 읽지 않고 이어 쓸 때 덮어쓴다.
+ */
+public class MappedPointJournal implements PointJournal, MeterBinder {
+
+    static final int RECORD_SIZE = 48;
+    private static final int CRC_OFFSET = 44;
+    //type 의 ordinal 과 겹치지 않는 bit. 다음 기록과 함께 반영해야 하는 기록에 표시
+    private static final int PAIRED_FLAG = 1 << 16;
+    //쓰다가 중단될 수 있는 마지막 기록의 최대 길이 (이체 한 쌍)
+    private static final int TORN_TAIL_SIZE = 2 * RECORD_SIZE;
+    private static final String FILE_PREFIX = "journal-";
+    private static final String FILE_SUFFIX = ".log";
+
+    private static final Logger log = LoggerFactory.getLogger(MappedPointJournal.class);
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final FsyncPolicy fsyncPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer segment;
+    private int position;
+    private long nextSequence;
+    private boolean dirty;
+    private volatile boolean running = true;
+
+    private final Thread flusherThread;
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+
+    public MappedPointJournal(Path directory, int segmentRecords, FsyncPolicy fsyncPolicy, long groupCommitMillis) {
+        if (segmentRecords <= 0 || groupCommitMillis <= 0) {
+            throw new IllegalArgumentException("segment 크기와 동기화 간격은 0보다 커야 합니다.");
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.fsyncPolicy = fsyncPolicy;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        openLastSegment();
+
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            flusherThread = new Thread(() -> flushLoop(groupCommitMillis), "point-journal-flusher");
+            flusherThread.setDaemon(true);
+            flusherThread.start();
+        } else {
+            flusherThread = null;
+        }
+    }
+
+    @Override
+    public long append(long userId, TransactionType type, long amount, long balance, long updateMillis) {
+        lock.lock();
+        try {
+            ensureWritable(RECORD_SIZE);
+            int offset = position;
+            long sequence = write(userId, type.ordinal(), amount, balance, updateMillis);
+            afterWrite(offset, RECORD_SIZE);
+            appends.increment();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendTransfer(long fromUserId, long fromBalance, long toUserId, long toBalance,
+                               long amount, long updateMillis) {
+        lock.lock();
+        try {
+            //두 기록이 segment 경계에 걸치지 않도록 함께 들어갈 자리를 확보
+            ensureWritable(2 * RECORD_SIZE);
+            int offset = position;
+            write(fromUserId, TransactionType.USE.ordinal() | PAIRED_FLAG, amount, fromBalance, updateMillis);
+            long sequence = write(toUserId, TransactionType.CHARGE.ordinal(), amount, toBalance, updateMillis);
+            afterWrite(offset, 2 * RECORD_SIZE);
+            appends.add(2);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long replay(long fromSequence, Consumer<JournalRecord> consumer) {
+        return replay(segmentFiles(), fromSequence, consumer);
+    }
+
+    @Override
+    public long replaySealed(long fromSequence, Consumer<JournalRecord> consumer) {
+        List<Path> files = segmentFiles();
+        return replay(files.subList(0, Math.max(0, files.size() - 1)), fromSequence, consumer);
+    }
+
+    @Override
+    public void deleteSealedThrough(long sequence) {
+        List<Path> files = segmentFiles();
+        //다음 segment 의 첫 일련번호 - 1 이 해당 segment 의 마지막 일련번호
+        for (int i = 0; i < files.size() - 1; i++) {
+            if (firstSequence(files.get(i + 1)) - 1 > sequence) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 다음에 부여할 일련번호
+     */
+    public long nextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                forceSegment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (flusherThread != null) {
+            flusherThread.interrupt();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.journal.appends", appends, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.journal.fsyncs", fsyncs, LongAdder::sum)
+                .register(registry);
+    }
+
+    /**
+     * 가득 찬 segment 는 끝까지 온전해야 하고, 기록 중인 마지막 segment 만 쓰다가 중단된 마지막 기록을 건너뛴다.
+     * 그 밖의 손상은 IllegalStateException
+     */
+    private long replay(List<Path> files, long fromSequence, Consumer<JournalRecord> consumer) {
+        List<Path> allFiles = segmentFiles();
+        Path lastFile = allFiles.isEmpty() ? null : allFiles.get(allFiles.size() - 1);
+        long lastSequence = fromSequence;
+        for (int i = 0; i < files.size(); i++) {
+            //기록이 모두 fromSequence 이하인 segment 는 읽지 않는다.
+            if (i + 1 < files.size() && firstSequence(files.get(i + 1)) - 1 <= fromSequence) {
+                continue;
+            }
+            Path file = files.get(i);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                CRC32C readCrc = new CRC32C();
+                long expectedSequence = firstSequence(file);
+                int offset = 0;
+                while (offset + RECORD_SIZE <= buffer.capacity()) {
+                    JournalRecord record = read(buffer, offset, readCrc);
+                    if (record == null || record.sequence() != expectedSequence) {
+                        break;
+                    }
+                    JournalRecord paired = null;
+                    if (isPaired(buffer, offset)) {
+                        //짝이 되는 기록까지 온전할 때만 두 기록을 함께 넘긴다.
+                        int pairedOffset = offset + RECORD_SIZE;
+                        paired = pairedOffset + RECORD_SIZE <= buffer.capacity() ? read(buffer, pairedOffset, readCrc) : null;
+                        if (paired == null || paired.sequence() != expectedSequence + 1) {
+                            break;
+                        }
+                    }
+                    if (record.sequence() > fromSequence) {
+                        consumer.accept(record);
+                        lastSequence = record.sequence();
+                    }
+                    if (paired != null && paired.sequence() > fromSequence) {
+                        consumer.accept(paired);
+                        lastSequence = paired.sequence();
+                    }
+                    int length = paired == null ? RECORD_SIZE : 2 * RECORD_SIZE;
+                    offset += length;
+                    expectedSequence += length / RECORD_SIZE;
+                }
+                requireEmpty(buffer, file.equals(lastFile) ? offset + TORN_TAIL_SIZE : offset, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return lastSequence;
+    }
+
+    /**
+     * offset 위치의 기록을 읽는다. 비어 있거나 CRC 가 맞지 않으면 null
+     */
+    private static JournalRecord read(ByteBuffer buffer, int offset, CRC32C readCrc) {
+        long sequence = buffer.getLong(offset);
+        if (sequence <= 0) {
+            return null;
+        }
+        readCrc.reset();
+        readCrc.update(buffer.slice(offset, CRC_OFFSET));
+        if ((int) readCrc.getValue() != buffer.getInt(offset + CRC_OFFSET)) {
+            return null;
+        }
+        int type = buffer.getInt(offset + 16) & ~PAIRED_FLAG;
+        if (type < 0 || type >= TransactionType.values().length) {
+            return null;
+        }
+        return new JournalRecord(
+                sequence,
+                buffer.getLong(offset + 8),
+                TransactionType.values()[type],
+                buffer.getLong(offset + 20),
+                buffer.getLong(offset + 28),
+                buffer.getLong(offset + 36)
+        );
+    }
+
+    /**
+     * from 부터 segment 끝까지 비어 있는지 확인한다. 데이터가 남아 있으면 중간이 손상된 것이므로 예외
+     */
+    private static void requireEmpty(ByteBuffer buffer, int from, Path file) {
+        for (int offset = from; offset + Long.BYTES <= buffer.capacity(); offset += Long.BYTES) {
+            if (buffer.getLong(offset) != 0) {
+                throw corrupted(file, offset);
+            }
+        }
+    }
+
+    private static IllegalStateException corrupted(Path file, int offset) {
+        return new IllegalStateException("포인트 journal 이 손상되었습니다 - segment: " + file.getFileName()
+                + ", offset: " + offset + " (복구하려면 해당 segment 를 확인해야 합니다)");
+    }
+
+    private static boolean isPaired(ByteBuffer buffer, int offset) {
+        return (buffer.getInt(offset + 16) & PAIRED_FLAG) != 0;
+    }
+
+    private void openLastSegment() {
+        List<Path> files = segmentFiles();
+        if (files.isEmpty()) {
+            nextSequence = 1;
+            segment = map(segmentFile(1));
+            position = 0;
+            return;
+        }
+        Path last = files.get(files.size() - 1);
+        segment = map(last);
+        nextSequence = firstSequence(last);
+        position = 0;
+        CRC32C readCrc = new CRC32C();
+        while (position + RECORD_SIZE <= segment.capacity()) {
+            JournalRecord record = read(segment, position, readCrc);
+            if (record == null || record.sequence() != nextSequence) {
+                break;
+            }
+            nextSequence++;
+            position += RECORD_SIZE;
+        }
+        //짝 없이 끝난 이체 기록은 버리고 그 자리부터 이어 쓴다.
+        if (position > 0 && isPaired(segment, position - RECORD_SIZE)) {
+            nextSequence--;
+            position -= RECORD_SIZE;
+        }
+        //쓰다가 중단된 마지막 기록(이체는 한 쌍)만 지운다. 그 뒤에 데이터가 있으면 중간 손상이므로 시작하지 않는다.
+        int tornEnd = Math.min(segment.capacity(), position + TORN_TAIL_SIZE);
+        requireEmpty(segment, tornEnd, last);
+        if (position + TORN_TAIL_SIZE <= segment.capacity() && read(segment, position + RECORD_SIZE, readCrc) != null) {
+            //중단된 기록 뒤에 온전한 기록이 있으면 마지막 기록이 아니라 중간 기록이 손상된 것
+            throw corrupted(last, position);
+        }
+        for (int offset = position; offset < tornEnd; offset += Long.BYTES) {
+            if (segment.getLong(offset) != 0) {
+                log.warn("포인트 journal 의 쓰다가 중단된 마지막 기록을 버립니다 - segment: {}, offset: {}", last.getFileName(), position);
+                segment.put(position, new byte[tornEnd - position]);
+                break;
+            }
+        }
+        log.info("포인트 journal 열기 - segment: {}, 다음 일련번호: {}", last.getFileName(), nextSequence);
+    }
+
+    /**
+     * lock 을 잡은 상태에서 호출. length byte 를 이어 쓸 수 있도록 필요하면 다음 segment 로 넘어간다.
+     */
+    private void ensureWritable(int length) {
+        if (!running) {
+            throw new IllegalStateException("포인트 journal 이 종료되었습니다.");
+        }
+        if (length > segment.capacity()) {
+            throw new IllegalStateException("segment 크기가 기록보다 작습니다: " + segment.capacity());
+        }
+        if (position + length > segment.capacity()) {
+            roll();
+        }
+    }
+
+    /**
+     * lock 을 잡은 상태에서 호출. 현재 위치에 기록 한 건을 쓰고 부여한 일련번호를 반환한다.
+     */
+    private long write(long userId, int type, long amount, long balance, long updateMillis) {
+        long sequence = nextSequence++;
+        int offset = position;
+        segment.putLong(offset, sequence);
+        segment.putLong(offset + 8, userId);
+        segment.putInt(offset + 16, type);
+        segment.putLong(offset + 20, amount);
+        segment.putLong(offset + 28, balance);
+        segment.putLong(offset + 36, updateMillis);
+        crc.reset();
+        crc.update(segment.slice(offset, CRC_OFFSET));
+        segment.putInt(offset + CRC_OFFSET, (int) crc.getValue());
+        position += RECORD_SIZE;
+        return sequence;
+    }
+
+    private void afterWrite(int offset, int length) {
+        dirty = true;
+        if (fsyncPolicy == FsyncPolicy.PER_OP) {
+            segment.force(offset, length);
+            fsyncs.increment();
+            dirty = false;
+        }
+    }
+
+    /**
+     * lock 을 잡은 상태에서 호출. 현재 segment 를 동기화하고 다음 segment 를 매핑한다.
+     */
+    private void roll() {
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            forceSegment();
+        }
+        segment = map(segmentFile(nextSequence));
+        position = 0;
+    }
+
+    private void forceSegment() {
+        segment.force();
+        fsyncs.increment();
+        dirty = false;
+    }
+
+    private void flushLoop(long groupCommitMillis) {
+        while (running) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(groupCommitMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            MappedByteBuffer toForce;
+            lock.lock();
+            try {
+                if (!running || !dirty) {
+                    continue;
+                }
+                toForce = segment;
+                dirty = false;
+            } finally {
+                lock.unlock();
+            }
+            //동기화는 lock 밖에서 해 그동안에도 기록할 수 있도록 함
+            toForce.force();
+            fsyncs.increment();
+        }
+    }
+
+    private MappedByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentFile(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", FILE_PREFIX, firstSequence, FILE_SUFFIX));
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+}
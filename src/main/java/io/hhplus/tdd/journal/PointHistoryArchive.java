@@ -0,0 +1,128 @@
+package io.hhplus.tdd.journal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * snapshot 에 반영된 내역을 쌓아 두는 추가 전용 파일 (history.bin)
+ * - snapshot 마다 새로 반영할 내역만 뒤에 붙이므로 작성 비용은 새 기록 수에 비례한다.
+ * - 고정 길이 기록 : [userId 8][type 4][amount 8][updateMillis 8][앞 28바이트의 CRC32C 4]
+ * - 유효한 범위는 snapshot 에 적힌 내역 수까지다. 그 뒤는 snapshot 을 쓰다 중단된 흔적이므로 truncate 로 잘라낸다.
+ */
+public class PointHistoryArchive {
+
+    static final String FILE_NAME = "history.bin";
+    static final int RECORD_SIZE = 32;
+
+    private static final int BATCH_RECORDS = 2_048;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path file;
+
+    public PointHistoryArchive(Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    /**
+     * 앞에서부터 count 건만 남긴다. 파일에 count 건이 없으면 손상으로 본다.
+     */
+    public void truncate(long count) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long size = count * RECORD_SIZE;
+            if (channel.size() < size) {
+                throw new IllegalStateException("내역 파일이 snapshot 보다 짧습니다: " + file
+                        + " (필요 " + count + "건, 실제 " + channel.size() / RECORD_SIZE + "건)");
+            }
+            if (channel.size() > size) {
+                channel.truncate(size);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 기록들을 파일 끝에 붙이고 fsync 한 뒤 전체 건수를 반환한다.
+     * 호출 전에 truncate 로 유효한 범위 밖의 꼬리를 잘라 두어야 한다.
+     */
+    public long append(Iterable<JournalRecord> records) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.position(channel.size());
+            ByteBuffer buffer = ByteBuffer.allocate(BATCH_RECORDS * RECORD_SIZE);
+            CRC32C crc = new CRC32C();
+            for (JournalRecord record : records) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+                int start = buffer.position();
+                buffer.putLong(record.userId())
+                        .putInt(record.type().ordinal())
+                        .putLong(record.amount())
+                        .putLong(record.updateMillis());
+                crc.reset();
+                crc.update(buffer.array(), start, RECORD_SIZE - 4);
+                buffer.putInt((int) crc.getValue());
+            }
+            writeFully(channel, buffer);
+            channel.force(true);
+            return channel.size() / RECORD_SIZE;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 앞에서부터 count 건을 순서대로 consumer 로 넘긴다.
+     */
+    public void forEach(long count, Consumer<PointSnapshot.History> consumer) {
+        if (count == 0) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BATCH_RECORDS * RECORD_SIZE);
+            CRC32C crc = new CRC32C();
+            long index = 0;
+            while (index < count) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), (count - index) * RECORD_SIZE));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IllegalStateException("내역 파일이 snapshot 보다 짧습니다: " + file);
+                    }
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    int start = buffer.position();
+                    crc.reset();
+                    crc.update(buffer.array(), start, RECORD_SIZE - 4);
+                    if (buffer.getInt(start + RECORD_SIZE - 4) != (int) crc.getValue()) {
+                        throw new IllegalStateException("내역 파일이 손상되었습니다: " + file + " (" + index + "번째 기록)");
+                    }
+                    consumer.accept(new PointSnapshot.History(
+                            buffer.getLong(), TYPES[buffer.getInt()], buffer.getLong(), buffer.getLong()));
+                    buffer.getInt();
+                    index++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package io.hhplus.tdd.journal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.function.Consumer;
+
+/**
+ * 충전/사용 거래 journal (재시작 후 잔액과 내역 복구용)
+ */
+public interface PointJournal extends AutoCloseable {
+
+    /**
+     * 거래 한 건을 기록하고 부여한 일련번호를 반환한다.
+     * - balance : 거래가 반영된 뒤의 잔액
+     */
+    long append(long userId, TransactionType type, long amount, long balance, long updateMillis);
+
+    /**
+     * 이체 한 건을 보낸 사용자의 사용(USE)과 받은 사용자의 충전(CHARGE) 두 기록으로 남기고, 뒤 기록의 일련번호를 반환한다.
+     * 두 기록은 함께 복구되거나 함께 버려진다. (한쪽만 반영된 이체는 복구하지 않음)
+     */
+    long appendTransfer(long fromUserId, long fromBalance, long toUserId, long toBalance, long amount, long updateMillis);
+
+    /**
+     * fromSequence 보다 뒤에 기록된 거래를 기록 순서대로 consumer 로 넘기고, 마지막으로 넘긴 일련번호를 반환한다.
+     * (넘긴 기록이 없으면 fromSequence)
+     * 기록 중인 마지막 segment 의 쓰다가 중단된 마지막 기록은 읽지 않고, 그 밖에 CRC 가 맞지 않는 기록이 있으면 예외
+     */
+    long replay(long fromSequence, Consumer<JournalRecord> consumer);
+
+    /**
+     * replay 와 같지만 더 이상 기록하지 않는(가득 찬) segment 만 읽는다. (snapshot 작성용)
+     */
+    long replaySealed(long fromSequence, Consumer<JournalRecord> consumer);
+
+    /**
+     * 기록이 모두 sequence 이하인 가득 찬 segment 를 삭제한다. (snapshot 에 반영된 segment 정리)
+     */
+    void deleteSealedThrough(long sequence);
+
+    @Override
+    void close();
+
+    /**
+     * 아무것도 기록하지 않는 journal (point.journal.enabled=false)
+     */
+    static PointJournal disabled() {
+        return DisabledPointJournal.INSTANCE;
+    }
+
+    /**
+     * 디스크 동기화(fsync) 시점
+     * - PER_OP : 기록할 때마다 동기화. 반환되면 전원이 꺼져도 남는다.
+     * - GROUP : 백그라운드에서 일정 간격마다 한 번에 동기화. 전원 장애 시 마지막 간격만큼 유실될 수 있다.
+     * - NONE : 운영체제에 맡긴다. 프로세스가 죽어도 남지만 전원 장애 시 유실될 수 있다.
+     */
+    enum FsyncPolicy {
+        PER_OP, GROUP, NONE
+    }
+}
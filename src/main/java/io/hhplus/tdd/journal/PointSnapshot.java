@@ -0,0 +1,192 @@
+package io.hhplus.tdd.journal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * journal 일련번호 sequence 까지의 거래를 모두 반영한 상태 (사용자별 잔액 + 내역 파일 위치)
+ * - 내역 자체는 PointHistoryArchive 에 쌓고, snapshot 에는 그중 유효한 내역 수(historyCount)만 적는다.
+ *   그래서 snapshot 크기는 사용자 수에만 비례한다.
+ * - 파일 이름은 snapshot-{sequence}.bin 이고, 고정 길이 binary 형식이다.
+ *   [magic 4][version 4][sequence 8][사용자 수 4][내역 수 8]
+ *   [userId 8][point 8][updateMillis 8] x 사용자 수
+ *   [앞 전체의 CRC32C 4]
+ * - 임시 파일에 쓰고 fsync 한 뒤 이름을 바꿔, 쓰다가 중단되어도 이전 snapshot 이 남도록 한다.
+ */
+public class PointSnapshot {
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 2;
+    private static final String FILE_PREFIX = "snapshot-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private long sequence;
+    private long historyCount;
+    private final Map<Long, Balance> balances;
+
+    public PointSnapshot() {
+        this(0, 0, new LinkedHashMap<>());
+    }
+
+    private PointSnapshot(long sequence, long historyCount, Map<Long, Balance> balances) {
+        this.sequence = sequence;
+        this.historyCount = historyCount;
+        this.balances = balances;
+    }
+
+    /**
+     * journal 기록 한 건의 잔액을 반영한다. 잔액은 기록된 거래 후 잔액으로 바꾼다.
+     * 내역은 PointHistoryArchive 에 따로 붙이고 historyCount 로 위치를 맞춘다.
+     */
+    public void apply(JournalRecord record) {
+        balances.put(record.userId(), new Balance(record.userId(), record.balance(), record.updateMillis()));
+        sequence = record.sequence();
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public Iterable<Balance> balances() {
+        return balances.values();
+    }
+
+    public int userCount() {
+        return balances.size();
+    }
+
+    /**
+     * 내역 파일에서 이 snapshot 에 반영된 내역 수 (앞에서부터)
+     */
+    public long historyCount() {
+        return historyCount;
+    }
+
+    public void historyCount(long historyCount) {
+        this.historyCount = historyCount;
+    }
+
+    /**
+     * directory 에 snapshot-{sequence}.bin 으로 저장하고 파일 경로를 반환한다.
+     */
+    public Path write(Path directory) {
+        Path file = directory.resolve(String.format("%s%020d%s", FILE_PREFIX, sequence, FILE_SUFFIX));
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel)), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sequence);
+            out.writeInt(balances.size());
+            out.writeLong(historyCount);
+            for (Balance balance : balances.values()) {
+                out.writeLong(balance.userId());
+                out.writeLong(balance.point());
+                out.writeLong(balance.updateMillis());
+            }
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static PointSnapshot read(Path file) {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalStateException("snapshot 파일 형식이 올바르지 않습니다: " + file);
+            }
+            long sequence = in.readLong();
+            int userCount = in.readInt();
+            long historyCount = in.readLong();
+            Map<Long, Balance> balances = new LinkedHashMap<>(Math.max(16, userCount * 4 / 3 + 1));
+            for (int i = 0; i < userCount; i++) {
+                Balance balance = new Balance(in.readLong(), in.readLong(), in.readLong());
+                balances.put(balance.userId(), balance);
+            }
+            int expectedCrc = (int) crc.getValue();
+            if (in.readInt() != expectedCrc) {
+                throw new IllegalStateException("snapshot 파일이 손상되었습니다: " + file);
+            }
+            return new PointSnapshot(sequence, historyCount, balances);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * directory 에서 가장 최근(sequence 가 가장 큰) snapshot 파일
+     */
+    public static Optional<Path> latest(Path directory) {
+        List<Path> files = files(directory);
+        return files.isEmpty() ? Optional.empty() : Optional.of(files.get(files.size() - 1));
+    }
+
+    /**
+     * keep 을 제외한 snapshot 파일을 삭제한다.
+     */
+    public static void deleteAllExcept(Path directory, Path keep) {
+        for (Path file : files(directory)) {
+            if (!file.equals(keep)) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private static List<Path> files(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Balance(long userId, long point, long updateMillis) {
+    }
+
+    public record History(long userId, TransactionType type, long amount, long updateMillis) {
+    }
+}
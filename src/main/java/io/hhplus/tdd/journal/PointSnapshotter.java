@@ -0,0 +1,183 @@
+package io.hhplus.tdd.journal;
+
+import io.hhplus.tdd.balance.BalanceUpdater;
+import io.hhplus.tdd.database.PointHistoryStore;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.summary.PointSummaryStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * journal 기반 시작 시 복구와 주기적 snapshot 작성
+ * - 시작 시 : 최신 snapshot(잔액)과 내역 파일(PointHistoryArchive)을 읽고, 그 뒤의 journal 기록(tail)만 반영한 다음
+ *   잔액 저장소(BalanceUpdater.restore), 내역 저장소(PointHistoryStore.restore), 요약으로 다시 적재한다.
+ *   사용자별 잔액은 최종 값 한 번만 적재하고, 내역은 느린 PointHistoryTable 을 거치지 않고 메모리 저장소에 바로 넣는다.
+ * - 실행 중 : 백그라운드 스레드가 가득 찬 segment 만 읽어 새 snapshot 을 만들고, 반영된 segment 는 삭제한다.
+ *   새 내역은 내역 파일 뒤에 붙이기만 하므로 한 번의 비용은 사용자 수 + 새 기록 수에 비례한다. (쌓인 내역 전체를 다시 쓰지 않음)
+ *   기록 중인 segment 와 요청 처리 경로는 건드리지 않으므로 트래픽을 멈추지 않는다.
+ * - 복구 단계별 소요 시간은 point.startup.phase 메트릭(phase 태그)으로 노출한다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.journal.enabled", havingValue = "true")
+public class PointSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointSnapshotter.class);
+
+    private final PointJournal pointJournal;
+    private final BalanceUpdater balanceUpdater;
+    private final PointHistoryStore pointHistoryStore;
+    private final PointSummaryStore pointSummaryStore;
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+    private final PointHistoryArchive pointHistoryArchive;
+    private final long intervalSeconds;
+
+    private Thread snapshotThread;
+    private volatile boolean running = true;
+
+    public PointSnapshotter(
+            PointJournal pointJournal,
+            BalanceUpdater balanceUpdater,
+            PointHistoryStore pointHistoryStore,
+            PointSummaryStore pointSummaryStore,
+            MeterRegistry meterRegistry,
+            @Value("${point.journal.directory:data/journal}") String directory,
+            @Value("${point.journal.snapshot-interval-seconds:60}") long intervalSeconds
+    ) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("snapshot 간격은 0보다 커야 합니다.");
+        }
+        this.pointJournal = pointJournal;
+        this.balanceUpdater = balanceUpdater;
+        this.pointHistoryStore = pointHistoryStore;
+        this.pointSummaryStore = pointSummaryStore;
+        this.meterRegistry = meterRegistry;
+        this.directory = Path.of(directory);
+        this.pointHistoryArchive = new PointHistoryArchive(this.directory);
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * 요청을 받기 전에 복구하고, 복구가 끝난 뒤에 snapshot 스레드를 시작한다.
+     * (복구 중에 segment 가 삭제되지 않도록)
+     */
+    @PostConstruct
+    public void start() {
+        recover();
+        snapshotThread = new Thread(this::snapshotLoop, "point-snapshotter");
+        snapshotThread.setDaemon(true);
+        snapshotThread.start();
+    }
+
+    public void recover() {
+        long startedAt = System.nanoTime();
+
+        long phaseStart = System.nanoTime();
+        Optional<Path> latest = PointSnapshot.latest(directory);
+        PointSnapshot snapshot = latest.map(PointSnapshot::read).orElseGet(PointSnapshot::new);
+        long snapshotSequence = snapshot.sequence();
+        recordPhase("snapshot_load", phaseStart);
+
+        phaseStart = System.nanoTime();
+        //snapshot 을 쓰다 중단되어 내역 파일 뒤에 남은 기록은 버린다. (해당 기록은 journal 에 그대로 있음)
+        pointHistoryArchive.truncate(snapshot.historyCount());
+        pointHistoryArchive.forEach(snapshot.historyCount(), history ->
+                restoreHistory(history.userId(), history.type(), history.amount(), history.updateMillis()));
+        recordPhase("history_reload", phaseStart);
+
+        phaseStart = System.nanoTime();
+        long[] tailCount = new long[1];
+        long lastSequence = pointJournal.replay(snapshotSequence, record -> {
+            snapshot.apply(record);
+            restoreHistory(record.userId(), record.type(), record.amount(), record.updateMillis());
+            tailCount[0]++;
+        });
+        recordPhase("journal_replay", phaseStart);
+
+        phaseStart = System.nanoTime();
+        for (PointSnapshot.Balance balance : snapshot.balances()) {
+            balanceUpdater.restore(balance.userId(), balance.point(), balance.updateMillis());
+        }
+        recordPhase("balance_reload", phaseStart);
+
+        recordPhase("total", startedAt);
+        log.info("포인트 상태 복구 완료 - snapshot: {}, journal 기록 {} ~ {} 반영, 사용자 {}명, 내역 {}건, {}ms",
+                latest.map(Path::getFileName).orElse(null), snapshotSequence + 1, lastSequence,
+                snapshot.userCount(), snapshot.historyCount() + tailCount[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    /**
+     * 가득 찬 segment 를 최신 snapshot 에 반영해 새 snapshot 을 만든다. 새로 반영할 기록이 없으면 false
+     * - 새 기록의 내역을 내역 파일 뒤에 붙여 fsync 한 다음 snapshot 을 쓴다.
+     *   snapshot 을 쓰기 전에 중단되면 붙인 내역은 다음 snapshot / 복구 때 잘라내고 journal 에서 다시 읽는다.
+     */
+    public boolean snapshot() {
+        Optional<Path> latest = PointSnapshot.latest(directory);
+        PointSnapshot snapshot = latest.map(PointSnapshot::read).orElseGet(PointSnapshot::new);
+        long baseSequence = snapshot.sequence();
+        List<JournalRecord> records = new ArrayList<>();
+        if (pointJournal.replaySealed(baseSequence, record -> {
+            snapshot.apply(record);
+            records.add(record);
+        }) == baseSequence) {
+            return false;
+        }
+        pointHistoryArchive.truncate(snapshot.historyCount());
+        snapshot.historyCount(pointHistoryArchive.append(records));
+        Path written = snapshot.write(directory);
+        PointSnapshot.deleteAllExcept(directory, written);
+        pointJournal.deleteSealedThrough(snapshot.sequence());
+        log.info("포인트 snapshot 작성 - {}, 사용자 {}명, 새 내역 {}건 (누적 {}건)",
+                written.getFileName(), snapshot.userCount(), records.size(), snapshot.historyCount());
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (snapshotThread != null) {
+            snapshotThread.interrupt();
+        }
+    }
+
+    private void snapshotLoop() {
+        while (running) {
+            try {
+                TimeUnit.SECONDS.sleep(intervalSeconds);
+                snapshot();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("포인트 snapshot 작성 실패", e);
+            }
+        }
+    }
+
+    private void restoreHistory(long userId, TransactionType type, long amount, long updateMillis) {
+        //요약에서 밀려난 사용자는 내역으로 다시 만들므로, 요청 처리와 같이 내역에 넣기 전에 요약에 더한다.
+        pointSummaryStore.record(userId, type, amount, updateMillis);
+        pointHistoryStore.restore(userId, amount, type, updateMillis);
+    }
+
+    private void recordPhase(String phase, long startNanos) {
+        Timer.builder("point.startup.phase")
+                .description("시작 시 복구 단계별 소요 시간")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
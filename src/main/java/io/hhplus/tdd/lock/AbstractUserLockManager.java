@@ -0,0 +1,102 @@
+package io.hhplus.tdd.lock;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * lock 획득/대기 통계를 공통으로 집계하고 메트릭으로 노출한다.
+ */
+abstract class AbstractUserLockManager implements UserLockManager, MeterBinder {
+
+    //메트릭으로 노출할 hottest key 순위 수
+    private static final int HOT_KEY_RANKS = 5;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * lock 을 잡고 action 을 실행한 뒤 해제한다. 대기 시간과 경합 여부를 함께 집계
+     */
+    protected <T> T runLocked(ReentrantLock lock, Supplier<T> action) {
+        boolean contended = lock.isLocked();
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            record(System.nanoTime() - start, contended);
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(long waitNanos, boolean contended) {
+        acquisitions.increment();
+        if (contended) {
+            contendedAcquisitions.increment();
+        }
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+    }
+
+    protected abstract int activeLocks();
+
+    protected abstract int queuedWaiters();
+
+    @Override
+    public LockStats stats() {
+        return new LockStats(
+                acquisitions.sum(),
+                contendedAcquisitions.sum(),
+                totalWaitNanos.sum(),
+                maxWaitNanos.get(),
+                activeLocks(),
+                queuedWaiters()
+        );
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.lock.acquisitions", acquisitions, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.lock.contended.acquisitions", contendedAcquisitions, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("point.lock.wait.seconds", totalWaitNanos, adder -> adder.sum() / (double) TimeUnit.SECONDS.toNanos(1))
+                .register(registry);
+        Gauge.builder("point.lock.wait.max.seconds", maxWaitNanos, max -> max.get() / (double) TimeUnit.SECONDS.toNanos(1))
+                .register(registry);
+        Gauge.builder("point.lock.active", this, AbstractUserLockManager::activeLocks)
+                .register(registry);
+        Gauge.builder("point.lock.waiters", this, AbstractUserLockManager::queuedWaiters)
+                .register(registry);
+        //사용자 ID 를 tag 로 쓰면 시계열이 사용자 수만큼 늘어나므로, 순위(rank)를 tag 로 두고 key 와 대기열 길이를 값으로 노출
+        for (int rank = 1; rank <= HOT_KEY_RANKS; rank++) {
+            int index = rank - 1;
+            Gauge.builder("point.lock.hottest.key", this, manager -> manager.hotKeyValue(index, HotKey::key))
+                    .tag("rank", String.valueOf(rank))
+                    .register(registry);
+            Gauge.builder("point.lock.hottest.queue.length", this, manager -> manager.hotKeyValue(index, HotKey::queueLength))
+                    .tag("rank", String.valueOf(rank))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * index 번째로 대기열이 긴 key 의 값. 그만큼 사용 중인 key 가 없으면 NaN
+     */
+    private double hotKeyValue(int index, ToDoubleFunction<HotKey> value) {
+        List<HotKey> hottestKeys = hottestKeys(index + 1);
+        return hottestKeys.size() > index ? value.applyAsDouble(hottestKeys.get(index)) : Double.NaN;
+    }
+}
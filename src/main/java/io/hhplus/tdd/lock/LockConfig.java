@@ -0,0 +1,23 @@
+package io.hhplus.tdd.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LockConfig {
+
+    /**
+     * point.lock.mode 설정에 따라 사용자 lock 관리 방식을 선택
+     */
+    @Bean
+    public UserLockManager userLockManager(
+            @Value("${point.lock.mode:reference-counted}") UserLockManager.Mode mode,
+            @Value("${point.lock.stripes:1024}") int stripes
+    ) {
+        return switch (mode) {
+            case REFERENCE_COUNTED -> new ReferenceCountingLockManager();
+            case STRIPED -> new StripedLockManager(stripes);
+        };
+    }
+}
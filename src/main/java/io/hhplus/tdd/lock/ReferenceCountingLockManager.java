@@ -0,0 +1,93 @@
+package io.hhplus.tdd.lock;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 참조 카운트 기반 사용자 lock 관리
+ * - lock 을 잡으려는 스레드가 생기면 참조 수를 올리고, 해제할 때 내려서 0이 되면 map 에서 제거한다.
+ * - 참조 수 변경은 ConcurrentHashMap.compute 안에서만 하므로 같은 key 에 대해 원자적으로 처리된다.
+ * - 따라서 map 에는 지금 사용 중인 사용자의 lock 만 남고, 지금까지 본 사용자 수와 무관하게 메모리가 유지된다.
+ */
+public class ReferenceCountingLockManager extends AbstractUserLockManager {
+
+    private final ConcurrentHashMap<Long, Entry> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T executeWithLock(long userId, Supplier<T> action) {
+        Entry entry = retain(userId);
+        try {
+            entry.acquisitions.increment();
+            return runLocked(entry.lock, action);
+        } finally {
+            release(userId);
+        }
+    }
+
+    /**
+     * 사용자 ID 가 작은 쪽부터 잡는다.
+     */
+    @Override
+    public <T> T executeWithLocks(long userId, long otherUserId, Supplier<T> action) {
+        if (userId == otherUserId) {
+            return executeWithLock(userId, action);
+        }
+        long first = Math.min(userId, otherUserId);
+        long second = Math.max(userId, otherUserId);
+        return executeWithLock(first, () -> executeWithLock(second, action));
+    }
+
+    @Override
+    public int queueLength(long userId) {
+        Entry entry = locks.get(userId);
+        return entry == null ? 0 : entry.lock.getQueueLength();
+    }
+
+    @Override
+    public List<HotKey> hottestKeys(int limit) {
+        return locks.entrySet().stream()
+                .map(e -> new HotKey(e.getKey(), e.getValue().lock.getQueueLength(), e.getValue().acquisitions.sum()))
+                .sorted(Comparator.comparingInt(HotKey::queueLength).reversed()
+                        .thenComparing(Comparator.comparingLong(HotKey::acquisitions).reversed()))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    protected int activeLocks() {
+        return locks.size();
+    }
+
+    @Override
+    protected int queuedWaiters() {
+        int waiters = 0;
+        for (Entry entry : locks.values()) {
+            waiters += entry.lock.getQueueLength();
+        }
+        return waiters;
+    }
+
+    private Entry retain(long userId) {
+        return locks.compute(userId, (key, entry) -> {
+            Entry retained = entry == null ? new Entry() : entry;
+            retained.references++;
+            return retained;
+        });
+    }
+
+    private void release(long userId) {
+        //참조 수가 0이 되면 null 을 반환해 map 에서 제거
+        locks.computeIfPresent(userId, (key, entry) -> --entry.references == 0 ? null : entry);
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final LongAdder acquisitions = new LongAdder();
+        //compute 안에서만 변경
+        private int references;
+    }
+}
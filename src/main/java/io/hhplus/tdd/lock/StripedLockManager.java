@@ -0,0 +1,104 @@
+package io.hhplus.tdd.lock;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * 고정 크기 striped lock 관리
+ * - stripe 수만큼만 lock 을 만들어 두고 사용자 ID 해시로 나눠 쓴다. 메모리는 사용자 수와 무관하게 고정
+ * - 서로 다른 사용자가 같은 stripe 를 공유하면 불필요하게 기다릴 수 있으므로 stripe 수는 동시 사용자 수보다 넉넉하게 잡는다.
+ * - hottestKeys 의 key 는 사용자 ID 가 아니라 stripe 번호
+ */
+public class StripedLockManager extends AbstractUserLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final AtomicLongArray acquisitions;
+    private final int mask;
+
+    public StripedLockManager(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripe 수는 0보다 커야 합니다.");
+        }
+        //2의 거듭제곱으로 올림
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.acquisitions = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public <T> T executeWithLock(long userId, Supplier<T> action) {
+        int index = indexFor(userId);
+        acquisitions.incrementAndGet(index);
+        return runLocked(stripes[index], action);
+    }
+
+    /**
+     * 사용자 ID 가 아니라 stripe 번호가 작은 쪽부터 잡는다. 두 사용자가 같은 stripe 면 한 번만 잡는다.
+     */
+    @Override
+    public <T> T executeWithLocks(long userId, long otherUserId, Supplier<T> action) {
+        int index = indexFor(userId);
+        int otherIndex = indexFor(otherUserId);
+        if (index == otherIndex) {
+            acquisitions.incrementAndGet(index);
+            return runLocked(stripes[index], action);
+        }
+        int first = Math.min(index, otherIndex);
+        int second = Math.max(index, otherIndex);
+        acquisitions.incrementAndGet(first);
+        acquisitions.incrementAndGet(second);
+        return runLocked(stripes[first], () -> runLocked(stripes[second], action));
+    }
+
+    @Override
+    public int queueLength(long userId) {
+        return stripes[indexFor(userId)].getQueueLength();
+    }
+
+    @Override
+    public List<HotKey> hottestKeys(int limit) {
+        return IntStream.range(0, stripes.length)
+                .mapToObj(i -> new HotKey(i, stripes[i].getQueueLength(), acquisitions.get(i)))
+                .sorted(Comparator.comparingInt(HotKey::queueLength).reversed()
+                        .thenComparing(Comparator.comparingLong(HotKey::acquisitions).reversed()))
+                .limit(limit)
+                .toList();
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    @Override
+    protected int activeLocks() {
+        int active = 0;
+        for (ReentrantLock stripe : stripes) {
+            if (stripe.isLocked()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    @Override
+    protected int queuedWaiters() {
+        int waiters = 0;
+        for (ReentrantLock stripe : stripes) {
+            waiters += stripe.getQueueLength();
+        }
+        return waiters;
+    }
+
+    private int indexFor(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,56 @@
+package io.hhplus.tdd.lock;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 사용자 ID별 lock 관리
+ * - REFERENCE_COUNTED : 사용 중인 사용자만 lock 을 들고 있고, 대기자가 없어지면 바로 해제
+ * - STRIPED : 고정된 개수의 lock 을 사용자 ID 해시로 나눠 사용
+ */
+public interface UserLockManager {
+
+    /**
+     * 사용자 lock 을 잡은 상태에서 action 을 실행한다.
+     */
+    <T> T executeWithLock(long userId, Supplier<T> action);
+
+    /**
+     * 두 사용자의 lock 을 모두 잡은 상태에서 action 을 실행한다. (이체용)
+     * 어느 쪽이 먼저 오든 항상 같은 순서로 잡으므로, 서로 반대 방향의 호출끼리 교착 상태에 빠지지 않는다.
+     */
+    <T> T executeWithLocks(long userId, long otherUserId, Supplier<T> action);
+
+    /**
+     * 해당 사용자 lock 을 기다리고 있는 스레드 수
+     */
+    int queueLength(long userId);
+
+    LockStats stats();
+
+    /**
+     * 대기열이 가장 긴 key 순으로 최대 limit 개 반환
+     */
+    List<HotKey> hottestKeys(int limit);
+
+    enum Mode {
+        REFERENCE_COUNTED, STRIPED
+    }
+
+    record LockStats(
+            long acquisitions,
+            long contendedAcquisitions,
+            long totalWaitNanos,
+            long maxWaitNanos,
+            int activeLocks,
+            int queuedWaiters
+    ) {
+    }
+
+    record HotKey(
+            long key,
+            int queueLength,
+            long acquisitions
+    ) {
+    }
+}
@@ -0,0 +1,168 @@
+package io.hhplus.tdd.metrics;
+
+import io.hhplus.tdd.admission.AdmissionRejectedException;
+import io.hhplus.tdd.point.PointRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 포인트 처리 구간별 시간 측정 (모든 timer 는 histogram 을 함께 발행)
+ * - point.operation   : 요청 하나의 전체 처리 시간 (operation, outcome, reason 태그)
+ *   outcome 은 success / rejected(잔액 규칙, 잘못된 요청) / throttled(요청 한도 초과) / error
+ * - point.lock.acquire: 사용자 lock 을 얻기까지 기다린 시간 (operation 태그)
+ * - point.lock.hold   : 사용자 lock 을 잡고 있던 시간 (operation 태그)
+ * - point.table.call  : 테이블 호출 한 번의 시간 (table, method 태그)
+ */
+@Component
+public class PointMetrics {
+
+    public enum Operation {
+        GET, HISTORY, SUMMARY, CHARGE, USE, BATCH, TRANSFER;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum TableCall {
+        USER_POINT_SELECT_BY_ID("user_point", "selectById"),
+        USER_POINT_INSERT_OR_UPDATE("user_point", "insertOrUpdate"),
+        POINT_HISTORY_INSERT("point_history", "insert"),
+        JOURNAL_APPEND("point_journal", "append");
+
+        private final String table;
+        private final String method;
+
+        TableCall(String table, String method) {
+            this.table = table;
+            this.method = method;
+        }
+    }
+
+    private static final String SUCCESS = "success";
+    private static final String REJECTED = "rejected";
+    private static final String THROTTLED = "throttled";
+    private static final String ERROR = "error";
+    private static final String NONE = "none";
+    private static final String INVALID_REQUEST = "invalid_request";
+
+    private final MeterRegistry registry;
+    private final Map<Operation, Timer> lockAcquireTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> lockHoldTimers = new EnumMap<>(Operation.class);
+    private final Map<TableCall, Timer> tableCallTimers = new EnumMap<>(TableCall.class);
+    //(operation, outcome, reason) 조합별 timer. 조합 수가 적어 처음 한 번만 등록
+    private final Map<String, Timer> operationTimers = new ConcurrentHashMap<>();
+
+    /**
+     * 아무 곳에도 발행하지 않는 기본 인스턴스 (직접 생성해 사용하는 경우)
+     */
+    public PointMetrics() {
+        this(new CompositeMeterRegistry());
+    }
+
+    @Autowired
+    public PointMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Operation operation : Operation.values()) {
+            lockAcquireTimers.put(operation, Timer.builder("point.lock.acquire")
+                    .description("사용자 lock 획득 대기 시간")
+                    .tag("operation", operation.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            lockHoldTimers.put(operation, Timer.builder("point.lock.hold")
+                    .description("사용자 lock 보유 시간")
+                    .tag("operation", operation.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (TableCall call : TableCall.values()) {
+            tableCallTimers.put(call, Timer.builder("point.table.call")
+                    .description("테이블 호출 시간")
+                    .tag("table", call.table)
+                    .tag("method", call.method)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    /**
+     * 요청 하나를 실행하고 결과(성공 / 거절 / 오류)와 거절 사유를 태그로 시간을 기록한다.
+     */
+    public <T> T recordOperation(Operation operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            recordOperation(operation, null, System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            recordOperation(operation, e, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * 비동기 요청은 future 가 끝난 시점까지를 기록한다.
+     */
+    public <T> CompletableFuture<T> recordOperationAsync(Operation operation, Supplier<CompletableFuture<T>> action) {
+        long start = System.nanoTime();
+        return action.get().whenComplete((result, throwable) -> recordOperation(operation,
+                throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable,
+                System.nanoTime() - start));
+    }
+
+    public void recordLockAcquire(Operation operation, long nanos) {
+        lockAcquireTimers.get(operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(Operation operation, long nanos) {
+        lockHoldTimers.get(operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T recordTableCall(TableCall call, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            tableCallTimers.get(call).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordOperation(Operation operation, Throwable failure, long nanos) {
+        String outcome;
+        String reason;
+        if (failure == null) {
+            outcome = SUCCESS;
+            reason = NONE;
+        } else if (failure instanceof PointRejectedException rejected) {
+            outcome = REJECTED;
+            reason = rejected.getReason().name().toLowerCase(Locale.ROOT);
+        } else if (failure instanceof AdmissionRejectedException throttled) {
+            outcome = THROTTLED;
+            reason = throttled.getReason().name().toLowerCase(Locale.ROOT);
+        } else if (failure instanceof IllegalArgumentException) {
+            outcome = REJECTED;
+            reason = INVALID_REQUEST;
+        } else {
+            outcome = ERROR;
+            reason = failure.getClass().getSimpleName();
+        }
+        operationTimers.computeIfAbsent(operation.tag + ':' + outcome + ':' + reason, key -> Timer.builder("point.operation")
+                        .description("포인트 요청 처리 시간")
+                        .tag("operation", operation.tag)
+                        .tag("outcome", outcome)
+                        .tag("reason", reason)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,84 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.idempotency.IdempotencyCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointController 의 비동기 버전
+ * - 요청 스레드(Tomcat)는 작업을 넘기고 바로 반환되고, 실제 처리는 포인트 전용 스레드 풀에서 한다.
+ * - 요청마다 timeout 을 걸고, 시간 안에 끝나지 않으면 ApiControllerAdvice 에서 503 으로 응답한다.
+ * - 충전/사용은 같은 timeout 을 PointService 에 넘겨, queue / lock 을 기다리는 동안 시간이 지난 요청은 실행하지 않는다.
+ *   다만 반영을 시작한 뒤에 시간이 지나면 503 응답 뒤에도 반영되므로, 충전/사용의 503 은 반영 여부가 정해지지 않은 응답이다.
+ *   재시도는 같은 Idempotency-Key 로 보내야 두 번 반영되지 않는다. (key 없이 보냈다면 잔액/내역을 조회해 확인)
+ */
+@RestController
+@RequestMapping("/async/point")
+public class PointAsyncController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointAsyncController.class);
+
+    private final PointService pointService;
+    private final Executor pointExecutor;
+    private final long timeoutMillis;
+
+    public PointAsyncController(
+            PointService pointService,
+            @Qualifier("pointExecutor") Executor pointExecutor,
+            @Value("${point.async.timeout-millis:5000}") long timeoutMillis
+    ) {
+        this.pointService = pointService;
+        this.pointExecutor = pointExecutor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @GetMapping("{id}")
+    public CompletableFuture<UserPoint> point(
+            @PathVariable long id
+    ) {
+        log.info("비동기 포인트 조회 요청 - 사용자 ID: {}", id);
+        return withTimeout(CompletableFuture.supplyAsync(() -> pointService.getId(id), pointExecutor));
+    }
+
+    @GetMapping("{id}/histories")
+    public CompletableFuture<List<PointHistory>> history(
+            @PathVariable long id
+    ) {
+        log.info("비동기 포인트 내역 조회 요청 - 사용자 ID: {}", id);
+        return withTimeout(CompletableFuture.supplyAsync(() -> pointService.getPointHistory(id), pointExecutor));
+    }
+
+    @PatchMapping("{id}/charge")
+    public CompletableFuture<UserPoint> charge(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey
+    ) {
+        log.info("비동기 포인트 충전 요청 - 사용자 ID: {}, 충전 금액: {}", id, amount);
+        return withTimeout(pointService.chargePointAsync(id, amount, System.currentTimeMillis(), idempotencyKey,
+                timeoutMillis));
+    }
+
+    @PatchMapping("{id}/use")
+    public CompletableFuture<UserPoint> use(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey
+    ) {
+        log.info("비동기 포인트 사용 요청 - 사용자 ID: {}, 사용 금액: {}", id, amount);
+        return withTimeout(pointService.usePointAsync(id, amount, System.currentTimeMillis(), idempotencyKey,
+                timeoutMillis));
+    }
+
+    private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+}
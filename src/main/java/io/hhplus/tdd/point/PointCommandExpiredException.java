@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 처리 제한 시간이 지나 실행하지 않은 충전/사용. 잔액/내역은 바뀌지 않았고, 응답은 503 으로 처리한다.
+ */
+public class PointCommandExpiredException extends RuntimeException {
+
+    public PointCommandExpiredException(String message) {
+        super(message);
+    }
+}
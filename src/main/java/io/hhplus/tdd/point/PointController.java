@@ -1,10 +1,20 @@
 package io.hhplus.tdd.point;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.hhplus.tdd.idempotency.IdempotencyCache;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -15,6 +25,7 @@ public class PointController {
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
 
     private final PointService pointService;
+    private final ObjectMapper objectMapper;
 
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
@@ -38,16 +49,78 @@ public class PointController {
         return pointService.getPointHistory(id);
     }
 
+    /**
+     * 특정 유저의 총 충전/사용 금액, 거래 건수, 마지막 거래 시각과 최근 일별/월별 집계를 조회합니다.
+     */
+    @GetMapping("{id}/summary")
+    public PointSummary summary(
+            @PathVariable long id
+    ) {
+        log.info("포인트 요약 조회 요청 - 사용자 ID: {}", id);
+        return pointService.getSummary(id);
+    }
+
+    /**
+     * 특정 유저의 포인트 충전/이용 내역을 cursor 기반으로 한 페이지씩 조회합니다.
+     * from, to 를 지정하면 해당 기간[from, to)의 내역을 시간순으로 조회합니다.
+     */
+    @GetMapping("{id}/histories/page")
+    public PointHistoryPage historyPage(
+            @PathVariable long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        log.info("포인트 내역 페이지 조회 요청 - 사용자 ID: {}, cursor: {}, limit: {}", id, cursor, limit);
+        return pointService.getPointHistoryPage(id, cursor, from, to, limit);
+    }
+
+    /**
+     * 포인트 내역을 NDJSON(한 줄에 내역 하나)으로 내보냅니다.
+     * 결과를 목록으로 모으지 않고 응답 스트림에 바로 써서 결과 크기와 무관하게 메모리를 일정하게 사용합니다.
+     * userIds 가 없으면 모든 사용자, from, to 를 지정하면 해당 기간[from, to)의 내역만 내보냅니다.
+     */
+    @GetMapping(value = "histories/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportHistories(
+            @RequestParam(required = false) List<Long> userIds,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to
+    ) {
+        log.info("포인트 내역 내보내기 요청 - 사용자 ID: {}, from: {}, to: {}", userIds, from, to);
+        //응답을 쓰기 시작한 뒤에는 오류 응답으로 바꿀 수 없으므로 미리 확인
+        if (from != null && to != null && from >= to) {
+            throw new IllegalArgumentException("조회 시작 시각은 종료 시각보다 앞서야 합니다.");
+        }
+        ObjectWriter writer = objectMapper.writerFor(PointHistory.class);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            pointService.exportPointHistories(userIds, from, to, pointHistory -> {
+                try {
+                    out.write(writer.writeValueAsBytes(pointHistory));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
      */
     @PatchMapping("{id}/charge")
     public UserPoint charge(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey
     ) {
         log.info("포인트 충전 요청 - 사용자 ID: {}, 충전 금액: {}", id, amount);
-        return pointService.chargePoint(id,amount,System.currentTimeMillis());
+        return pointService.chargePoint(id,amount,System.currentTimeMillis(),idempotencyKey);
     }
 
     /**
@@ -56,9 +129,36 @@ public class PointController {
     @PatchMapping("{id}/use")
     public UserPoint use(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey
     ) {
         log.info("포인트 사용 요청 - 사용자 ID: {}, 사용 금액: {}", id, amount);
-        return pointService.usePoint(id,amount,System.currentTimeMillis());
+        return pointService.usePoint(id,amount,System.currentTimeMillis(),idempotencyKey);
+    }
+
+    /**
+     * 한 유저의 포인트를 다른 유저에게 이체합니다.
+     * 보내는 유저의 잔액이 부족하거나 받는 유저의 최대 잔고를 넘으면 어느 쪽에도 반영하지 않습니다.
+     */
+    @PostMapping("transfer")
+    public PointTransferResult transfer(
+            @RequestBody PointTransferRequest request
+    ) {
+        log.info("포인트 이체 요청 - 보내는 사용자 ID: {}, 받는 사용자 ID: {}, 이체 금액: {}",
+                request.fromUserId(), request.toUserId(), request.amount());
+        return pointService.transferPoint(request.fromUserId(), request.toUserId(), request.amount(),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * 여러 사용자의 포인트 충전/사용 요청을 한 번에 처리합니다.
+     * 실패한 요청이 있어도 나머지는 처리하며, 요청 순서대로 결과를 반환합니다.
+     */
+    @PostMapping("batch")
+    public List<PointOperationResult> batch(
+            @RequestBody List<PointOperation> operations
+    ) {
+        log.info("포인트 일괄 처리 요청 - 요청 건수: {}", operations.size());
+        return pointService.applyBatch(operations, System.currentTimeMillis());
     }
 }
@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 포인트 내역 페이지
+ * - nextCursor : 다음 페이지 조회 시 cursor 로 넘길 값 (마지막 페이지면 null)
+ */
+public record PointHistoryPage(
+        List<PointHistory> histories,
+        Long nextCursor
+) {
+
+    /**
+     * limit + 1 건까지 조회한 결과로 페이지를 만든다. limit 건을 넘으면 다음 페이지가 있는 것으로 본다.
+     */
+    public static PointHistoryPage of(List<PointHistory> fetched, int limit) {
+        if (fetched.size() <= limit) {
+            return new PointHistoryPage(fetched, null);
+        }
+        List<PointHistory> histories = fetched.subList(0, limit);
+        return new PointHistoryPage(histories, histories.get(limit - 1).id());
+    }
+}
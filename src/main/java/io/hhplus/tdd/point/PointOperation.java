@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 처리 요청의 충전/사용 한 건
+ */
+public record PointOperation(
+        long userId,
+        TransactionType type,
+        long amount
+) {
+}
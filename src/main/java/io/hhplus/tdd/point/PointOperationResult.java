@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.ErrorResponse;
+
+/**
+ * 일괄 처리 요청 한 건의 결과
+ * - 성공 시 userPoint 에 처리 후 잔액, 실패 시 error 에 사유를 담는다.
+ */
+public record PointOperationResult(
+        long userId,
+        TransactionType type,
+        long amount,
+        UserPoint userPoint,
+        ErrorResponse error
+) {
+
+    public static PointOperationResult success(PointOperation operation, UserPoint userPoint) {
+        return new PointOperationResult(operation.userId(), operation.type(), operation.amount(), userPoint, null);
+    }
+
+    public static PointOperationResult failure(PointOperation operation, ErrorResponse error) {
+        return new PointOperationResult(operation.userId(), operation.type(), operation.amount(), null, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
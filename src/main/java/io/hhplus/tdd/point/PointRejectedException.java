@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 잔액 규칙 위반으로 거절된 요청. 응답은 IllegalArgumentException 과 같이 400 으로 처리되고,
+ * 거절 사유(reason)는 메트릭 태그로 사용한다.
+ */
+public class PointRejectedException extends IllegalArgumentException {
+
+    public enum Reason {
+        MAX_BALANCE_EXCEEDED,
+        INSUFFICIENT_BALANCE
+    }
+
+    private final Reason reason;
+
+    public PointRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
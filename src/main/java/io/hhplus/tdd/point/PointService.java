@@ -1,77 +1,594 @@
 package io.hhplus.tdd.point;
 
 import io.hhplus.tdd.ErrorResponse;
-import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.admission.AdmissionLimiter;
+import io.hhplus.tdd.admission.AdmissionRejectedException;
+import io.hhplus.tdd.balance.BalanceUpdater;
+import io.hhplus.tdd.balance.LockingBalanceUpdater;
+import io.hhplus.tdd.database.PointHistoryBacklogException;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.UserPointCache;
 import io.hhplus.tdd.database.UserPointTable;
-import lombok.RequiredArgsConstructor;
-import org.apache.catalina.User;
+import io.hhplus.tdd.execution.CombinedCommand;
+import io.hhplus.tdd.execution.PointCommandExecutor;
+import io.hhplus.tdd.idempotency.IdempotencyCache;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.lock.UserLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.metrics.PointMetrics.Operation;
+import io.hhplus.tdd.metrics.PointMetrics.TableCall;
+import io.hhplus.tdd.summary.PointSummaryStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 public class PointService {
     private static final long maxBalnce = 1_000_000;
+    private static final int maxBatchSize = 10_000;
+    private static final int maxPageSize = 1_000;
+    //처리 제한 시간이 없는 요청 (System.nanoTime 기준 deadline)
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
 
-    private final UserPointTable userPointTable;
-    private final PointHistoryTable pointHistoryTable;
-    /*private final Lock lock = new ReentrantLock();*/
-    //사용자 ID별 lock관리
-    private final ConcurrentHashMap<Long,Lock> userLocks = new ConcurrentHashMap<>();
+    private final PointHistoryWriter pointHistoryWriter;
+    //잔액 조회/갱신 방식 (lock / 낙관적 CAS)
+    private final BalanceUpdater balanceUpdater;
+    //재시작 후 복구를 위한 거래 journal (사용하지 않으면 아무것도 기록하지 않음)
+    private final PointJournal pointJournal;
+    //사용자 ID별 lock관리 (사용이 끝난 lock 은 해제)
+    private final UserLockManager userLockManager;
+    //충전/사용 명령 실행 방식 (lock / mailbox / combining / partitioned)
+    private final PointCommandExecutor pointCommandExecutor;
+    //lock 대기/보유, 테이블 호출, 요청 전체 처리 시간 측정
+    private final PointMetrics pointMetrics;
+    //거래마다 갱신하는 사용자별 합계/기간별 요약
+    private final PointSummaryStore pointSummaryStore;
+    //Idempotency-Key 별 처리 중/처리된 충전·사용 결과
+    private final IdempotencyCache idempotencyCache;
+    //사용자별/전체 요청량과 사용자별 동시 처리 수 제한
+    private final AdmissionLimiter admissionLimiter;
 
-    private Lock getLockForUser(long userId) {
-        userLocks.putIfAbsent(userId,new ReentrantLock(true));  //lock이 없으면 생성
-        return userLocks.get(userId);
+    public PointService(UserPointTable userPointTable, PointHistoryWriter pointHistoryWriter,
+                        UserPointCache userPointCache, UserLockManager userLockManager,
+                        PointCommandExecutor pointCommandExecutor) {
+        this(userPointTable, pointHistoryWriter, userPointCache, userLockManager, pointCommandExecutor,
+                new PointMetrics());
+    }
+
+    public PointService(UserPointTable userPointTable, PointHistoryWriter pointHistoryWriter,
+                        UserPointCache userPointCache, UserLockManager userLockManager,
+                        PointCommandExecutor pointCommandExecutor, PointMetrics pointMetrics) {
+        this(pointHistoryWriter, new LockingBalanceUpdater(userPointTable, userPointCache, pointMetrics),
+                PointJournal.disabled(), userLockManager, pointCommandExecutor, pointMetrics);
+    }
+
+    public PointService(PointHistoryWriter pointHistoryWriter, BalanceUpdater balanceUpdater,
+                        PointJournal pointJournal, UserLockManager userLockManager,
+                        PointCommandExecutor pointCommandExecutor, PointMetrics pointMetrics) {
+        this(pointHistoryWriter, balanceUpdater, pointJournal, userLockManager, pointCommandExecutor, pointMetrics,
+                new PointSummaryStore(), new IdempotencyCache(), AdmissionLimiter.unlimited());
+    }
+
+    @Autowired
+    public PointService(PointHistoryWriter pointHistoryWriter, BalanceUpdater balanceUpdater,
+                        PointJournal pointJournal, UserLockManager userLockManager,
+                        PointCommandExecutor pointCommandExecutor, PointMetrics pointMetrics,
+                        PointSummaryStore pointSummaryStore, IdempotencyCache idempotencyCache,
+                        AdmissionLimiter admissionLimiter) {
+        this.pointHistoryWriter = pointHistoryWriter;
+        this.balanceUpdater = balanceUpdater;
+        this.pointJournal = pointJournal;
+        this.userLockManager = userLockManager;
+        this.pointCommandExecutor = pointCommandExecutor;
+        this.pointMetrics = pointMetrics;
+        this.pointSummaryStore = pointSummaryStore;
+        this.idempotencyCache = idempotencyCache;
+        this.admissionLimiter = admissionLimiter;
     }
 
     public UserPoint getId(long id) {
-        return userPointTable.selectById(id);
+        return pointMetrics.recordOperation(Operation.GET, () -> {
+            UserPoint found = balanceUpdater.find(id);
+            if (found != null) {
+                return found;
+            }
+            //캐시 miss 는 lock 안에서(partition 실행이면 사용자를 맡은 partition 에서) 적재해
+            //동시에 진행 중인 충전/사용 결과를 덮어쓰지 않도록 함
+            if (pointCommandExecutor.ownsUsers()) {
+                return pointCommandExecutor.execute(id, () -> balanceUpdater.load(id));
+            }
+            return executeWithLock(Operation.GET, id, () -> balanceUpdater.load(id));
+        });
     }
 
     public List<PointHistory> getPointHistory(long id) {
-        return pointHistoryTable.selectAllByUserId(id);
+        //아직 저장되지 않은 내역까지 반영된 뒤 조회
+        return pointMetrics.recordOperation(Operation.HISTORY, () -> pointHistoryWriter.selectAllByUserId(id));
     }
 
+    /**
+     * 총 충전/사용 금액, 거래 건수, 마지막 거래 시각과 최근 일별/월별 집계를 반환한다.
+     * 거래마다 갱신해 둔 값을 읽으므로 내역 길이와 무관하게 일정한 시간에 끝난다.
+     */
+    public PointSummary getSummary(long id) {
+        return pointMetrics.recordOperation(Operation.SUMMARY, () -> pointSummaryStore.get(id));
+    }
+
+    /**
+     * 포인트 내역을 cursor 기반으로 한 페이지씩 조회한다.
+     * - cursor : 이전 페이지의 nextCursor (내역 id), 첫 페이지는 null
+     * - fromMillis ~ toMillis : updateMillis 기간 조건 [from, to), 있으면 시간순으로 정렬
+     */
+    public PointHistoryPage getPointHistoryPage(long id, Long cursor, Long fromMillis, Long toMillis, int limit) {
+        if (limit <= 0 || limit > maxPageSize) {
+            throw new IllegalArgumentException("조회 건수는 1 ~ " + maxPageSize + " 사이여야 합니다.");
+        }
+        if (fromMillis != null && toMillis != null && fromMillis >= toMillis) {
+            throw new IllegalArgumentException("조회 시작 시각은 종료 시각보다 앞서야 합니다.");
+        }
+        //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        List<PointHistory> fetched = pointHistoryWriter.selectPage(id, cursor, fromMillis, toMillis, limit + 1);
+        return PointHistoryPage.of(fetched, limit);
+    }
+
+    /**
+     * 사용자들의 포인트 내역을 목록으로 모으지 않고 한 건씩 consumer 로 넘긴다. (대용량 내보내기용)
+     * - userIds 가 null 이면 모든 사용자, fromMillis ~ toMillis 는 updateMillis 기간 조건 [from, to)
+     */
+    public void exportPointHistories(List<Long> userIds, Long fromMillis, Long toMillis, Consumer<PointHistory> consumer) {
+        if (fromMillis != null && toMillis != null && fromMillis >= toMillis) {
+            throw new IllegalArgumentException("조회 시작 시각은 종료 시각보다 앞서야 합니다.");
+        }
+        pointHistoryWriter.forEach(userIds, fromMillis, toMillis, consumer);
+    }
+
+    /**
+     * 요청 한도를 넘으면 lock 을 기다리지 않고 AdmissionRejectedException (429)
+     */
     public UserPoint chargePoint(long id, long amount, long chargeDate) {
-        Lock lock = getLockForUser(id);
-        lock.lock();
+        return pointMetrics.recordOperation(Operation.CHARGE, () -> admissionLimiter.execute(id, () ->
+                pointCommandExecutor.execute(id, () -> charge(id, amount, chargeDate, NO_DEADLINE))));
+    }
+
+    /**
+     * Idempotency-Key 가 있는 충전. 같은 key 의 요청이 처리 중이면 그 결과를, 이미 성공했으면 보관된 결과를 반환한다.
+     * - idempotencyKey 가 null 이면 chargePoint 와 같다.
+     */
+    public UserPoint chargePoint(long id, long amount, long chargeDate, String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey(id, TransactionType.CHARGE, idempotencyKey),
+                new IdempotentRequest(id, TransactionType.CHARGE, amount), () ->
+                chargePoint(id, amount, chargeDate));
+    }
+
+    /**
+     * 비동기 충전. timeoutMillis 안에 잔액 반영을 시작하지 못한 요청은 실행하지 않고 PointCommandExpiredException (503)
+     * - 반영을 시작한 뒤에 제한 시간이 지나면 그대로 반영된다. 호출한 쪽의 timeout 응답은 반영 여부를 알 수 없다.
+     */
+    public CompletableFuture<UserPoint> chargePointAsync(long id, long amount, long chargeDate, String idempotencyKey,
+                                                         long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return idempotencyCache.submit(idempotencyKey(id, TransactionType.CHARGE, idempotencyKey),
+                new IdempotentRequest(id, TransactionType.CHARGE, amount), () ->
+                chargePointAsync(id, amount, chargeDate, deadline));
+    }
+
+    public CompletableFuture<UserPoint> chargePointAsync(long id, long amount, long chargeDate) {
+        return chargePointAsync(id, amount, chargeDate, NO_DEADLINE);
+    }
+
+    private CompletableFuture<UserPoint> chargePointAsync(long id, long amount, long chargeDate, long deadline) {
+        return pointMetrics.recordOperationAsync(Operation.CHARGE, () -> admissionLimiter.submit(id, () ->
+                pointCommandExecutor.submit(id, () -> charge(id, amount, chargeDate, deadline))));
+    }
+
+    /**
+     * 요청 한도를 넘으면 lock 을 기다리지 않고 AdmissionRejectedException (429)
+     */
+    public UserPoint usePoint(long id, long amount, long useDate) {
+        return pointMetrics.recordOperation(Operation.USE, () -> admissionLimiter.execute(id, () ->
+                pointCommandExecutor.execute(id, () -> use(id, amount, useDate, NO_DEADLINE))));
+    }
+
+    /**
+     * Idempotency-Key 가 있는 사용. 같은 key 의 요청이 처리 중이면 그 결과를, 이미 성공했으면 보관된 결과를 반환한다.
+     * - idempotencyKey 가 null 이면 usePoint 와 같다.
+     */
+    public UserPoint usePoint(long id, long amount, long useDate, String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey(id, TransactionType.USE, idempotencyKey),
+                new IdempotentRequest(id, TransactionType.USE, amount), () ->
+                usePoint(id, amount, useDate));
+    }
+
+    /**
+     * 비동기 사용. 제한 시간은 chargePointAsync 와 같다.
+     */
+    public CompletableFuture<UserPoint> usePointAsync(long id, long amount, long useDate, String idempotencyKey,
+                                                      long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return idempotencyCache.submit(idempotencyKey(id, TransactionType.USE, idempotencyKey),
+                new IdempotentRequest(id, TransactionType.USE, amount), () ->
+                usePointAsync(id, amount, useDate, deadline));
+    }
+
+    public CompletableFuture<UserPoint> usePointAsync(long id, long amount, long useDate) {
+        return usePointAsync(id, amount, useDate, NO_DEADLINE);
+    }
+
+    private CompletableFuture<UserPoint> usePointAsync(long id, long amount, long useDate, long deadline) {
+        return pointMetrics.recordOperationAsync(Operation.USE, () -> admissionLimiter.submit(id, () ->
+                pointCommandExecutor.submit(id, () -> use(id, amount, useDate, deadline))));
+    }
+
+    /**
+     * fromId 사용자의 포인트를 toId 사용자에게 옮긴다.
+     * - 두 사용자의 lock 을 정해진 순서로 함께 잡고, 보내는 쪽 잔액과 받는 쪽 최대 잔고를 모두 확인한 뒤에만 반영한다.
+     * - 내역은 보낸 사용자의 사용(USE), 받은 사용자의 충전(CHARGE) 한 쌍으로 같은 시각에 기록한다.
+     * - 요청 한도는 보내는 사용자 기준으로 적용한다.
+     * - 낙관적 잔액 갱신 모드는 lock 없이 갱신하는 요청과 배타적으로 실행할 수 없으므로 지원하지 않는다.
+     * - partition 실행 모드는 두 사용자가 서로 다른 partition 스레드에 속할 수 있어 지원하지 않는다.
+     */
+    public PointTransferResult transferPoint(long fromId, long toId, long amount, long transferDate) {
+        return pointMetrics.recordOperation(Operation.TRANSFER, () -> {
+            if (fromId == toId) {
+                throw new IllegalArgumentException("자기 자신에게는 이체할 수 없습니다.");
+            }
+            if (amount <= 0) {
+                throw new IllegalArgumentException("이체 금액은 0보다 커야 합니다.");
+            }
+            if (!balanceUpdater.requiresUserLock()) {
+                throw new IllegalStateException("낙관적 잔액 갱신 모드에서는 이체를 지원하지 않습니다.");
+            }
+            if (pointCommandExecutor.ownsUsers()) {
+                throw new IllegalStateException("partition 실행 모드에서는 이체를 지원하지 않습니다.");
+            }
+            return admissionLimiter.execute(fromId, () -> {
+                pointHistoryWriter.awaitCapacity();
+                return executeWithLocks(Operation.TRANSFER, fromId, toId, () ->
+                        applyTransfer(fromId, toId, amount, transferDate));
+            });
+        });
+    }
+
+    /**
+     * 여러 사용자의 충전/사용 요청을 일괄 처리한다.
+     * - 사용자별로 묶어 lock 을 한 번만 잡고, 요청 순서대로 처리한다.
+     * - 서로 다른 사용자는 병렬로 처리한다.
+     * - 한 건이 실패해도 나머지는 계속 처리하고, 결과는 요청 순서대로 돌려준다.
+     * - 요청 한도는 사용자별로 요청 건수만큼 token 을 쓴다. 한도를 넘은 사용자의 요청은 모두 429 결과로 돌려준다.
+     *   한 사용자의 요청 건수가 user-burst 보다 많으면 기다려도 처리할 수 없으므로 그 사용자의 요청은 모두 400 결과
+     */
+    public List<PointOperationResult> applyBatch(List<PointOperation> operations, long operationDate) {
+        return pointMetrics.recordOperation(Operation.BATCH, () -> batch(operations, operationDate));
+    }
+
+    private List<PointOperationResult> batch(List<PointOperation> operations, long operationDate) {
+        if (operations.size() > maxBatchSize) {
+            throw new IllegalArgumentException("한 번에 처리할 수 있는 요청은 최대 " + maxBatchSize + "건입니다.");
+        }
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            indexesByUser.computeIfAbsent(operations.get(i).userId(), userId -> new ArrayList<>()).add(i);
+        }
+
+        PointOperationResult[] results = new PointOperationResult[operations.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        indexesByUser.forEach((userId, indexes) -> futures.add(admissionLimiter.<Void>submit(userId, indexes.size(), () ->
+                pointCommandExecutor.submit(userId, () -> {
+                    pointHistoryWriter.awaitCapacity();
+                    return executeWithUserLock(Operation.BATCH, userId, () -> {
+                        for (int index : indexes) {
+                            results[index] = applyOperation(operations.get(index), operationDate);
+                        }
+                        return null;
+                    });
+                })).exceptionally(failure -> {
+                    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                    String code;
+                    if (cause instanceof AdmissionRejectedException) {
+                        code = "429";
+                    } else if (cause instanceof IllegalArgumentException) {
+                        code = "400";
+                    } else if (cause instanceof PointHistoryBacklogException) {
+                        code = "503";
+                    } else {
+                        throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+                    }
+                    for (int index : indexes) {
+                        results[index] = PointOperationResult.failure(operations.get(index),
+                                new ErrorResponse(code, cause.getMessage()));
+                    }
+                    return null;
+                })));
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return List.of(results);
+    }
+
+    //mailbox 모드에서도 lock 을 잡아 mailbox 밖의 접근(캐시 miss 적재 등)과 배타적으로 실행
+    //deadline 은 lock 을 잡은 뒤 반영 직전에 확인한다. (queue / lock 대기 중에 지났으면 실행하지 않음)
+    //쌓인 내역 수는 lock 을 잡기 전에 확인한다. (자리가 나지 않으면 503)
+    private UserPoint charge(long id, long amount, long chargeDate, long deadline) {
+        pointHistoryWriter.awaitCapacity();
+        if (pointCommandExecutor.combinesCommands()) {
+            return combine(Operation.CHARGE, id, new CombinedOperation(TransactionType.CHARGE, amount, chargeDate, deadline));
+        }
+        return executeWithUserLock(Operation.CHARGE, id, () -> {
+            checkDeadline(deadline);
+            return applyCharge(id, amount, chargeDate);
+        });
+    }
+
+    private UserPoint use(long id, long amount, long useDate, long deadline) {
+        pointHistoryWriter.awaitCapacity();
+        if (pointCommandExecutor.combinesCommands()) {
+            return combine(Operation.USE, id, new CombinedOperation(TransactionType.USE, amount, useDate, deadline));
+        }
+        return executeWithUserLock(Operation.USE, id, () -> {
+            checkDeadline(deadline);
+            return applyUse(id, amount, useDate);
+        });
+    }
+
+    private static void checkDeadline(long deadline) {
+        if (deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0) {
+            throw new PointCommandExpiredException("처리 제한 시간이 지나 실행하지 않았습니다.");
+        }
+    }
+
+    /**
+     * 사용자 lock 을 잡은 스레드가 같은 사용자의 대기 중인 충전/사용까지 모아 applyCombined 로 처리한다.
+     * 잔액 갱신 방식과 관계없이 lock 을 잡아 모은 요청 사이에 다른 갱신이 끼어들지 않도록 한다.
+     */
+    private UserPoint combine(Operation operation, long id, CombinedOperation request) {
+        return pointCommandExecutor.combine(id, request, action -> executeWithLock(operation, id, () -> {
+            action.run();
+            return null;
+        }), this::applyCombined);
+    }
+
+    /**
+     * 잔액 갱신 방식이 lock 을 요구할 때만 사용자 lock 을 잡고 실행한다. (낙관적 모드는 lock 없이 바로 실행)
+     * partition 실행 모드는 사용자를 맡은 partition 스레드 하나만 실행하므로 lock 없이 바로 실행한다.
+     */
+    private <T> T executeWithUserLock(Operation operation, long id, Supplier<T> action) {
+        if (balanceUpdater.requiresUserLock() && !pointCommandExecutor.ownsUsers()) {
+            return executeWithLock(operation, id, action);
+        }
+        return action.get();
+    }
+
+    /**
+     * 사용자 lock 을 잡고 action 을 실행한다. lock 을 얻기까지 기다린 시간과 잡고 있던 시간을 기록
+     */
+    private <T> T executeWithLock(Operation operation, long id, Supplier<T> action) {
+        long requested = System.nanoTime();
+        return userLockManager.executeWithLock(id, () -> {
+            long acquired = System.nanoTime();
+            pointMetrics.recordLockAcquire(operation, acquired - requested);
+            try {
+                return action.get();
+            } finally {
+                pointMetrics.recordLockHold(operation, System.nanoTime() - acquired);
+            }
+        });
+    }
+
+    /**
+     * 두 사용자의 lock 을 함께 잡고 action 을 실행한다. 기록하는 시간은 executeWithLock 과 같다.
+     */
+    private <T> T executeWithLocks(Operation operation, long id, long otherId, Supplier<T> action) {
+        long requested = System.nanoTime();
+        return userLockManager.executeWithLocks(id, otherId, () -> {
+            long acquired = System.nanoTime();
+            pointMetrics.recordLockAcquire(operation, acquired - requested);
+            try {
+                return action.get();
+            } finally {
+                pointMetrics.recordLockHold(operation, System.nanoTime() - acquired);
+            }
+        });
+    }
+
+    /**
+     * executeWithUserLock 안에서 호출. 실패는 예외 대신 결과에 담아 돌려준다.
+     */
+    private PointOperationResult applyOperation(PointOperation operation, long operationDate) {
         try {
-        UserPoint userPoint = userPointTable.selectById(id);
-        if(userPoint.point() + amount > maxBalnce) {
-            throw new IllegalArgumentException("최대 잔고를 초과할 수 없습니다.");
+            if (operation.type() == null) {
+                throw new IllegalArgumentException("거래 종류가 없습니다.");
+            }
+            UserPoint userPoint = switch (operation.type()) {
+                case CHARGE -> applyCharge(operation.userId(), operation.amount(), operationDate);
+                case USE -> applyUse(operation.userId(), operation.amount(), operationDate);
+            };
+            return PointOperationResult.success(operation, userPoint);
+        } catch (IllegalArgumentException e) {
+            return PointOperationResult.failure(operation, new ErrorResponse("400", e.getMessage()));
+        } catch (RuntimeException e) {
+            return PointOperationResult.failure(operation, new ErrorResponse("500", "에러가 발생했습니다."));
         }
+    }
 
-        UserPoint chargedUserPoint = userPointTable.insertOrUpdate(id, userPoint.point() + amount);
+    private UserPoint applyCharge(long id, long amount, long chargeDate) {
+        return balanceUpdater.update(id, point -> chargedBalance(point, amount),
+                charged -> recordTransaction(id, TransactionType.CHARGE, amount, charged, chargeDate));
+    }
 
-        pointHistoryTable.insert(id,amount,TransactionType.CHARGE,chargeDate);
+    private UserPoint applyUse(long id, long amount, long useDate) {
+        return balanceUpdater.update(id, point -> usedBalance(point, amount),
+                used -> recordTransaction(id, TransactionType.USE, amount, used, useDate));
+    }
 
-        return chargedUserPoint;
-        } finally {
-            lock.unlock(); // 락 해제
+    /**
+     * 사용자 lock 안에서 호출. 모인 요청을 순서대로 현재 잔액에 적용해 보고, 한도/잔액 규칙을 통과한 요청만 반영한다.
+     * - 규칙 확인은 balanceUpdater 가 넘겨주는 현재 잔액에서 시작한다. (낙관적 모드는 lock 밖의 갱신과 충돌하면 다시 계산)
+     * - 잔액은 마지막 결과로 한 번만 저장하고, 내역/journal 은 통과한 요청마다 그 시점의 잔액으로 기록한다.
+     * - 통과하지 못한 요청은 각자 PointRejectedException 으로, 처리 제한 시간이 지난 요청은 PointCommandExpiredException 으로
+     *   실패하고, 나머지 요청에는 영향을 주지 않는다. 모두 통과하지 못하면 저장하지 않는다.
+     */
+    private void applyCombined(long id, List<CombinedCommand<CombinedOperation, UserPoint>> batch) {
+        long[] balances = new long[batch.size()];
+        RuntimeException[] rejections = new RuntimeException[batch.size()];
+        UserPoint[] results = new UserPoint[batch.size()];
+        //처리 제한 시간이 지난 요청은 잔액을 읽기 전에 뺀다. (모두 지났으면 갱신하지 않음)
+        boolean[] expired = new boolean[batch.size()];
+        boolean anyLive = false;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                checkDeadline(batch.get(i).request().deadline());
+                anyLive = true;
+            } catch (PointCommandExpiredException e) {
+                expired[i] = true;
+                rejections[i] = e;
+            }
+        }
+        try {
+            if (anyLive) {
+                balanceUpdater.update(id, point -> {
+                    long balance = point;
+                    PointRejectedException lastRejection = null;
+                    boolean anyAccepted = false;
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (expired[i]) {
+                            continue;
+                        }
+                        CombinedOperation operation = batch.get(i).request();
+                        try {
+                            balance = switch (operation.type()) {
+                                case CHARGE -> chargedBalance(balance, operation.amount());
+                                case USE -> usedBalance(balance, operation.amount());
+                            };
+                            balances[i] = balance;
+                            rejections[i] = null;
+                            anyAccepted = true;
+                        } catch (PointRejectedException e) {
+                            rejections[i] = e;
+                            lastRejection = e;
+                        }
+                    }
+                    if (!anyAccepted) {
+                        throw lastRejection;
+                    }
+                    return balance;
+                }, committed -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (rejections[i] == null) {
+                            CombinedOperation operation = batch.get(i).request();
+                            results[i] = new UserPoint(id, balances[i], committed.updateMillis());
+                            recordTransaction(id, operation.type(), operation.amount(), results[i], operation.updateMillis());
+                        }
+                    }
+                });
+            }
+        } catch (PointRejectedException e) {
+            //모두 거절됨 (rejections 에 각자의 사유가 있음)
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (rejections[i] != null) {
+                batch.get(i).fail(rejections[i]);
+            } else {
+                batch.get(i).complete(results[i]);
+            }
         }
     }
 
-    public UserPoint usePoint(long id, long amount, long useDate) {
-        Lock lock = getLockForUser(id);
-        lock.lock();
+    /**
+     * 두 사용자의 lock 안에서 호출. 양쪽 잔액 규칙을 모두 통과해야 저장을 시작한다.
+     * - 보내는 사용자 잔액을 저장하기 전에 이체 한 쌍을 journal / 요약 / 내역에 먼저 기록한다. (write-ahead, 실패하면 아무것도 바꾸지 않음)
+     * - 그 뒤 받는 사용자 잔액 저장이 실패하면 보낸 사용자에게 금액을 되돌리고, 되돌린 이체도 한 쌍으로 기록해
+     *   재시작 후 복구한 잔액/내역이 실행 중인 상태와 같도록 한다. 예외는 그대로 던진다.
+     */
+    private PointTransferResult applyTransfer(long fromId, long toId, long amount, long transferDate) {
+        long fromBalance = usedBalance(balanceUpdater.load(fromId).point(), amount);
+        long toPoint = balanceUpdater.load(toId).point();
+        long toBalance = chargedBalance(toPoint, amount);
+
+        UserPoint from = balanceUpdater.update(fromId, point -> fromBalance, written ->
+                recordTransfer(fromId, fromBalance, toId, toBalance, amount, transferDate));
+        UserPoint to;
         try {
-        UserPoint userPoint = userPointTable.selectById(id);
+            to = balanceUpdater.update(toId, point -> toBalance, written -> { });
+        } catch (RuntimeException e) {
+            try {
+                balanceUpdater.update(fromId, point -> point + amount, written ->
+                        recordTransfer(toId, toPoint, fromId, written.point(), amount, transferDate));
+            } catch (RuntimeException compensation) {
+                e.addSuppressed(compensation);
+            }
+            throw e;
+        }
+        return new PointTransferResult(from, to);
+    }
 
-        if(userPoint.point() < amount){
-            throw new IllegalArgumentException("포인트가 부족합니다.");
+    /**
+     * 이체 한 쌍(보낸 사용자의 사용, 받은 사용자의 충전)을 journal 에 함께 남기고 요약 / 내역에 기록한다.
+     */
+    private void recordTransfer(long fromId, long fromBalance, long toId, long toBalance, long amount, long updateMillis) {
+        pointMetrics.recordTableCall(TableCall.JOURNAL_APPEND, () ->
+                pointJournal.appendTransfer(fromId, fromBalance, toId, toBalance, amount, updateMillis));
+        pointSummaryStore.record(fromId, TransactionType.USE, amount, updateMillis);
+        pointSummaryStore.record(toId, TransactionType.CHARGE, amount, updateMillis);
+        pointHistoryWriter.append(fromId, amount, TransactionType.USE, updateMillis);
+        pointHistoryWriter.append(toId, amount, TransactionType.CHARGE, updateMillis);
+    }
+
+    private static long chargedBalance(long point, long amount) {
+        if (point + amount > maxBalnce) {
+            throw new PointRejectedException(PointRejectedException.Reason.MAX_BALANCE_EXCEEDED, "최대 잔고를 초과할 수 없습니다.");
         }
+        return point + amount;
+    }
+
+    private static long usedBalance(long point, long amount) {
+        if (point < amount) {
+            throw new PointRejectedException(PointRejectedException.Reason.INSUFFICIENT_BALANCE, "포인트가 부족합니다.");
+        }
+        return point - amount;
+    }
 
-        UserPoint useUserPoint = userPointTable.insertOrUpdate(id, userPoint.point() - amount);
-        pointHistoryTable.insert(id,amount,TransactionType.USE,useDate);
+    /**
+     * 새 잔액을 저장/공개하기 직전에, 같은 사용자의 다음 갱신보다 먼저 호출된다.
+     * journal 에 먼저 기록하고(write-ahead, 건당 수 µs) 실패하면 잔액을 바꾸지 않는다.
+     * 요약에는 바로 기록하고, 내역은 write-behind queue 에 넣고 바로 반환
+     */
+    private void recordTransaction(long id, TransactionType type, long amount, UserPoint userPoint, long updateMillis) {
+        pointMetrics.recordTableCall(TableCall.JOURNAL_APPEND, () ->
+                pointJournal.append(id, type, amount, userPoint.point(), updateMillis));
+        pointSummaryStore.record(id, type, amount, updateMillis);
+        pointHistoryWriter.append(id, amount, type, updateMillis);
+    }
+
+    /**
+     * combining 모드에서 사용자 대기열에 넣는 충전/사용 요청 (deadline : 처리 제한 시각, 없으면 NO_DEADLINE)
+     */
+    private record CombinedOperation(TransactionType type, long amount, long updateMillis, long deadline) {
+    }
 
-        return useUserPoint;
-        } finally {
-            lock.unlock(); // 락 해제
+    /**
+     * 같은 Idempotency-Key 라도 사용자나 기능(충전/사용)이 다르면 다른 요청으로 본다.
+     * key 가 IdempotencyCache.MAX_KEY_LENGTH 보다 길면 IllegalArgumentException (400)
+     */
+    private static String idempotencyKey(long id, TransactionType type, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return null;
         }
+        if (idempotencyKey.length() > IdempotencyCache.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key 는 " + IdempotencyCache.MAX_KEY_LENGTH + "자 이하여야 합니다.");
+        }
+        return id + ":" + type + ":" + idempotencyKey;
     }
 
-}
\ No newline at end of file
+    /**
+     * 같은 Idempotency-Key 로 들어온 요청이 같은 요청인지 비교하는 값 (요청 시각은 재시도마다 달라 제외)
+     */
+    private record IdempotentRequest(long userId, TransactionType type, long amount) {
+    }
+}
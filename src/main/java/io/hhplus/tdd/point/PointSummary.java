@@ -0,0 +1,30 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 사용자 포인트 요약
+ * - lastActivityMillis : 마지막 충전/사용 시각 (거래가 없으면 null)
+ * - daily / monthly : 최근 기간별 집계, 최신 기간부터 (거래가 없는 기간은 생략)
+ */
+public record PointSummary(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long transactionCount,
+        Long lastActivityMillis,
+        List<Bucket> daily,
+        List<Bucket> monthly
+) {
+
+    /**
+     * 기간 하나의 집계 - period : 일별 "2024-01-31", 월별 "2024-01"
+     */
+    public record Bucket(
+            String period,
+            long charged,
+            long used,
+            long transactionCount
+    ) {
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 이체가 반영된 뒤 보낸 사용자와 받은 사용자의 잔액
+ */
+public record PointTransferResult(
+        UserPoint from,
+        UserPoint to
+) {
+}
@@ -0,0 +1,111 @@
+package io.hhplus.tdd.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 사용자 ID 를 담당 노드에 대응시키는 consistent hash ring (변경하지 않는 값 객체)
+ * - 노드마다 virtualNodes 개의 점을 ring 에 찍고, 사용자 ID 해시에서 시계 방향으로 처음 만나는 점의 노드가 담당한다.
+ * - 노드가 들어오거나 나가면 그 노드의 점 주변 구간만 주인이 바뀐다. (노드 n 개 중 하나가 바뀌면 약 1/n 의 사용자만 이동)
+ * - 점 위치는 노드 이름만으로 정해지므로 같은 노드 목록이면 어느 JVM 에서 만들어도 같은 ring 이 된다.
+ * - 조회는 정렬된 배열의 이진 탐색이고, 노드 변경은 새 ring 을 만들어 바꾼다.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final int virtualNodes;
+    //점 위치 오름차순, owners[i] 는 points[i] 를 찍은 노드
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("노드별 가상 노드 수는 0보다 커야 합니다.");
+        }
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        this.virtualNodes = virtualNodes;
+
+        List<Point> ring = new ArrayList<>(this.nodes.size() * virtualNodes);
+        for (String node : this.nodes) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                ring.add(new Point(hash(node + "#" + replica), node));
+            }
+        }
+        //같은 위치에 점이 겹치면 노드 이름 순으로 정해 어느 JVM 에서든 같은 결과가 되도록 함
+        ring.sort((a, b) -> a.position() != b.position()
+                ? Long.compare(a.position(), b.position())
+                : a.node().compareTo(b.node()));
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).position();
+            owners[i] = ring.get(i).node();
+        }
+    }
+
+    /**
+     * 사용자를 담당하는 노드. 노드가 없으면 IllegalStateException
+     */
+    public String ownerOf(long userId) {
+        if (points.length == 0) {
+            throw new IllegalStateException("담당할 노드가 없습니다.");
+        }
+        int index = Arrays.binarySearch(points, mix(userId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        //마지막 점을 지나면 ring 의 처음으로
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public ConsistentHashRing withNode(String node) {
+        List<String> joined = new ArrayList<>(nodes);
+        joined.add(node);
+        return new ConsistentHashRing(joined, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutNode(String node) {
+        List<String> remaining = new ArrayList<>(nodes);
+        remaining.remove(node);
+        return new ConsistentHashRing(remaining, virtualNodes);
+    }
+
+    /**
+     * 이름순으로 정렬된 노드 목록
+     */
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * 노드 이름의 64 bit 해시 (FNV-1a 후 섞음). String.hashCode 와 달리 32 bit 로 줄지 않는다.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * 연속된 값이 ring 의 이웃 위치에 몰리지 않도록 섞는다. (murmur3 finalizer)
+     */
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private record Point(long position, String node) {
+    }
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.routing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 이 노드가 보는 노드 목록(consistent hash ring)과 라우팅 결과 집계
+ * - 노드 이름은 다른 노드가 요청을 보낼 base URL 이다. (예: http://10.0.0.1:8080)
+ * - 노드 목록은 시작할 때 정해지고 실행 중에는 바꾸지 않는다. (바꿀 때는 모든 노드를 같은 목록으로 다시 시작)
+ * - 담당이 바뀐 사용자의 기존 잔액/내역은 새 담당 노드로 옮겨지지 않는다. 그대로 새 노드에서 처리하면 잔액이 0 으로 보이므로,
+ *   이전 노드 목록(previousNodes)을 함께 주면 잔액을 가진 이전 담당 노드가 계속 처리한다.
+ *   이전 담당 노드가 목록에서 빠졌으면 잔액을 읽을 곳이 없으므로 그 사용자는 처리하지 않는다. (isAvailable = false)
+ *   옮길 잔액이 없어졌을 때(옮기기를 마쳤거나 버리기로 했을 때) previousNodes 를 비우고 다시 시작해야 새 ring 대로 나뉜다.
+ */
+public class PointRouter implements MeterBinder {
+
+    private final boolean enabled;
+    private final String self;
+    private final ConsistentHashRing ring;
+    //previousNodes 를 주지 않았으면 null
+    private final ConsistentHashRing previousRing;
+
+    private final Map<Result, LongAdder> results = new EnumMap<>(Result.class);
+
+    public PointRouter(boolean enabled, String self, Collection<String> nodes, int virtualNodes) {
+        this(enabled, self, nodes, List.of(), virtualNodes);
+    }
+
+    public PointRouter(boolean enabled, String self, Collection<String> nodes, Collection<String> previousNodes,
+                       int virtualNodes) {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, virtualNodes);
+        if (enabled && !ring.nodes().contains(self)) {
+            throw new IllegalArgumentException("노드 목록에 이 노드(" + self + ")가 없습니다: " + ring.nodes());
+        }
+        this.enabled = enabled;
+        this.self = self;
+        this.ring = ring;
+        this.previousRing = previousNodes.isEmpty() ? null : new ConsistentHashRing(previousNodes, virtualNodes);
+        for (Result result : Result.values()) {
+            results.put(result, new LongAdder());
+        }
+    }
+
+    /**
+     * 라우팅을 하지 않는 단일 노드 (point.routing.enabled=false)
+     */
+    public static PointRouter disabled(String self) {
+        return new PointRouter(false, self, List.of(self), 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String self() {
+        return self;
+    }
+
+    /**
+     * 사용자를 처리할 노드
+     * - previousNodes 가 있으면 이전 담당 노드가 아직 목록에 있는 동안은 이전 담당 노드 (잔액/내역이 그 노드에 있음)
+     */
+    public String ownerOf(long userId) {
+        if (previousRing != null) {
+            String previousOwner = previousRing.ownerOf(userId);
+            if (ring.nodes().contains(previousOwner)) {
+                return previousOwner;
+            }
+        }
+        return ring.ownerOf(userId);
+    }
+
+    /**
+     * 잔액/내역을 가진 노드가 목록에 있는지 확인한다. 이전 담당 노드가 목록에서 빠진 사용자면 false
+     */
+    public boolean isAvailable(long userId) {
+        return previousRing == null || ring.nodes().contains(previousRing.ownerOf(userId));
+    }
+
+    public boolean isLocal(long userId) {
+        return !enabled || self.equals(ownerOf(userId));
+    }
+
+    public List<String> nodes() {
+        return ring.nodes();
+    }
+
+    /**
+     * previousNodes 를 주지 않았으면 빈 목록
+     */
+    public List<String> previousNodes() {
+        return previousRing == null ? List.of() : previousRing.nodes();
+    }
+
+    void record(Result result) {
+        results.get(result).increment();
+    }
+
+    public long count(Result result) {
+        return results.get(result).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        results.forEach((result, count) ->
+                FunctionCounter.builder("point.routing.requests", count, LongAdder::sum)
+                        .tag("result", result.name().toLowerCase(Locale.ROOT))
+                        .register(registry));
+    }
+
+    /**
+     * LOCAL : 이 노드가 처리 / FORWARDED : 담당 노드로 전달 / REJECTED : 여러 노드의 사용자가 섞인 요청
+     * UNAVAILABLE : 잔액을 가진 이전 담당 노드가 빠진 사용자 / FAILED : 전달 실패
+     */
+    public enum Result {
+        LOCAL, FORWARDED, REJECTED, UNAVAILABLE, FAILED
+    }
+}
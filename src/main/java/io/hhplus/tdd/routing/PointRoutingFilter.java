@@ -0,0 +1,293 @@
+package io.hhplus.tdd.routing;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import io.hhplus.tdd.idempotency.IdempotencyCache;
+import io.hhplus.tdd.point.PointOperation;
+import io.hhplus.tdd.point.PointTransferRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * PointController / PointAsyncController 앞에서 요청을 담당 노드로 보내는 filter
+ * - 요청이 다루는 사용자 ID 를 찾아 담당 노드가 이 노드면 그대로 처리하고, 아니면 담당 노드로 전달해 응답을 그대로 돌려준다.
+ *   /point/{id}/.. 는 경로의 id, transfer 는 보내는/받는 사용자, batch 는 요청의 모든 사용자, export 는 userIds
+ * - 사용자들의 담당 노드가 여러 곳이면 한 노드에서 처리할 수 없으므로 400 으로 거절한다.
+ * - 잔액을 가진 이전 담당 노드가 목록에서 빠진 사용자(PointRouter.isAvailable)는 잔액 0 으로 처리하지 않도록 503 으로 거절한다.
+ * - 사용자 ID 가 없는 요청(userIds 없는 export 등)은 이 노드의 데이터만으로 처리한다.
+ * - 사용자 ID 를 읽을 수 없는 요청(잘못된 본문, 숫자가 아닌 ID)은 담당 노드를 알 수 없으므로 처리하지 않고 400 으로 거절한다.
+ * - 전달한 요청에는 FORWARDED_HEADER 를 붙이고, 이 header 가 있는 요청은 다시 전달하지 않는다.
+ *   노드 목록을 바꾸는 도중 두 노드의 ring 이 달라도 요청이 노드 사이를 계속 오가지 않는다.
+ *   header 는 값이 노드 목록에 있고 요청을 보낸 주소가 그 노드의 주소일 때만 믿는다. 그 밖의 header 는 무시하고 평소대로 전달한다.
+ */
+public class PointRoutingFilter extends OncePerRequestFilter {
+
+    public static final String FORWARDED_HEADER = "X-Point-Forwarded-By";
+
+    private static final Logger log = LoggerFactory.getLogger(PointRoutingFilter.class);
+    private static final String POINT_PREFIX = "/point/";
+    private static final String ASYNC_POINT_PREFIX = "/async/point/";
+    private static final List<String> FORWARDED_REQUEST_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, IdempotencyCache.HEADER);
+    private static final List<String> FORWARDED_RESPONSE_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.RETRY_AFTER);
+
+    private final PointRouter pointRouter;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+
+    public PointRoutingFilter(PointRouter pointRouter, ObjectMapper objectMapper, Duration timeout) {
+        this.pointRouter = pointRouter;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !pointRouter.isEnabled() || isForwardedByNode(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String resource = path.startsWith(ASYNC_POINT_PREFIX)
+                ? path.substring(ASYNC_POINT_PREFIX.length())
+                : path.startsWith(POINT_PREFIX) ? path.substring(POINT_PREFIX.length()) : null;
+        if (resource == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        byte[] body = null;
+        if (resource.equals("transfer") || resource.equals("batch")) {
+            body = request.getInputStream().readAllBytes();
+            request = new CachedBodyRequest(request, body);
+        }
+        Set<String> owners = new LinkedHashSet<>();
+        boolean available = true;
+        try {
+            for (long userId : userIds(resource, request, body)) {
+                owners.add(pointRouter.ownerOf(userId));
+                available &= pointRouter.isAvailable(userId);
+            }
+        } catch (IOException | RuntimeException e) {
+            pointRouter.record(PointRouter.Result.REJECTED);
+            writeError(response, HttpStatus.BAD_REQUEST, "요청에서 사용자 ID 를 읽을 수 없습니다.");
+            return;
+        }
+
+        if (!available) {
+            pointRouter.record(PointRouter.Result.UNAVAILABLE);
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "잔액을 가진 노드가 빠져 처리할 수 없는 사용자입니다.");
+            return;
+        }
+
+        if (owners.size() > 1) {
+            pointRouter.record(PointRouter.Result.REJECTED);
+            writeError(response, HttpStatus.BAD_REQUEST, "담당 노드가 다른 사용자들을 한 요청에서 처리할 수 없습니다.");
+            return;
+        }
+        if (owners.isEmpty() || owners.contains(pointRouter.self())) {
+            pointRouter.record(PointRouter.Result.LOCAL);
+            chain.doFilter(request, response);
+            return;
+        }
+        forward(owners.iterator().next(), path, request, body, response);
+    }
+
+    /**
+     * 요청이 다루는 사용자 ID. 본문이나 ID 를 읽을 수 없으면 예외
+     */
+    private List<Long> userIds(String resource, HttpServletRequest request, byte[] body) throws IOException {
+        String first = resource.contains("/") ? resource.substring(0, resource.indexOf('/')) : resource;
+        return switch (first) {
+            case "transfer" -> {
+                PointTransferRequest transfer = objectMapper.readValue(body, PointTransferRequest.class);
+                yield List.of(transfer.fromUserId(), transfer.toUserId());
+            }
+            case "batch" -> objectMapper.readValue(body, new TypeReference<List<PointOperation>>() {
+                    }).stream()
+                    .map(PointOperation::userId)
+                    .toList();
+            case "histories" -> {
+                List<Long> userIds = new ArrayList<>();
+                String[] values = request.getParameterValues("userIds");
+                for (String value : values == null ? new String[0] : values) {
+                    for (String userId : value.split(",")) {
+                        userIds.add(Long.parseLong(userId.trim()));
+                    }
+                }
+                yield userIds;
+            }
+            default -> List.of(Long.parseLong(first));
+        };
+    }
+
+    /**
+     * 노드 목록에 있는 노드가 전달한 요청인지 확인한다. (header 값이 노드 목록에 있고, 보낸 주소가 그 노드의 host 주소)
+     */
+    private boolean isForwardedByNode(HttpServletRequest request) {
+        String forwardedBy = request.getHeader(FORWARDED_HEADER);
+        if (forwardedBy == null || !pointRouter.nodes().contains(forwardedBy)) {
+            return false;
+        }
+        try {
+            InetAddress remote = InetAddress.getByName(request.getRemoteAddr());
+            for (InetAddress address : InetAddress.getAllByName(URI.create(forwardedBy).getHost())) {
+                if (address.equals(remote)) {
+                    return true;
+                }
+            }
+        } catch (UnknownHostException e) {
+            log.warn("노드 주소를 확인할 수 없습니다 - 노드: {}", forwardedBy, e);
+        }
+        return false;
+    }
+
+    private void forward(String owner, String path, HttpServletRequest request, byte[] body,
+                         HttpServletResponse response) throws IOException {
+        String query = request.getQueryString();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(owner + path + (query == null ? "" : "?" + query)))
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, pointRouter.self());
+        for (String header : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+        if (body == null) {
+            body = request.getInputStream().readAllBytes();
+        }
+        builder.method(request.getMethod(), body.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body));
+
+        HttpResponse<InputStream> forwarded;
+        try {
+            forwarded = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            log.warn("담당 노드로 요청 전달 실패 - 노드: {}, 경로: {}", owner, path, e);
+            pointRouter.record(PointRouter.Result.FAILED);
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "담당 노드에 연결할 수 없습니다.");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pointRouter.record(PointRouter.Result.FAILED);
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "담당 노드에 연결할 수 없습니다.");
+            return;
+        }
+
+        pointRouter.record(PointRouter.Result.FORWARDED);
+        response.setStatus(forwarded.statusCode());
+        for (String header : FORWARDED_RESPONSE_HEADERS) {
+            forwarded.headers().firstValue(header).ifPresent(value -> response.setHeader(header, value));
+        }
+        //export 처럼 큰 응답도 모으지 않고 받는 대로 흘려보낸다.
+        try (InputStream in = forwarded.body()) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(String.valueOf(status.value()), message));
+    }
+
+    /**
+     * 사용자 ID 를 찾느라 먼저 읽은 본문을 controller 가 다시 읽을 수 있게 하는 요청
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * 본문은 이미 메모리에 있으므로 바로 읽을 수 있음을 알리고, 다 읽고 나면 끝났음을 알린다.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.hhplus.tdd.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class RoutingConfig {
+
+    /**
+     * point.routing.enabled=true 이면 point.routing.nodes 의 노드들이 사용자 ID 를 consistent hash 로 나눠 담당한다.
+     * - self : 다른 노드가 이 노드로 요청을 보낼 base URL (노드 목록에 같은 값으로 있어야 함)
+     * - previous-nodes : 노드 목록을 바꾸기 전의 목록. 담당이 바뀐 사용자를 잔액을 가진 이전 담당 노드에서 계속 처리한다.
+     */
+    @Bean
+    public PointRouter pointRouter(
+            @Value("${point.routing.enabled:false}") boolean enabled,
+            @Value("${point.routing.self:http://localhost:${server.port:8080}}") String self,
+            @Value("${point.routing.nodes:}") String nodes,
+            @Value("${point.routing.previous-nodes:}") String previousNodes,
+            @Value("${point.routing.virtual-nodes:128}") int virtualNodes
+    ) {
+        if (!enabled) {
+            return PointRouter.disabled(self);
+        }
+        return new PointRouter(true, self, nodeList(nodes), nodeList(previousNodes), virtualNodes);
+    }
+
+    private static List<String> nodeList(String nodes) {
+        return Arrays.stream(nodes.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .toList();
+    }
+
+    /**
+     * 포인트 API 요청만 거치도록 등록 (라우팅을 끄면 그대로 통과)
+     */
+    @Bean
+    public FilterRegistrationBean<PointRoutingFilter> pointRoutingFilter(
+            PointRouter pointRouter,
+            ObjectMapper objectMapper,
+            @Value("${point.routing.forward-timeout-millis:5000}") long forwardTimeoutMillis
+    ) {
+        FilterRegistrationBean<PointRoutingFilter> registration = new FilterRegistrationBean<>(
+                new PointRoutingFilter(pointRouter, objectMapper, Duration.ofMillis(forwardTimeoutMillis)));
+        registration.addUrlPatterns("/point/*", "/async/point/*");
+        return registration;
+    }
+}
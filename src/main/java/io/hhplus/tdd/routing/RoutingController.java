@@ -0,0 +1,32 @@
+package io.hhplus.tdd.routing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/routing/nodes")
+@RequiredArgsConstructor
+public class RoutingController {
+
+    private final PointRouter pointRouter;
+
+    /**
+     * 이 노드가 보는 노드 목록을 조회합니다.
+     * 목록은 point.routing.nodes / previous-nodes 설정으로만 정합니다. (바꿀 때는 모든 노드를 같은 목록으로 다시 시작)
+     */
+    @GetMapping
+    public RoutingNodes nodes() {
+        return new RoutingNodes(pointRouter.self(), pointRouter.nodes(), pointRouter.previousNodes());
+    }
+
+    public record RoutingNodes(
+            String self,
+            List<String> nodes,
+            List<String> previousNodes
+    ) {
+    }
+}
@@ -0,0 +1,286 @@
+package io.hhplus.tdd.summary;
+
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * 사용자별 포인트 요약을 거래마다 바로 갱신하는 저장소
+ * - 충전/사용이 저장될 때 누적 합계와 일별/월별 bucket 을 한 번씩 더하므로, 조회는 내역 길이와 무관하게 O(1) 이다.
+ * - bucket 은 사용자마다 고정 크기 ring 으로 최근 dailyBuckets 일, monthlyBuckets 개월만 유지한다.
+ *   범위를 벗어난 예전 거래는 누적 합계에만 반영된다.
+ * - 기간은 zone 기준 날짜/월로 나눈다.
+ * - 같은 사용자의 갱신은 PointService 가 순서대로 호출하고, 조회는 갱신과 동시에 일어날 수 있다.
+ * - 요약은 최근 거래한 maxUsers 명까지만 메모리에 두고(사용자당 약 1.4KB, 사용자 ID 해시로 나눈 segment 별 LRU),
+ *   밀려난 사용자는 다음 거래 때 내역(historyLoader)으로 다시 만든다.
+ *   record 는 거래를 내역에 넣기 전에 호출되므로 다시 만든 요약에 이번 거래가 두 번 들어가지 않는다.
+ *   조회가 밀려난 사용자를 만나면 내역으로 계산만 하고 넣지 않는다. (동시에 진행 중인 거래를 빠뜨린 요약이 남지 않도록)
+ * - historyLoader 없이 만든 저장소는 다시 만들 수 없으므로 사용자를 밀어내지 않는다. (테스트 / 벤치마크용)
+ */
+@Component
+public class PointSummaryStore {
+
+    private static final String DEFAULT_ZONE = "Asia/Seoul";
+    private static final int DEFAULT_DAILY_BUCKETS = 31;
+    private static final int DEFAULT_MONTHLY_BUCKETS = 12;
+    private static final int DEFAULT_MAX_USERS = 20_000;
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Clock clock;
+    private final int dailyBuckets;
+    private final int monthlyBuckets;
+    //사용자의 전체 내역 (null 이면 밀어내지 않음)
+    private final LongFunction<List<PointHistory>> historyLoader;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public PointSummaryStore() {
+        this(Clock.system(ZoneId.of(DEFAULT_ZONE)), DEFAULT_DAILY_BUCKETS, DEFAULT_MONTHLY_BUCKETS);
+    }
+
+    @Autowired
+    public PointSummaryStore(
+            @Value("${point.summary.zone:" + DEFAULT_ZONE + "}") String zone,
+            @Value("${point.summary.daily-buckets:" + DEFAULT_DAILY_BUCKETS + "}") int dailyBuckets,
+            @Value("${point.summary.monthly-buckets:" + DEFAULT_MONTHLY_BUCKETS + "}") int monthlyBuckets,
+            @Value("${point.summary.max-users:" + DEFAULT_MAX_USERS + "}") int maxUsers,
+            PointHistoryWriter pointHistoryWriter
+    ) {
+        this(Clock.system(ZoneId.of(zone)), dailyBuckets, monthlyBuckets, maxUsers, pointHistoryWriter::selectAllByUserId);
+    }
+
+    public PointSummaryStore(Clock clock, int dailyBuckets, int monthlyBuckets) {
+        this(clock, dailyBuckets, monthlyBuckets, Integer.MAX_VALUE, null);
+    }
+
+    public PointSummaryStore(Clock clock, int dailyBuckets, int monthlyBuckets, int maxUsers,
+                             LongFunction<List<PointHistory>> historyLoader) {
+        if (dailyBuckets <= 0 || monthlyBuckets <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("요약 bucket 수와 최대 사용자 수는 0보다 커야 합니다.");
+        }
+        this.clock = clock;
+        this.dailyBuckets = dailyBuckets;
+        this.monthlyBuckets = monthlyBuckets;
+        this.historyLoader = historyLoader;
+        int segmentCapacity = historyLoader == null ? Integer.MAX_VALUE : Math.max(1, maxUsers / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * 저장된 거래 한 건을 요약에 더한다. 내역에 넣기 전에 호출한다.
+     * 밀려난 사용자면 지금까지의 내역으로 요약을 다시 만든 뒤 더한다.
+     */
+    public void record(long userId, TransactionType type, long amount, long updateMillis) {
+        Segment segment = segmentFor(userId);
+        UserSummary summary = segment.get(userId);
+        if (summary == null) {
+            summary = rebuild(userId);
+            segment.put(userId, summary);
+        }
+        add(summary, type, amount, updateMillis);
+    }
+
+    /**
+     * 사용자 요약을 반환한다. 거래가 없으면 모두 0
+     */
+    public PointSummary get(long userId) {
+        UserSummary summary = segmentFor(userId).get(userId);
+        if (summary == null) {
+            if (historyLoader == null) {
+                return new PointSummary(userId, 0, 0, 0, null, List.of(), List.of());
+            }
+            summary = rebuild(userId);
+        }
+        LocalDate today = LocalDate.now(clock);
+        return summary.toPointSummary(userId, today.toEpochDay(), monthKey(YearMonth.from(today)));
+    }
+
+    /**
+     * 메모리에 요약을 두고 있는 사용자 수
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private UserSummary rebuild(long userId) {
+        UserSummary summary = new UserSummary(dailyBuckets, monthlyBuckets);
+        if (historyLoader != null) {
+            for (PointHistory history : historyLoader.apply(userId)) {
+                add(summary, history.type(), history.amount(), history.updateMillis());
+            }
+        }
+        return summary;
+    }
+
+    private void add(UserSummary summary, TransactionType type, long amount, long updateMillis) {
+        LocalDate date = Instant.ofEpochMilli(updateMillis).atZone(clock.getZone()).toLocalDate();
+        summary.add(type, amount, updateMillis, date.toEpochDay(), monthKey(YearMonth.from(date)));
+    }
+
+    private Segment segmentFor(long userId) {
+        int hash = Long.hashCode(userId);
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    private static long monthKey(YearMonth yearMonth) {
+        return yearMonth.getYear() * 12L + yearMonth.getMonthValue() - 1;
+    }
+
+    private static String monthPeriod(long monthKey) {
+        return YearMonth.of((int) Math.floorDiv(monthKey, 12), (int) Math.floorMod(monthKey, 12) + 1).toString();
+    }
+
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, UserSummary> entries;
+
+        Segment(int capacity) {
+            //accessOrder = true : 조회/거래할 때마다 가장 최근 위치로 이동 (LRU)
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, UserSummary> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        UserSummary get(long userId) {
+            lock.lock();
+            try {
+                return entries.get(userId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(long userId, UserSummary summary) {
+            lock.lock();
+            try {
+                entries.put(userId, summary);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class UserSummary {
+        private final StampedLock lock = new StampedLock();
+        private final Buckets daily;
+        private final Buckets monthly;
+        private long totalCharged;
+        private long totalUsed;
+        private long transactionCount;
+        private long lastActivityMillis;
+
+        UserSummary(int dailyBuckets, int monthlyBuckets) {
+            this.daily = new Buckets(dailyBuckets);
+            this.monthly = new Buckets(monthlyBuckets);
+        }
+
+        void add(TransactionType type, long amount, long updateMillis, long dayKey, long monthKey) {
+            long stamp = lock.writeLock();
+            try {
+                long charged = type == TransactionType.CHARGE ? amount : 0;
+                long used = type == TransactionType.USE ? amount : 0;
+                totalCharged += charged;
+                totalUsed += used;
+                transactionCount++;
+                lastActivityMillis = Math.max(lastActivityMillis, updateMillis);
+                daily.add(dayKey, charged, used);
+                monthly.add(monthKey, charged, used);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        PointSummary toPointSummary(long userId, long todayKey, long thisMonthKey) {
+            long stamp = lock.readLock();
+            try {
+                return new PointSummary(userId, totalCharged, totalUsed, transactionCount, lastActivityMillis,
+                        daily.toList(todayKey, key -> LocalDate.ofEpochDay(key).toString()),
+                        monthly.toList(thisMonthKey, PointSummaryStore::monthPeriod));
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * 기간 key(epoch day / 월 번호)를 key % size 칸에 담는 ring. 칸의 key 가 다르면 더 최근 기간일 때만 덮어쓴다.
+     */
+    private static final class Buckets {
+        private final long[] keys;
+        private final long[] charged;
+        private final long[] used;
+        private final long[] counts;
+
+        Buckets(int size) {
+            keys = new long[size];
+            charged = new long[size];
+            used = new long[size];
+            counts = new long[size];
+        }
+
+        void add(long key, long chargedAmount, long usedAmount) {
+            int slot = (int) Math.floorMod(key, keys.length);
+            if (counts[slot] == 0 || keys[slot] < key) {
+                keys[slot] = key;
+                charged[slot] = 0;
+                used[slot] = 0;
+                counts[slot] = 0;
+            } else if (keys[slot] > key) {
+                //ring 범위보다 오래된 기간
+                return;
+            }
+            charged[slot] += chargedAmount;
+            used[slot] += usedAmount;
+            counts[slot]++;
+        }
+
+        /**
+         * currentKey 부터 과거 방향으로 ring 크기만큼의 기간 중 거래가 있는 기간만
+         */
+        List<PointSummary.Bucket> toList(long currentKey, LongFunction<String> period) {
+            List<PointSummary.Bucket> buckets = new ArrayList<>();
+            for (long key = currentKey; key > currentKey - keys.length; key--) {
+                int slot = (int) Math.floorMod(key, keys.length);
+                if (counts[slot] > 0 && keys[slot] == key) {
+                    buckets.add(new PointSummary.Bucket(period.apply(key), charged[slot], used[slot], counts[slot]));
+                }
+            }
+            return buckets;
+        }
+    }
+}
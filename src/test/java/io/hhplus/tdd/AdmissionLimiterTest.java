@@ -0,0 +1,180 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.admission.AdmissionLimiter;
+import io.hhplus.tdd.admission.AdmissionRejectedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    @DisplayName("사용자별 burst 만큼 바로 허용하고, 이후에는 rate 에 맞춰 채워진 만큼만 허용")
+    void testUserTokenBucket() {
+        // Given
+        //사용자별 초당 10건, 최대 5건 / 전체 제한은 넉넉하게
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 10, 5, 1_000, 1_000, 100, 1_024, now::get);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            limiter.execute(1L, () -> null);
+        }
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, () ->
+                limiter.execute(1L, () -> null));
+        //다른 사용자는 영향을 받지 않음
+        limiter.execute(2L, () -> null);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.execute(1L, () -> null);
+
+        // Then
+        assertEquals(AdmissionRejectedException.Reason.USER_RATE, rejected.getReason());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rejected.getRetryAfterNanos());
+        assertThrows(AdmissionRejectedException.class, () -> limiter.execute(1L, () -> null));
+        assertEquals(7, limiter.stats().admitted());
+        assertEquals(2, limiter.stats().userRateRejected());
+    }
+
+    @Test
+    @DisplayName("전체 한도를 넘으면 사용자가 달라도 거절하고, 거절된 요청은 사용자 한도를 쓰지 않음")
+    void testGlobalTokenBucket() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 1, 1, 3, 3, 100, 1_024, now::get);
+        for (long userId = 1; userId <= 3; userId++) {
+            limiter.execute(userId, () -> null);
+        }
+
+        // When
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, () ->
+                limiter.execute(4L, () -> null));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(334));
+
+        // Then
+        assertEquals(AdmissionRejectedException.Reason.GLOBAL_RATE, rejected.getReason());
+        limiter.execute(4L, () -> null);
+        assertEquals(1, limiter.stats().globalRateRejected());
+    }
+
+    @Test
+    @DisplayName("사용자의 처리 중인 요청이 상한에 도달하면 끝날 때까지 새 요청을 바로 거절")
+    void testUserConcurrencyCap() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 1_000, 1_000, 1_000, 1_000, 2, 1_024, now::get);
+        CompletableFuture<Long> first = new CompletableFuture<>();
+        CompletableFuture<Long> second = new CompletableFuture<>();
+        limiter.submit(1L, () -> first);
+        limiter.submit(1L, () -> second);
+
+        // When
+        CompletableFuture<Long> third = limiter.submit(1L, () -> CompletableFuture.completedFuture(3L));
+        first.complete(1L);
+        CompletableFuture<Long> fourth = limiter.submit(1L, () -> CompletableFuture.completedFuture(4L));
+
+        // Then
+        CompletionException failure = assertThrows(CompletionException.class, third::join);
+        AdmissionRejectedException rejected = assertInstanceOf(AdmissionRejectedException.class, failure.getCause());
+        assertEquals(AdmissionRejectedException.Reason.USER_CONCURRENCY, rejected.getReason());
+        assertEquals(4L, fourth.join());
+        assertEquals(1, limiter.stats().userConcurrencyRejected());
+    }
+
+    @Test
+    @DisplayName("사용자마다 한도를 따로 써서 다른 사용자와 나눠 쓰지 않음")
+    void testUsersDoNotShareLimits() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 10, 5, 1_000_000, 1_000_000, 100, 10_000, now::get);
+
+        // When
+        for (long userId = 1; userId <= 1_000; userId++) {
+            for (int i = 0; i < 5; i++) {
+                limiter.execute(userId, () -> null);
+            }
+        }
+
+        // Then
+        assertEquals(5_000, limiter.stats().admitted());
+        assertEquals(0, limiter.stats().userRateRejected());
+        assertEquals(1_000, limiter.stats().trackedUsers());
+    }
+
+    @Test
+    @DisplayName("추적 중인 사용자가 최대에 닿으면 token 이 다 찬 사용자를 지워 자리를 만들고, 자리가 없으면 새 사용자를 거절")
+    void testIdleUsersAreSwept() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 10, 5, 1_000, 1_000, 100, 2, now::get);
+        limiter.execute(1L, () -> null);
+        limiter.execute(2L, () -> null);
+
+        // When
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, () ->
+                limiter.execute(3L, () -> null));
+        //사용자 1, 2 의 token 이 다시 다 차고 정리 간격이 지난 뒤
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        limiter.execute(3L, () -> null);
+
+        // Then
+        assertEquals(AdmissionRejectedException.Reason.USER_TABLE_FULL, rejected.getReason());
+        assertEquals(1, limiter.stats().userTableFullRejected());
+        assertEquals(1, limiter.stats().trackedUsers());
+        assertEquals(3, limiter.stats().admitted());
+    }
+
+    @Test
+    @DisplayName("일괄 처리는 요청 건수만큼 token 을 한 번에 쓰고, 모자라면 하나도 쓰지 않음")
+    void testPermits() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 10, 5, 1_000, 1_000, 100, 1_024, now::get);
+
+        // When
+        CompletableFuture<Long> first = limiter.submit(1L, 3, () -> CompletableFuture.completedFuture(3L));
+        CompletableFuture<Long> tooMany = limiter.submit(1L, 3, () -> CompletableFuture.completedFuture(3L));
+        CompletableFuture<Long> rest = limiter.submit(1L, 2, () -> CompletableFuture.completedFuture(2L));
+
+        // Then
+        assertEquals(3L, first.join());
+        CompletionException rejected = assertThrows(CompletionException.class, tooMany::join);
+        assertInstanceOf(AdmissionRejectedException.class, rejected.getCause());
+        assertEquals(2L, rest.join());
+        assertThrows(AdmissionRejectedException.class, () -> limiter.execute(1L, () -> null));
+        assertEquals(5, limiter.stats().admitted());
+    }
+
+    @Test
+    @DisplayName("burst 보다 많은 token 을 한 번에 쓰는 요청은 기다려도 처리할 수 없으므로 429 가 아니라 400")
+    void testPermitsOverBurst() {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 10, 5, 1_000, 1_000, 100, 1_024, now::get);
+
+        // When
+        CompletableFuture<Long> overBurst = limiter.submit(1L, 6, () -> CompletableFuture.completedFuture(6L));
+
+        // Then
+        CompletionException failure = assertThrows(CompletionException.class, overBurst::join);
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertEquals(5L, limiter.submit(1L, 5, () -> CompletableFuture.completedFuture(5L)).join());
+        assertEquals(0, limiter.stats().userRateRejected());
+    }
+
+    @Test
+    @DisplayName("비활성화하면 한도와 관계없이 모두 처리")
+    void testUnlimited() {
+        // Given
+        AdmissionLimiter limiter = AdmissionLimiter.unlimited();
+
+        // When
+        long count = 0;
+        for (int i = 0; i < 100_000; i++) {
+            count += limiter.execute(1L, () -> 1L);
+        }
+
+        // Then
+        assertEquals(100_000, count);
+    }
+}
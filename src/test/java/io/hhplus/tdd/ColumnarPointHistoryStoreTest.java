@@ -0,0 +1,86 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.ColumnarPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryIndex;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarPointHistoryStoreTest {
+
+    @Test
+    @DisplayName("저장한 내역을 id 를 발급해 사용자별로 저장 순서대로 반환")
+    void testSelectAllByUserId() {
+        // Given
+        ColumnarPointHistoryStore store = new ColumnarPointHistoryStore();
+        store.insert(1L, 1_000, TransactionType.CHARGE, 1L);
+        store.insert(2L, 500, TransactionType.CHARGE, 2L);
+        store.insert(1L, 300, TransactionType.USE, 3L);
+
+        // When
+        List<PointHistory> histories = store.selectAllByUserId(1L);
+
+        // Then
+        assertEquals(List.of(
+                new PointHistory(1, 1L, 1_000, TransactionType.CHARGE, 1L),
+                new PointHistory(3, 1L, 300, TransactionType.USE, 3L)
+        ), histories);
+        assertTrue(store.selectAllByUserId(999L).isEmpty());
+        assertEquals(3, store.rowCount());
+    }
+
+    @Test
+    @DisplayName("cursor 다음 내역을 id 순으로 limit 건씩 반환")
+    void testSelectPageAfterCursor() {
+        // Given
+        ColumnarPointHistoryStore store = new ColumnarPointHistoryStore();
+        for (long millis = 1; millis <= 5; millis++) {
+            store.insert(1L, 10, TransactionType.CHARGE, millis);
+        }
+
+        // When
+        List<PointHistory> firstPage = store.selectPage(1L, null, null, null, 2);
+        List<PointHistory> secondPage = store.selectPage(1L, firstPage.get(1).id(), null, null, 2);
+        List<PointHistory> lastPage = store.selectPage(1L, 4L, null, null, 2);
+
+        // Then
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(3L, 4L), secondPage.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(5L), lastPage.stream().map(PointHistory::id).toList());
+    }
+
+    @Test
+    @DisplayName("시각이 거꾸로 들어와도 기간 조회는 PointHistoryIndex 와 같은 순서로 반환")
+    void testSelectPageBetweenMatchesIndex() {
+        // Given
+        ColumnarPointHistoryStore store = new ColumnarPointHistoryStore();
+        PointHistoryIndex index = new PointHistoryIndex();
+        long[] updateMillis = {50, 10, 30, 10, 70, 20, 30, 60, 10};
+        for (long millis : updateMillis) {
+            index.add(store.insert(1L, 10, TransactionType.CHARGE, millis));
+        }
+
+        // When
+        List<Long> columnar = new ArrayList<>();
+        List<Long> indexed = new ArrayList<>();
+        Long cursor = null;
+        List<PointHistory> page;
+        do {
+            page = store.selectPage(1L, cursor, 10L, 60L, 2);
+            assertEquals(index.selectBetween(1L, cursor, 10, 60, 2), page);
+            page.forEach(pointHistory -> columnar.add(pointHistory.id()));
+            cursor = page.isEmpty() ? cursor : page.get(page.size() - 1).id();
+        } while (page.size() == 2);
+        index.selectBetween(1L, null, 10, 60, 100).forEach(pointHistory -> indexed.add(pointHistory.id()));
+
+        // Then
+        assertEquals(List.of(2L, 4L, 9L, 6L, 3L, 7L, 1L), columnar);
+        assertEquals(indexed, columnar);
+    }
+}
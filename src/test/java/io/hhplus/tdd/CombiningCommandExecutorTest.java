@@ -0,0 +1,86 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.execution.CombinedCommand;
+import io.hhplus.tdd.execution.CombiningCommandExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CombiningCommandExecutorTest {
+
+    private final ReentrantLock userLock = new ReentrantLock(true);
+    private final Consumer<Runnable> withUserLock = action -> {
+        userLock.lock();
+        try {
+            action.run();
+        } finally {
+            userLock.unlock();
+        }
+    };
+
+    @Test
+    @DisplayName("lock 을 기다리는 동안 쌓인 요청은 lock 을 잡은 스레드가 들어온 순서대로 한 번에 처리")
+    void testCombinesWaitingCommands() throws Exception {
+        // Given
+        CombiningCommandExecutor executor = new CombiningCommandExecutor(Runnable::run);
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        List<List<Integer>> batches = new ArrayList<>();
+
+        // When
+        //lock 을 먼저 잡아 두고 요청 5개를 순서대로 대기열에 쌓은 뒤 놓는다.
+        userLock.lock();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int request = i;
+            results.add(callers.submit(() -> executor.combine(1L, request, withUserLock, (userId, batch) -> {
+                batches.add(batch.stream().map(CombinedCommand::request).toList());
+                batch.forEach(command -> command.complete(command.request() * 10));
+            })));
+            while (userLock.getQueueLength() <= i) {
+                Thread.onSpinWait();
+            }
+        }
+        userLock.unlock();
+
+        // Then
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i * 10, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(List.of(0, 1, 2, 3, 4)), batches);
+        assertEquals(1, executor.stats().batches());
+        assertEquals(5, executor.stats().commands());
+        assertEquals(0, executor.activeUsers());
+        callers.shutdown();
+    }
+
+    @Test
+    @DisplayName("실패로 채운 요청만 예외를 받고, handler 가 던진 예외는 결과가 없는 요청 모두에 전달")
+    void testFailures() {
+        // Given
+        CombiningCommandExecutor executor = new CombiningCommandExecutor(Runnable::run);
+
+        // When & Then
+        IllegalArgumentException rejected = assertThrows(IllegalArgumentException.class, () ->
+                executor.combine(1L, 500L, withUserLock, (userId, batch) ->
+                        batch.forEach(command -> command.fail(new IllegalArgumentException("포인트가 부족합니다.")))));
+        assertEquals("포인트가 부족합니다.", rejected.getMessage());
+
+        IllegalStateException failed = assertThrows(IllegalStateException.class, () ->
+                executor.combine(1L, 10L, withUserLock, (userId, batch) -> {
+                    throw new IllegalStateException("저장 실패");
+                }));
+        assertEquals("저장 실패", failed.getMessage());
+        assertEquals(0, executor.activeUsers());
+    }
+}
@@ -1,26 +1,52 @@
 package io.hhplus.tdd;
 
 import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.UserPointCache;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.execution.CombiningCommandExecutor;
+import io.hhplus.tdd.execution.LockingCommandExecutor;
+import io.hhplus.tdd.execution.MailboxCommandExecutor;
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ConcurrencyTest {
 
+    //테스트에서 만든 내역 기록 스레드는 테스트가 끝나면 종료
+    private final List<PointHistoryWriter> pointHistoryWriters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryWriters.forEach(PointHistoryWriter::close);
+    }
+
     @Test
     @DisplayName("한 사용자가 여러 번의 동시 요청을 보냈을 때, 데이터가 일관성을 보장하는지 테스트")
     void testSynchronizedConcurrency() throws InterruptedException {
         //given
         long userId = 1L;
-        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        PointService pointService = pointService();
 
         //사용자 초기 포인트 설정
         pointService.chargePoint(userId, 1_000L, System.currentTimeMillis());
@@ -69,7 +95,7 @@ public class ConcurrencyTest {
     void testConcurrencyWithoutSynchronization() throws InterruptedException {
         //given
         long userId = 1L;
-        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        PointService pointService = pointService();
         pointService.chargePoint(userId, 1_000L, System.currentTimeMillis());
         System.out.println("초기 포인트: " + pointService.getId(userId).point());
 
@@ -107,7 +133,7 @@ public class ConcurrencyTest {
     void testLockConcurrency() throws InterruptedException {
         //given
         long userId = 1L;
-        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        PointService pointService = pointService();
 
         //초기 포인트 설정
         pointService.chargePoint(userId, 1_000L, System.currentTimeMillis());
@@ -148,7 +174,7 @@ public class ConcurrencyTest {
     void testConcurrentHashMapConcurrency() throws InterruptedException {
         //given
         long userId = 1L;
-        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        PointService pointService = pointService();
         pointService.chargePoint(userId, 1_000L, System.currentTimeMillis());
         System.out.println("초기 포인트: " + pointService.getId(userId).point());
 
@@ -197,7 +223,7 @@ public class ConcurrencyTest {
         long chargeAmount = 10L;        //충전 금액
         long useAmount = 10L;           //사용 금액
 
-        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        PointService pointService = pointService();
 
         //각 사용자 초기 포인트 설정
         for (int userId = 1; userId <= userCount; userId++) {
@@ -252,7 +278,7 @@ public class ConcurrencyTest {
         long chargeAmount = 10L;        // 충전 금액
         long useAmount = 10L;           // 사용 금액
 
-        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        PointService pointService = pointService();
 
         //각 사용자 초기 포인트 설정
         for (int userId = 1; userId <= userCount; userId++) {
@@ -324,7 +350,7 @@ public class ConcurrencyTest {
         long chargeAmount = 10L;        // 충전 금액
         long useAmount = 10L;           // 사용 금액
 
-        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        PointService pointService = pointService();
 
         //각 사용자 초기 포인트 설정
         for (int userId = 1; userId <= userCount; userId++) {
@@ -386,4 +412,265 @@ public class ConcurrencyTest {
         System.out.println("평균 처리 시간: " + averageTime + "ms");
     }
 
+    @Test
+    @DisplayName("mailbox 모드 - 한 사용자가 여러 번의 동시 요청을 보냈을 때 데이터의 일관성 확인")
+    void testMailboxConcurrency() throws InterruptedException {
+        //given
+        long userId = 1L;
+        ExecutorService mailboxPool = Executors.newFixedThreadPool(4);
+        PointService pointService = mailboxPointService(mailboxPool);
+        pointService.chargePoint(userId, 1_000L, System.currentTimeMillis());
+
+        int threadCount = 100;
+        ExecutorService executorService = Executors.newFixedThreadPool(10);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        //when
+        for (int i = 0; i < threadCount; i++) {
+            int threadNum = i;
+            executorService.submit(() -> {
+                try {
+                    if (threadNum % 2 == 0) {
+                        pointService.chargePoint(userId, 10L, System.currentTimeMillis());
+                    } else {
+                        pointService.usePoint(userId, 10L, System.currentTimeMillis());
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executorService.shutdown();
+        mailboxPool.shutdown();
+
+        //then
+        UserPoint userPoint = pointService.getId(userId);
+        System.out.println("최종 포인트: " + userPoint.point());
+        assertEquals(1_000L, userPoint.point());
+    }
+
+    @Test
+    @DisplayName("mailbox 모드 - 호출 스레드를 붙잡지 않고 여러 사용자 요청을 비동기로 처리해도 데이터의 일관성 확인")
+    void testMailboxAsyncMultipleUsersConcurrency() {
+        //given
+        int userCount = 4;
+        int requestCountPerUser = 20;
+        long initialPoint = 1_000L;
+        ExecutorService mailboxPool = Executors.newFixedThreadPool(4);
+        PointService pointService = mailboxPointService(mailboxPool);
+
+        for (int userId = 1; userId <= userCount; userId++) {
+            pointService.chargePoint(userId, initialPoint, System.currentTimeMillis());
+        }
+
+        //when
+        //요청을 보내는 스레드는 하나뿐이고, 결과는 future 로 받는다.
+        List<CompletableFuture<UserPoint>> futures = new ArrayList<>();
+        for (int userId = 1; userId <= userCount; userId++) {
+            for (int i = 0; i < requestCountPerUser; i++) {
+                if (i % 2 == 0) {
+                    futures.add(pointService.chargePointAsync(userId, 10L, System.currentTimeMillis()));
+                } else {
+                    futures.add(pointService.usePointAsync(userId, 10L, System.currentTimeMillis()));
+                }
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        mailboxPool.shutdown();
+
+        //then
+        for (int userId = 1; userId <= userCount; userId++) {
+            UserPoint userPoint = pointService.getId(userId);
+            System.out.println("사용자 " + userId + " 최종 포인트: " + userPoint.point());
+            assertEquals(initialPoint, userPoint.point());
+        }
+    }
+
+    @Test
+    @DisplayName("partitioned 모드 - 여러 사용자 요청이 partition 스레드로 나뉘어 처리되어도 데이터의 일관성 확인")
+    void testPartitionedConcurrency() throws InterruptedException {
+        //given
+        int userCount = 8;
+        int requestCountPerUser = 20;
+        long initialPoint = 1_000L;
+        PartitionedCommandExecutor partitionedExecutor = new PartitionedCommandExecutor(4);
+        PointService pointService = new PointService(new UserPointTable(), historyWriter(),
+                new UserPointCache(), new ReferenceCountingLockManager(), partitionedExecutor);
+        for (int userId = 1; userId <= userCount; userId++) {
+            pointService.chargePoint(userId, initialPoint, System.currentTimeMillis());
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(20);
+        CountDownLatch latch = new CountDownLatch(userCount * requestCountPerUser);
+
+        //when
+        for (int userId = 1; userId <= userCount; userId++) {
+            for (int i = 0; i < requestCountPerUser; i++) {
+                long id = userId;
+                boolean charge = i % 2 == 0;
+                executorService.submit(() -> {
+                    try {
+                        if (charge) {
+                            pointService.chargePoint(id, 10L, System.currentTimeMillis());
+                        } else {
+                            pointService.usePoint(id, 10L, System.currentTimeMillis());
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+        }
+        latch.await();
+        executorService.shutdown();
+        partitionedExecutor.close();
+
+        //then
+        for (int userId = 1; userId <= userCount; userId++) {
+            assertEquals(initialPoint, pointService.getId(userId).point());
+            assertEquals(1 + requestCountPerUser, pointService.getPointHistory(userId).size());
+        }
+        long commands = partitionedExecutor.stats().stream()
+                .mapToLong(PartitionedCommandExecutor.PartitionStats::completedCommands)
+                .sum();
+        System.out.println("partition 별 처리 명령 수: " + partitionedExecutor.stats());
+        assertEquals(userCount * (1 + requestCountPerUser), commands);
+    }
+
+    @Test
+    @DisplayName("combining 모드 - 한 사용자에 동시 요청이 몰려도 요청마다 규칙을 검사하고 내역을 한 건씩 기록")
+    void testCombiningConcurrency() throws InterruptedException {
+        //given
+        long userId = 1L;
+        ExecutorService combiningPool = Executors.newFixedThreadPool(4);
+        CombiningCommandExecutor combiningExecutor = new CombiningCommandExecutor(combiningPool);
+        try {
+            PointService pointService = new PointService(new UserPointTable(), historyWriter(),
+                    new UserPointCache(), new ReferenceCountingLockManager(), combiningExecutor);
+
+            int threadCount = 100;
+            ExecutorService executorService = Executors.newFixedThreadPool(20);
+            CountDownLatch latch = new CountDownLatch(threadCount);
+            AtomicInteger charged = new AtomicInteger();
+            AtomicInteger used = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+
+            //when
+            //잔액 0 에서 시작하므로 먼저 처리된 충전보다 많은 사용은 실패해야 함
+            for (int i = 0; i < threadCount; i++) {
+                int threadNum = i;
+                executorService.submit(() -> {
+                    try {
+                        if (threadNum % 2 == 0) {
+                            pointService.chargePoint(userId, 10L, System.currentTimeMillis());
+                            charged.incrementAndGet();
+                        } else {
+                            pointService.usePoint(userId, 10L, System.currentTimeMillis());
+                            used.incrementAndGet();
+                        }
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            latch.await();
+            executorService.shutdown();
+
+            //then
+            UserPoint userPoint = pointService.getId(userId);
+            List<PointHistory> histories = pointService.getPointHistory(userId);
+            CombiningCommandExecutor.CombiningStats stats = combiningExecutor.stats();
+            System.out.println("최종 포인트: " + userPoint.point() + ", 사용 실패: " + rejected.get()
+                    + ", 처리 묶음: " + stats.batches() + " / 요청: " + stats.commands());
+
+            assertEquals(50, charged.get());
+            assertEquals(50, used.get() + rejected.get());
+            assertEquals(10L * (charged.get() - used.get()), userPoint.point());
+            assertEquals(charged.get() + used.get(), histories.size());
+            assertEquals(threadCount, stats.commands());
+            assertTrue(stats.batches() < threadCount);
+        } finally {
+            combiningPool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("여러 사용자가 서로 무작위로 동시에 이체해도 교착 없이 끝나고, 전체 포인트와 사용자별 내역이 맞는지 테스트")
+    void testRandomCrossTransferConcurrency() throws InterruptedException {
+        //given
+        int userCount = 8;
+        long initialPoint = 1_000L;
+        PointService pointService = pointService();
+        for (long userId = 1; userId <= userCount; userId++) {
+            pointService.chargePoint(userId, initialPoint, System.currentTimeMillis());
+        }
+
+        int transferCount = 100;
+        ExecutorService executorService = Executors.newFixedThreadPool(20);
+        CountDownLatch latch = new CountDownLatch(transferCount);
+        AtomicInteger transferred = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        //when
+        //A -> B 와 B -> A 가 동시에 들어오는 경우가 섞이도록 보내는/받는 사용자를 무작위로 선택
+        for (int i = 0; i < transferCount; i++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long fromId = random.nextLong(1, userCount + 1);
+                long toId = (fromId - 1 + random.nextLong(1, userCount)) % userCount + 1;
+                try {
+                    pointService.transferPoint(fromId, toId, random.nextLong(1, 600), System.currentTimeMillis());
+                    transferred.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        boolean completed = latch.await(60, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        //then
+        assertTrue(completed, "이체가 제한 시간 안에 끝나지 않음 (교착 상태 의심)");
+        assertEquals(transferCount, transferred.get() + rejected.get());
+        long total = 0;
+        int historyCount = 0;
+        for (long userId = 1; userId <= userCount; userId++) {
+            UserPoint userPoint = pointService.getId(userId);
+            List<PointHistory> histories = pointService.getPointHistory(userId);
+            long historyBalance = histories.stream()
+                    .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                    .sum();
+            assertEquals(historyBalance, userPoint.point());
+            total += userPoint.point();
+            historyCount += histories.size();
+        }
+        assertEquals(initialPoint * userCount, total);
+        //초기 충전 + 성공한 이체마다 사용/충전 한 쌍
+        assertEquals(userCount + 2 * transferred.get(), historyCount);
+    }
+
+    private PointHistoryWriter historyWriter() {
+        PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(new PointHistoryTable());
+        pointHistoryWriters.add(pointHistoryWriter);
+        return pointHistoryWriter;
+    }
+
+    private PointService pointService() {
+        return new PointService(new UserPointTable(), historyWriter(), new UserPointCache(),
+                new ReferenceCountingLockManager(), new LockingCommandExecutor(ForkJoinPool.commonPool()));
+    }
+
+    private PointService mailboxPointService(ExecutorService mailboxPool) {
+        return new PointService(new UserPointTable(), historyWriter(), new UserPointCache(),
+                new ReferenceCountingLockManager(), new MailboxCommandExecutor(mailboxPool));
+    }
+
 }
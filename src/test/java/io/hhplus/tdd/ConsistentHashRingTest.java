@@ -0,0 +1,97 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.routing.ConsistentHashRing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of(
+            "http://localhost:8081", "http://localhost:8082", "http://localhost:8083", "http://localhost:8084");
+    private static final int USER_COUNT = 100_000;
+
+    @Test
+    @DisplayName("가상 노드로 사용자를 노드마다 고르게 나누고, 노드 순서와 무관하게 같은 담당 노드를 반환")
+    void testEvenAndDeterministic() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        List<String> reversedNodes = new ArrayList<>(NODES);
+        Collections.reverse(reversedNodes);
+        ConsistentHashRing reversed = new ConsistentHashRing(reversedNodes, 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // When
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            String owner = ring.ownerOf(userId);
+            assertEquals(owner, reversed.ownerOf(userId));
+            counts.merge(owner, 1, Integer::sum);
+        }
+
+        // Then
+        System.out.println("노드별 사용자 수: " + counts);
+        int expected = USER_COUNT / NODES.size();
+        assertEquals(NODES.size(), counts.size());
+        counts.values().forEach(count ->
+                assertTrue(Math.abs(count - expected) < expected / 4, "노드별 사용자 수 편차가 큼: " + count));
+    }
+
+    @Test
+    @DisplayName("노드가 추가되면 새 노드가 맡게 된 사용자만 옮겨지고, 그 수는 약 1/n")
+    void testJoinMovesOnlyToNewNode() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        String joined = "http://localhost:8085";
+
+        // When
+        ConsistentHashRing grown = ring.withNode(joined);
+        int moved = 0;
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            String before = ring.ownerOf(userId);
+            String after = grown.ownerOf(userId);
+            if (!before.equals(after)) {
+                assertEquals(joined, after);
+                moved++;
+            }
+        }
+
+        // Then
+        System.out.println("노드 추가 시 이동한 사용자: " + moved + " / " + USER_COUNT);
+        assertEquals(5, grown.nodes().size());
+        assertTrue(moved > USER_COUNT / 5 * 0.7 && moved < USER_COUNT / 5 * 1.3, "이동한 사용자 수: " + moved);
+    }
+
+    @Test
+    @DisplayName("노드가 빠지면 그 노드가 맡던 사용자만 남은 노드로 옮겨짐")
+    void testLeaveMovesOnlyLeavingNodeUsers() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        String leaving = NODES.get(1);
+
+        // When
+        ConsistentHashRing shrunk = ring.withoutNode(leaving);
+        int moved = 0;
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            String before = ring.ownerOf(userId);
+            String after = shrunk.ownerOf(userId);
+            if (before.equals(leaving)) {
+                assertNotEquals(leaving, after);
+                moved++;
+            } else {
+                assertEquals(before, after);
+            }
+        }
+
+        // Then
+        assertFalse(shrunk.nodes().contains(leaving));
+        assertTrue(moved > 0);
+        assertThrows(IllegalStateException.class, () -> new ConsistentHashRing(List.of(), 128).ownerOf(1L));
+    }
+}
@@ -0,0 +1,291 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.idempotency.IdempotencyCache;
+import io.hhplus.tdd.idempotency.IdempotencyCacheFullException;
+import io.hhplus.tdd.idempotency.IdempotencyTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyCacheTest {
+
+    @Test
+    @DisplayName("처리 중인 key 로 다시 요청하면 새로 실행하지 않고 처리 중인 결과를 함께 받음")
+    void testInFlightDuplicateJoinsResult() throws Exception {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<Long> first = executor.submit(() -> cache.execute("key-1", "charge:100", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return 100L;
+        }));
+        started.await();
+        Future<Long> duplicate = executor.submit(() -> cache.execute("key-1", "charge:100", () -> {
+            executions.incrementAndGet();
+            return -1L;
+        }));
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        assertEquals(100L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(100L, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(1, cache.stats().inFlightHits());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("성공한 결과는 보관 시간 동안 그대로 반환하고, 지나면 다시 실행")
+    void testCompletedResultExpires() {
+        // Given
+        AtomicLong now = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(100, TimeUnit.SECONDS.toNanos(10), now::get);
+        AtomicInteger executions = new AtomicInteger();
+
+        // When
+        long first = cache.execute("key-1", "use:30", executions::incrementAndGet);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        long cached = cache.execute("key-1", "use:30", executions::incrementAndGet);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        long expired = cache.execute("key-1", "use:30", executions::incrementAndGet);
+
+        // Then
+        assertEquals(1, first);
+        assertEquals(1, cached);
+        assertEquals(2, expired);
+        assertEquals(1, cache.stats().completedHits());
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    @DisplayName("실패한 요청은 보관하지 않아 같은 key 로 재시도하면 다시 실행")
+    void testFailureIsNotCached() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache();
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("key-1", "use:500", () -> {
+            throw new IllegalArgumentException("포인트가 부족합니다.");
+        }));
+        long retried = cache.execute("key-1", "use:500", () -> 500L);
+
+        // Then
+        assertEquals(500L, retried);
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("같은 key 로 내용이 다른 요청을 보내면 IllegalArgumentException")
+    void testDifferentRequestWithSameKey() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache();
+        cache.execute("key-1", "charge:100", () -> 100L);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                cache.execute("key-1", "charge:200", () -> 200L));
+        assertEquals("같은 Idempotency-Key 로 다른 요청을 보낼 수 없습니다.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 먼저 완료된 결과부터 제거해 크기를 유지")
+    void testEvictionKeepsBound() {
+        // Given
+        int maxSize = 1_600;
+        IdempotencyCache cache = new IdempotencyCache(maxSize, TimeUnit.HOURS.toNanos(1), System::nanoTime);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.execute("key-" + i, "charge:" + i, () -> 1L);
+        }
+
+        // Then
+        IdempotencyCache.IdempotencyStats stats = cache.stats();
+        assertTrue(stats.size() <= maxSize, "size " + stats.size());
+        assertEquals(10_000, stats.size() + stats.evictions());
+    }
+
+    @Test
+    @DisplayName("처리 중인 요청은 크기 제한으로 제거하지 않고, segment 가 처리 중인 요청으로 가득 차면 새 key 를 거절")
+    void testInFlightEntriesAreNeverEvicted() {
+        // Given
+        //segment 16개 x 1칸
+        IdempotencyCache cache = new IdempotencyCache(16, TimeUnit.HOURS.toNanos(1), System::nanoTime);
+        CompletableFuture<Long> origin = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+        List<String> accepted = new ArrayList<>();
+        int rejected = 0;
+
+        // When
+        for (int i = 0; i < 64; i++) {
+            String key = "key-" + i;
+            try {
+                cache.submit(key, "charge:100", () -> {
+                    executions.incrementAndGet();
+                    return origin;
+                });
+                accepted.add(key);
+            } catch (IdempotencyCacheFullException e) {
+                rejected++;
+            }
+        }
+        //받아들인 요청의 재시도는 처리 중인 결과에 합류
+        for (String key : accepted) {
+            cache.submit(key, "charge:100", () -> {
+                executions.incrementAndGet();
+                return origin;
+            });
+        }
+        origin.complete(100L);
+        long afterCompletion = cache.execute("key-new", "charge:100", () -> 1L);
+
+        // Then
+        assertTrue(accepted.size() <= 16, "accepted " + accepted.size());
+        assertEquals(64, accepted.size() + rejected);
+        assertEquals(accepted.size(), executions.get());
+        assertEquals(accepted.size(), cache.stats().inFlightHits());
+        assertEquals(1L, afterCompletion);
+    }
+
+    @Test
+    @DisplayName("만료는 앞쪽의 처리 중인 요청을 건너뛰고 그 뒤의 만료된 결과를 지움")
+    void testExpireSkipsInFlightEntries() {
+        // Given
+        AtomicLong now = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(100_000, TimeUnit.SECONDS.toNanos(10), now::get);
+        for (int i = 0; i < 64; i++) {
+            cache.submit("in-flight-" + i, "charge:100", CompletableFuture::new);
+        }
+        for (int i = 0; i < 64; i++) {
+            cache.execute("done-" + i, "charge:100", () -> 100L);
+        }
+
+        // When
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 1_000; i++) {
+            cache.execute("new-" + i, "charge:100", () -> 100L);
+        }
+
+        // Then
+        assertEquals(64, cache.stats().expirations());
+        assertEquals(64 + 1_000, cache.stats().size());
+    }
+
+    @Test
+    @DisplayName("비동기 요청의 중복은 같은 결과를 받고, 한쪽의 timeout 이 보관된 결과에 영향을 주지 않음")
+    void testSubmitSharesResultWithoutTimeoutLeak() throws Exception {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache();
+        CompletableFuture<Long> origin = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        // When
+        CompletableFuture<Long> first = cache.submit("key-1", "charge:100", () -> {
+            executions.incrementAndGet();
+            return origin;
+        });
+        CompletableFuture<Long> duplicate = cache.submit("key-1", "charge:100", () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(-1L);
+        });
+        first.orTimeout(1, TimeUnit.MILLISECONDS);
+        Thread.sleep(50);
+        origin.complete(100L);
+
+        // Then
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+        assertEquals(100L, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(100L, cache.submit("key-1", "charge:100", () -> origin).get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("처리 중 제한 시간을 넘긴 요청은 기다리던 요청에 503 예외를 주고, 같은 key 의 다음 요청은 다시 실행")
+    void testInFlightTimeout() throws Exception {
+        // Given
+        AtomicLong now = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(100, TimeUnit.HOURS.toNanos(1), TimeUnit.SECONDS.toNanos(60), now::get);
+        CompletableFuture<Long> stuck = cache.submit("key-1", "charge:100", CompletableFuture::new);
+        CompletableFuture<Long> joined = cache.submit("key-1", "charge:100", () -> CompletableFuture.completedFuture(-1L));
+
+        // When
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        long retried = cache.execute("key-1", "charge:100", () -> 200L);
+
+        // Then
+        assertEquals(200L, retried);
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> joined.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IdempotencyTimeoutException.class, timedOut.getCause());
+        assertTrue(stuck.isCompletedExceptionally());
+        assertEquals(1, cache.stats().inFlightTimeouts());
+    }
+
+    @Test
+    @DisplayName("처리 중인 요청으로 가득 찬 segment 도 제한 시간이 지난 요청을 지우고 새 key 를 받음")
+    void testTimedOutInFlightFreesCapacity() {
+        // Given
+        AtomicLong now = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(16, TimeUnit.HOURS.toNanos(1), TimeUnit.SECONDS.toNanos(60), now::get);
+        int registered = 0;
+        try {
+            for (int i = 0; ; i++) {
+                cache.submit("in-flight-" + i, "charge:100", CompletableFuture::new);
+                registered++;
+            }
+        } catch (IdempotencyCacheFullException e) {
+            // segment 하나가 가득 참
+        }
+
+        // When
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        // Then
+        assertEquals(100L, cache.execute("in-flight-" + registered, "charge:100", () -> 100L));
+        assertTrue(cache.stats().inFlightTimeouts() >= 1);
+    }
+
+    @Test
+    @DisplayName("처리 중인 같은 key 를 기다리는 동기 요청은 제한 시간까지만 기다림")
+    void testJoinWaitsOnlyUntilInFlightTimeout() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, TimeUnit.HOURS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(100), System::nanoTime);
+        cache.submit("key-1", "charge:100", CompletableFuture::new);
+
+        // When & Then
+        assertThrows(IdempotencyTimeoutException.class,
+                () -> cache.execute("key-1", "charge:100", () -> -1L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.journal.JournalRecord;
+import io.hhplus.tdd.journal.MappedPointJournal;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedPointJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("기록한 거래를 다시 열어 순서대로 읽고, 이어서 다음 일련번호로 기록")
+    void testReplayAfterReopen() {
+        // Given
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 100, PointJournal.FsyncPolicy.PER_OP, 10)) {
+            journal.append(1L, TransactionType.CHARGE, 1_000L, 1_000L, 10L);
+            journal.append(1L, TransactionType.USE, 300L, 700L, 20L);
+        }
+
+        // When
+        long sequence;
+        List<JournalRecord> records = new ArrayList<>();
+        try (MappedPointJournal reopened = new MappedPointJournal(directory, 100, PointJournal.FsyncPolicy.PER_OP, 10)) {
+            sequence = reopened.append(2L, TransactionType.CHARGE, 50L, 50L, 30L);
+            reopened.replay(0, records::add);
+        }
+
+        // Then
+        assertEquals(3L, sequence);
+        assertEquals(List.of(
+                new JournalRecord(1L, 1L, TransactionType.CHARGE, 1_000L, 1_000L, 10L),
+                new JournalRecord(2L, 1L, TransactionType.USE, 300L, 700L, 20L),
+                new JournalRecord(3L, 2L, TransactionType.CHARGE, 50L, 50L, 30L)
+        ), records);
+    }
+
+    @Test
+    @DisplayName("segment 가 가득 차면 다음 파일로 넘어가고, fromSequence 이후 기록만 읽음")
+    void testSegmentRollAndReplayFrom() throws IOException {
+        // Given
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 10, PointJournal.FsyncPolicy.NONE, 10)) {
+            for (int i = 0; i < 25; i++) {
+                journal.append(i, TransactionType.CHARGE, 1L, i, i);
+            }
+        }
+
+        // When
+        List<JournalRecord> records = new ArrayList<>();
+        try (MappedPointJournal reopened = new MappedPointJournal(directory, 10, PointJournal.FsyncPolicy.NONE, 10)) {
+            reopened.replay(20, records::add);
+        }
+
+        // Then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        assertEquals(List.of(21L, 22L, 23L, 24L, 25L), records.stream().map(JournalRecord::sequence).toList());
+    }
+
+    @Test
+    @DisplayName("쓰다가 중단된 마지막 기록은 버리고 그 자리부터 이어 씀")
+    void testTornTailRecordIsTruncated() throws IOException {
+        // Given
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 100, PointJournal.FsyncPolicy.NONE, 10)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(1L, TransactionType.CHARGE, 10L, (i + 1) * 10L, i);
+            }
+        }
+        //마지막(다섯 번째) 기록의 amount 한 byte 를 변경
+        corrupt(onlySegment(), 4 * 48 + 20);
+
+        // When
+        List<JournalRecord> records = new ArrayList<>();
+        long sequence;
+        List<JournalRecord> afterAppend = new ArrayList<>();
+        try (MappedPointJournal reopened = new MappedPointJournal(directory, 100, PointJournal.FsyncPolicy.NONE, 10)) {
+            reopened.replay(0, records::add);
+            sequence = reopened.append(2L, TransactionType.CHARGE, 1L, 1L, 0L);
+            reopened.replay(0, afterAppend::add);
+        }
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L, 4L), records.stream().map(JournalRecord::sequence).toList());
+        assertEquals(5L, sequence);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), afterAppend.stream().map(JournalRecord::sequence).toList());
+        assertEquals(2L, afterAppend.get(4).userId());
+    }
+
+    @Test
+    @DisplayName("마지막 기록이 아닌 기록이 손상되면 버리지 않고 예외 발생")
+    void testMidSegmentCorruptionFailsToOpen() throws IOException {
+        // Given
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 100, PointJournal.FsyncPolicy.NONE, 10)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(1L, TransactionType.CHARGE, 10L, (i + 1) * 10L, i);
+            }
+        }
+        //세 번째 기록(offset 96)의 amount 한 byte 를 변경
+        Path segment = onlySegment();
+        corrupt(segment, 2 * 48 + 20);
+
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                new MappedPointJournal(directory, 100, PointJournal.FsyncPolicy.NONE, 10));
+
+        // Then
+        assertTrue(exception.getMessage().contains(segment.getFileName().toString()));
+        //손상된 segment 는 그대로 남아 있다.
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            channel.read(buffer, 4 * 48);
+            assertEquals(5L, buffer.flip().getLong());
+        }
+    }
+
+    @Test
+    @DisplayName("이체 기록은 segment 경계에 걸치지 않고, 짝이 되는 기록이 없으면 두 기록 모두 복구하지 않음")
+    void testTransferRecordsReplayedTogether() throws IOException {
+        // Given
+        long transferSequence;
+        long tornSequence;
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 3, PointJournal.FsyncPolicy.NONE, 10)) {
+            journal.append(1L, TransactionType.CHARGE, 1_000L, 1_000L, 10L);
+            journal.append(2L, TransactionType.CHARGE, 100L, 100L, 20L);
+            //남은 자리가 한 건뿐이므로 다음 segment 에 두 기록을 함께 쓴다.
+            transferSequence = journal.appendTransfer(1L, 700L, 2L, 400L, 300L, 30L);
+            tornSequence = journal.appendTransfer(2L, 300L, 1L, 800L, 100L, 40L);
+        }
+        Path lastSegment;
+        try (Stream<Path> files = Files.list(directory)) {
+            lastSegment = files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+        //마지막 이체의 받는 쪽 기록 amount 한 byte 를 변경 (쓰다가 중단된 이체)
+        long firstSequence = Long.parseLong(lastSegment.getFileName().toString().replaceAll("\\D", ""));
+        corrupt(lastSegment, (tornSequence - firstSequence) * 48 + 20);
+
+        // When
+        List<JournalRecord> records = new ArrayList<>();
+        long nextSequence;
+        try (MappedPointJournal reopened = new MappedPointJournal(directory, 3, PointJournal.FsyncPolicy.NONE, 10)) {
+            reopened.replay(0, records::add);
+            nextSequence = reopened.nextSequence();
+        }
+
+        // Then
+        assertEquals(4L, transferSequence);
+        assertEquals(List.of(
+                new JournalRecord(1L, 1L, TransactionType.CHARGE, 1_000L, 1_000L, 10L),
+                new JournalRecord(2L, 2L, TransactionType.CHARGE, 100L, 100L, 20L),
+                new JournalRecord(3L, 1L, TransactionType.USE, 300L, 700L, 30L),
+                new JournalRecord(4L, 2L, TransactionType.CHARGE, 300L, 400L, 30L)
+        ), records);
+        //짝 없이 남은 보낸 쪽 기록 자리부터 이어 쓴다.
+        assertEquals(5L, nextSequence);
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static void corrupt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{7}), position);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.balance.OptimisticBalanceUpdater;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.execution.LockingCommandExecutor;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointRejectedException;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class OptimisticBalanceUpdaterTest {
+
+    @Test
+    @DisplayName("한 사용자에게 동시에 충전/사용 요청이 몰려도 잔액과 내역 건수가 정확하고, 테이블에는 마지막 잔액이 저장됨")
+    void testConcurrentUpdates() throws InterruptedException {
+        // Given
+        long userId = 1L;
+        SlowUserPointTable userPointTable = new SlowUserPointTable(0);
+        ReferenceCountingLockManager lockManager = new ReferenceCountingLockManager();
+        OptimisticBalanceUpdater balanceUpdater = new OptimisticBalanceUpdater(userPointTable, new UserPointCache(),
+                lockManager, new PointMetrics());
+        PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(new FastPointHistoryTable());
+        PointService pointService = new PointService(pointHistoryWriter, balanceUpdater, PointJournal.disabled(),
+                lockManager, new LockingCommandExecutor(Runnable::run), new PointMetrics());
+        pointService.chargePoint(userId, 10_000L, System.currentTimeMillis());
+
+        int threadCount = 200;
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // When
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                boolean charge = i % 2 == 0;
+                executorService.submit(() -> {
+                    try {
+                        if (charge) {
+                            pointService.chargePoint(userId, 30L, System.currentTimeMillis());
+                        } else {
+                            pointService.usePoint(userId, 10L, System.currentTimeMillis());
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+            balanceUpdater.flush();
+
+            // Then
+            long expected = 10_000L + (threadCount / 2) * 30L - (threadCount / 2) * 10L;
+            assertEquals(expected, pointService.getId(userId).point());
+            assertEquals(expected, userPointTable.selectById(userId).point());
+            assertEquals(threadCount + 1, pointService.getPointHistory(userId).size());
+            assertEquals(threadCount + 1, balanceUpdater.stats().commits());
+            assertEquals(0, balanceUpdater.stats().pendingWrites());
+        } finally {
+            executorService.shutdown();
+            pointHistoryWriter.close();
+            balanceUpdater.close();
+        }
+    }
+
+    @Test
+    @DisplayName("테이블 저장을 기다리지 않고 잔액을 공개하고, 캐시에서 밀려난 사용자도 저장 전 잔액으로 다시 읽음")
+    void testWriteBehind() throws InterruptedException {
+        // Given
+        CountDownLatch tableBlocked = new CountDownLatch(1);
+        BlockingUserPointTable userPointTable = new BlockingUserPointTable(tableBlocked);
+        //segment 마다 한 명만 남는 작은 캐시
+        OptimisticBalanceUpdater balanceUpdater = new OptimisticBalanceUpdater(userPointTable, new UserPointCache(16),
+                new ReferenceCountingLockManager(), new PointMetrics());
+
+        try {
+            // When
+            for (long userId = 1; userId <= 100; userId++) {
+                balanceUpdater.update(userId, point -> point + 10, committed -> {
+                });
+            }
+
+            // Then
+            for (long userId = 1; userId <= 100; userId++) {
+                assertEquals(10L, balanceUpdater.find(userId).point());
+                assertEquals(0L, userPointTable.selectById(userId).point());
+            }
+            assertEquals(100, balanceUpdater.stats().pendingWrites());
+
+            tableBlocked.countDown();
+            balanceUpdater.flush();
+            for (long userId = 1; userId <= 100; userId++) {
+                assertEquals(10L, userPointTable.selectById(userId).point());
+            }
+        } finally {
+            tableBlocked.countDown();
+            balanceUpdater.close();
+        }
+    }
+
+    @Test
+    @DisplayName("충돌이 계속되는 사용자는 lock 으로 전환하고, lock 안에서는 공개 중인 갱신이 끝나기를 기다렸다가 처리")
+    void testFallbackToLockForHotKey() throws Exception {
+        // Given
+        long userId = 1L;
+        ReferenceCountingLockManager lockManager = new ReferenceCountingLockManager();
+        OptimisticBalanceUpdater balanceUpdater = new OptimisticBalanceUpdater(new SlowUserPointTable(0),
+                new UserPointCache(), lockManager, new PointMetrics(), 2, 10, 60_000);
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            //다른 스레드가 잔액을 공개하는 도중에 멈춰 있음
+            Future<UserPoint> blocked = executorService.submit(() -> balanceUpdater.update(userId, point -> point + 1, committed -> {
+                publishing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(publishing.await(10, TimeUnit.SECONDS));
+
+            // When
+            Future<UserPoint> fallback = executorService.submit(() -> balanceUpdater.update(userId, point -> point + 1, committed -> {
+            }));
+            //lock 밖에서 두 번, lock 안에서 한 번 충돌해 공개 중인 갱신을 기다리기 시작할 때까지 대기
+            while (balanceUpdater.stats().conflicts() < 3) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            release.countDown();
+            blocked.get(10, TimeUnit.SECONDS);
+            UserPoint updated = fallback.get(10, TimeUnit.SECONDS);
+
+            // Then
+            OptimisticBalanceUpdater.OptimisticStats stats = balanceUpdater.stats();
+            assertEquals(2L, updated.point());
+            assertEquals(2, stats.commits());
+            assertEquals(3, stats.conflicts());
+            assertEquals(1, stats.fallbacks());
+            assertEquals(1, stats.hotKeys());
+            assertEquals(0, lockManager.stats().activeLocks());
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+            balanceUpdater.close();
+        }
+    }
+
+    @Test
+    @DisplayName("잔액 규칙을 어기면 테이블에 쓰지 않고 예외 발생")
+    void testRejectedUpdateDoesNotWrite() {
+        // Given
+        long userId = 1L;
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, 100L, 0L));
+        OptimisticBalanceUpdater balanceUpdater = new OptimisticBalanceUpdater(userPointTable, new UserPointCache(),
+                new ReferenceCountingLockManager(), new PointMetrics());
+
+        try {
+            // When
+            PointRejectedException exception = assertThrows(PointRejectedException.class, () ->
+                    balanceUpdater.update(userId, point -> {
+                        throw new PointRejectedException(PointRejectedException.Reason.INSUFFICIENT_BALANCE, "포인트가 부족합니다.");
+                    }, committed -> fail("저장되면 안 됩니다.")));
+            balanceUpdater.flush();
+
+            // Then
+            assertEquals(PointRejectedException.Reason.INSUFFICIENT_BALANCE, exception.getReason());
+            assertEquals(100L, balanceUpdater.find(userId).point());
+            verify(userPointTable, times(1)).selectById(userId);
+            verify(userPointTable, never()).insertOrUpdate(anyLong(), anyLong());
+        } finally {
+            balanceUpdater.close();
+        }
+    }
+
+    @Test
+    @DisplayName("캐시에서 밀려난 사용자를 테이블에서 읽는 동안의 갱신은 읽기가 끝난 뒤 공개되어, 읽은 값이 새 잔액을 덮지 않음")
+    void testReloadDoesNotInstallStaleBalance() throws Exception {
+        // Given
+        long userId = 1L;
+        CountDownLatch selecting = new CountDownLatch(1);
+        CountDownLatch releaseSelect = new CountDownLatch(1);
+        SlowUserPointTable userPointTable = new SlowUserPointTable(0) {
+            @Override
+            public UserPoint selectById(Long id) {
+                UserPoint userPoint = super.selectById(id);
+                if (id == userId && selecting.getCount() > 0) {
+                    selecting.countDown();
+                    try {
+                        releaseSelect.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return userPoint;
+            }
+        };
+        //segment 마다 한 명만 남는 작은 캐시
+        UserPointCache userPointCache = new UserPointCache(16);
+        OptimisticBalanceUpdater balanceUpdater = new OptimisticBalanceUpdater(userPointTable, userPointCache,
+                new ReferenceCountingLockManager(), new PointMetrics());
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            //테이블에서 0 을 읽고 캐시에 넣기 전에 멈춘 조회
+            Future<UserPoint> reader = executorService.submit(() -> balanceUpdater.find(userId));
+            selecting.await();
+            Future<UserPoint> writer = executorService.submit(() -> balanceUpdater.update(userId, point -> point + 100,
+                    committed -> {
+                    }));
+            //갱신이 공개됐다면 캐시에서 밀려나고 테이블에 저장될 시간
+            try {
+                writer.get(200, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                //조회가 끝날 때까지 공개를 기다림
+            }
+            for (long otherId = 2; otherId <= 1_000; otherId++) {
+                userPointCache.put(new UserPoint(otherId, 0L, 0L));
+            }
+            balanceUpdater.flush();
+            releaseSelect.countDown();
+            reader.get(5, TimeUnit.SECONDS);
+            writer.get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(100L, balanceUpdater.find(userId).point());
+            assertEquals(200L, balanceUpdater.update(userId, point -> point + 100, committed -> {
+            }).point());
+        } finally {
+            releaseSelect.countDown();
+            executorService.shutdown();
+            balanceUpdater.close();
+        }
+    }
+
+    /**
+     * 쓰기마다 정해진 시간만큼 지연하는 UserPointTable (동시 접근에 안전한 저장소 사용)
+     */
+    private static class SlowUserPointTable extends UserPointTable {
+        private final ConcurrentHashMap<Long, UserPoint> table = new ConcurrentHashMap<>();
+        private final long writeMillis;
+
+        SlowUserPointTable(long writeMillis) {
+            this.writeMillis = writeMillis;
+        }
+
+        @Override
+        public UserPoint selectById(Long id) {
+            return table.getOrDefault(id, UserPoint.empty(id));
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(writeMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            table.put(id, userPoint);
+            return userPoint;
+        }
+    }
+
+    /**
+     * latch 가 열릴 때까지 쓰기를 막는 UserPointTable
+     */
+    private static class BlockingUserPointTable extends SlowUserPointTable {
+        private final CountDownLatch unblocked;
+
+        BlockingUserPointTable(CountDownLatch unblocked) {
+            super(0);
+            this.unblocked = unblocked;
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            try {
+                unblocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.insertOrUpdate(id, amount);
+        }
+    }
+
+    /**
+     * 지연 없이 id 만 발급하는 PointHistoryTable
+     */
+    private static class FastPointHistoryTable extends PointHistoryTable {
+        private final AtomicLong cursor = new AtomicLong(1);
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            return new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+        }
+    }
+}
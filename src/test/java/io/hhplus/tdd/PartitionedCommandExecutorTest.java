@@ -0,0 +1,112 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedCommandExecutorTest {
+
+    @Test
+    @DisplayName("같은 사용자의 명령은 항상 같은 partition 스레드에서 넣은 순서대로 실행")
+    void testSameUserRunsInOrderOnOnePartition() {
+        // Given
+        PartitionedCommandExecutor executor = new PartitionedCommandExecutor(4);
+        List<Integer> executed = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+
+        // When
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int command = i;
+            //partition 스레드 하나만 접근하므로 동기화 없이 기록
+            futures.add(executor.submit(7L, () -> {
+                executed.add(command);
+                threads.add(Thread.currentThread().getName());
+                return command;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        int result = executor.execute(7L, () -> 42);
+        executor.close();
+
+        // Then
+        assertEquals(42, result);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, executed.get(i));
+        }
+        assertEquals(List.of("point-partition-" + PartitionedCommandExecutor.partitionOf(7L, 4)),
+                threads.stream().distinct().toList());
+    }
+
+    @Test
+    @DisplayName("사용자 ID 는 partition 에 고르게 나뉘고, 연속된 ID 도 한 partition 에 몰리지 않음")
+    void testPartitionOfIsEven() {
+        // Given
+        int partitionCount = 16;
+        int userCount = 160_000;
+        int[] counts = new int[partitionCount];
+
+        // When
+        for (long userId = 1; userId <= userCount; userId++) {
+            int partition = PartitionedCommandExecutor.partitionOf(userId, partitionCount);
+            assertEquals(partition, PartitionedCommandExecutor.partitionOf(userId, partitionCount));
+            counts[partition]++;
+        }
+
+        // Then
+        int expected = userCount / partitionCount;
+        for (int count : counts) {
+            assertTrue(Math.abs(count - expected) < expected / 10, "partition 별 사용자 수 편차가 큼: " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("partition 별 대기 중인 명령 수와 처리한 명령 수 집계")
+    void testStats() throws InterruptedException {
+        // Given
+        PartitionedCommandExecutor executor = new PartitionedCommandExecutor(2);
+        long userId = 1L;
+        int partition = PartitionedCommandExecutor.partitionOf(userId, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        //첫 명령이 partition 스레드를 붙잡고 있는 동안 3건을 더 넣는다.
+        CompletableFuture<Void> blocking = executor.submit(userId, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Long>> queued = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queued.add(executor.submit(userId, () -> userId));
+        }
+        PartitionedCommandExecutor.PartitionStats whileBlocked = executor.stats().get(partition);
+        release.countDown();
+        blocking.join();
+        queued.forEach(CompletableFuture::join);
+        executor.close();
+
+        // Then
+        assertEquals(3, whileBlocked.queueDepth());
+        assertEquals(0, executor.stats().get(1 - partition).completedCommands());
+        assertEquals(0, executor.stats().get(partition).queueDepth());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.execution.ExecutionConfig;
+import io.hhplus.tdd.point.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PointAsyncController.class)
+@Import(ExecutionConfig.class)
+@TestPropertySource(properties = "point.async.timeout-millis=200")
+public class PointAsyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PointService pointService;
+
+    private final long userId = 1L;
+
+    @Test
+    @DisplayName("비동기 포인트 조회 결과 반환 확인")
+    void testGetPoint() throws Exception {
+        Mockito.when(pointService.getId(userId)).thenReturn(new UserPoint(userId, 100L, System.currentTimeMillis()));
+
+        MvcResult mvcResult = mockMvc.perform(get("/async/point/{id}", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(userId))
+                .andExpect(jsonPath("$.point").value(100));
+    }
+
+    @Test
+    @DisplayName("비동기 충전 시 최대 잔고 초과는 400 으로 응답")
+    void testChargePoint_exceedsMaxBalance() throws Exception {
+        long chargeAmount = 900_000L;
+        Mockito.when(pointService.chargePointAsync(eq(userId), eq(chargeAmount), any(Long.class), isNull(), eq(200L)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("최대 잔고를 초과할 수 없습니다.")));
+
+        MvcResult mvcResult = mockMvc.perform(patch("/async/point/{id}/charge", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.valueOf(chargeAmount)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("최대 잔고를 초과할 수 없습니다."));
+    }
+
+    @Test
+    @DisplayName("제한 시간 안에 끝나지 않은 요청은 503 으로 응답")
+    void testUsePoint_timeout() throws Exception {
+        long useAmount = 30L;
+        Mockito.when(pointService.usePointAsync(eq(userId), eq(useAmount), any(Long.class), isNull(), eq(200L)))
+                .thenReturn(new CompletableFuture<>());
+
+        MvcResult mvcResult = mockMvc.perform(patch("/async/point/{id}/use", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.valueOf(useAmount)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("503"));
+    }
+}
@@ -1,5 +1,6 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.admission.AdmissionRejectedException;
 import io.hhplus.tdd.point.*;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,11 +11,16 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -61,7 +67,7 @@ public class PointControllerTest {
         long chargeAmount = 50L;
         UserPoint updatedUserPoint = new UserPoint(userId, initialPoints + chargeAmount, System.currentTimeMillis());
 
-        Mockito.when(pointService.chargePoint(eq(userId), eq(chargeAmount), any(Long.class)))
+        Mockito.when(pointService.chargePoint(eq(userId), eq(chargeAmount), any(Long.class), isNull()))
                 .thenReturn(updatedUserPoint);
 
         mockMvc.perform(patch("/point/{id}/charge", userId)
@@ -78,7 +84,7 @@ public class PointControllerTest {
     void testChargePoint_exceedsMaxBalance() throws Exception {
         long chargeAmount = 900_000L;
 
-        Mockito.when(pointService.chargePoint(eq(userId), eq(chargeAmount), any(Long.class)))
+        Mockito.when(pointService.chargePoint(eq(userId), eq(chargeAmount), any(Long.class), isNull()))
                 .thenThrow(new IllegalArgumentException("최대 잔고를 초과할 수 없습니다."));
 
         mockMvc.perform(patch("/point/{id}/charge", userId)
@@ -95,7 +101,7 @@ public class PointControllerTest {
         long useAmount = 30L;
         UserPoint updatedUserPoint = new UserPoint(userId, initialPoints - useAmount, System.currentTimeMillis());
 
-        Mockito.when(pointService.usePoint(eq(userId), eq(useAmount), any(Long.class)))
+        Mockito.when(pointService.usePoint(eq(userId), eq(useAmount), any(Long.class), isNull()))
                 .thenReturn(updatedUserPoint);
 
         mockMvc.perform(patch("/point/{id}/use", userId)
@@ -106,12 +112,47 @@ public class PointControllerTest {
                 .andExpect(jsonPath("$.point").value(updatedUserPoint.point()));
     }
 
+    @Test
+    @DisplayName("Idempotency-Key 헤더가 있으면 key 와 함께 충전 요청 전달 확인")
+    void testChargePoint_withIdempotencyKey() throws Exception {
+        long chargeAmount = 50L;
+        UserPoint updatedUserPoint = new UserPoint(userId, initialPoints + chargeAmount, System.currentTimeMillis());
+
+        Mockito.when(pointService.chargePoint(eq(userId), eq(chargeAmount), any(Long.class), eq("charge-1")))
+                .thenReturn(updatedUserPoint);
+
+        mockMvc.perform(patch("/point/{id}/charge", userId)
+                        .header("Idempotency-Key", "charge-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.valueOf(chargeAmount)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.point").value(updatedUserPoint.point()));
+    }
+
+    @Test
+    @DisplayName("요청 한도를 넘은 경우 429 에러와 Retry-After 헤더 반환 확인")
+    void testUsePoint_throttled() throws Exception {
+        long useAmount = 30L;
+
+        Mockito.when(pointService.usePoint(eq(userId), eq(useAmount), any(Long.class), isNull()))
+                .thenThrow(new AdmissionRejectedException(AdmissionRejectedException.Reason.USER_RATE,
+                        "사용자 요청 한도를 초과했습니다.", 1_500_000_000L));
+
+        mockMvc.perform(patch("/point/{id}/use", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.valueOf(useAmount)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.code").value("429"))
+                .andExpect(jsonPath("$.message").value("사용자 요청 한도를 초과했습니다."));
+    }
+
     @Test
     @DisplayName("잔고가 부족한 경우 400 에러와 오류 메시지 반환 확인")
     void testUsePoint_insufficientBalance() throws Exception {
         long useAmount = 150L;
 
-        Mockito.when(pointService.usePoint(eq(userId), eq(useAmount), any(Long.class)))
+        Mockito.when(pointService.usePoint(eq(userId), eq(useAmount), any(Long.class), isNull()))
                 .thenThrow(new IllegalArgumentException("포인트가 부족합니다."));
 
         mockMvc.perform(patch("/point/{id}/use", userId)
@@ -134,5 +175,120 @@ public class PointControllerTest {
                 .andExpect(jsonPath("$[0].amount").value(50));
     }
 
+    @Test
+    @DisplayName("포인트 내역 페이지 조회 시 내역과 다음 cursor 반환 확인")
+    void testGetPointHistoryPage() throws Exception {
+        Mockito.when(pointService.getPointHistoryPage(userId, 1L, null, null, 1))
+                .thenReturn(new PointHistoryPage(pointHistories.subList(1, 2), 2L));
+
+        mockMvc.perform(get("/point/{id}/histories/page", userId)
+                        .param("cursor", "1")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.histories.length()").value(1))
+                .andExpect(jsonPath("$.histories[0].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(2));
+    }
+
+    @Test
+    @DisplayName("포인트 요약 조회 시 누적 합계와 일별/월별 집계 반환 확인")
+    void testGetSummary() throws Exception {
+        Mockito.when(pointService.getSummary(userId)).thenReturn(new PointSummary(userId, 50, 20, 2, 1_000L,
+                List.of(new PointSummary.Bucket("2024-03-15", 50, 20, 2)),
+                List.of(new PointSummary.Bucket("2024-03", 50, 20, 2))));
+
+        mockMvc.perform(get("/point/{id}/summary", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCharged").value(50))
+                .andExpect(jsonPath("$.totalUsed").value(20))
+                .andExpect(jsonPath("$.transactionCount").value(2))
+                .andExpect(jsonPath("$.lastActivityMillis").value(1_000))
+                .andExpect(jsonPath("$.daily[0].period").value("2024-03-15"))
+                .andExpect(jsonPath("$.monthly[0].charged").value(50));
+    }
+
+    @Test
+    @DisplayName("포인트 내역 내보내기 시 한 줄에 내역 하나씩 NDJSON 으로 반환 확인")
+    @SuppressWarnings("unchecked")
+    void testExportHistories() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<PointHistory> consumer = invocation.getArgument(3);
+            pointHistories.forEach(consumer);
+            return null;
+        }).when(pointService).exportPointHistories(eq(List.of(userId)), eq(null), eq(null), any(Consumer.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/point/histories/export")
+                        .param("userIds", String.valueOf(userId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString()
+                .split("\n");
+        assertEquals(pointHistories.size(), lines.length);
+        assertTrue(lines[0].contains("\"amount\":50"));
+    }
+
+    @Test
+    @DisplayName("이체 요청 시 보낸 사용자와 받은 사용자의 잔액 반환 확인")
+    void testTransfer() throws Exception {
+        Mockito.when(pointService.transferPoint(eq(userId), eq(2L), eq(30L), any(Long.class)))
+                .thenReturn(new PointTransferResult(
+                        new UserPoint(userId, initialPoints - 30L, System.currentTimeMillis()),
+                        new UserPoint(2L, 30L, System.currentTimeMillis())));
+
+        mockMvc.perform(post("/point/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fromUserId": 1, "toUserId": 2, "amount": 30}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from.point").value(initialPoints - 30L))
+                .andExpect(jsonPath("$.to.id").value(2))
+                .andExpect(jsonPath("$.to.point").value(30));
+    }
+
+    @Test
+    @DisplayName("받는 사용자의 최대 잔고를 넘는 이체는 400 에러와 오류 메시지 반환 확인")
+    void testTransfer_exceedsMaxBalance() throws Exception {
+        Mockito.when(pointService.transferPoint(eq(userId), eq(2L), eq(30L), any(Long.class)))
+                .thenThrow(new PointRejectedException(PointRejectedException.Reason.MAX_BALANCE_EXCEEDED,
+                        "최대 잔고를 초과할 수 없습니다."));
+
+        mockMvc.perform(post("/point/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fromUserId": 1, "toUserId": 2, "amount": 30}
+                                """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("최대 잔고를 초과할 수 없습니다."));
+    }
+
+    @Test
+    @DisplayName("일괄 처리 요청 시 요청 순서대로 건별 결과 반환 확인")
+    void testBatch() throws Exception {
+        PointOperation charge = new PointOperation(userId, TransactionType.CHARGE, 50L);
+        PointOperation use = new PointOperation(2L, TransactionType.USE, 500L);
+        Mockito.when(pointService.applyBatch(eq(List.of(charge, use)), any(Long.class)))
+                .thenReturn(List.of(
+                        PointOperationResult.success(charge, new UserPoint(userId, 150L, System.currentTimeMillis())),
+                        PointOperationResult.failure(use, new ErrorResponse("400", "포인트가 부족합니다."))
+                ));
+
+        mockMvc.perform(post("/point/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"userId": 1, "type": "CHARGE", "amount": 50},
+                                  {"userId": 2, "type": "USE", "amount": 500}
+                                ]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].userPoint.point").value(150))
+                .andExpect(jsonPath("$[1].error.message").value("포인트가 부족합니다."));
+    }
 
 }
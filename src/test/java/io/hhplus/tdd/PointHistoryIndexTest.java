@@ -0,0 +1,74 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryIndex;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointHistoryIndexTest {
+
+    @Test
+    @DisplayName("사용자별 인덱스에서 해당 사용자의 내역만 저장 순서대로 반환")
+    void testSelectAllByUserId() {
+        // Given
+        PointHistoryIndex index = new PointHistoryIndex();
+        index.add(new PointHistory(1, 1L, 1_000, TransactionType.CHARGE, 1L));
+        index.add(new PointHistory(2, 2L, 500, TransactionType.CHARGE, 2L));
+        index.add(new PointHistory(3, 1L, 300, TransactionType.USE, 3L));
+
+        // When
+        List<PointHistory> histories = index.selectAllByUserId(1L);
+
+        // Then
+        assertEquals(2, histories.size());
+        assertEquals(1, histories.get(0).id());
+        assertEquals(3, histories.get(1).id());
+        assertTrue(index.selectAllByUserId(999L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("cursor 다음 내역을 id 순으로 limit 건씩 반환")
+    void testSelectAfterCursor() {
+        // Given
+        PointHistoryIndex index = new PointHistoryIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.add(new PointHistory(id, 1L, 10, TransactionType.CHARGE, id));
+        }
+
+        // When
+        List<PointHistory> firstPage = index.selectAfter(1L, null, 2);
+        List<PointHistory> secondPage = index.selectAfter(1L, firstPage.get(1).id(), 2);
+        List<PointHistory> lastPage = index.selectAfter(1L, 4L, 2);
+
+        // Then
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(3L, 4L), secondPage.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(5L), lastPage.stream().map(PointHistory::id).toList());
+    }
+
+    @Test
+    @DisplayName("기간 조건이 있으면 [from, to) 범위 내역을 시간순으로 cursor 다음부터 반환")
+    void testSelectBetween() {
+        // Given
+        PointHistoryIndex index = new PointHistoryIndex();
+        long[] updateMillis = {50, 10, 30, 10, 70, 20};
+        for (int i = 0; i < updateMillis.length; i++) {
+            index.add(new PointHistory(i + 1, 1L, 10, TransactionType.CHARGE, updateMillis[i]));
+        }
+
+        // When
+        List<PointHistory> firstPage = index.selectBetween(1L, null, 10, 60, 2);
+        List<PointHistory> secondPage = index.selectBetween(1L, firstPage.get(1).id(), 10, 60, 2);
+        List<PointHistory> thirdPage = index.selectBetween(1L, secondPage.get(1).id(), 10, 60, 2);
+
+        // Then
+        assertEquals(List.of(2L, 4L), firstPage.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(6L, 3L), secondPage.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(1L), thirdPage.stream().map(PointHistory::id).toList());
+    }
+}
@@ -0,0 +1,243 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.ColumnarPointHistoryStore;
+import io.hhplus.tdd.database.IndexedPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryBacklogException;
+import io.hhplus.tdd.database.PointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointHistoryWriterTest {
+
+    private final PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(new PointHistoryTable());
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryWriter.close();
+    }
+
+    @Test
+    @DisplayName("queue 에 넣은 내역이 조회 시점에는 모두 저장되어 있는지 확인")
+    void testReadYourWrites() {
+        // Given
+        long userId = 1L;
+        pointHistoryWriter.append(userId, 1_000, TransactionType.CHARGE, 1L);
+        pointHistoryWriter.append(userId, 300, TransactionType.USE, 2L);
+        pointHistoryWriter.append(2L, 500, TransactionType.CHARGE, 3L);
+
+        // When
+        List<PointHistory> histories = pointHistoryWriter.selectAllByUserId(userId);
+
+        // Then
+        assertEquals(2, histories.size());
+        assertEquals(TransactionType.CHARGE, histories.get(0).type());
+        assertEquals(TransactionType.USE, histories.get(1).type());
+        assertEquals(0, pointHistoryWriter.pendingCount());
+    }
+
+    @Test
+    @DisplayName("내역 기록 요청은 저장소 저장을 기다리지 않고 바로 반환")
+    void testAppendDoesNotWaitForStore() throws InterruptedException {
+        // Given
+        //저장소의 insert 가 풀릴 때까지 기록 스레드를 붙잡아 둠
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger inserted = new AtomicInteger();
+        PointHistoryStore blockingStore = new IndexedPointHistoryStore(new PointHistoryTable()) {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inserted.incrementAndGet();
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        PointHistoryWriter blockedWriter = new PointHistoryWriter(blockingStore, 100, 10);
+
+        try {
+            // When
+            for (int i = 0; i < 10; i++) {
+                blockedWriter.append(1L, 10, TransactionType.CHARGE, i);
+            }
+
+            // Then
+            //저장이 하나도 끝나지 않은 상태에서 append 가 모두 반환됨
+            assertEquals(0, inserted.get());
+            release.countDown();
+            assertEquals(10, blockedWriter.selectAllByUserId(1L).size());
+            assertEquals(10, inserted.get());
+        } finally {
+            release.countDown();
+            blockedWriter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("테이블 저장소는 인덱스에 먼저 넣어 바로 조회되고, 테이블에는 같은 순서로 나중에 저장")
+    void testTableWriteDoesNotBlockReads() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        List<PointHistory> tableRows = new CopyOnWriteArrayList<>();
+        PointHistoryTable slowTable = new PointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                PointHistory pointHistory = super.insert(userId, amount, type, updateMillis);
+                tableRows.add(pointHistory);
+                return pointHistory;
+            }
+        };
+        IndexedPointHistoryStore store = new IndexedPointHistoryStore(slowTable);
+        PointHistoryWriter writer = new PointHistoryWriter(store, 100, 10);
+
+        try {
+            // When
+            writer.append(1L, 1_000, TransactionType.CHARGE, 1L);
+            writer.append(2L, 500, TransactionType.CHARGE, 2L);
+            writer.append(1L, 300, TransactionType.USE, 3L);
+            List<PointHistory> histories = writer.selectAllByUserId(1L);
+
+            // Then
+            //테이블 저장이 하나도 끝나지 않았어도 조회된다.
+            assertEquals(List.of(
+                    new PointHistory(1L, 1L, 1_000, TransactionType.CHARGE, 1L),
+                    new PointHistory(3L, 1L, 300, TransactionType.USE, 3L)
+            ), histories);
+            assertTrue(tableRows.isEmpty());
+            assertEquals(3, store.pendingCount());
+            release.countDown();
+            store.flush();
+            //테이블이 발급한 id 와 인덱스 id 가 같다.
+            assertEquals(List.of(1L, 2L, 3L), tableRows.stream().map(PointHistory::id).toList());
+            assertEquals(0, store.pendingCount());
+        } finally {
+            release.countDown();
+            writer.close();
+            store.close();
+        }
+    }
+
+    @Test
+    @DisplayName("쌓인 내역이 한도에 닿으면 정해진 시간만 기다리고 503 예외, 내역 기록 자체는 기다리지 않음")
+    void testAwaitCapacityIsBounded() {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        PointHistoryStore blockingStore = new ColumnarPointHistoryStore() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        PointHistoryWriter writer = new PointHistoryWriter(blockingStore, 2, 1, 50);
+
+        try {
+            // When
+            //한도를 넘겨도 append 는 바로 반환
+            for (int i = 0; i < 5; i++) {
+                writer.append(1L, 10, TransactionType.CHARGE, i);
+            }
+            long startedAt = System.nanoTime();
+
+            // Then
+            assertThrows(PointHistoryBacklogException.class, writer::awaitCapacity);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 1_000);
+            release.countDown();
+            assertEquals(5, writer.selectAllByUserId(1L).size());
+            writer.awaitCapacity();
+        } finally {
+            release.countDown();
+            writer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("저장에 실패한 내역은 버리지 않고 다시 저장하며, 남아 있는 동안 조회는 실패")
+    void testFailedInsertIsRetried() {
+        // Given
+        AtomicBoolean failing = new AtomicBoolean(true);
+        PointHistoryStore flakyStore = new ColumnarPointHistoryStore() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (failing.get()) {
+                    throw new IllegalStateException("저장 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        PointHistoryWriter writer = new PointHistoryWriter(flakyStore, 100, 10);
+
+        try {
+            // When
+            writer.append(1L, 1_000, TransactionType.CHARGE, 1L);
+            writer.append(1L, 300, TransactionType.USE, 2L);
+
+            // Then
+            assertThrows(IllegalStateException.class, () -> writer.selectAllByUserId(1L));
+            assertEquals(2, writer.failedCount());
+            failing.set(false);
+            //다음 배치에서 실패한 내역부터 순서대로 다시 저장
+            writer.append(1L, 100, TransactionType.CHARGE, 3L);
+            assertEquals(List.of(1_000L, 300L, 100L),
+                    writer.selectAllByUserId(1L).stream().map(PointHistory::amount).toList());
+            assertEquals(0, writer.failedCount());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("종료할 때 기다리던 조회는 남은 내역을 저장한 뒤 끝나고, 종료 뒤 조회는 바로 실패")
+    void testCloseCompletesPendingFlush() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        PointHistoryStore blockingStore = new ColumnarPointHistoryStore() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        PointHistoryWriter writer = new PointHistoryWriter(blockingStore, 100, 10);
+        writer.append(1L, 1_000, TransactionType.CHARGE, 1L);
+        CompletableFuture<List<PointHistory>> pending = CompletableFuture.supplyAsync(() -> writer.selectAllByUserId(1L));
+
+        // When
+        CompletableFuture<Void> closed = CompletableFuture.runAsync(writer::close);
+        release.countDown();
+
+        // Then
+        assertEquals(1, pending.get(5, TimeUnit.SECONDS).size());
+        closed.get(5, TimeUnit.SECONDS);
+        assertThrows(IllegalStateException.class, writer::flush);
+    }
+}
@@ -0,0 +1,253 @@
+package io.hhplus.tdd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.routing.PointRouter;
+import io.hhplus.tdd.routing.PointRoutingFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 같은 JVM 에서 localhost 의 서로 다른 port 로 애플리케이션 3개를 띄워 노드 간 라우팅을 확인
+ */
+public class PointRoutingTest {
+
+    private static final int NODE_COUNT = 3;
+
+    private final List<String> nodes = new ArrayList<>();
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < NODE_COUNT; i++) {
+            nodes.add("http://localhost:" + freePort());
+        }
+        for (String node : nodes) {
+            contexts.add(start(node, nodes, List.of()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("어느 노드로 요청해도 담당 노드에서 처리되고, 잔액/내역은 담당 노드에만 저장")
+    void testRequestsAreHandledByOwner() throws Exception {
+        // Given
+        int userCount = 30;
+
+        // When
+        //충전은 userId 에 따라 돌아가며 다른 노드로, 조회는 그 다음 노드로 보낸다.
+        List<UserPoint> charged = new ArrayList<>();
+        List<UserPoint> read = new ArrayList<>();
+        for (long userId = 1; userId <= userCount; userId++) {
+            charged.add(send(nodes.get((int) (userId % NODE_COUNT)), "PATCH", "/point/" + userId + "/charge", "100", 200,
+                    UserPoint.class));
+            read.add(send(nodes.get((int) ((userId + 1) % NODE_COUNT)), "GET", "/point/" + userId, null, 200,
+                    UserPoint.class));
+        }
+
+        // Then
+        long forwarded = 0;
+        for (long userId = 1; userId <= userCount; userId++) {
+            assertEquals(100L, charged.get((int) userId - 1).point());
+            assertEquals(100L, read.get((int) userId - 1).point());
+            for (ConfigurableApplicationContext context : contexts) {
+                PointRouter router = context.getBean(PointRouter.class);
+                int histories = context.getBean(PointService.class).getPointHistory(userId).size();
+                assertEquals(router.self().equals(router.ownerOf(userId)) ? 1 : 0, histories);
+            }
+        }
+        for (ConfigurableApplicationContext context : contexts) {
+            forwarded += context.getBean(PointRouter.class).count(PointRouter.Result.FORWARDED);
+        }
+        assertTrue(forwarded > 0);
+    }
+
+    @Test
+    @DisplayName("담당 노드가 같은 사용자끼리의 이체는 처리되고, 담당 노드가 다른 사용자 사이의 이체는 400")
+    void testTransferAcrossNodes() throws Exception {
+        // Given
+        PointRouter router = contexts.get(0).getBean(PointRouter.class);
+        long from = 1L;
+        long sameOwner = from + 1;
+        while (!router.ownerOf(sameOwner).equals(router.ownerOf(from))) {
+            sameOwner++;
+        }
+        long otherOwner = from + 1;
+        while (router.ownerOf(otherOwner).equals(router.ownerOf(from))) {
+            otherOwner++;
+        }
+        send(nodes.get(0), "PATCH", "/point/" + from + "/charge", "1000", 200, UserPoint.class);
+
+        // When
+        //보내는 사용자의 담당 노드가 아닌 노드로 요청
+        String entry = nodes.stream().filter(node -> !node.equals(router.ownerOf(from))).findFirst().orElseThrow();
+        send(entry, "POST", "/point/transfer",
+                "{\"fromUserId\": " + from + ", \"toUserId\": " + sameOwner + ", \"amount\": 300}", 200, Object.class);
+        ErrorResponse rejected = send(entry, "POST", "/point/transfer",
+                "{\"fromUserId\": " + from + ", \"toUserId\": " + otherOwner + ", \"amount\": 300}", 400,
+                ErrorResponse.class);
+
+        // Then
+        assertEquals(700L, send(entry, "GET", "/point/" + from, null, 200, UserPoint.class).point());
+        assertEquals(300L, send(entry, "GET", "/point/" + sameOwner, null, 200, UserPoint.class).point());
+        assertEquals("400", rejected.code());
+    }
+
+    @Test
+    @DisplayName("노드가 빠지면 남은 노드의 사용자는 담당 노드가 그대로이고, 빠진 노드가 맡던 사용자는 잔액 0 으로 처리하지 않고 503")
+    void testLeave() throws Exception {
+        // Given
+        String leaving = nodes.get(NODE_COUNT - 1);
+        List<String> remaining = nodes.subList(0, NODE_COUNT - 1);
+        PointRouter router = contexts.get(0).getBean(PointRouter.class);
+        List<String> ownersBefore = new ArrayList<>();
+        for (long userId = 1; userId <= 100; userId++) {
+            ownersBefore.add(router.ownerOf(userId));
+        }
+
+        // When
+        //남은 노드들을 줄어든 목록과 이전 목록으로 다시 시작
+        contexts.forEach(ConfigurableApplicationContext::close);
+        contexts.clear();
+        for (String node : remaining) {
+            contexts.add(start(node, remaining, nodes));
+        }
+        PointRouter restarted = contexts.get(0).getBean(PointRouter.class);
+
+        // Then
+        for (long userId = 1; userId <= 100; userId++) {
+            String before = ownersBefore.get((int) userId - 1);
+            if (before.equals(leaving)) {
+                assertFalse(restarted.isAvailable(userId));
+                assertEquals("503", send(nodes.get(0), "PATCH", "/point/" + userId + "/charge", "10", 503,
+                        ErrorResponse.class).code());
+            } else {
+                assertEquals(before, restarted.ownerOf(userId));
+                assertEquals(10L, send(nodes.get(0), "PATCH", "/point/" + userId + "/charge", "10", 200,
+                        UserPoint.class).point());
+            }
+        }
+        assertTrue(restarted.count(PointRouter.Result.UNAVAILABLE) > 0);
+    }
+
+    @Test
+    @DisplayName("노드가 들어와도 이전 노드 목록을 주면 담당이 바뀐 사용자는 잔액을 가진 이전 담당 노드가 계속 처리")
+    void testJoinKeepsMovedUsersOnPreviousOwner() {
+        // Given
+        List<String> joined = new ArrayList<>(nodes);
+        joined.add("http://localhost:1");
+        PointRouter before = contexts.get(0).getBean(PointRouter.class);
+        PointRouter withoutPrevious = new PointRouter(true, nodes.get(0), joined, 128);
+        PointRouter withPrevious = new PointRouter(true, nodes.get(0), joined, nodes, 128);
+
+        // When
+        int moved = 0;
+        for (long userId = 1; userId <= 1_000; userId++) {
+            if (!before.ownerOf(userId).equals(withoutPrevious.ownerOf(userId))) {
+                moved++;
+            }
+
+            // Then
+            assertEquals(before.ownerOf(userId), withPrevious.ownerOf(userId));
+            assertTrue(withPrevious.isAvailable(userId));
+        }
+        assertTrue(moved > 0);
+    }
+
+    @Test
+    @DisplayName("노드 목록에 없는 곳에서 붙인 전달 header 는 무시하고 담당 노드로 전달")
+    void testUntrustedForwardedHeader() throws Exception {
+        // Given
+        PointRouter entryRouter = contexts.get(0).getBean(PointRouter.class);
+        long userId = 1L;
+        while (entryRouter.ownerOf(userId).equals(nodes.get(0))) {
+            userId++;
+        }
+
+        // When
+        UserPoint charged = send(nodes.get(0), "PATCH", "/point/" + userId + "/charge", "100", 200, UserPoint.class,
+                PointRoutingFilter.FORWARDED_HEADER, "http://attacker.example");
+
+        // Then
+        assertEquals(100L, charged.point());
+        assertEquals(0, contexts.get(0).getBean(PointService.class).getPointHistory(userId).size());
+        assertEquals(1L, entryRouter.count(PointRouter.Result.FORWARDED));
+    }
+
+    @Test
+    @DisplayName("사용자 ID 를 읽을 수 없는 일괄 처리 요청은 어느 노드에서도 처리하지 않고 400")
+    void testMalformedBodyRejected() throws Exception {
+        // Given
+        PointRouter entryRouter = contexts.get(0).getBean(PointRouter.class);
+        long userId = 1L;
+        while (entryRouter.ownerOf(userId).equals(nodes.get(0))) {
+            userId++;
+        }
+
+        // When
+        //다른 노드가 담당하는 사용자 뒤에 null 이 섞인 본문
+        ErrorResponse withNull = send(nodes.get(0), "POST", "/point/batch",
+                "[{\"userId\": " + userId + ", \"type\": \"CHARGE\", \"amount\": 100}, null]", 400, ErrorResponse.class);
+        ErrorResponse notJson = send(nodes.get(0), "POST", "/point/transfer", "{\"fromUserId\": ", 400, ErrorResponse.class);
+
+        // Then
+        assertEquals("400", withNull.code());
+        assertEquals("400", notJson.code());
+        for (ConfigurableApplicationContext context : contexts) {
+            assertEquals(0, context.getBean(PointService.class).getPointHistory(userId).size());
+        }
+        assertEquals(2L, entryRouter.count(PointRouter.Result.REJECTED));
+    }
+
+    private static ConfigurableApplicationContext start(String node, List<String> nodes, List<String> previousNodes) {
+        return new SpringApplicationBuilder(TddApplication.class).run(
+                "--server.port=" + URI.create(node).getPort(),
+                "--point.routing.enabled=true",
+                "--point.routing.self=" + node,
+                "--point.routing.nodes=" + String.join(",", nodes),
+                "--point.routing.previous-nodes=" + String.join(",", previousNodes),
+                "--point.admission.enabled=false");
+    }
+
+    private <T> T send(String node, String method, String path, String body, int expectedStatus, Class<T> type,
+                       String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(node + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (headers.length > 0) {
+            builder.headers(headers);
+        }
+        HttpRequest request = builder.build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(expectedStatus, response.statusCode(), response.body());
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -1,21 +1,61 @@
 package io.hhplus.tdd;
 
 
+import io.hhplus.tdd.admission.AdmissionLimiter;
+import io.hhplus.tdd.balance.BalanceUpdater;
+import io.hhplus.tdd.balance.LockingBalanceUpdater;
+import io.hhplus.tdd.balance.PartitionedBalanceUpdater;
+import io.hhplus.tdd.database.PartitionedPointHistoryStore;
 import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.PrimitiveBalanceStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.execution.CombiningCommandExecutor;
+import io.hhplus.tdd.execution.LockingCommandExecutor;
+import io.hhplus.tdd.execution.PartitionedCommandExecutor;
+import io.hhplus.tdd.execution.PointCommandExecutor;
+import io.hhplus.tdd.idempotency.IdempotencyCache;
+import io.hhplus.tdd.journal.JournalRecord;
+import io.hhplus.tdd.journal.MappedPointJournal;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.lock.UserLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointCommandExpiredException;
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointOperation;
+import io.hhplus.tdd.point.PointOperationResult;
+import io.hhplus.tdd.point.PointRejectedException;
 import io.hhplus.tdd.point.PointService;
 import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.summary.PointSummaryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class PointServiceTest {
@@ -23,6 +63,7 @@ class PointServiceTest {
     private PointService pointService;
     private UserPointTable userPointTable;
     private PointHistoryTable pointHistoryTable;
+    private PointHistoryWriter pointHistoryWriter;
 
     private final long userId = 1L;
     private final long maxBalance = 1_000_000L;
@@ -31,7 +72,14 @@ class PointServiceTest {
     void setUp() {
         userPointTable = mock(UserPointTable.class);
         pointHistoryTable = mock(PointHistoryTable.class);
-        pointService = new PointService(userPointTable, pointHistoryTable);
+        pointHistoryWriter = new PointHistoryWriter(pointHistoryTable);
+        pointService = new PointService(userPointTable, pointHistoryWriter, new UserPointCache(),
+                new ReferenceCountingLockManager(), new LockingCommandExecutor(Runnable::run));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryWriter.close();
     }
 
     @Test
@@ -55,6 +103,140 @@ class PointServiceTest {
 
     }
 
+    @Test
+    @DisplayName("같은 Idempotency-Key 라도 사용자나 충전/사용이 다르면 각각 실행")
+    void testIdempotencyKeyScopedByUserAndOperation() {
+        //given
+        long now = System.currentTimeMillis();
+        when(userPointTable.selectById(anyLong())).thenAnswer(invocation -> UserPoint.empty(invocation.getArgument(0)));
+        when(userPointTable.insertOrUpdate(anyLong(), anyLong())).thenAnswer(invocation ->
+                new UserPoint(invocation.getArgument(0), invocation.getArgument(1), now));
+
+        //when
+        UserPoint first = pointService.chargePoint(1L, 100L, now, "key-1");
+        UserPoint retried = pointService.chargePoint(1L, 100L, now, "key-1");
+        UserPoint otherUser = pointService.chargePoint(2L, 100L, now, "key-1");
+        UserPoint used = pointService.usePoint(1L, 100L, now, "key-1");
+
+        //then
+        assertEquals(100L, first.point());
+        assertEquals(first, retried);
+        assertEquals(100L, otherUser.point());
+        assertEquals(0L, used.point());
+        verify(userPointTable, times(1)).insertOrUpdate(1L, 100L);
+        verify(userPointTable, times(1)).insertOrUpdate(2L, 100L);
+        verify(userPointTable, times(1)).insertOrUpdate(1L, 0L);
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key 가 너무 길면 실행하지 않고 예외 발생")
+    void testIdempotencyKeyTooLong() {
+        //given
+        String longKey = "k".repeat(IdempotencyCache.MAX_KEY_LENGTH + 1);
+
+        //when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> pointService.chargePoint(userId, 100L, System.currentTimeMillis(), longKey));
+
+        //then
+        assertEquals("Idempotency-Key 는 255자 이하여야 합니다.", exception.getMessage());
+        verifyNoInteractions(userPointTable, pointHistoryTable);
+    }
+
+    @Test
+    @DisplayName("비동기 충전/사용이 lock 을 기다리는 동안 처리 제한 시간이 지나면 실행하지 않음 (lock / combining 모드)")
+    void testAsyncCommandExpiresBeforeApply() throws Exception {
+        for (PointCommandExecutor.Mode mode : List.of(PointCommandExecutor.Mode.LOCK, PointCommandExecutor.Mode.COMBINING)) {
+            //given
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            ReferenceCountingLockManager lockManager = new ReferenceCountingLockManager();
+            PointCommandExecutor commandExecutor = mode == PointCommandExecutor.Mode.LOCK
+                    ? new LockingCommandExecutor(executor) : new CombiningCommandExecutor(executor);
+            PointService asyncPointService = new PointService(userPointTable, pointHistoryWriter, new UserPointCache(),
+                    lockManager, commandExecutor);
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            try {
+                executor.submit(() -> lockManager.executeWithLock(userId, () -> {
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                }));
+                locked.await();
+
+                //when
+                CompletableFuture<UserPoint> charged = asyncPointService.chargePointAsync(userId, 100L,
+                        System.currentTimeMillis(), null, 50);
+                Thread.sleep(100);
+                release.countDown();
+
+                //then
+                ExecutionException expired = assertThrows(ExecutionException.class, () -> charged.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(PointCommandExpiredException.class, expired.getCause(), mode.name());
+                verifyNoInteractions(userPointTable);
+                assertTrue(pointHistoryWriter.selectAllByUserId(userId).isEmpty());
+            } finally {
+                release.countDown();
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("모아서 처리한 충전/사용은 미리 읽은 잔액이 아니라 갱신 시점의 잔액에 적용")
+    void testCombinedAppliesToCurrentBalance() {
+        //given
+        UserPointTable table = new UserPointTable();
+        LockingBalanceUpdater locking = new LockingBalanceUpdater(table, new UserPointCache(), new PointMetrics());
+        //lock 을 거치지 않는 다른 갱신이 읽은 뒤 저장 전에 끼어드는 상황
+        BalanceUpdater racing = new BalanceUpdater() {
+            @Override
+            public UserPoint find(long id) {
+                return locking.find(id);
+            }
+
+            @Override
+            public UserPoint load(long id) {
+                return locking.load(id);
+            }
+
+            @Override
+            public UserPoint update(long id, LongUnaryOperator nextBalance, Consumer<UserPoint> onCommit) {
+                locking.update(id, point -> point + 400L, committed -> { });
+                return locking.update(id, nextBalance, onCommit);
+            }
+
+            @Override
+            public boolean requiresUserLock() {
+                return false;
+            }
+
+            @Override
+            public void restore(long id, long point, long updateMillis) {
+                locking.restore(id, point, updateMillis);
+            }
+        };
+        PointService combining = new PointService(pointHistoryWriter, racing, PointJournal.disabled(),
+                new ReferenceCountingLockManager(), new CombiningCommandExecutor(Runnable::run), new PointMetrics());
+
+        //when
+        UserPoint charged = combining.chargePoint(userId, 100L, System.currentTimeMillis());
+        long balanceAfterCharge = table.selectById(userId).point();
+        PointRejectedException rejected = assertThrows(PointRejectedException.class, () ->
+                combining.usePoint(userId, 10_000L, System.currentTimeMillis()));
+
+        //then
+        assertEquals(500L, charged.point());
+        assertEquals(500L, balanceAfterCharge);
+        assertEquals("포인트가 부족합니다.", rejected.getMessage());
+        //모두 거절된 묶음은 저장하지 않음 (끼어든 갱신만 반영)
+        assertEquals(900L, table.selectById(userId).point());
+    }
+
     @Test
     @DisplayName("포인트 충전 - 정상 처리")
     void testChargePoint_success() {
@@ -72,10 +254,12 @@ class PointServiceTest {
         UserPoint result = pointService.chargePoint(userId, chargeAmount, System.currentTimeMillis());
 
         //then
+        pointHistoryWriter.flush();
         assertEquals(updatedPoint.point(), result.point());
         verify(userPointTable, times(1)).selectById(userId);
         verify(userPointTable, times(1)).insertOrUpdate(userId, currentBalance + chargeAmount);
-        verify(pointHistoryTable, times(1)).insert(eq(userId), eq(chargeAmount), eq(TransactionType.CHARGE), anyLong());
+        //테이블 저장은 인덱스에 넣은 뒤 별도 스레드가 한다.
+        verify(pointHistoryTable, timeout(1_000).times(1)).insert(eq(userId), eq(chargeAmount), eq(TransactionType.CHARGE), anyLong());
     }
 
     @Test
@@ -132,6 +316,27 @@ class PointServiceTest {
         verify(userPointTable, times(1)).selectById(userId);
     }
 
+    @Test
+    @DisplayName("포인트 조회 - 충전 이후에는 테이블을 거치지 않고 캐시에서 반환")
+    void testGetPoint_servedFromCache() {
+        //given
+        UserPoint existingPoint = new UserPoint(userId, 1_000L, System.currentTimeMillis());
+        UserPoint updatedPoint = new UserPoint(userId, 1_500L, System.currentTimeMillis());
+
+        when(userPointTable.selectById(userId)).thenReturn(existingPoint);
+        when(userPointTable.insertOrUpdate(userId, 1_500L)).thenReturn(updatedPoint);
+        pointService.chargePoint(userId, 500L, System.currentTimeMillis());
+
+        //when
+        UserPoint first = pointService.getId(userId);
+        UserPoint second = pointService.getId(userId);
+
+        //then
+        assertEquals(updatedPoint, first);
+        assertEquals(updatedPoint, second);
+        verify(userPointTable, times(1)).selectById(userId);
+    }
+
     @Test
     @DisplayName("포인트 내역 조회")
     void testGetPointHistory() {
@@ -140,14 +345,234 @@ class PointServiceTest {
                 new PointHistory(1L, userId, 100_000L, TransactionType.CHARGE, System.currentTimeMillis()),
                 new PointHistory(2L, userId, 20_000L, TransactionType.USE, System.currentTimeMillis())
         );
-        when(pointHistoryTable.selectAllByUserId(userId)).thenReturn(histories);
+        for (PointHistory history : histories) {
+            when(pointHistoryTable.insert(userId, history.amount(), history.type(), history.updateMillis())).thenReturn(history);
+        }
+        for (PointHistory history : histories) {
+            pointHistoryWriter.append(userId, history.amount(), history.type(), history.updateMillis());
+        }
 
         //when
         List<PointHistory> result = pointService.getPointHistory(userId);
 
         //then
+        //테이블 전체를 훑지 않고 사용자별 인덱스에서 조회
         assertEquals(histories, result);
-        verify(pointHistoryTable, times(1)).selectAllByUserId(userId);
+        verify(pointHistoryTable, never()).selectAllByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("일괄 처리 - 사용자별로 순서대로 처리하고 실패한 요청만 오류로 반환")
+    void testApplyBatch() {
+        //given
+        long otherUserId = 2L;
+        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, 100L, 0L));
+        when(userPointTable.selectById(otherUserId)).thenReturn(new UserPoint(otherUserId, 0L, 0L));
+        when(userPointTable.insertOrUpdate(userId, 150L)).thenReturn(new UserPoint(userId, 150L, 1L));
+        when(userPointTable.insertOrUpdate(userId, 50L)).thenReturn(new UserPoint(userId, 50L, 2L));
+        when(userPointTable.insertOrUpdate(otherUserId, 30L)).thenReturn(new UserPoint(otherUserId, 30L, 3L));
+
+        List<PointOperation> operations = List.of(
+                new PointOperation(userId, TransactionType.CHARGE, 50L),
+                new PointOperation(otherUserId, TransactionType.CHARGE, 30L),
+                new PointOperation(userId, TransactionType.USE, 500L),
+                new PointOperation(userId, TransactionType.USE, 100L)
+        );
+
+        //when
+        List<PointOperationResult> results = pointService.applyBatch(operations, System.currentTimeMillis());
+
+        //then
+        assertEquals(4, results.size());
+        assertEquals(150L, results.get(0).userPoint().point());
+        assertEquals(30L, results.get(1).userPoint().point());
+        assertFalse(results.get(2).succeeded());
+        assertEquals("포인트가 부족합니다.", results.get(2).error().message());
+        assertEquals(50L, results.get(3).userPoint().point());
+        //사용자별 잔액은 한 번만 조회
+        verify(userPointTable, times(1)).selectById(userId);
+        verify(userPointTable, times(1)).selectById(otherUserId);
+    }
+
+    @Test
+    @DisplayName("일괄 처리도 사용자별 요청 한도를 요청 건수만큼 쓰고, 넘은 사용자의 요청은 429, burst 보다 많은 사용자의 요청은 400 결과")
+    void testApplyBatchAdmission() {
+        //given
+        long otherUserId = 2L;
+        long burstUserId = 3L;
+        PointMetrics pointMetrics = new PointMetrics();
+        //사용자별 최대 2건
+        AdmissionLimiter admissionLimiter = new AdmissionLimiter(true, 1, 2, 1_000, 1_000, 10, 1_024, System::nanoTime);
+        PointService limitedPointService = new PointService(pointHistoryWriter,
+                new LockingBalanceUpdater(userPointTable, new UserPointCache(), pointMetrics), PointJournal.disabled(),
+                new ReferenceCountingLockManager(), new LockingCommandExecutor(Runnable::run), pointMetrics,
+                new PointSummaryStore(), new IdempotencyCache(), admissionLimiter);
+        when(userPointTable.selectById(otherUserId)).thenReturn(new UserPoint(otherUserId, 0L, 0L));
+        when(userPointTable.insertOrUpdate(otherUserId, 30L)).thenReturn(new UserPoint(otherUserId, 30L, 1L));
+        //userId 의 token 2개 중 1개를 미리 씀
+        admissionLimiter.execute(userId, () -> null);
+
+        List<PointOperation> operations = List.of(
+                new PointOperation(userId, TransactionType.CHARGE, 10L),
+                new PointOperation(otherUserId, TransactionType.CHARGE, 30L),
+                new PointOperation(userId, TransactionType.CHARGE, 10L),
+                new PointOperation(burstUserId, TransactionType.CHARGE, 10L),
+                new PointOperation(burstUserId, TransactionType.CHARGE, 10L),
+                new PointOperation(burstUserId, TransactionType.CHARGE, 10L)
+        );
+
+        //when
+        List<PointOperationResult> results = limitedPointService.applyBatch(operations, System.currentTimeMillis());
+
+        //then
+        assertEquals("429", results.get(0).error().code());
+        assertEquals(30L, results.get(1).userPoint().point());
+        assertEquals("429", results.get(2).error().code());
+        assertEquals("400", results.get(3).error().code());
+        assertEquals("400", results.get(4).error().code());
+        assertEquals("400", results.get(5).error().code());
+        verify(userPointTable, never()).selectById(userId);
+        verify(userPointTable, never()).selectById(burstUserId);
+        assertEquals(2, admissionLimiter.stats().admitted());
+        assertEquals(1, admissionLimiter.stats().userRateRejected());
+    }
+
+    @Test
+    @DisplayName("이체 중 받는 사용자 잔액 저장이 실패하면 보낸 사용자에게 되돌리고, 되돌린 이체도 journal 과 내역에 기록")
+    void testTransferCompensatesReceiverFailure(@TempDir Path directory) {
+        //given
+        long toId = 2L;
+        long now = System.currentTimeMillis();
+        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, 1_000L, 0L));
+        when(userPointTable.selectById(toId)).thenReturn(new UserPoint(toId, 100L, 0L));
+        when(userPointTable.insertOrUpdate(eq(userId), anyLong())).thenAnswer(invocation ->
+                new UserPoint(userId, invocation.getArgument(1), now));
+        when(userPointTable.insertOrUpdate(eq(toId), anyLong())).thenThrow(new IllegalStateException("받는 사용자 저장 실패"));
+        List<JournalRecord> records = new ArrayList<>();
+
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 100, PointJournal.FsyncPolicy.NONE, 10)) {
+            PointMetrics pointMetrics = new PointMetrics();
+            PointService transferService = new PointService(pointHistoryWriter,
+                    new LockingBalanceUpdater(userPointTable, new UserPointCache(), pointMetrics), journal,
+                    new ReferenceCountingLockManager(), new LockingCommandExecutor(Runnable::run), pointMetrics);
+
+            //when
+            IllegalStateException failure = assertThrows(IllegalStateException.class, () ->
+                    transferService.transferPoint(userId, toId, 300L, now));
+            UserPoint from = transferService.getId(userId);
+            UserPoint to = transferService.getId(toId);
+            pointHistoryWriter.flush();
+            journal.replay(0, records::add);
+
+            //then
+            assertEquals("받는 사용자 저장 실패", failure.getMessage());
+            assertEquals(1_000L, from.point());
+            assertEquals(100L, to.point());
+        }
+        //이체와 되돌린 이체가 각각 한 쌍으로 남아, 재시작 후에도 같은 잔액으로 복구
+        assertEquals(List.of(
+                new JournalRecord(1L, userId, TransactionType.USE, 300L, 700L, now),
+                new JournalRecord(2L, toId, TransactionType.CHARGE, 300L, 400L, now),
+                new JournalRecord(3L, toId, TransactionType.USE, 300L, 100L, now),
+                new JournalRecord(4L, userId, TransactionType.CHARGE, 300L, 1_000L, now)
+        ), records);
+        verify(userPointTable, times(1)).insertOrUpdate(userId, 700L);
+        verify(userPointTable, times(1)).insertOrUpdate(userId, 1_000L);
+        verify(pointHistoryTable, timeout(1_000).times(1)).insert(userId, 300L, TransactionType.USE, now);
+        verify(pointHistoryTable, timeout(1_000).times(1)).insert(userId, 300L, TransactionType.CHARGE, now);
+        verify(pointHistoryTable, timeout(1_000).times(1)).insert(toId, 300L, TransactionType.CHARGE, now);
+        verify(pointHistoryTable, timeout(1_000).times(1)).insert(toId, 300L, TransactionType.USE, now);
+    }
+
+    @Test
+    @DisplayName("요청 처리 시간은 결과와 거절 사유별로, lock 과 테이블 호출 시간은 구간별로 기록")
+    void testMetrics() {
+        //given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PointService meteredPointService = new PointService(userPointTable, pointHistoryWriter, new UserPointCache(),
+                new ReferenceCountingLockManager(), new LockingCommandExecutor(Runnable::run), new PointMetrics(registry));
+        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, 100L, 0L));
+        when(userPointTable.insertOrUpdate(userId, 150L)).thenReturn(new UserPoint(userId, 150L, 1L));
+
+        //when
+        meteredPointService.chargePoint(userId, 50L, System.currentTimeMillis());
+        assertThrows(IllegalArgumentException.class, () ->
+                meteredPointService.usePoint(userId, 500L, System.currentTimeMillis()));
+
+        //then
+        assertEquals(1, registry.get("point.operation")
+                .tags("operation", "charge", "outcome", "success", "reason", "none").timer().count());
+        assertEquals(1, registry.get("point.operation")
+                .tags("operation", "use", "outcome", "rejected", "reason", "insufficient_balance").timer().count());
+        assertEquals(1, registry.get("point.lock.acquire").tag("operation", "use").timer().count());
+        assertEquals(1, registry.get("point.lock.hold").tag("operation", "charge").timer().count());
+        assertEquals(1, registry.get("point.table.call")
+                .tags("table", "user_point", "method", "selectById").timer().count());
+        assertEquals(1, registry.get("point.table.call")
+                .tags("table", "user_point", "method", "insertOrUpdate").timer().count());
+    }
+
+    @Test
+    @DisplayName("journal 기록이 실패하면 잔액과 내역을 바꾸지 않음 (write-ahead)")
+    void testJournalFailureLeavesBalanceUnchanged() {
+        //given
+        PointJournal pointJournal = mock(PointJournal.class);
+        when(pointJournal.append(anyLong(), any(TransactionType.class), anyLong(), anyLong(), anyLong()))
+                .thenThrow(new UncheckedIOException(new IOException("disk full")));
+        PointService journaledPointService = new PointService(pointHistoryWriter,
+                new LockingBalanceUpdater(userPointTable, new UserPointCache(), new PointMetrics()), pointJournal,
+                new ReferenceCountingLockManager(), new LockingCommandExecutor(Runnable::run), new PointMetrics());
+        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, 100L, 0L));
+
+        //when
+        assertThrows(UncheckedIOException.class, () ->
+                journaledPointService.chargePoint(userId, 50L, System.currentTimeMillis()));
+
+        //then
+        assertEquals(100L, journaledPointService.getId(userId).point());
+        assertTrue(journaledPointService.getPointHistory(userId).isEmpty());
+        verify(userPointTable, never()).insertOrUpdate(anyLong(), anyLong());
+        verify(pointHistoryTable, never()).insert(anyLong(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("partitioned 모드 - 사용자 lock 없이 partition 별 잔액/내역 저장소에 바로 반영하고 이체는 거절")
+    void testPartitionedOwnership() {
+        //given
+        long now = System.currentTimeMillis();
+        UserLockManager userLockManager = mock(UserLockManager.class);
+        PartitionedCommandExecutor partitionedExecutor = new PartitionedCommandExecutor(4);
+        PartitionedPointHistoryStore pointHistoryStore = new PartitionedPointHistoryStore(4);
+        PointHistoryWriter inlineWriter = PointHistoryWriter.inline(pointHistoryStore);
+        PointService partitionedService = new PointService(inlineWriter,
+                new PartitionedBalanceUpdater(4, partition -> PrimitiveBalanceStore.onHeap(16)), PointJournal.disabled(),
+                userLockManager, partitionedExecutor, new PointMetrics());
+
+        try {
+            //when
+            for (long id = 1; id <= 8; id++) {
+                partitionedService.chargePoint(id, 100L * id, now);
+                partitionedService.usePoint(id, 10L, now);
+            }
+
+            //then
+            List<Long> ids = new ArrayList<>();
+            for (long id = 1; id <= 8; id++) {
+                assertEquals(100L * id - 10L, partitionedService.getId(id).point());
+                List<PointHistory> histories = partitionedService.getPointHistory(id);
+                assertEquals(List.of(TransactionType.CHARGE, TransactionType.USE),
+                        histories.stream().map(PointHistory::type).toList());
+                //사용자별로는 저장 순서대로 커짐
+                assertTrue(histories.get(0).id() < histories.get(1).id());
+                histories.forEach(history -> ids.add(history.id()));
+            }
+            //partition 저장소끼리 id 가 겹치지 않음
+            assertEquals(ids.size(), ids.stream().distinct().count());
+            assertThrows(IllegalStateException.class, () -> partitionedService.transferPoint(1L, 2L, 10L, now));
+            verifyNoInteractions(userLockManager);
+        } finally {
+            partitionedExecutor.close();
+        }
     }
 
 }
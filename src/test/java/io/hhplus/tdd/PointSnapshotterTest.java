@@ -0,0 +1,208 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.balance.LockingBalanceUpdater;
+import io.hhplus.tdd.database.IndexedPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.journal.MappedPointJournal;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.journal.PointSnapshot;
+import io.hhplus.tdd.journal.PointSnapshotter;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.summary.PointSummaryStore;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class PointSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("가득 찬 segment 를 snapshot 으로 만들고 반영된 segment 는 삭제")
+    void testSnapshotCompactsSealedSegments() throws IOException {
+        // Given
+        MappedPointJournal journal = new MappedPointJournal(directory, 10, PointJournal.FsyncPolicy.NONE, 10);
+        for (int i = 1; i <= 25; i++) {
+            journal.append(i % 3, TransactionType.CHARGE, 10L, i * 10L, i);
+        }
+        PointSnapshotter snapshotter = snapshotter(journal, mock(UserPointTable.class),
+                new IndexedPointHistoryStore(mock(PointHistoryTable.class)), new SimpleMeterRegistry());
+
+        try (journal) {
+            // When
+            boolean written = snapshotter.snapshot();
+            boolean writtenAgain = snapshotter.snapshot();
+
+            // Then
+            assertTrue(written);
+            assertFalse(writtenAgain);
+            PointSnapshot snapshot = PointSnapshot.read(PointSnapshot.latest(directory).orElseThrow());
+            assertEquals(20L, snapshot.sequence());
+            assertEquals(3, snapshot.userCount());
+            assertEquals(20L, snapshot.historyCount());
+            //기록 중인 마지막 segment 만 남음
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.filter(file -> file.getFileName().toString().startsWith("journal-")).count());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("snapshot 은 새 기록의 내역만 내역 파일에 붙이고, snapshot 크기는 사용자 수에만 비례")
+    void testSnapshotAppendsOnlyNewHistories() throws IOException {
+        // Given
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 10, PointJournal.FsyncPolicy.NONE, 10)) {
+            PointSnapshotter snapshotter = snapshotter(journal, mock(UserPointTable.class),
+                    new IndexedPointHistoryStore(mock(PointHistoryTable.class)), new SimpleMeterRegistry());
+            for (int i = 1; i <= 25; i++) {
+                journal.append(i % 3, TransactionType.CHARGE, 10L, i * 10L, i);
+            }
+            snapshotter.snapshot();
+            Path first = PointSnapshot.latest(directory).orElseThrow();
+            long firstSize = Files.size(first);
+            long historyFileSize = Files.size(directory.resolve("history.bin"));
+
+            // When
+            for (int i = 26; i <= 45; i++) {
+                journal.append(i % 3, TransactionType.USE, 1L, 250L - i, i);
+            }
+            snapshotter.snapshot();
+
+            // Then
+            Path second = PointSnapshot.latest(directory).orElseThrow();
+            assertNotEquals(first, second);
+            assertEquals(firstSize, Files.size(second));
+            assertEquals(40L, PointSnapshot.read(second).historyCount());
+            //새로 반영된 20건만 뒤에 붙음
+            assertEquals(historyFileSize * 2, Files.size(directory.resolve("history.bin")));
+        }
+    }
+
+    @Test
+    @DisplayName("재시작 시 snapshot, 내역 파일, 이후 journal 기록으로 다시 적재하고 내역은 테이블을 거치지 않음")
+    void testRecoverFromSnapshotAndTail() {
+        // Given
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 4, PointJournal.FsyncPolicy.NONE, 10)) {
+            journal.append(1L, TransactionType.CHARGE, 1_000L, 1_000L, 1L);
+            journal.append(2L, TransactionType.CHARGE, 500L, 500L, 2L);
+            journal.append(1L, TransactionType.USE, 300L, 700L, 3L);
+            journal.append(2L, TransactionType.USE, 100L, 400L, 4L);
+            journal.append(1L, TransactionType.CHARGE, 50L, 750L, 5L);
+            snapshotter(journal, mock(UserPointTable.class),
+                    new IndexedPointHistoryStore(mock(PointHistoryTable.class)), new SimpleMeterRegistry())
+                    .snapshot();
+            journal.append(3L, TransactionType.CHARGE, 10L, 10L, 6L);
+        }
+
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        when(pointHistoryTable.insert(1L, 5L, TransactionType.CHARGE, 7L))
+                .thenReturn(new PointHistory(1L, 1L, 5L, TransactionType.CHARGE, 7L));
+        IndexedPointHistoryStore pointHistoryStore = new IndexedPointHistoryStore(pointHistoryTable);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        try (MappedPointJournal reopened = new MappedPointJournal(directory, 4, PointJournal.FsyncPolicy.NONE, 10)) {
+            // When
+            LockingBalanceUpdater balanceUpdater = new LockingBalanceUpdater(userPointTable, new UserPointCache(), new PointMetrics());
+            snapshotter(reopened, balanceUpdater, pointHistoryStore, registry).recover();
+            balanceUpdater.flush();
+            balanceUpdater.close();
+
+            // Then
+            //사용자별 최종 잔액만 한 번씩 적재
+            verify(userPointTable).insertOrUpdate(1L, 750L);
+            verify(userPointTable).insertOrUpdate(2L, 400L);
+            verify(userPointTable).insertOrUpdate(3L, 10L);
+            verify(userPointTable, times(3)).insertOrUpdate(anyLong(), anyLong());
+            //내역은 테이블을 거치지 않고 기록 순서대로 저장소에 적재
+            verifyNoInteractions(pointHistoryTable);
+            assertEquals(List.of(
+                    new PointHistory(1L, 1L, 1_000L, TransactionType.CHARGE, 1L),
+                    new PointHistory(3L, 1L, 300L, TransactionType.USE, 3L),
+                    new PointHistory(5L, 1L, 50L, TransactionType.CHARGE, 5L)
+            ), pointHistoryStore.selectAllByUserId(1L));
+            assertEquals(List.of(new PointHistory(6L, 3L, 10L, TransactionType.CHARGE, 6L)),
+                    pointHistoryStore.selectAllByUserId(3L));
+            for (String phase : new String[]{"snapshot_load", "journal_replay", "balance_reload", "history_reload", "total"}) {
+                assertEquals(1, registry.get("point.startup.phase").tag("phase", phase).timer().count());
+            }
+            //복구 뒤 새 내역 id 는 복구한 내역 다음부터
+            assertEquals(7L, pointHistoryStore.insert(1L, 5L, TransactionType.CHARGE, 7L).id());
+        }
+    }
+
+    @Test
+    @DisplayName("잔액 복구는 테이블 저장을 기다리지 않고, 저장 전에도 복구한 잔액과 수정 시각을 그대로 조회")
+    void testRestoreDoesNotWaitForTable() {
+        // Given
+        //사용자 1, 17 은 캐시의 같은 segment 에 들어간다.
+        try (MappedPointJournal journal = new MappedPointJournal(directory, 4, PointJournal.FsyncPolicy.NONE, 10)) {
+            journal.append(1L, TransactionType.CHARGE, 1_000L, 1_000L, 11L);
+            journal.append(17L, TransactionType.CHARGE, 500L, 500L, 12L);
+        }
+        //테이블 저장은 풀어줄 때까지 막히고, 사용자별 마지막 저장 값을 남긴다.
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Long, Long> stored = new ConcurrentHashMap<>();
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.insertOrUpdate(anyLong(), anyLong())).thenAnswer(invocation -> {
+            release.await();
+            stored.put(invocation.getArgument(0), invocation.getArgument(1));
+            return new UserPoint(invocation.getArgument(0), invocation.getArgument(1), 99L);
+        });
+        //segment 마다 한 명만 들어가 둘 중 한 명은 밀려난다.
+        LockingBalanceUpdater balanceUpdater = new LockingBalanceUpdater(userPointTable, new UserPointCache(1), new PointMetrics());
+
+        try (MappedPointJournal reopened = new MappedPointJournal(directory, 4, PointJournal.FsyncPolicy.NONE, 10)) {
+            // When
+            snapshotter(reopened, balanceUpdater, new IndexedPointHistoryStore(mock(PointHistoryTable.class)),
+                    new SimpleMeterRegistry()).recover();
+
+            // Then
+            //밀려난 사용자도 테이블이 아닌 저장 대기 잔액으로 읽는다.
+            assertEquals(new UserPoint(1L, 1_000L, 11L), balanceUpdater.load(1L));
+            assertEquals(new UserPoint(17L, 500L, 12L), balanceUpdater.load(17L));
+            verify(userPointTable, never()).selectById(anyLong());
+            //저장 전 갱신은 같은 기록기로 보내 복구 값이 새 잔액을 덮어쓰지 않는다.
+            balanceUpdater.update(1L, balance -> balance + 1L, committed -> {
+            });
+            release.countDown();
+            balanceUpdater.flush();
+            assertEquals(Map.of(1L, 1_001L, 17L, 500L), stored);
+        } finally {
+            release.countDown();
+            balanceUpdater.close();
+        }
+    }
+
+    private PointSnapshotter snapshotter(PointJournal journal, UserPointTable userPointTable,
+                                         IndexedPointHistoryStore pointHistoryStore, SimpleMeterRegistry registry) {
+        return snapshotter(journal, new LockingBalanceUpdater(userPointTable, new UserPointCache(), new PointMetrics()),
+                pointHistoryStore, registry);
+    }
+
+    private PointSnapshotter snapshotter(PointJournal journal, LockingBalanceUpdater balanceUpdater,
+                                         IndexedPointHistoryStore pointHistoryStore, SimpleMeterRegistry registry) {
+        return new PointSnapshotter(journal, balanceUpdater, pointHistoryStore, new PointSummaryStore(),
+                registry, directory.toString(), 60);
+    }
+}
@@ -0,0 +1,172 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.admission.AdmissionLimiter;
+import io.hhplus.tdd.balance.LockingBalanceUpdater;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.execution.LockingCommandExecutor;
+import io.hhplus.tdd.idempotency.IdempotencyCache;
+import io.hhplus.tdd.journal.PointJournal;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.metrics.PointMetrics;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.summary.PointSummaryStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointSummaryStoreTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2024, 3, 15, 12, 0, 0, 0, ZONE);
+
+    @Test
+    @DisplayName("거래마다 누적 합계와 일별/월별 집계가 갱신되고 최신 기간부터 반환")
+    void testRecordAndGet() {
+        // Given
+        PointSummaryStore store = new PointSummaryStore(Clock.fixed(NOW.toInstant(), ZONE), 7, 3);
+        store.record(1L, TransactionType.CHARGE, 1_000, millis(NOW.minusMonths(1)));
+        store.record(1L, TransactionType.CHARGE, 500, millis(NOW.minusDays(1)));
+        store.record(1L, TransactionType.USE, 200, millis(NOW.minusDays(1)));
+        store.record(1L, TransactionType.USE, 100, millis(NOW));
+        store.record(2L, TransactionType.CHARGE, 10, millis(NOW));
+
+        // When
+        PointSummary summary = store.get(1L);
+
+        // Then
+        assertEquals(1_500, summary.totalCharged());
+        assertEquals(300, summary.totalUsed());
+        assertEquals(4, summary.transactionCount());
+        assertEquals(millis(NOW), summary.lastActivityMillis());
+        assertEquals(List.of(
+                new PointSummary.Bucket("2024-03-15", 0, 100, 1),
+                new PointSummary.Bucket("2024-03-14", 500, 200, 2)
+        ), summary.daily());
+        assertEquals(List.of(
+                new PointSummary.Bucket("2024-03", 500, 300, 3),
+                new PointSummary.Bucket("2024-02", 1_000, 0, 1)
+        ), summary.monthly());
+    }
+
+    @Test
+    @DisplayName("bucket 범위를 벗어난 기간은 누적 합계에만 남고 기간별 집계에서는 빠짐")
+    void testOldPeriodsLeaveWindow() {
+        // Given
+        PointSummaryStore store = new PointSummaryStore(Clock.fixed(NOW.toInstant(), ZONE), 7, 3);
+        store.record(1L, TransactionType.CHARGE, 100, millis(NOW.minusDays(10)));
+        store.record(1L, TransactionType.CHARGE, 200, millis(NOW.minusDays(3)));
+        //같은 칸(10일 전 + 7일)을 쓰는 더 최근 기간이 들어온 뒤의 오래된 거래
+        store.record(1L, TransactionType.CHARGE, 300, millis(NOW.minusDays(10)));
+
+        // When
+        PointSummary summary = store.get(1L);
+
+        // Then
+        assertEquals(600, summary.totalCharged());
+        assertEquals(3, summary.transactionCount());
+        assertEquals(List.of(new PointSummary.Bucket("2024-03-12", 200, 0, 1)), summary.daily());
+        assertEquals(List.of(new PointSummary.Bucket("2024-03", 600, 0, 3)), summary.monthly());
+    }
+
+    @Test
+    @DisplayName("거래가 없는 사용자는 0 과 빈 집계")
+    void testEmptySummary() {
+        // Given
+        PointSummaryStore store = new PointSummaryStore();
+
+        // When
+        PointSummary summary = store.get(1L);
+
+        // Then
+        assertEquals(new PointSummary(1L, 0, 0, 0, null, List.of(), List.of()), summary);
+    }
+
+    @Test
+    @DisplayName("최대 사용자 수를 넘으면 오래 거래하지 않은 사용자를 밀어내고, 다음 조회/거래는 내역으로 다시 만든 요약 사용")
+    void testEvictedUserRebuiltFromHistory() {
+        // Given
+        Map<Long, List<PointHistory>> histories = new HashMap<>();
+        //16 segment 마다 1명
+        PointSummaryStore store = new PointSummaryStore(Clock.fixed(NOW.toInstant(), ZONE), 7, 3, 16,
+                userId -> histories.getOrDefault(userId, List.of()));
+        //요청 처리와 같이 요약에 더한 뒤 내역에 넣음
+        BiConsumer<Long, Long> charge = (userId, amount) -> {
+            store.record(userId, TransactionType.CHARGE, amount, millis(NOW));
+            List<PointHistory> rows = histories.computeIfAbsent(userId, id -> new ArrayList<>());
+            rows.add(new PointHistory(rows.size() + 1, userId, amount, TransactionType.CHARGE, millis(NOW)));
+        };
+        charge.accept(1L, 100L);
+        charge.accept(1L, 200L);
+
+        // When
+        for (long userId = 2; userId <= 1_000; userId++) {
+            charge.accept(userId, 1L);
+        }
+        PointSummary rebuilt = store.get(1L);
+        charge.accept(1L, 300L);
+        PointSummary recorded = store.get(1L);
+
+        // Then
+        assertTrue(store.size() <= 16);
+        assertEquals(300L, rebuilt.totalCharged());
+        assertEquals(2, rebuilt.transactionCount());
+        assertEquals(600L, recorded.totalCharged());
+        assertEquals(3, recorded.transactionCount());
+        assertEquals(List.of(new PointSummary.Bucket("2024-03-15", 600, 0, 3)), recorded.daily());
+    }
+
+    @Test
+    @DisplayName("충전/사용이 저장될 때 요약이 갱신되고, 잔고 초과로 거절된 충전은 반영되지 않음")
+    void testServiceUpdatesSummary() {
+        // Given
+        PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(new PointHistoryTable());
+        PointMetrics pointMetrics = new PointMetrics();
+        PointService pointService = new PointService(pointHistoryWriter,
+                new LockingBalanceUpdater(new UserPointTable(), new UserPointCache(), pointMetrics),
+                PointJournal.disabled(), new ReferenceCountingLockManager(),
+                new LockingCommandExecutor(ForkJoinPool.commonPool()), pointMetrics,
+                new PointSummaryStore(Clock.fixed(NOW.toInstant(), ZONE), 7, 3), new IdempotencyCache(),
+                AdmissionLimiter.unlimited());
+        long now = millis(NOW);
+
+        // When
+        PointSummary summary;
+        try {
+            pointService.chargePoint(1L, 1_000L, now);
+            pointService.usePoint(1L, 400L, now);
+            assertThrows(IllegalArgumentException.class, () -> pointService.chargePoint(1L, 2_000_000L, now));
+            summary = pointService.getSummary(1L);
+        } finally {
+            pointHistoryWriter.close();
+        }
+
+        // Then
+        assertEquals(1_000L, summary.totalCharged());
+        assertEquals(400L, summary.totalUsed());
+        assertEquals(2, summary.transactionCount());
+        assertEquals(now, summary.lastActivityMillis());
+        assertEquals(2, summary.daily().get(0).transactionCount());
+        assertEquals("2024-03-15", summary.daily().get(0).period());
+    }
+
+    private static long millis(ZonedDateTime dateTime) {
+        return dateTime.toInstant().toEpochMilli();
+    }
+}
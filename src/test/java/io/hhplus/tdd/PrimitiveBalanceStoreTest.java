@@ -0,0 +1,107 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.balance.StoreBalanceUpdater;
+import io.hhplus.tdd.database.BalanceStore;
+import io.hhplus.tdd.database.PrimitiveBalanceStore;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveBalanceStoreTest {
+
+    @Test
+    @DisplayName("저장한 잔액과 수정 시각을 그대로 반환하고, 없는 사용자는 null")
+    void testGetAndPut() {
+        for (BalanceStore store : List.of(PrimitiveBalanceStore.onHeap(10), PrimitiveBalanceStore.offHeap(10))) {
+            // Given
+            store.put(1L, 500L, 10L);
+            store.put(0L, 300L, 20L);
+            store.put(-7L, 100L, 30L);
+
+            // When
+            store.put(1L, 700L, 40L);
+
+            // Then
+            assertEquals(new UserPoint(1L, 700L, 40L), store.get(1L));
+            assertEquals(new UserPoint(0L, 300L, 20L), store.get(0L));
+            assertEquals(new UserPoint(-7L, 100L, 30L), store.get(-7L));
+            assertNull(store.get(2L));
+            assertEquals(3, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("예상 사용자 수를 넘겨도 늘어나면서 모든 잔액을 유지")
+    void testGrowKeepsEntries() {
+        for (BalanceStore store : List.of(PrimitiveBalanceStore.onHeap(0), PrimitiveBalanceStore.offHeap(0))) {
+            // Given
+            int userCount = 200_000;
+
+            // When
+            for (long id = 1; id <= userCount; id++) {
+                store.put(id, id * 10, id);
+            }
+
+            // Then
+            assertEquals(userCount, store.size());
+            for (long id = 1; id <= userCount; id++) {
+                assertEquals(id * 10, store.get(id).point());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("저장 중에 조회해도 잔액과 수정 시각이 섞여 보이지 않음")
+    void testReadsNeverSeeTornValues() throws InterruptedException {
+        // Given
+        PrimitiveBalanceStore store = PrimitiveBalanceStore.offHeap(0);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            //잔액과 수정 시각을 항상 같은 값으로 저장 (중간에 segment 확장도 일어남)
+            for (long value = 1; value <= 2_000_000; value++) {
+                store.put(value % 50_000, value, value);
+            }
+            writing.set(false);
+        });
+
+        // When
+        writer.start();
+        int torn = 0;
+        while (writing.get()) {
+            for (long id = 0; id < 50_000; id += 7) {
+                UserPoint userPoint = store.get(id);
+                if (userPoint != null && userPoint.point() != userPoint.updateMillis()) {
+                    torn++;
+                }
+            }
+        }
+        writer.join();
+
+        // Then
+        assertEquals(0, torn);
+        assertEquals(50_000, store.size());
+    }
+
+    @Test
+    @DisplayName("저장소를 원본으로 쓰면 없는 사용자는 잔액 0, 갱신한 잔액은 저장소에서 조회")
+    void testStoreBalanceUpdater() {
+        // Given
+        StoreBalanceUpdater balanceUpdater = new StoreBalanceUpdater(PrimitiveBalanceStore.onHeap(10));
+        balanceUpdater.restore(2L, 300L, 5L);
+
+        // When
+        UserPoint written = balanceUpdater.update(1L, point -> point + 500L, userPoint -> {
+        });
+
+        // Then
+        assertEquals(0L, balanceUpdater.find(3L).point());
+        assertEquals(500L, written.point());
+        assertEquals(written, balanceUpdater.find(1L));
+        assertEquals(new UserPoint(2L, 300L, 5L), balanceUpdater.load(2L));
+    }
+}
@@ -0,0 +1,186 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.lock.StripedLockManager;
+import io.hhplus.tdd.lock.UserLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserLockManagerTest {
+
+    @Test
+    @DisplayName("천만 명의 서로 다른 사용자가 lock 을 사용하는 동안 lock 항목이 쌓이지 않고, 끝난 뒤 남아있는 lock 이 없는지 확인")
+    void testMemoryStaysFlatAfterTenMillionUsers() {
+        // Given
+        ReferenceCountingLockManager lockManager = new ReferenceCountingLockManager();
+        int userCount = 10_000_000;
+
+        // When
+        //lock 항목 수가 그대로면 사용자 수와 무관하게 lock manager 가 잡고 있는 메모리도 그대로다.
+        for (long userId = 1; userId <= userCount; userId++) {
+            long id = userId;
+            lockManager.executeWithLock(userId, () -> id);
+            if (userId % 1_000_000 == 0) {
+                assertEquals(0, lockManager.stats().activeLocks());
+            }
+        }
+
+        // Then
+        UserLockManager.LockStats stats = lockManager.stats();
+        assertEquals(userCount, stats.acquisitions());
+        assertEquals(0, stats.activeLocks());
+        assertEquals(0, stats.queuedWaiters());
+    }
+
+    @Test
+    @DisplayName("같은 사용자 요청은 한 번에 하나씩 실행되고, 끝나면 lock 이 정리되는지 확인")
+    void testMutualExclusion() throws InterruptedException {
+        // Given
+        ReferenceCountingLockManager lockManager = new ReferenceCountingLockManager();
+        long userId = 1L;
+        int[] counter = {0};
+        int threadCount = 100;
+        ExecutorService executorService = Executors.newFixedThreadPool(10);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // When
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    lockManager.executeWithLock(userId, () -> {
+                        int current = counter[0];
+                        Thread.yield();
+                        counter[0] = current + 1;
+                        return null;
+                    });
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        // Then
+        assertEquals(threadCount, counter[0]);
+        assertEquals(0, lockManager.stats().activeLocks());
+        assertEquals(0, lockManager.queueLength(userId));
+    }
+
+    @Test
+    @DisplayName("대기열이 긴 사용자가 hottest key 로 집계되고 순위별 메트릭으로 노출되는지 확인")
+    void testHottestKeys() throws InterruptedException {
+        // Given
+        ReferenceCountingLockManager lockManager = new ReferenceCountingLockManager();
+        long hotUserId = 7L;
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        executorService.submit(() -> lockManager.executeWithLock(hotUserId, () -> {
+            holding.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        holding.await();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            executorService.submit(() -> lockManager.executeWithLock(hotUserId, () -> null));
+        }
+        while (lockManager.queueLength(hotUserId) < 3) {
+            Thread.onSpinWait();
+        }
+        List<UserLockManager.HotKey> hottestKeys = lockManager.hottestKeys(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        lockManager.bindTo(registry);
+        double hottestKey = registry.get("point.lock.hottest.key").tag("rank", "1").gauge().value();
+        double hottestQueueLength = registry.get("point.lock.hottest.queue.length").tag("rank", "1").gauge().value();
+        double secondKey = registry.get("point.lock.hottest.key").tag("rank", "2").gauge().value();
+        release.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(hotUserId, hottestKeys.get(0).key());
+        assertEquals(3, hottestKeys.get(0).queueLength());
+        assertEquals(hotUserId, (long) hottestKey);
+        assertEquals(3, (int) hottestQueueLength);
+        assertTrue(Double.isNaN(secondKey));
+        assertTrue(lockManager.stats().contendedAcquisitions() >= 3);
+        assertEquals(0, lockManager.stats().activeLocks());
+    }
+
+    @Test
+    @DisplayName("striped 모드는 사용자 수와 무관하게 stripe 수만큼만 lock 을 사용")
+    void testStripedMode() {
+        // Given
+        StripedLockManager lockManager = new StripedLockManager(1000);
+
+        // When
+        for (long userId = 1; userId <= 100_000; userId++) {
+            lockManager.executeWithLock(userId, () -> null);
+        }
+
+        // Then
+        assertEquals(1024, lockManager.stripeCount());
+        assertEquals(100_000, lockManager.stats().acquisitions());
+        assertEquals(0, lockManager.stats().activeLocks());
+    }
+
+    @Test
+    @DisplayName("두 사용자 lock 을 서로 반대 순서로 요청해도 교착 없이 모두 처리되는지 확인 (참조 카운트 / striped)")
+    void testExecuteWithLocksNoDeadlock() throws InterruptedException {
+        //stripe 4개 : 서로 다른 사용자가 같은 stripe 이거나, 사용자 ID 순서와 stripe 순서가 반대인 경우를 함께 포함
+        for (UserLockManager lockManager : List.of(new ReferenceCountingLockManager(), new StripedLockManager(4))) {
+            // Given
+            int userCount = 16;
+            int transferCount = 200_000;
+            long[] balances = new long[userCount];
+            Arrays.fill(balances, 1_000);
+            ExecutorService executorService = Executors.newFixedThreadPool(16);
+            CountDownLatch latch = new CountDownLatch(transferCount);
+
+            // When
+            for (int i = 0; i < transferCount; i++) {
+                int from = i % userCount;
+                int to = (i * 7 + 3) % userCount == from ? (from + 1) % userCount : (i * 7 + 3) % userCount;
+                executorService.submit(() -> {
+                    try {
+                        lockManager.executeWithLocks(from, to, () -> {
+                            balances[from] -= 1;
+                            balances[to] += 1;
+                            return null;
+                        });
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            boolean completed = latch.await(30, TimeUnit.SECONDS);
+            executorService.shutdownNow();
+
+            // Then
+            assertTrue(completed, "교착 상태로 이체가 끝나지 않음: " + lockManager.getClass().getSimpleName());
+            assertEquals(1_000L * userCount, Arrays.stream(balances).sum());
+            assertEquals(0, lockManager.stats().activeLocks());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserPointCacheTest {
+
+    @Test
+    @DisplayName("저장한 잔액은 hit, 없는 사용자는 적재할 때 miss 로 한 번만 집계")
+    void testHitAndMiss() {
+        // Given
+        UserPointCache cache = new UserPointCache(1_000);
+        UserPoint userPoint = new UserPoint(1L, 500L, System.currentTimeMillis());
+        cache.put(userPoint);
+
+        // When
+        UserPoint hit = cache.get(1L);
+        //캐시에서 먼저 찾고 없으면 적재하는 조회 흐름 (PointService.getId)
+        UserPoint notCached = cache.get(2L);
+        UserPoint loaded = cache.getOrLoad(2L, id -> UserPoint.empty(id));
+        UserPoint hitAfterLoad = cache.getOrLoad(2L, id -> fail("캐시에 있는 사용자를 다시 적재함"));
+
+        // Then
+        assertEquals(userPoint, hit);
+        assertNull(notCached);
+        assertEquals(loaded, hitAfterLoad);
+        assertEquals(2, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 오래 사용하지 않은 항목부터 제거")
+    void testEvictionKeepsSizeBounded() {
+        // Given
+        int maxSize = 1_600;
+        UserPointCache cache = new UserPointCache(maxSize);
+
+        // When
+        for (long id = 1; id <= 100_000; id++) {
+            cache.put(new UserPoint(id, id, 0L));
+        }
+
+        // Then
+        UserPointCache.CacheStats stats = cache.stats();
+        assertTrue(stats.size() <= maxSize);
+        assertEquals(100_000 - stats.size(), stats.evictions());
+        assertNotNull(cache.get(100_000L));
+        assertNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,76 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.IndexedPointHistoryStore;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointHistoryWriter;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.execution.ExecutionConfig;
+import io.hhplus.tdd.execution.LockingCommandExecutor;
+import io.hhplus.tdd.lock.ReferenceCountingLockManager;
+import io.hhplus.tdd.point.PointService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * spring.threads.virtual.enabled=true 일 때의 포인트 전용 스레드 풀 동작 확인
+ * - platform thread 풀과의 처리량/지연 비교는 ThreadModelBenchmark (./gradlew jmh -Pjmh.includes=ThreadModelBenchmark)
+ */
+public class VirtualThreadExecutionTest {
+
+    private static final int CLIENT_COUNT = 10_000;
+    private static final int USER_COUNT = 1_000;
+
+    @Test
+    @DisplayName("virtual thread 모드에서 10,000 개의 동시 충전이 모두 반영되고, platform thread 는 클라이언트 수만큼 늘어나지 않음")
+    void testVirtualThreadExecutor() throws InterruptedException {
+        // Given
+        Executor pointExecutor = new ExecutionConfig().pointExecutor(true, 64);
+        //내역 write-behind queue 가 가득 차 요청이 막히지 않도록 클라이언트 수보다 크게 잡음
+        PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(
+                new IndexedPointHistoryStore(new PointHistoryTable()), CLIENT_COUNT * 2, 100);
+        PointService pointService = new PointService(new UserPointTable(), pointHistoryWriter, new UserPointCache(),
+                new ReferenceCountingLockManager(), new LockingCommandExecutor(pointExecutor));
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+        AtomicInteger platformThreadRuns = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(CLIENT_COUNT);
+
+        // When
+        //테이블 지연(최대 수백 ms) 동안 클라이언트마다 스레드 하나가 대기
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+            long userId = i % USER_COUNT;
+            pointExecutor.execute(() -> {
+                try {
+                    if (!Thread.currentThread().isVirtual()) {
+                        platformThreadRuns.incrementAndGet();
+                    }
+                    pointService.chargePoint(userId, 10L, System.currentTimeMillis());
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        boolean completed = latch.await(60, TimeUnit.SECONDS);
+        pointHistoryWriter.close();
+
+        // Then
+        assertTrue(completed);
+        assertEquals(0, platformThreadRuns.get());
+        for (long userId = 0; userId < USER_COUNT; userId++) {
+            assertEquals(10L * (CLIENT_COUNT / USER_COUNT), pointService.getId(userId).point());
+        }
+        //virtual thread 는 ThreadMXBean 에 집계되지 않으므로 carrier 등 platform thread 만 남는다.
+        assertTrue(threadMXBean.getPeakThreadCount() < CLIENT_COUNT / 10,
+                "platform thread 최대 수: " + threadMXBean.getPeakThreadCount());
+    }
+}